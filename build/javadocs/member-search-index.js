@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"abandon()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"abandonQueuedJobs()"},{"p":"org.gearman.worker","c":"AbstractAsyncGearmanFunction","l":"AbstractAsyncGearmanFunction()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"AbstractAsyncGearmanFunction","l":"AbstractAsyncGearmanFunction(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"AbstractGearmanFunction()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"AbstractGearmanFunction(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"AbstractServerSelector()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"accept()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"accepted"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"acquire(int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"activeJobs"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"addJobResult(GearmanJobResultImpl)","u":"addJobResult(org.gearman.client.GearmanJobResultImpl)"},{"p":"org.gearman.client","c":"GearmanClient","l":"addJobServer(GearmanJobServerConnection)","u":"addJobServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"addJobServer(GearmanJobServerConnection)","u":"addJobServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"addNewJob(GearmanSessionEvent)","u":"addNewJob(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"addServer(GearmanJobServerConnection)","u":"addServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"addServer(GearmanJobServerConnection)","u":"addServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.example","c":"DigestClient","l":"ALGO_NAME"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"ALL_YOURS"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"allocations"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"append(byte)"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"append(byte[])"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"append(byte[])"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"append(byte[], int, int)","u":"append(byte[],int,int)"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"append(ChunkedBytes)","u":"append(org.gearman.client.ChunkedBytes)"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"append(InputStream)","u":"append(java.io.InputStream)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"appendExceptions(byte[])"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"appendResults(byte[])"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"appendResults(byte[])"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"appendWarnings(byte[])"},{"p":"org.gearman.client","c":"JobResultStream","l":"attach(GearmanJobServerSession, GearmanIOReactor)","u":"attach(org.gearman.common.GearmanJobServerSession,org.gearman.common.GearmanIOReactor)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"attachResultStream(GearmanIOReactor)","u":"attachResultStream(org.gearman.common.GearmanIOReactor)"},{"p":"org.gearman.client","c":"JobResultStream","l":"available()"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"available()"},{"p":"org.gearman.client","c":"JobResultStream","l":"awaitData()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"awaitTermination(long, TimeUnit)","u":"awaitTermination(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"awaitWindow()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"backgroundJob"},{"p":"org.gearman.common","c":"GearmanPacketMagic.BadMagicException","l":"BadMagicException(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"borrowed"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"borrowedCount()"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"buckets"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"buf"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"buffer"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"buffer(GearmanPacket)","u":"buffer(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"buffer(GearmanPacket)","u":"buffer(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.client","c":"JobResultStream","l":"buffered"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"buildRing()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"BY_CODE"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"ByteArrayBuffer()","u":"%3Cinit%3E()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"ByteArrayBuffer(byte[])","u":"%3Cinit%3E(byte[])"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"ByteArrayBuffer(byte[], int)","u":"%3Cinit%3E(byte[],int)"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"ByteBufferInputStream(ByteBuffer)","u":"%3Cinit%3E(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"bytesReceived"},{"p":"org.gearman.util","c":"ByteUtils","l":"ByteUtils()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"call()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"call()"},{"p":"org.gearman.worker","c":"AbstractAsyncGearmanFunction","l":"callAsync()"},{"p":"org.gearman.worker","c":"AsyncGearmanFunction","l":"callAsync()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"CAN_DO"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"CAN_DO_TIMEOUT"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"cancel()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"cancel(boolean)"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"CANCELLED"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabState","l":"canGrab()"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"canRead()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"canRead()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"canRead()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"CANT_DO"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"canWrite()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"canWrite()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"canWrite()"},{"p":"org.gearman.common","c":"GearmanTask","l":"changeState(GearmanTask.State)","u":"changeState(org.gearman.common.GearmanTask.State)"},{"p":"org.gearman.util","c":"ByteUtils","l":"CHARSET_ASCII"},{"p":"org.gearman.util","c":"ByteUtils","l":"CHARSET_UTF_8"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"checkExecutor(ExecutorService)","u":"checkExecutor(java.util.concurrent.ExecutorService)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"checkJob(GearmanJob)","u":"checkJob(org.gearman.client.GearmanJob)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"checkReactorThread()"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"checkWeight(Integer)","u":"checkWeight(java.lang.Integer)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"chunk"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"ChunkedBytes()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"ChunkedBytes(ChunkedBytes)","u":"%3Cinit%3E(org.gearman.client.ChunkedBytes)"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"chunks"},{"p":"org.gearman.client","c":"JobResultStream","l":"chunks"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"chunkSize"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"chunksOf(byte[])"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"classes"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"classIndex(int)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"className"},{"p":"org.gearman.example","c":"DigestClient","l":"client"},{"p":"org.gearman.example","c":"EchoClient","l":"client"},{"p":"org.gearman.example","c":"ReverseClient","l":"client"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"CLIENT_ID"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"CLIENT_NOT_ACTIVE"},{"p":"org.gearman.client","c":"JobResultStream","l":"close()"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"close()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"close()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"close()"},{"p":"org.gearman.client","c":"JobResultStream","l":"closed"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"closed"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"closeSession()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"closeSession(GearmanJobServerSession)","u":"closeSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"closeSessions()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"code"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"complete()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"completed"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"completed"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"completeJob(GearmanJobResult, Throwable)","u":"completeJob(org.gearman.client.GearmanJobResult,java.lang.Throwable)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"completeSpill()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"COMPONENT_LAYOUTS"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"componentBounds"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"componentIndex(GearmanPacket.DataComponentName)","u":"componentIndex(org.gearman.common.GearmanPacket.DataComponentName)"},{"p":"org.gearman.example","c":"WorkerRunner","l":"conn"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"connection"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"ConsistentHashServerSelector()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"ConsistentHashServerSelector(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"constructor"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"COPY_THRESHOLD"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"copy()"},{"p":"org.gearman.util","c":"ByteUtils","l":"copy(byte[])"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"copyArray(byte[])"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"copyBufferSize"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"copyOf(byte[])"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"copyRange(int, int)","u":"copyRange(int,int)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"createBackgroundJob(String, byte[], GearmanJob.JobPriority, String)","u":"createBackgroundJob(java.lang.String,byte[],org.gearman.client.GearmanJob.JobPriority,java.lang.String)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"createBackgroundJob(String, byte[], String)","u":"createBackgroundJob(java.lang.String,byte[],java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"createComponentLayouts()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"createJob(String, byte[], GearmanJob.JobPriority, String)","u":"createJob(java.lang.String,byte[],org.gearman.client.GearmanJob.JobPriority,java.lang.String)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"createJob(String, byte[], String)","u":"createJob(java.lang.String,byte[],java.lang.String)"},{"p":"org.gearman.client","c":"JobResultStream","l":"current"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"current"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"currentTick"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"data"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"data"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"data"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"data"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.EchoResponseHandler","l":"data"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"DATA"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"DataComponentName()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"dataLength"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"dataStream"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"DAY_OF_MONTH"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"DAY_OF_WEEK"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"deadlineTick"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"decodePackets()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"decodePosition"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"DEFAULT_CHUNK_SIZE"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"DEFAULT_SUBMIT_PIPELINE_DEPTH"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"DEFAULT_TICK_MILLIS"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"DEFAULT_TRIM_INTERVAL_MILLIS"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"DEFAULT_VIRTUAL_NODES"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"DEFAULT_WHEEL_SIZE"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"DefaultGearmanFunctionFactory(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"DefaultGearmanFunctionFactory(String, int)","u":"%3Cinit%3E(java.lang.String,int)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"DefaultGearmanFunctionFactory(String, String)","u":"%3Cinit%3E(java.lang.String,java.lang.String)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"defaultWeight"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"denominator"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"denominator"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"DENOMINATOR"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"deregister(GearmanJobServerSession)","u":"deregister(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"DESCRIPION_PREFIX"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"DESCRIPION_PREFIX"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"DESCRIPTION"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"DESCRIPTION"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"DESCRIPTION"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"DESCRIPTION"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"DESCRIPTION"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"DESCRIPTION"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"DESCRIPTION"},{"p":"org.gearman.common","c":"GearmanTask","l":"DESCRIPTION"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"DESCRIPTION_PREFIX"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"DESCRIPTION_PREFIX"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"DESCRIPTION_PREFIX"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"DESCRIPTION_PREFIX"},{"p":"org.gearman.common","c":"GearmanTask","l":"DESCRIPTION_PREFIX"},{"p":"org.gearman.example","c":"DigestClient","l":"digest(byte[])"},{"p":"org.gearman.example","c":"DigestClient","l":"DigestClient(GearmanJobServerConnection)","u":"%3Cinit%3E(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.example","c":"DigestClient","l":"DigestClient(String, int)","u":"%3Cinit%3E(java.lang.String,int)"},{"p":"org.gearman.example","c":"DigestFunction","l":"DigestFunction()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"directPayload"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"done"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabState","l":"drained"},{"p":"org.gearman.client","c":"JobResultStream","l":"drained()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"driveSession(GearmanJobServerSession)","u":"driveSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"driveSessionIO()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"ECHO_REQ"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"ECHO_RES"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"ECHO_TIMEOUT_MILLIS"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"echo(byte[])"},{"p":"org.gearman.example","c":"EchoClient","l":"echo(String)","u":"echo(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"echo(String, GearmanJobServerConnection)","u":"echo(java.lang.String,org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"echo(String, GearmanJobServerConnection)","u":"echo(java.lang.String,org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.example","c":"EchoClient","l":"EchoClient(String, int)","u":"%3Cinit%3E(java.lang.String,int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.EchoResponseHandler","l":"EchoResponseHandler()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"emit()"},{"p":"org.gearman.util","c":"ByteUtils","l":"EMPTY"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"engineReactor(GearmanIOEngine)","u":"engineReactor(org.gearman.common.GearmanIOEngine)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"engineReactor(GearmanIOEngine)","u":"engineReactor(org.gearman.common.GearmanIOEngine)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"enqueueJob(GearmanJobImpl)","u":"enqueueJob(org.gearman.client.GearmanJobImpl)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"ensureChunk()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"ensureReceiveCapacity()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"enter()"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"EPOCH"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"ERROR"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"ERROR_CODE"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"ERROR_TEXT"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"eventListners"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"EXCEPTION"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"exceptions"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"execute(Runnable)","u":"execute(java.lang.Runnable)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"execute(Runnable)","u":"execute(java.lang.Runnable)"},{"p":"org.gearman.example","c":"DigestFunction","l":"executeFunction()"},{"p":"org.gearman.example","c":"ReverseFunction","l":"executeFunction()"},{"p":"org.gearman.worker","c":"AbstractAsyncGearmanFunction","l":"executeFunction()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"executeFunction()"},{"p":"org.gearman.worker","c":"AbstractAsyncGearmanFunction","l":"executeFunctionAsync()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"executeOnReactor(Runnable)","u":"executeOnReactor(java.lang.Runnable)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"executorService"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"expire(long)"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"EXPIRED"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.FunctionDefinition","l":"factory"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"factory"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"fail(Throwable)","u":"fail(java.lang.Throwable)"},{"p":"org.gearman.client","c":"JobResultStream","l":"fail(Throwable)","u":"fail(java.lang.Throwable)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"failFunction(GearmanFunction, Throwable)","u":"failFunction(org.gearman.worker.GearmanFunction,java.lang.Throwable)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"failSessionJobs(GearmanJobServerSession)","u":"failSessionJobs(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"failure"},{"p":"org.gearman.client","c":"JobResultStream","l":"failure"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"fillWriteBuffer()"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"findConstructor(String)","u":"findConstructor(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"findOnSpinWait()"},{"p":"org.gearman.worker","c":"JobExecutors","l":"findVirtualThreadExecutor()"},{"p":"org.gearman.client","c":"JobResultStream","l":"finish()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"finish()"},{"p":"org.gearman.client","c":"JobResultStream","l":"finished"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"FINISHED"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"fireEvent(GearmanPacket)","u":"fireEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"fireEvent(GearmanPacket)","u":"fireEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"flush()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"flush()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"flush()"},{"p":"org.gearman.util","c":"IOUtil","l":"flush(Flushable)","u":"flush(java.io.Flushable)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"flushSession(GearmanJobServerSession)","u":"flushSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"FNV_OFFSET_BASIS"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"FNV_PRIME"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"forgetSession(GearmanJobServerSession)","u":"forgetSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.SessionEventForwarder","l":"forward(GearmanPacket)","u":"forward(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"TrackingEventListener","l":"forward(GearmanPacket)","u":"forward(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"forwardEvent(GearmanPacket)","u":"forwardEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.util","c":"ByteUtils","l":"fromAsciiBytes(byte[])"},{"p":"org.gearman.util","c":"ByteUtils","l":"fromBigEndian(byte[])"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"fromBytes(byte[])"},{"p":"org.gearman.util","c":"ByteUtils","l":"fromBytes(byte[], String)","u":"fromBytes(byte[],java.lang.String)"},{"p":"org.gearman.util","c":"ByteUtils","l":"fromHex(String)","u":"fromHex(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"fromInt(int)"},{"p":"org.gearman.util","c":"ByteUtils","l":"fromUTF8Bytes(byte[])"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"function"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"function"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"FUNCTION_NAME"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.FunctionDefinition","l":"FunctionDefinition(long, GearmanFunctionFactory)","u":"%3Cinit%3E(long,org.gearman.worker.GearmanFunctionFactory)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"functionMap"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"functionName"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"functionName"},{"p":"org.gearman.example","c":"WorkerRunner","l":"functions"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_ARGS_BUFFER_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_CLIENT_LOGGER_NAME"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_BACKLOG"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_MAX_QUEUE_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_SOCKET_RECV_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_SOCKET_SEND_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_SOCKET_TIMEOUT"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_TCP_HOST"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_DEFAULT_TCP_PORT"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_JOB_HANDLE_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_JOB_HASH_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_JOB_LOGGER_NAME"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_COMMAND_ARGS"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_ERROR_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_FREE_SERVER_CLIENT"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_FREE_SERVER_CON"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_FREE_SERVER_JOB"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_FREE_SERVER_PACKET"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_MAX_FREE_SERVER_WORKER"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_OPTION_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_PACKET_HEADER_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_PIPE_BUFFER_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_RECV_BUFFER_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_SEND_BUFFER_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_SERVER_CON_ID_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_SESSION_LOGGER_NAME"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_TEXT_RESPONSE_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_UNIQUE_SIZE"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_WORKER_LOGGER_NAME"},{"p":"org.gearman.common","c":"Constants","l":"GEARMAN_WORKER_WAIT_TIMEOUT"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"GearmanBufferPool(long, TimeUnit)","u":"%3Cinit%3E(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"GearmanClientImpl()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"GearmanClientImpl(GearmanIOEngine)","u":"%3Cinit%3E(org.gearman.common.GearmanIOEngine)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"GearmanClientImpl(GearmanIOReactor)","u":"%3Cinit%3E(org.gearman.common.GearmanIOReactor)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"GearmanClientImpl(GearmanIOReactor, boolean)","u":"%3Cinit%3E(org.gearman.common.GearmanIOReactor,boolean)"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"GearmanEchoResponseHandler()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanException","l":"GearmanException()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanException","l":"GearmanException(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanException","l":"GearmanException(String, Throwable)","u":"%3Cinit%3E(java.lang.String,java.lang.Throwable)"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"GearmanIOEngine()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"GearmanIOEngine(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"GearmanIOEngine(int, GearmanSpinPolicy)","u":"%3Cinit%3E(int,org.gearman.common.GearmanSpinPolicy)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"GearmanIOReactor()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"GearmanIOReactor(GearmanSpinPolicy)","u":"%3Cinit%3E(org.gearman.common.GearmanSpinPolicy)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"GearmanJobImpl(String, byte[], boolean, GearmanJob.JobPriority, String)","u":"%3Cinit%3E(java.lang.String,byte[],boolean,org.gearman.client.GearmanJob.JobPriority,java.lang.String)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"GearmanJobResultImpl(byte[])","u":"%3Cinit%3E(byte[])"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"GearmanJobResultImpl(byte[], boolean, byte[], byte[], byte[], long, long)","u":"%3Cinit%3E(byte[],boolean,byte[],byte[],byte[],long,long)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"GearmanJobResultImpl(GearmanJobResultImpl)","u":"%3Cinit%3E(org.gearman.client.GearmanJobResultImpl)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"GearmanJobServerSession(GearmanJobServerConnection)","u":"%3Cinit%3E(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"GearmanJobStatusImpl()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"GearmanNIOJobServerConnection(InetSocketAddress)","u":"%3Cinit%3E(java.net.InetSocketAddress)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"GearmanNIOJobServerConnection(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"GearmanNIOJobServerConnection(String, int)","u":"%3Cinit%3E(java.lang.String,int)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"GearmanPacketHeader(byte[])","u":"%3Cinit%3E(byte[])"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"GearmanPacketHeader(ByteBuffer)","u":"%3Cinit%3E(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"GearmanPacketHeader(GearmanPacketMagic, GearmanPacketType, int)","u":"%3Cinit%3E(org.gearman.common.GearmanPacketMagic,org.gearman.common.GearmanPacketType,int)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"GearmanPacketImpl(byte[], int, int)","u":"%3Cinit%3E(byte[],int,int)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"GearmanPacketImpl(ByteBuffer)","u":"%3Cinit%3E(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"GearmanPacketImpl(GearmanPacketMagic, GearmanPacketType, byte[])","u":"%3Cinit%3E(org.gearman.common.GearmanPacketMagic,org.gearman.common.GearmanPacketType,byte[])"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"GearmanPacketImpl(GearmanPacketMagic, GearmanPacketType, ByteBuffer)","u":"%3Cinit%3E(org.gearman.common.GearmanPacketMagic,org.gearman.common.GearmanPacketType,java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"GearmanPacketImpl(InputStream)","u":"%3Cinit%3E(java.io.InputStream)"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"GearmanPacketMagic(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"GearmanPacketType(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.common","c":"GearmanSessionEvent","l":"GearmanSessionEvent(GearmanPacket, GearmanJobServerSession)","u":"%3Cinit%3E(org.gearman.common.GearmanPacket,org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"GearmanSpinPolicy(long)","u":"%3Cinit%3E(long)"},{"p":"org.gearman.common","c":"GearmanTask","l":"GearmanTask(GearmanPacket)","u":"%3Cinit%3E(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanTask","l":"GearmanTask(GearmanServerResponseHandler, GearmanPacket)","u":"%3Cinit%3E(org.gearman.common.GearmanServerResponseHandler,org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"GearmanTimerWheel()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"GearmanTimerWheel(long, int, long)","u":"%3Cinit%3E(long,int,long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl(ExecutorService, int)","u":"%3Cinit%3E(java.util.concurrent.ExecutorService,int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl(GearmanIOEngine)","u":"%3Cinit%3E(org.gearman.common.GearmanIOEngine)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl(GearmanIOEngine, ExecutorService, int)","u":"%3Cinit%3E(org.gearman.common.GearmanIOEngine,java.util.concurrent.ExecutorService,int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl(GearmanIOReactor, ExecutorService, int)","u":"%3Cinit%3E(org.gearman.common.GearmanIOReactor,java.util.concurrent.ExecutorService,int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"GearmanWorkerImpl(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"generateCanDoPacket(GearmanWorkerImpl.FunctionDefinition)","u":"generateCanDoPacket(org.gearman.worker.GearmanWorkerImpl.FunctionDefinition)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"generatePacketData(byte[]...)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"GET_STATUS"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"get()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"get(int)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"get(long, TimeUnit)","u":"get(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.client","c":"GearmanJob","l":"getAcceptedFuture()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getAcceptedFuture()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"getAllocationCount()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"getBorrowedCount()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"getBytes()"},{"p":"org.gearman.util","c":"IORuntimeException","l":"getCause()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"getChunkSize()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getComponentBounds()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"getConnection()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getData()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getData()"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getData()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getData()"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getDataBuffer()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getDataBuffer()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"getDataBuffer()"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getDataComponentBuffer(GearmanPacket.DataComponentName)","u":"getDataComponentBuffer(org.gearman.common.GearmanPacket.DataComponentName)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getDataComponentBuffer(GearmanPacket.DataComponentName)","u":"getDataComponentBuffer(org.gearman.common.GearmanPacket.DataComponentName)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getDataComponents(int)"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getDataComponentValue(GearmanPacket.DataComponentName)","u":"getDataComponentValue(org.gearman.common.GearmanPacket.DataComponentName)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getDataComponentValue(GearmanPacket.DataComponentName)","u":"getDataComponentValue(org.gearman.common.GearmanPacket.DataComponentName)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"getDataLength()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getDataSize()"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"getDataSizeBytes()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"getDataStream()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getDenominator()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getDenominator()"},{"p":"org.gearman.client","c":"GearmanJobStatus","l":"getDenominator()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"getDenominator()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getExceptions()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getExceptions()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.FunctionDefinition","l":"getFactory()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getFailure()"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"getFunction()"},{"p":"org.gearman.worker","c":"GearmanFunctionFactory","l":"getFunction()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getFunctionName()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getFunctionName()"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"getFunctionName()"},{"p":"org.gearman.worker","c":"GearmanFunctionFactory","l":"getFunctionName()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getHandle()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getHandle()"},{"p":"org.gearman.common","c":"GearmanTask","l":"getHandler()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getID()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getID()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"getIdleBytes()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"getIdleCount()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getJobHandle()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getJobHandle()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"getJobHandle()"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"getJobHandle()"},{"p":"org.gearman.client","c":"GearmanClient","l":"getJobStatus(GearmanJob)","u":"getJobStatus(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getJobStatus(GearmanJob)","u":"getJobStatus(org.gearman.client.GearmanJob)"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getMagic()"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"getMagic()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getMagic()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"getMaxConcurrentJobs()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"getName()"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"getName()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getNumberofActiveJobs()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"getNumberOfActiveTasks()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getNumerator()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getNumerator()"},{"p":"org.gearman.client","c":"GearmanJobStatus","l":"getNumerator()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"getNumerator()"},{"p":"org.gearman.common","c":"GearmanSessionEvent","l":"getPacket()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getPacketFromJob(GearmanJob)","u":"getPacketFromJob(org.gearman.client.GearmanJob)"},{"p":"org.gearman.common","c":"GearmanPacket","l":"getPacketType()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getPacketType()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getPriority()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getPriority()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"getReactor()"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"getReactorCount()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"getRegisteredFunctions()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"getRegisteredFunctions()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"getRemoteAddress()"},{"p":"org.gearman.common","c":"GearmanTask","l":"getRequestPacket()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getResultChunks()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getResultChunks()"},{"p":"org.gearman.client","c":"GearmanJob","l":"getResultFuture()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getResultFuture()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getResultLength()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getResultLength()"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"getResults()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getResults()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getResults()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"getSelectionKey()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"getSession()"},{"p":"org.gearman.common","c":"GearmanSessionEvent","l":"getSession()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getSessionForTask(GearmanJob)","u":"getSessionForTask(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"GearmanClient","l":"getSetOfJobServers()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getSetOfJobServers()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"getSharedPool()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"getSpillThreshold()"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"getSpinNanos()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"getSpinPolicy()"},{"p":"org.gearman.common","c":"GearmanTask","l":"getState()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"getSubmitPipelineDepth()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.FunctionDefinition","l":"getTimeout()"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"getType()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"getType()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"getWakeupCount()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"getWarnings()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"getWarnings()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"getWorkerID()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"getWorkerID()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"getWorkerID(GearmanJobServerConnection)","u":"getWorkerID(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"getWorkerID(GearmanJobServerConnection)","u":"getWorkerID(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"give(ByteBuffer)","u":"give(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"GRAB_JOB"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"GRAB_JOB_UNIQ"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabJobEventHandler","l":"GrabJobEventHandler(GearmanJobServerSession)","u":"%3Cinit%3E(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"grabJobs()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"grabReturned(GearmanJobServerSession, boolean)","u":"grabReturned(org.gearman.common.GearmanJobServerSession,boolean)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabState","l":"GrabState()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"grabStates"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"handle"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"handle"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"handle"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"handle"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"handleBuffer"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanServerResponseHandler","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.EchoResponseHandler","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabJobEventHandler","l":"handleEvent(GearmanPacket)","u":"handleEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.client","c":"GearmanIOEventListener","l":"handleGearmanIOEvent(GearmanPacket)","u":"handleGearmanIOEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"handleGearmanIOEvent(GearmanPacket)","u":"handleGearmanIOEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanTask","l":"handleGearmanIOEvent(GearmanPacket)","u":"handleGearmanIOEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.SessionEventForwarder","l":"handleGearmanIOEvent(GearmanPacket)","u":"handleGearmanIOEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanTask","l":"handler"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"handleReqSessionEvent(GearmanSessionEvent)","u":"handleReqSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"handleResSessionEvent(GearmanSessionEvent)","u":"handleResSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"handlers"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"handleSessionEvent(GearmanSessionEvent)","u":"handleSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"handleSessionEvent(GearmanSessionEvent)","u":"handleSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.common","c":"GearmanSessionEventHandler","l":"handleSessionEvent(GearmanSessionEvent)","u":"handleSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"handleSessionEvent(GearmanSessionEvent)","u":"handleSessionEvent(org.gearman.common.GearmanSessionEvent)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"handleTypeMismatch(String, String)","u":"handleTypeMismatch(java.lang.String,java.lang.String)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"hasBufferedWriteData()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"hasConnection(GearmanJobServerConnection)","u":"hasConnection(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.client","c":"JobResultStream","l":"hasData()"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"hash(byte[])"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"hashCode()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"hashCode()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"hashCode()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"hasPendingWrite()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"hasServer(GearmanJobServerConnection)","u":"hasServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"hasServer(GearmanJobServerConnection)","u":"hasServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"HEADER_LENGTH"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"HIGH"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"holdsPooledBuffers()"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"HOUR"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"id"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"idle"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"IDLE"},{"p":"org.gearman.worker","c":"JobExecutors","l":"IDLE_THREAD_TIMEOUT_SECONDS"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"idleCount()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"indexOf(byte)"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"indexOf(byte, int)","u":"indexOf(byte,int)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"inFlight"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"initSession(Selector, GearmanSessionEventHandler)","u":"initSession(java.nio.channels.Selector,org.gearman.common.GearmanSessionEventHandler)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"inReactorThread()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"invokeAll(Collection)","u":"invokeAll(java.util.Collection)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"invokeAll(Collection, long, TimeUnit)","u":"invokeAll(java.util.Collection,long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"invokeAny(Collection)","u":"invokeAny(java.util.Collection)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"invokeAny(Collection, long, TimeUnit)","u":"invokeAny(java.util.Collection,long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"ioReady(int)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"ioReady(int)"},{"p":"org.gearman.util","c":"IORuntimeException","l":"IORuntimeException(IOException)","u":"%3Cinit%3E(java.io.IOException)"},{"p":"org.gearman.util","c":"IOUtil","l":"IOUtil()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"isAbandoned()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.SessionEventForwarder","l":"isAbandoned()"},{"p":"org.gearman.worker","c":"TrackingEventListener","l":"isAbandoned()"},{"p":"org.gearman.client","c":"GearmanJob","l":"isBackgroundJob()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"isBackgroundJob()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"isCancelled()"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"isCancelled()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"isComplete"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabJobEventHandler","l":"isDone"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"isDone()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"isDone()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"isDone()"},{"p":"org.gearman.common","c":"GearmanServerResponseHandler","l":"isDone()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.EchoResponseHandler","l":"isDone()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabJobEventHandler","l":"isDone()"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"isExpired()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"isInitialized()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"isJobSubmission(GearmanPacketType)","u":"isJobSubmission(org.gearman.common.GearmanPacketType)"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"isKnown"},{"p":"org.gearman.client","c":"GearmanJobStatus","l":"isKnown()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"isKnown()"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"isOpen()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"isOpen()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"isOpen()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"isReadSuspended()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"isRunning"},{"p":"org.gearman.client","c":"GearmanJobStatus","l":"isRunning()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"isRunning()"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"isRunning()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"isRunning()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"isRunning()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"isRunning()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"isShutdown()"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"isSpinning()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"isTerminated()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.SessionEventForwarder","l":"job"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"JOB_ASSIGN"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"JOB_ASSIGN_UNIQ"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"JOB_CREATED"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"JOB_HANDLE"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"JobExecution(GearmanFunction, GearmanFunctionFactory, GearmanJobServerSession, long)","u":"%3Cinit%3E(org.gearman.worker.GearmanFunction,org.gearman.worker.GearmanFunctionFactory,org.gearman.common.GearmanJobServerSession,long)"},{"p":"org.gearman.worker","c":"JobExecutors","l":"JobExecutors()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"jobFinished()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"jobHandle"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"JobHandle(byte[])","u":"%3Cinit%3E(byte[])"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"JobHandle(ByteBuffer)","u":"%3Cinit%3E(java.nio.ByteBuffer)"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"JobPriority()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"jobQueue"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"jobResult"},{"p":"org.gearman.client","c":"JobResultStream","l":"JobResultStream(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"jobsMaps"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"jobSucceeded()"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"jobSucceeded()"},{"p":"org.gearman.worker","c":"JobExecutors.JobThreadFactory","l":"JobThreadFactory()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"keepSpinning(long, long)","u":"keepSpinning(long,long)"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"KNOWN_STATUS"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"lastIndexOf(byte)"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"lastIndexOf(byte, int)","u":"lastIndexOf(byte,int)"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"lastTrim"},{"p":"org.gearman.client","c":"LeastOutstandingServerSelector","l":"LeastOutstandingServerSelector()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"leave()"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"length"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"length()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"length()"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"limit"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"listeners"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"LOG"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"LOG"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"LOG"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"LOG"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"LOG"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"LOG"},{"p":"org.gearman.common","c":"GearmanTask","l":"LOG"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"LOG"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"LOG"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"LOG"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"LOG"},{"p":"org.gearman.worker","c":"JobExecutors","l":"LOG"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"LOW"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"magic"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"magic"},{"p":"org.gearman.example","c":"DigestClient","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"org.gearman.example","c":"EchoClient","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"org.gearman.example","c":"ReverseClient","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"org.gearman.example","c":"WorkerRunner","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"mapSpillFile(int)"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"mark(int)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"markSubmitted()"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"markSupported()"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"mask"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"MAX_BUFFER_SIZE"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"MAX_CHUNKS_IN_FLIGHT"},{"p":"org.gearman.client","c":"JobResultStream","l":"maxBufferedBytes"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"maxConcurrentJobs"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"maybeTrim()"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"millisToNextExpiry(long)"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"MIN_BUFFER_SIZE"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"MIN_READ_SIZE"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"MIN_SHIFT"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"MINUTE"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"MONTH"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"name"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"name"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"NEW"},{"p":"org.gearman.worker","c":"JobExecutors","l":"newBoundedCachedPool(int)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"newInstance(Constructor<? extends GearmanFunction>, String)","u":"newInstance(java.lang.reflect.Constructor,java.lang.String)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"newTaskList"},{"p":"org.gearman.worker","c":"JobExecutors.JobThreadFactory","l":"newThread(Runnable)","u":"newThread(java.lang.Runnable)"},{"p":"org.gearman.worker","c":"JobExecutors","l":"newThreadPerJobExecutor(int)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"next"},{"p":"org.gearman.client","c":"RoundRobinServerSelector","l":"next"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"next"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"nextJob(GearmanSpinPolicy)","u":"nextJob(org.gearman.common.GearmanSpinPolicy)"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"nextReactor()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"NO_JOB"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"nodeFor(long)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"NOOP"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"NORMAL"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"NULL"},{"p":"org.gearman.util","c":"ByteUtils","l":"NULL"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"numerator"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"numerator"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"NUMERATOR"},{"p":"org.gearman.client","c":"JobResultStream","l":"offer(byte[])"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"ON_SPIN_WAIT"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"onSpinWait()"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"open()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"open()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"openDataStream()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"openDataStream(int)"},{"p":"org.gearman.client","c":"GearmanJob","l":"openResultStream(int)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"openResultStream(int)"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"OPTION"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"OPTION_REQ"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"OPTION_RES"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabState","l":"outstandingGrabs"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"outstandingGrabs"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"outstandingTasks(GearmanJobServerSession)","u":"outstandingTasks(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"ownsReactor"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"ownsReactor"},{"p":"org.gearman.common","c":"GearmanSessionEvent","l":"packet"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"packetsReceived"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"packetsToWrite"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"PARK"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"park(long)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"parked"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"peak"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"pending"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"PENDING"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"pendingCommands"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"pendingLength"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"pendingMagic"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"pendingTimeouts()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"pendingType"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"pool"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"pool"},{"p":"org.gearman.worker","c":"JobExecutors.JobThreadFactory","l":"POOL_NUMBER"},{"p":"org.gearman.client","c":"JobResultStream","l":"position"},{"p":"org.gearman.client","c":"PowerOfTwoChoicesServerSelector","l":"PowerOfTwoChoicesServerSelector()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"PRE_SLEEP"},{"p":"org.gearman.worker","c":"JobExecutors.JobThreadFactory","l":"prefix"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"preSleepTask"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"priority"},{"p":"org.gearman.common","c":"GearmanTask","l":"processEvent(GearmanPacket)","u":"processEvent(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"queuedBytes"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"reactor"},{"p":"org.gearman.client","c":"JobResultStream","l":"reactor"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"reactor"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"REACTOR_COUNT"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"reactors"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"reactorThread"},{"p":"org.gearman.client","c":"JobResultStream","l":"read()"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"read()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"read()"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"read()"},{"p":"org.gearman.client","c":"JobResultStream","l":"read(byte[], int, int)","u":"read(byte[],int,int)"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"read(byte[], int, int)","u":"read(byte[],int,int)"},{"p":"org.gearman.util","c":"IOUtil","l":"read(InputStream, byte[])","u":"read(java.io.InputStream,byte[])"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"readable"},{"p":"org.gearman.util","c":"IOUtil","l":"readFully(InputStream, byte[])","u":"readFully(java.io.InputStream,byte[])"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"readInto(ByteBuffer)","u":"readInto(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"readSuspensions"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"receiveBufferShared"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"register(GearmanJobServerSession, GearmanSessionEventHandler)","u":"register(org.gearman.common.GearmanJobServerSession,org.gearman.common.GearmanSessionEventHandler)"},{"p":"org.gearman.client","c":"GearmanJob","l":"registerEventListener(GearmanIOEventListener)","u":"registerEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"registerEventListener(GearmanIOEventListener)","u":"registerEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"registerEventListener(GearmanIOEventListener)","u":"registerEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"registerEventListener(GearmanIOEventListener)","u":"registerEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.client","c":"GearmanJob","l":"registerFunction(Callable<GearmanJobResult>)","u":"registerFunction(java.util.concurrent.Callable)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"registerFunction(Callable<GearmanJobResult>)","u":"registerFunction(java.util.concurrent.Callable)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"registerFunction(Class<? extends GearmanFunction>)","u":"registerFunction(java.lang.Class)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunction(Class<? extends GearmanFunction>)","u":"registerFunction(java.lang.Class)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"registerFunction(Class<? extends GearmanFunction>, long)","u":"registerFunction(java.lang.Class,long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunction(Class<? extends GearmanFunction>, long)","u":"registerFunction(java.lang.Class,long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunction(String)","u":"registerFunction(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunction(String, long)","u":"registerFunction(java.lang.String,long)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"registerFunctionFactory(GearmanFunctionFactory)","u":"registerFunctionFactory(org.gearman.worker.GearmanFunctionFactory)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunctionFactory(GearmanFunctionFactory)","u":"registerFunctionFactory(org.gearman.worker.GearmanFunctionFactory)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"registerFunctionFactory(GearmanFunctionFactory, long)","u":"registerFunctionFactory(org.gearman.worker.GearmanFunctionFactory,long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"registerFunctionFactory(GearmanFunctionFactory, long)","u":"registerFunctionFactory(org.gearman.worker.GearmanFunctionFactory,long)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"registerSelector(Selector, int)","u":"registerSelector(java.nio.channels.Selector,int)"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"release(ByteBuffer)","u":"release(java.nio.ByteBuffer)"},{"p":"org.gearman.worker","c":"DefaultGearmanFunctionFactory","l":"releaseFunction(GearmanFunction)","u":"releaseFunction(org.gearman.worker.GearmanFunction)"},{"p":"org.gearman.worker","c":"GearmanFunctionFactory","l":"releaseFunction(GearmanFunction)","u":"releaseFunction(org.gearman.worker.GearmanFunction)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"releaseWriteBuffer()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"remote"},{"p":"org.gearman.client","c":"GearmanJob","l":"removeEventListener(GearmanIOEventListener)","u":"removeEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"removeEventListener(GearmanIOEventListener)","u":"removeEventListener(org.gearman.client.GearmanIOEventListener)"},{"p":"org.gearman.client","c":"GearmanClient","l":"removeJobServer(GearmanJobServerConnection)","u":"removeJobServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"removeJobServer(GearmanJobServerConnection)","u":"removeJobServer(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"REQ"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"REQ_CODE"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"REQUEST_TIMEOUT_MILLIS"},{"p":"org.gearman.common","c":"GearmanTask","l":"requestPacket"},{"p":"org.gearman.common","c":"GearmanPacket","l":"requiresResponse()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"requiresResponse()"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"RES"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"RES_CODE"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"RESET_ABILITIES"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"reset()"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"reset()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"resetBuffers()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"responseHandler"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"results"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"resultStream"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"resumeReads()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"resumeReads(GearmanJobServerSession)","u":"resumeReads(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.example","c":"ReverseClient","l":"reverse(String)","u":"reverse(java.lang.String)"},{"p":"org.gearman.example","c":"ReverseClient","l":"ReverseClient(GearmanJobServerConnection)","u":"%3Cinit%3E(org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.example","c":"ReverseClient","l":"ReverseClient(String, int)","u":"%3Cinit%3E(java.lang.String,int)"},{"p":"org.gearman.example","c":"ReverseFunction","l":"ReverseFunction()","u":"%3Cinit%3E()"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"ringHashes"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"ringSessions"},{"p":"org.gearman.client","c":"RoundRobinServerSelector","l":"RoundRobinServerSelector()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"run()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"run()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"runner"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"running"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"running"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"RUNNING"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"RUNNING"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"RUNNING"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"RUNNING_STATUS"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"runOnReactor(Callable<T>)","u":"runOnReactor(java.util.concurrent.Callable)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"runOnReactor(Callable<T>)","u":"runOnReactor(java.util.concurrent.Callable)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"runPendingCommands()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"runState"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"schedule(Runnable, long, TimeUnit)","u":"schedule(java.lang.Runnable,long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"schedule(Runnable, long, TimeUnit, long)","u":"schedule(java.lang.Runnable,long,java.util.concurrent.TimeUnit,long)"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"select(GearmanJob)","u":"select(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"select(GearmanJob)","u":"select(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"ServerSelector","l":"select(GearmanJob)","u":"select(org.gearman.client.GearmanJob)"},{"p":"org.gearman.util","c":"ByteUtils","l":"selectByte(int, int)","u":"selectByte(int,int)"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"LeastOutstandingServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"PowerOfTwoChoicesServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"RoundRobinServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"selectIndex(GearmanJob)","u":"selectIndex(org.gearman.client.GearmanJob)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"selector"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"sendData(byte[])"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"sendException(byte[])"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"sendPayload"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"sendQueue"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"sendStatus(int, int)","u":"sendStatus(int,int)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"sendSubmission(GearmanJobServerSession, GearmanJobImpl)","u":"sendSubmission(org.gearman.common.GearmanJobServerSession,org.gearman.client.GearmanJobImpl)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"sendToAll(GearmanPacket)","u":"sendToAll(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"sendToAll(GearmanServerResponseHandler, GearmanPacket)","u":"sendToAll(org.gearman.common.GearmanServerResponseHandler,org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"sendWarning(byte[])"},{"p":"org.gearman.common","c":"GearmanException","l":"serialVersionUID"},{"p":"org.gearman.common","c":"GearmanPacketMagic.BadMagicException","l":"serialVersionUID"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"serialVersionUID"},{"p":"org.gearman.util","c":"IORuntimeException","l":"serialVersionUID"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"serverConnection"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"serverKey(GearmanJobServerSession)","u":"serverKey(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"serverSelector"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"session"},{"p":"org.gearman.client","c":"JobResultStream","l":"session"},{"p":"org.gearman.common","c":"GearmanSessionEvent","l":"session"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabJobEventHandler","l":"session"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"session"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"sessionAdded(GearmanJobServerSession)","u":"sessionAdded(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"sessionAdded(GearmanJobServerSession)","u":"sessionAdded(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"ServerSelector","l":"sessionAdded(GearmanJobServerSession)","u":"sessionAdded(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"sessionAdded(GearmanJobServerSession)","u":"sessionAdded(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.SessionEventForwarder","l":"SessionEventForwarder(GearmanWorkerImpl.JobExecution)","u":"%3Cinit%3E(org.gearman.worker.GearmanWorkerImpl.JobExecution)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"sessionFailed(GearmanJobServerSession, Exception)","u":"sessionFailed(org.gearman.common.GearmanJobServerSession,java.lang.Exception)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"sessionHasDataToWrite()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"sessionMap"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"sessionRemoved(GearmanJobServerSession)","u":"sessionRemoved(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"sessionRemoved(GearmanJobServerSession)","u":"sessionRemoved(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"ServerSelector","l":"sessionRemoved(GearmanJobServerSession)","u":"sessionRemoved(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"sessionRemoved(GearmanJobServerSession)","u":"sessionRemoved(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"AbstractServerSelector","l":"sessions"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"sessions"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"sessionSelectionKey"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"sessionsMap"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SET_CLIENT_ID"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"setData(Object)","u":"setData(java.lang.Object)"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"setData(Object)","u":"setData(java.lang.Object)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"setDataLength(int)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"setJobHandle(byte[])"},{"p":"org.gearman.worker","c":"GearmanFunction","l":"setJobHandle(byte[])"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"setJobServerSession(GearmanJobServerSession)","u":"setJobServerSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"setMagic(GearmanPacketMagic)","u":"setMagic(org.gearman.common.GearmanPacketMagic)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"setServerSelector(ServerSelector)","u":"setServerSelector(org.gearman.client.ServerSelector)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"setSpillThreshold(int)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"setStatus(long, long)","u":"setStatus(long,long)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"setSubmitPipelineDepth(int)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"setSucceeded(boolean)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"setType(GearmanPacketType)","u":"setType(org.gearman.common.GearmanPacketType)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"setWorkerID(String)","u":"setWorkerID(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"setWorkerID(String)","u":"setWorkerID(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"setWorkerID(String, GearmanJobServerConnection)","u":"setWorkerID(java.lang.String,org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"setWorkerID(String, GearmanJobServerConnection)","u":"setWorkerID(java.lang.String,org.gearman.common.GearmanJobServerConnection)"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"SHARED"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"shutdown()"},{"p":"org.gearman.common","c":"GearmanIOEngine","l":"shutdown()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"shutdown()"},{"p":"org.gearman.example","c":"DigestClient","l":"shutdown()"},{"p":"org.gearman.example","c":"EchoClient","l":"shutdown()"},{"p":"org.gearman.example","c":"ReverseClient","l":"shutdown()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"shutdown()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"shutdown()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"shutdownNow()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"shutDownSession(GearmanJobServerSession)","u":"shutDownSession(org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"shutDownWorker(boolean)"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"SHUTTINGDOWN"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"SHUTTINGDOWN"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"size"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"SizeClass(int)","u":"%3Cinit%3E(int)"},{"p":"org.gearman.util","c":"ByteBufferInputStream","l":"skip(long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.GrabState","l":"sleeping"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"snapshot()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"spillData"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"spillThreshold"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"SPIN"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"spinNanos"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"spinPolicy"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"spinThenPark(long, TimeUnit)","u":"spinThenPark(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"split(byte[])"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"split(byte[], int)","u":"split(byte[],int)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"stage"},{"p":"org.gearman.client","c":"LeastOutstandingServerSelector","l":"start"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"start()"},{"p":"org.gearman.example","c":"WorkerRunner","l":"start()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"startJob(GearmanWorkerImpl.JobExecution, GearmanJobServerSession)","u":"startJob(org.gearman.worker.GearmanWorkerImpl.JobExecution,org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"startNanos"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"startReactor()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"startSpill()"},{"p":"org.gearman.common","c":"GearmanTask","l":"state"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"state"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"state"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"state()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"State()","u":"%3Cinit%3E()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"State()","u":"%3Cinit%3E()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"STATUS_RES"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"statusRequestCompleted"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"stop()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"stop()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"subArray(int, int)","u":"subArray(int,int)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_BG"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_EPOCH"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_HIGH"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_HIGH_BG"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_LOW"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_LOW_BG"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"SUBMIT_JOB_SCHED"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submit(Callable<T>)","u":"submit(java.util.concurrent.Callable)"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"submit(Callable<T>)","u":"submit(java.util.concurrent.Callable)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submit(Runnable)","u":"submit(java.lang.Runnable)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submit(Runnable, T)","u":"submit(java.lang.Runnable,T)"},{"p":"org.gearman.client","c":"GearmanClient","l":"submitAll(Collection<GearmanJob>)","u":"submitAll(java.util.Collection)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitAll(Collection<GearmanJob>)","u":"submitAll(java.util.Collection)"},{"p":"org.gearman.client","c":"GearmanClient","l":"submitAsync(GearmanJob)","u":"submitAsync(org.gearman.client.GearmanJob)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitAsync(GearmanJob)","u":"submitAsync(org.gearman.client.GearmanJob)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"submitAsyncFunction(GearmanWorkerImpl.JobExecution)","u":"submitAsyncFunction(org.gearman.worker.GearmanWorkerImpl.JobExecution)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitBacklog"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"submitFunction(GearmanFunction)","u":"submitFunction(org.gearman.worker.GearmanFunction)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitJob(GearmanJobImpl)","u":"submitJob(org.gearman.client.GearmanJobImpl)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitJobMap"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"submitPipelineDepth"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"submitTask(GearmanTask)","u":"submitTask(org.gearman.common.GearmanTask)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"submitted"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"SUBMITTED"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"succeeded"},{"p":"org.gearman.client","c":"JobResultStream","l":"suspended"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"suspendReads()"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"take()"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"task"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"tasksAwaitingAckList"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"TERMINATED"},{"p":"org.gearman.worker","c":"JobExecutors.JobThreadFactory","l":"threadNumber"},{"p":"org.gearman.common","c":"GearmanTimerWheel","l":"tickNanos"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"TIME_OUT"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"timedOut"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.FunctionDefinition","l":"timeout"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"timeout"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"timeOut()"},{"p":"org.gearman.common","c":"GearmanTimerWheel.Timeout","l":"Timeout(Runnable, long)","u":"%3Cinit%3E(java.lang.Runnable,long)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.JobExecution","l":"timer"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"timers"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"toArray()"},{"p":"org.gearman.util","c":"ByteUtils","l":"toAsciiBytes(String)","u":"toAsciiBytes(java.lang.String)"},{"p":"org.gearman.util","c":"ByteUtils","l":"toBigEndian(int)"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"toBuffers()"},{"p":"org.gearman.common","c":"GearmanPacket","l":"toBytes()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"toBytes()"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"toBytes()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"toBytes()"},{"p":"org.gearman.util","c":"ByteUtils","l":"toBytes(String, String)","u":"toBytes(java.lang.String,java.lang.String)"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"toHex()"},{"p":"org.gearman.util","c":"ByteUtils","l":"toHex(byte[])"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"toInt()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"toInt()"},{"p":"org.gearman.util","c":"ByteUtils","l":"toInt(int, byte)","u":"toInt(int,byte)"},{"p":"org.gearman.client","c":"GearmanClientImpl.JobHandle","l":"toString()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"toString()"},{"p":"org.gearman.client","c":"GearmanEchoResponseHandler","l":"toString()"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"toString()"},{"p":"org.gearman.client","c":"GearmanJobStatusImpl","l":"toString()"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"toString()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"toString()"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"toString()"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"toString()"},{"p":"org.gearman.common","c":"GearmanSpinPolicy","l":"toString()"},{"p":"org.gearman.common","c":"GearmanTask","l":"toString()"},{"p":"org.gearman.util","c":"ByteArrayBuffer","l":"toString()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"toString()"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"totalWeight"},{"p":"org.gearman.util","c":"ByteUtils","l":"toUTF8Bytes(String)","u":"toUTF8Bytes(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanBufferPool.SizeClass","l":"trim()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"trim()"},{"p":"org.gearman.common","c":"GearmanBufferPool","l":"trimIntervalNanos"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"type"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"type"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"type"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"UNIQUE_ID"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"unregisterAll()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"unregisterAll()"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"unregisterFunction(String)","u":"unregisterFunction(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"unregisterFunction(String)","u":"unregisterFunction(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"unused_5"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"updateInterestOps()"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"updateJobStatus(byte[], GearmanJobServerSession)","u":"updateJobStatus(byte[],org.gearman.common.GearmanJobServerSession)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"updateWeights()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"updateWriteInterest(boolean)"},{"p":"org.gearman.example","c":"DigestClient","l":"usage()"},{"p":"org.gearman.example","c":"EchoClient","l":"usage()"},{"p":"org.gearman.example","c":"ReverseClient","l":"usage()"},{"p":"org.gearman.example","c":"WorkerRunner","l":"usage(PrintStream)","u":"usage(java.io.PrintStream)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"uuid"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"validateJobHandle(ByteBuffer)","u":"validateJobHandle(java.nio.ByteBuffer)"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"org.gearman.client","c":"GearmanClientImpl.state","l":"values()"},{"p":"org.gearman.client","c":"GearmanJob.JobPriority","l":"values()"},{"p":"org.gearman.common","c":"GearmanPacket.DataComponentName","l":"values()"},{"p":"org.gearman.common","c":"GearmanPacketMagic","l":"values()"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"values()"},{"p":"org.gearman.common","c":"GearmanTask.State","l":"values()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl.State","l":"values()"},{"p":"org.gearman.worker","c":"JobExecutors","l":"VIRTUAL_THREAD_EXECUTOR"},{"p":"org.gearman.client","c":"ConsistentHashServerSelector","l":"virtualNodes"},{"p":"org.gearman.worker","c":"JobExecutors","l":"virtualThreadsSupported()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"WAIT_SLICE_MILLIS"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"waitFor(CompletableFuture<?>, long, TimeUnit)","u":"waitFor(java.util.concurrent.CompletableFuture,long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"waitForAcceptance(long, TimeUnit)","u":"waitForAcceptance(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.client","c":"GearmanJobImpl","l":"waitForCompletion(long, TimeUnit)","u":"waitForCompletion(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"waitForIO(boolean, long)","u":"waitForIO(boolean,long)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"waitForSessionIO(long)"},{"p":"org.gearman.common","c":"GearmanTask","l":"waitForState(GearmanTask.State, long, TimeUnit)","u":"waitForState(org.gearman.common.GearmanTask.State,long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.common","c":"GearmanTask","l":"waitForState(GearmanTask.State, long, TimeUnit, GearmanSpinPolicy)","u":"waitForState(org.gearman.common.GearmanTask.State,long,java.util.concurrent.TimeUnit,org.gearman.common.GearmanSpinPolicy)"},{"p":"org.gearman.client","c":"GearmanClientImpl","l":"waitForTask(GearmanTask, GearmanTask.State)","u":"waitForTask(org.gearman.common.GearmanTask,org.gearman.common.GearmanTask.State)"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"waitForTasksToComplete()"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"waitForTasksToComplete(long, TimeUnit)","u":"waitForTasksToComplete(long,java.util.concurrent.TimeUnit)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"waitKey"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"waitSelector"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"WAKEUP"},{"p":"org.gearman.common","c":"GearmanIOReactor","l":"wakeups"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"warnings"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"WeightedServerSelector(Map<? extends GearmanJobServerConnection, Integer>, int)","u":"%3Cinit%3E(java.util.Map,int)"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"weightMap"},{"p":"org.gearman.client","c":"WeightedServerSelector","l":"weights"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_COMPLETE"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_DATA"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_EXCEPTION"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_FAIL"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_STATUS"},{"p":"org.gearman.common","c":"GearmanPacketType","l":"WORK_WARNING"},{"p":"org.gearman.worker","c":"GearmanWorker","l":"work()"},{"p":"org.gearman.worker","c":"GearmanWorkerImpl","l":"work()"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"WorkDataOutputStream(AbstractGearmanFunction, byte[], int)","u":"%3Cinit%3E(org.gearman.worker.AbstractGearmanFunction,byte[],int)"},{"p":"org.gearman.example","c":"WorkerRunner","l":"WorkerRunner(String, int, List<Class<GearmanFunction>>)","u":"%3Cinit%3E(java.lang.String,int,java.util.List)"},{"p":"org.gearman.worker","c":"AbstractGearmanFunction","l":"workPacket(GearmanPacketType, byte[])","u":"workPacket(org.gearman.common.GearmanPacketType,byte[])"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"wrapExactly(byte[], int, int)","u":"wrapExactly(byte[],int,int)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"writable"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"write(byte[], int, int)","u":"write(byte[],int,int)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"write(ByteBuffer)","u":"write(java.nio.ByteBuffer)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"write(ByteBuffer)","u":"write(java.nio.ByteBuffer)"},{"p":"org.gearman.common","c":"GearmanJobServerConnection","l":"write(GearmanPacket)","u":"write(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"write(GearmanPacket)","u":"write(org.gearman.common.GearmanPacket)"},{"p":"org.gearman.worker","c":"WorkDataOutputStream","l":"write(int)"},{"p":"org.gearman.common","c":"GearmanPacketHeader","l":"write(OutputStream)","u":"write(java.io.OutputStream)"},{"p":"org.gearman.common","c":"GearmanPacketImpl","l":"write(OutputStream)","u":"write(java.io.OutputStream)"},{"p":"org.gearman.util","c":"IOUtil","l":"write(OutputStream, byte[])","u":"write(java.io.OutputStream,byte[])"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"writeBuffer"},{"p":"org.gearman.common","c":"GearmanJobServerSession","l":"writeInterest"},{"p":"org.gearman.common","c":"GearmanNIOJobServerConnection","l":"writePending()"},{"p":"org.gearman.client","c":"GearmanJobResult","l":"writeResultsTo(WritableByteChannel)","u":"writeResultsTo(java.nio.channels.WritableByteChannel)"},{"p":"org.gearman.client","c":"GearmanJobResultImpl","l":"writeResultsTo(WritableByteChannel)","u":"writeResultsTo(java.nio.channels.WritableByteChannel)"},{"p":"org.gearman.client","c":"ChunkedBytes","l":"writeTo(WritableByteChannel)","u":"writeTo(java.nio.channels.WritableByteChannel)"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"org.gearman.client"},{"l":"org.gearman.common"},{"l":"org.gearman.example"},{"l":"org.gearman.util"},{"l":"org.gearman.worker"}];updateSearchResults();
\ No newline at end of file
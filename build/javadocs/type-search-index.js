@@ -0,0 +1 @@
+typeSearchIndex = [{"p":"org.gearman.worker","l":"AbstractAsyncGearmanFunction"},{"p":"org.gearman.worker","l":"AbstractGearmanFunction"},{"p":"org.gearman.client","l":"AbstractServerSelector"},{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"org.gearman.worker","l":"AsyncGearmanFunction"},{"p":"org.gearman.common","l":"GearmanPacketMagic.BadMagicException"},{"p":"org.gearman.util","l":"ByteArrayBuffer"},{"p":"org.gearman.worker","l":"ByteBufferGearmanFunction"},{"p":"org.gearman.util","l":"ByteBufferInputStream"},{"p":"org.gearman.util","l":"ByteUtils"},{"p":"org.gearman.client","l":"ChunkedBytes"},{"p":"org.gearman.client","l":"ConsistentHashServerSelector"},{"p":"org.gearman.common","l":"Constants"},{"p":"org.gearman.common","l":"GearmanPacket.DataComponentName"},{"p":"org.gearman.worker","l":"DefaultGearmanFunctionFactory"},{"p":"org.gearman.example","l":"DigestClient"},{"p":"org.gearman.example","l":"DigestFunction"},{"p":"org.gearman.example","l":"EchoClient"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.EchoResponseHandler"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.FunctionDefinition"},{"p":"org.gearman.common","l":"GearmanBufferPool"},{"p":"org.gearman.client","l":"GearmanClient"},{"p":"org.gearman.client","l":"GearmanClientImpl"},{"p":"org.gearman.client","l":"GearmanEchoResponseHandler"},{"p":"org.gearman.common","l":"GearmanException"},{"p":"org.gearman.worker","l":"GearmanFunction"},{"p":"org.gearman.worker","l":"GearmanFunctionFactory"},{"p":"org.gearman.common","l":"GearmanIOEngine"},{"p":"org.gearman.client","l":"GearmanIOEventListener"},{"p":"org.gearman.common","l":"GearmanIOReactor"},{"p":"org.gearman.client","l":"GearmanJob"},{"p":"org.gearman.client","l":"GearmanJobImpl"},{"p":"org.gearman.client","l":"GearmanJobResult"},{"p":"org.gearman.client","l":"GearmanJobResultImpl"},{"p":"org.gearman.common","l":"GearmanJobServerConnection"},{"p":"org.gearman.common","l":"GearmanJobServerSession"},{"p":"org.gearman.client","l":"GearmanJobStatus"},{"p":"org.gearman.client","l":"GearmanJobStatusImpl"},{"p":"org.gearman.common","l":"GearmanNIOJobServerConnection"},{"p":"org.gearman.common","l":"GearmanPacket"},{"p":"org.gearman.common","l":"GearmanPacketHeader"},{"p":"org.gearman.common","l":"GearmanPacketImpl"},{"p":"org.gearman.common","l":"GearmanPacketMagic"},{"p":"org.gearman.common","l":"GearmanPacketType"},{"p":"org.gearman.common","l":"GearmanServerResponseHandler"},{"p":"org.gearman.common","l":"GearmanSessionEvent"},{"p":"org.gearman.common","l":"GearmanSessionEventHandler"},{"p":"org.gearman.common","l":"GearmanSpinPolicy"},{"p":"org.gearman.common","l":"GearmanTask"},{"p":"org.gearman.common","l":"GearmanTimerWheel"},{"p":"org.gearman.worker","l":"GearmanWorker"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.GrabJobEventHandler"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.GrabState"},{"p":"org.gearman.util","l":"IORuntimeException"},{"p":"org.gearman.util","l":"IOUtil"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.JobExecution"},{"p":"org.gearman.worker","l":"JobExecutors"},{"p":"org.gearman.client","l":"GearmanClientImpl.JobHandle"},{"p":"org.gearman.client","l":"GearmanJob.JobPriority"},{"p":"org.gearman.client","l":"JobResultStream"},{"p":"org.gearman.worker","l":"JobExecutors.JobThreadFactory"},{"p":"org.gearman.client","l":"LeastOutstandingServerSelector"},{"p":"org.gearman.client","l":"PowerOfTwoChoicesServerSelector"},{"p":"org.gearman.example","l":"ReverseClient"},{"p":"org.gearman.example","l":"ReverseFunction"},{"p":"org.gearman.client","l":"RoundRobinServerSelector"},{"p":"org.gearman.client","l":"ServerSelector"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.SessionEventForwarder"},{"p":"org.gearman.common","l":"GearmanBufferPool.SizeClass"},{"p":"org.gearman.client","l":"GearmanClientImpl.state"},{"p":"org.gearman.common","l":"GearmanTask.State"},{"p":"org.gearman.worker","l":"GearmanWorkerImpl.State"},{"p":"org.gearman.common","l":"GearmanTimerWheel.Timeout"},{"p":"org.gearman.worker","l":"TrackingEventListener"},{"p":"org.gearman.client","l":"WeightedServerSelector"},{"p":"org.gearman.worker","l":"WorkDataOutputStream"},{"p":"org.gearman.example","l":"WorkerRunner"}];updateSearchResults();
\ No newline at end of file
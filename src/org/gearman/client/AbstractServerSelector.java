@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gearman.common.GearmanJobServerSession;
+
+/**
+ * Keeps the sessions of a {@link ServerSelector} in a list, in the order in
+ * which they were added. Subclasses only need to pick an index.
+ */
+public abstract class AbstractServerSelector implements ServerSelector {
+
+    protected final List<GearmanJobServerSession> sessions =
+            new ArrayList<GearmanJobServerSession>();
+
+    public void sessionAdded(GearmanJobServerSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("Session can not be null");
+        }
+        if (!sessions.contains(session)) {
+            sessions.add(session);
+        }
+    }
+
+    public void sessionRemoved(GearmanJobServerSession session) {
+        sessions.remove(session);
+    }
+
+    public GearmanJobServerSession select(GearmanJob job) {
+        int size = sessions.size();
+        if (size == 0) {
+            return null;
+        }
+        return size == 1 ? sessions.get(0) : sessions.get(selectIndex(job));
+    }
+
+    /**
+     * Picks one of at least two sessions.
+     *
+     * @param job the job being submitted, or null if the request is not a
+     *        job submission.
+     * @return the index of the session in {@link #sessions}.
+     */
+    protected abstract int selectIndex(GearmanJob job);
+
+    /**
+     * Returns the number of requests a session has sent, or is about to send,
+     * that the job server has not acknowledged yet. Sessions that are not
+     * connected count as idle, the client reconnects them when they are
+     * chosen.
+     *
+     * @param session the session.
+     * @return the number of outstanding requests of the session.
+     */
+    protected int outstandingTasks(GearmanJobServerSession session) {
+        return session.isInitialized() ? session.getNumberOfActiveTasks() : 0;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * An append-only sequence of byte arrays. Appending a chunk neither copies
+ * it nor the chunks before it, the bytes are only copied into a single array
+ * when one is asked for. Chunks are never modified once appended, so a
+ * snapshot can share them.
+ */
+final class ChunkedBytes {
+
+    private final List<byte[]> chunks;
+    private long length = 0;
+
+    ChunkedBytes() {
+        chunks = new ArrayList<byte[]>(1);
+    }
+
+    private ChunkedBytes(ChunkedBytes that) {
+        chunks = new ArrayList<byte[]>(that.chunks);
+        length = that.length;
+    }
+
+    /*
+     * Appends a chunk without copying it, the caller must not modify the
+     * chunk afterwards.
+     */
+    void append(byte[] chunk) {
+        if (chunk == null || chunk.length == 0) {
+            return;
+        }
+        chunks.add(chunk);
+        length += chunk.length;
+    }
+
+    void append(ChunkedBytes that) {
+        chunks.addAll(that.chunks);
+        length += that.length;
+    }
+
+    long length() {
+        return length;
+    }
+
+    ChunkedBytes snapshot() {
+        return new ChunkedBytes(this);
+    }
+
+    byte[] toArray() {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Can not copy " + length +
+                    " bytes into an array");
+        }
+        byte[] bytes = new byte[(int) length];
+        int pos = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, bytes, pos, chunk.length);
+            pos += chunk.length;
+        }
+        return bytes;
+    }
+
+    ByteBuffer[] toBuffers() {
+        ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(chunks.get(i)).asReadOnlyBuffer();
+        }
+        return buffers;
+    }
+
+    long writeTo(WritableByteChannel channel) throws IOException {
+        long written = 0;
+        for (byte[] chunk : chunks) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.gearman.common.GearmanJobServerConnection;
+import org.gearman.common.GearmanJobServerSession;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.util.ByteUtils;
+
+/**
+ * Sends all jobs with the same unique ID, see {@link GearmanJob#getID()}, to
+ * the same job server. A job server only coalesces jobs with the same unique
+ * ID if they are submitted to it, so this lets duplicate jobs from different
+ * clients be run once, provided the clients use the same job servers.
+ *
+ * <p>
+ * Each job server is placed on a hash ring many times, as virtual nodes,
+ * and a job is sent to the server owning the first node that follows the
+ * hash of its unique ID. The positions of the nodes only depend on the
+ * addresses of the servers, so every client builds the same ring, and adding
+ * or removing one of N servers only moves about 1/N of the unique IDs to
+ * another server. Requests that are not job submissions are sent to the
+ * servers in turn.
+ */
+public class ConsistentHashServerSelector extends AbstractServerSelector {
+
+    /**
+     * The default number of virtual nodes per job server.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final int virtualNodes;
+    // the ring, sorted by hash, ringSessions[i] owns the node at ringHashes[i]
+    private long[] ringHashes = new long[0];
+    private GearmanJobServerSession[] ringSessions =
+            new GearmanJobServerSession[0];
+    private int next = 0;
+
+    public ConsistentHashServerSelector() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a selector. More virtual nodes spread the unique IDs more
+     * evenly over the servers at the cost of a larger ring. Clients that are
+     * to route jobs alike must use the same number of virtual nodes.
+     *
+     * @param virtualNodes the number of nodes per job server.
+     * @throws IllegalArgumentException if virtualNodes is less than one.
+     */
+    public ConsistentHashServerSelector(int virtualNodes)
+            throws IllegalArgumentException {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("A server needs at least one " +
+                    "virtual node");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    public void sessionAdded(GearmanJobServerSession session) {
+        super.sessionAdded(session);
+        buildRing();
+    }
+
+    @Override
+    public void sessionRemoved(GearmanJobServerSession session) {
+        super.sessionRemoved(session);
+        buildRing();
+    }
+
+    @Override
+    protected int selectIndex(GearmanJob job) {
+        if (job == null) {
+            if (next >= sessions.size()) {
+                next = 0;
+            }
+            return next++;
+        }
+        return sessions.indexOf(ringSessions[nodeFor(hash(job.getID()))]);
+    }
+
+    @Override
+    public GearmanJobServerSession select(GearmanJob job) {
+        if (job == null || ringSessions.length == 0) {
+            return super.select(job);
+        }
+        return ringSessions[nodeFor(hash(job.getID()))];
+    }
+
+    /**
+     * Returns the name under which a job server is placed on the ring. It
+     * must be the same in every client, so it is derived from the resolved
+     * address of the server rather than from the host name it was added
+     * under.
+     *
+     * @param session the session with the job server.
+     * @return the name of the server.
+     */
+    protected String serverKey(GearmanJobServerSession session) {
+        GearmanJobServerConnection conn = session.getConnection();
+        if (!(conn instanceof GearmanNIOJobServerConnection)) {
+            return conn.toString();
+        }
+        InetSocketAddress address =
+                ((GearmanNIOJobServerConnection) conn).getRemoteAddress();
+        String host = address.isUnresolved() ? address.getHostName() :
+            address.getAddress().getHostAddress();
+        return host + ":" + address.getPort();
+    }
+
+    /**
+     * Hashes a key with 64 bit FNV-1a, followed by the finalizer of
+     * MurmurHash3 so that keys that differ in their last bytes only end up
+     * far apart on the ring.
+     *
+     * @param key the bytes to hash.
+     * @return the hash.
+     */
+    static long hash(byte[] key) {
+        long h = FNV_OFFSET_BASIS;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private int nodeFor(long hash) {
+        int idx = Arrays.binarySearch(ringHashes, hash);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return idx == ringHashes.length ? 0 : idx;
+    }
+
+    private void buildRing() {
+        int servers = sessions.size();
+        final String[] keys = new String[servers];
+        final long[] hashes = new long[servers * virtualNodes];
+        Integer[] nodes = new Integer[hashes.length];
+        for (int s = 0; s < servers; s++) {
+            keys[s] = serverKey(sessions.get(s));
+            for (int v = 0; v < virtualNodes; v++) {
+                int node = s * virtualNodes + v;
+                hashes[node] = hash(ByteUtils.toUTF8Bytes(keys[s] + "-" + v));
+                nodes[node] = node;
+            }
+        }
+        // nodes with the same hash are ordered by server name, so that every
+        // client breaks such ties alike
+        Arrays.sort(nodes, new Comparator<Integer>() {
+
+            public int compare(Integer a, Integer b) {
+                int c = Long.compare(hashes[a], hashes[b]);
+                return c != 0 ? c : keys[a / virtualNodes].compareTo(
+                        keys[b / virtualNodes]);
+            }
+        });
+        ringHashes = new long[nodes.length];
+        ringSessions = new GearmanJobServerSession[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            ringHashes[i] = hashes[nodes[i]];
+            ringSessions[i] = sessions.get(nodes[i] / virtualNodes);
+        }
+    }
+}
@@ -6,7 +6,9 @@
 package org.gearman.client;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
 import org.gearman.common.GearmanJobServerConnection;
@@ -117,4 +119,42 @@ public interface GearmanClient extends ExecutorService {
      */
     GearmanJobStatus getJobStatus(GearmanJob job) throws IOException,
             IllegalStateException;
+
+    /**
+     * Submits a {@link GearmanJob} for execution without waiting for the
+     * Gearman Job Server to acknowledge the submission. Unlike
+     * {@link #submit(java.util.concurrent.Callable)}, this method returns as
+     * soon as the job has been handed to the client, so many submissions can
+     * be outstanding at the same time.
+     *
+     * <p>
+     * The returned future is completed once the job has finished. To find out
+     * when the job has been accepted by the server, use
+     * {@link GearmanJob#getAcceptedFuture()}.
+     *
+     * @param job The job to submit.
+     * @return a future that will be completed with the result of the job.
+     * @throws java.util.concurrent.RejectedExecutionException If the job can
+     *         not be accepted for execution, for instance because the client
+     *         has been shutdown.
+     */
+    CompletableFuture<GearmanJobResult> submitAsync(GearmanJob job);
+
+    /**
+     * Submits a batch of {@link GearmanJob}s for execution. The submissions
+     * are handed to the job servers together, so that they can be sent with
+     * as few writes to the network as possible. Like
+     * {@link #submitAsync(org.gearman.client.GearmanJob)}, this method does
+     * not wait for the Gearman Job Server to acknowledge the submissions.
+     *
+     * @param jobs The jobs to submit.
+     * @return a list of futures, one for each job in the iteration order of
+     *         the specified collection, that will be completed with the
+     *         results of the jobs.
+     * @throws java.util.concurrent.RejectedExecutionException If the jobs can
+     *         not be accepted for execution, for instance because the client
+     *         has been shutdown. In which case none of the jobs are submitted.
+     */
+    List<CompletableFuture<GearmanJobResult>> submitAll(
+            Collection<GearmanJob> jobs);
 }
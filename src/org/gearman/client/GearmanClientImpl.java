@@ -6,30 +6,30 @@
 package org.gearman.client;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gearman.common.Constants;
 import org.gearman.common.GearmanException;
+import org.gearman.common.GearmanIOEngine;
+import org.gearman.common.GearmanIOReactor;
 import org.gearman.common.GearmanJobServerConnection;
 import org.gearman.common.GearmanJobServerSession;
 import org.gearman.common.GearmanNIOJobServerConnection;
@@ -71,36 +71,40 @@ public class GearmanClientImpl
     private static final Logger LOG = Logger.getLogger(
             Constants.GEARMAN_CLIENT_LOGGER_NAME);
     private static final String CLIENT_NOT_ACTIVE = "Client is not active";
+    private static final long REQUEST_TIMEOUT_MILLIS = 2000;
+    /**
+     * The default number of job submissions that may be awaiting a
+     * JOB_CREATED response on a single job server session.
+     */
+    public static final int DEFAULT_SUBMIT_PIPELINE_DEPTH = 128;
     private final String DESCRIPTION;
-    private Map<SelectionKey, GearmanJobServerSession> sessionsMap = null;
-    private Selector ioAvailable = null;
-    private state runState = state.RUNNING;
+    private final GearmanIOReactor reactor;
+    private final boolean ownsReactor;
+    private final Map<SelectionKey, GearmanJobServerSession> sessionsMap;
+    private volatile state runState = state.RUNNING;
+    private volatile int submitPipelineDepth = DEFAULT_SUBMIT_PIPELINE_DEPTH;
     private final Map<JobHandle, GearmanJobImpl> jobsMaps;
-    private final Map<GearmanJobServerSession, GearmanJobImpl> submitJobMap;
-    private final Timer timer = new Timer();
-
-
-    private static class Alarm extends TimerTask {
-
-        private final AtomicBoolean timesUp = new AtomicBoolean(false);
-
-        @Override
-        public void run() {
-            timesUp.set(true);
-        }
-
-        public boolean hasFired() {
-            return timesUp.get();
-        }
-    }
+    // the following are only accessed from the reactor thread
+    private final Map<GearmanJobServerSession, Queue<GearmanJobImpl>>
+            submitJobMap;
+    private final Map<GearmanJobServerSession, Queue<GearmanJobImpl>>
+            submitBacklog;
+    private ServerSelector serverSelector;
 
     private static class JobHandle {
 
-        private final byte[] handle;
+        private final ByteBuffer handle;
 
         JobHandle(byte[] handle) {
-            this.handle = new byte[handle.length];
-            System.arraycopy(handle, 0, this.handle, 0, handle.length);
+            this.handle = ByteBuffer.wrap(ByteUtils.copy(handle));
+        }
+
+        /*
+         * Used to look up jobs, the handle is not copied so the key must not
+         * be put in a map.
+         */
+        JobHandle(ByteBuffer handle) {
+            this.handle = handle;
         }
 
         @Override
@@ -112,23 +116,80 @@ public class GearmanClientImpl
                 return false;
             }
             JobHandle thatHandle = (JobHandle) that;
-            return Arrays.equals(handle, thatHandle.handle);
+            return handle.equals(thatHandle.handle);
         }
 
         @Override
         public int hashCode() {
-            return Arrays.hashCode(handle);
+            return handle.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[handle.remaining()];
+            handle.duplicate().get(bytes);
+            return ByteUtils.fromUTF8Bytes(bytes);
         }
     }
 
     /**
-     * Create a new GearmanClient instance. Instances are not thread-safe and
-     * should not be shared across threads.
+     * Create a new GearmanClient instance. The IO of the client is driven by
+     * a {@link GearmanIOReactor} thread which is owned by the client and is
+     * stopped when the client is shutdown.
+     *
+     * <p>
+     * Instances are thread-safe, any number of threads may submit jobs to the
+     * same client concurrently.
      */
     public GearmanClientImpl() {
-        sessionsMap = new HashMap<SelectionKey, GearmanJobServerSession>();
-        jobsMaps = new HashMap<JobHandle, GearmanJobImpl>();
-        submitJobMap = new HashMap<GearmanJobServerSession, GearmanJobImpl>();
+        this(startReactor(), true);
+    }
+
+    /**
+     * Create a new GearmanClient instance whose IO is driven by an existing
+     * {@link GearmanIOReactor}. The reactor can be shared by several clients,
+     * it is not stopped when the client is shutdown. If the reactor has a
+     * spinning {@link org.gearman.common.GearmanSpinPolicy}, threads waiting
+     * for the responses to requests such as {@link #echo(byte[])} spin as
+     * well.
+     *
+     * @param reactor a running reactor.
+     * @throws IllegalArgumentException if the reactor is null or not running.
+     */
+    public GearmanClientImpl(GearmanIOReactor reactor)
+            throws IllegalArgumentException {
+        this(reactor, false);
+    }
+
+    /**
+     * Create a new GearmanClient instance whose IO is driven by one of the
+     * reactors of a shared {@link GearmanIOEngine}. The engine is not stopped
+     * when the client is shutdown.
+     *
+     * @param engine a running engine.
+     * @throws IllegalArgumentException if the engine is null.
+     * @throws IllegalStateException if the engine has been shutdown.
+     */
+    public GearmanClientImpl(GearmanIOEngine engine)
+            throws IllegalArgumentException, IllegalStateException {
+        this(engineReactor(engine), false);
+    }
+
+    private GearmanClientImpl(GearmanIOReactor reactor, boolean ownsReactor) {
+        if (reactor == null || !reactor.isRunning()) {
+            throw new IllegalArgumentException("Client requires a running " +
+                    "reactor");
+        }
+        this.reactor = reactor;
+        this.ownsReactor = ownsReactor;
+        sessionsMap =
+                new ConcurrentHashMap<SelectionKey, GearmanJobServerSession>();
+        jobsMaps = new ConcurrentHashMap<JobHandle, GearmanJobImpl>();
+        submitJobMap = new HashMap<GearmanJobServerSession,
+                Queue<GearmanJobImpl>>();
+        submitBacklog = new HashMap<GearmanJobServerSession,
+                Queue<GearmanJobImpl>>();
+        serverSelector = new RoundRobinServerSelector();
         DESCRIPTION = DESCRIPION_PREFIX + ":" + Thread.currentThread().getId();
     }
 
@@ -150,21 +211,25 @@ public class GearmanClientImpl
             throw new RejectedExecutionException("Client has been shutdown");
         }
 
-        GearmanJobServerSession session = new GearmanJobServerSession(conn);
-        if (sessionsMap.values().contains(session)) {
-            LOG.log(Level.FINE,"The server " + newconn + " was previously " +
-                    "added to the client. Ignoring add request.");
-            return true;
-        }
-
+        final GearmanJobServerSession session = new GearmanJobServerSession(conn);
         try {
-            if (ioAvailable == null) {
-                ioAvailable = Selector.open();
-            }
+            boolean added = runOnReactor(new Callable<Boolean>() {
 
-            session.initSession(ioAvailable, this);
-            SelectionKey key = session.getSelectionKey();
-            sessionsMap.put(key, session);
+                public Boolean call() throws IOException {
+                    if (sessionsMap.values().contains(session)) {
+                        return Boolean.FALSE;
+                    }
+                    reactor.register(session, GearmanClientImpl.this);
+                    sessionsMap.put(session.getSelectionKey(), session);
+                    serverSelector.sessionAdded(session);
+                    return Boolean.TRUE;
+                }
+            });
+            if (!added) {
+                LOG.log(Level.FINE,"The server " + newconn + " was previously " +
+                        "added to the client. Ignoring add request.");
+                return true;
+            }
         } catch (IOException ioe) {
             LOG.log(Level.WARNING,"Failed to connect to job server "
                     + newconn + ".",ioe);
@@ -175,6 +240,66 @@ public class GearmanClientImpl
         return true;
     }
 
+    /**
+     * Sets the maximum number of job submissions that may be awaiting a
+     * JOB_CREATED response on a single job server session. Sending several
+     * submissions before the first has been acknowledged allows them to share
+     * network round trips. A depth of one sends a submission only after the
+     * preceding one has been acknowledged.
+     *
+     * @param depth the maximum number of unacknowledged submissions per
+     *        session.
+     * @throws IllegalArgumentException if depth is less than one.
+     */
+    public void setSubmitPipelineDepth(int depth)
+            throws IllegalArgumentException {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Pipeline depth must be " +
+                    "greater than zero");
+        }
+        submitPipelineDepth = depth;
+    }
+
+    public int getSubmitPipelineDepth() {
+        return submitPipelineDepth;
+    }
+
+    /**
+     * Sets the strategy that decides which job server each job submission
+     * and echo request is sent to. The selector is handed the job servers
+     * that have already been added to the client. By default the client uses
+     * a {@link RoundRobinServerSelector}.
+     *
+     * @param selector the selector, which must not be used by any other
+     *        client.
+     * @throws IllegalArgumentException if the selector is null.
+     * @throws IllegalStateException if the client has been shutdown.
+     */
+    public void setServerSelector(final ServerSelector selector)
+            throws IllegalArgumentException, IllegalStateException {
+        if (selector == null) {
+            throw new IllegalArgumentException("Selector can not be null");
+        }
+        if (!runState.equals(state.RUNNING)) {
+            throw new IllegalStateException(CLIENT_NOT_ACTIVE);
+        }
+        try {
+            runOnReactor(new Callable<Object>() {
+
+                public Object call() {
+                    for (GearmanJobServerSession sess : sessionsMap.values()) {
+                        selector.sessionAdded(sess);
+                    }
+                    serverSelector = selector;
+                    return null;
+                }
+            });
+        } catch (IOException ioe) {
+            throw new GearmanException("Failed to set server selector of " +
+                    "client " + this, ioe);
+        }
+    }
+
     public boolean hasConnection(GearmanJobServerConnection conn) {
         for (GearmanJobServerSession sess : sessionsMap.values()) {
             if (sess.getConnection().equals(conn)) {
@@ -198,30 +323,43 @@ public class GearmanClientImpl
         return retSet;
     }
 
-    public void removeJobServer(GearmanJobServerConnection conn)
+    public void removeJobServer(final GearmanJobServerConnection conn)
             throws IllegalArgumentException, IllegalStateException {
         if (!runState.equals(state.RUNNING)) {
             throw new IllegalStateException("JobServers can not be removed " +
                     "once shutdown has been commenced.");
         }
 
-        //TODO, make this better
-        Iterator<GearmanJobServerSession> iter = sessionsMap.values().iterator();
-        GearmanJobServerSession session = null;
-        boolean foundit = false;
-        while (iter.hasNext() && !foundit) {
-            session = iter.next();
-            if (session.getConnection().equals(conn)) {
-                foundit = true;
-            }
-        }
+        try {
+            runOnReactor(new Callable<Object>() {
+
+                public Object call() {
+                    //TODO, make this better
+                    Iterator<GearmanJobServerSession> iter =
+                            sessionsMap.values().iterator();
+                    GearmanJobServerSession session = null;
+                    boolean foundit = false;
+                    while (iter.hasNext() && !foundit) {
+                        session = iter.next();
+                        if (session.getConnection().equals(conn)) {
+                            foundit = true;
+                        }
+                    }
 
-        if (!foundit) {
-            throw new IllegalArgumentException("JobServer " + conn + " has not" +
-                    " been registered with this client.");
-        }
+                    if (!foundit) {
+                        throw new IllegalArgumentException("JobServer " +
+                                conn + " has not been registered with this " +
+                                "client.");
+                    }
 
-        shutDownSession(session);
+                    shutDownSession(session);
+                    return null;
+                }
+            });
+        } catch (IOException ioe) {
+            throw new GearmanException("Failed to remove job server " + conn,
+                    ioe);
+        }
         LOG.log(Level.FINE, "Removed job server " + conn + " from client " +
                 this);
     }
@@ -244,44 +382,94 @@ public class GearmanClientImpl
         }
 
         GearmanJobImpl job = (GearmanJobImpl) task;
-        GearmanServerResponseHandler handler = (GearmanServerResponseHandler) job;
+        enqueueJob(job);
 
-
-        if (job.isDone()) {
-            throw new RejectedExecutionException("Task can not be resubmitted ");
+        // A job submitted from the reactor thread (for instance from a job
+        // event listener) can not wait for the server to accept it, as the
+        // reactor thread is the one that would read the response.
+        if (reactor.inReactorThread()) {
+            return (Future<T>) job;
         }
 
-        GearmanJobServerSession session = null;
-        try {
-            session = getSessionForTask();
-        } catch (IOException ioe) {
-            throw new RejectedExecutionException(ioe);
-        }
-        job.setJobServerSession(session);
-        GearmanPacket submitRequest = getPacketFromJob(job);
-        GearmanTask submittedJob =
-                new GearmanTask(handler, submitRequest);
-        session.submitTask(submittedJob);
-        LOG.log(Level.FINE, "Client " + this + " has submitted job " + job +    //NOPMD
-                " to session " + session + ". Job has been added to the " +     //NOPMD
-                "active job queue");
         try {
-            submitJobMap.put(session, job);
-            if (!(driveRequestTillState(submittedJob,
-                    GearmanTask.State.RUNNING))) {
+            if (!job.waitForAcceptance(REQUEST_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS)) {
                 throw new RejectedExecutionException("Timed out waiting for" +
                         " submission of " + job + " to complete");
             }
-        } catch (IOException ioe) {
-            LOG.log(Level.WARNING, "Client " + this + " encounted an " +
-                    "IOException while drivingIO",ioe);
-        } finally {
-            submitJobMap.remove(session);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting" +
+                    " for submission of " + job + " to complete");
+        }
+        if (job.getFailure() != null) {
+            throw new RejectedExecutionException(job.getFailure());
         }
 
         return (Future<T>) job;
     }
 
+    public CompletableFuture<GearmanJobResult> submitAsync(GearmanJob job) {
+        if (!runState.equals(state.RUNNING)) {
+            throw new RejectedExecutionException("Client has been shutdown");
+        }
+
+        enqueueJob(checkJob(job));
+        return job.getResultFuture();
+    }
+
+    public List<CompletableFuture<GearmanJobResult>> submitAll(
+            Collection<GearmanJob> jobs) {
+        if (jobs == null) {
+            throw new IllegalStateException("Null job collection was " +
+                    "submitted to gearman client");
+        }
+
+        if (!runState.equals(state.RUNNING)) {
+            throw new RejectedExecutionException("Client has been shutdown");
+        }
+
+        final List<GearmanJobImpl> batch =
+                new ArrayList<GearmanJobImpl>(jobs.size());
+        for (GearmanJob job : jobs) {
+            GearmanJobImpl jobImpl = checkJob(job);
+            if (jobImpl.isDone() || batch.contains(jobImpl)) {
+                throw new RejectedExecutionException("Task can not be " +
+                        "resubmitted ");
+            }
+            batch.add(jobImpl);
+        }
+        for (GearmanJobImpl job : batch) {
+            if (!job.markSubmitted()) {
+                throw new RejectedExecutionException("Task " + job +
+                        " can not be resubmitted ");
+            }
+        }
+
+        // a single command, so that every submission has been queued on its
+        // session before the reactor next writes to the network
+        try {
+            reactor.execute(new Runnable() {
+
+                public void run() {
+                    for (GearmanJobImpl job : batch) {
+                        submitJob(job);
+                    }
+                }
+            });
+        } catch (IllegalStateException ise) {
+            throw new RejectedExecutionException(ise);
+        }
+
+        List<CompletableFuture<GearmanJobResult>> futures =
+                new ArrayList<CompletableFuture<GearmanJobResult>>(
+                batch.size());
+        for (GearmanJobImpl job : batch) {
+            futures.add(job.getResultFuture());
+        }
+        return futures;
+    }
+
     public <T> Future<T> submit(Runnable task, T result) {
         throw new UnsupportedOperationException("Client does not support " +
                 "execution of non-GearmanJob objects");
@@ -360,13 +548,20 @@ public class GearmanClientImpl
         GearmanPacket echoRequest = new GearmanPacketImpl(GearmanPacketMagic.REQ,
                 GearmanPacketType.ECHO_REQ,data);
         GearmanEchoResponseHandler handler = new GearmanEchoResponseHandler();
-        GearmanTask t = new GearmanTask(handler, echoRequest);
-        GearmanJobServerSession session = getSessionForTask();
-        session.submitTask(t);
+        final GearmanTask t = new GearmanTask(handler, echoRequest);
+        GearmanJobServerSession session = runOnReactor(
+                new Callable<GearmanJobServerSession>() {
+
+            public GearmanJobServerSession call() throws IOException {
+                GearmanJobServerSession s = getSessionForTask(null);
+                s.submitTask(t);
+                return s;
+            }
+        });
         LOG.log(Level.FINE, "Client " + this + " has submitted echo request " +
                 "(payload = " + ByteUtils.toHex(data) + " to session " +
                 session);
-        if (!driveRequestTillState(t, GearmanTask.State.FINISHED)) {
+        if (!waitForTask(t, GearmanTask.State.FINISHED)) {
             throw new GearmanException("Failed to execute echo request " + t +
                     " to session " + session);
         }
@@ -389,10 +584,25 @@ public class GearmanClientImpl
         GearmanPacketType t = p.getPacketType();
         switch (t) {
             case JOB_CREATED:
-                GearmanJobImpl sjob = submitJobMap.get(s);
+                // the server acknowledges submissions in the order in which
+                // they were sent
+                Queue<GearmanJobImpl> awaitingAck = submitJobMap.get(s);
+                GearmanJobImpl sjob = awaitingAck == null ? null :
+                    awaitingAck.poll();
+                if (sjob == null) {
+                    LOG.log(Level.WARNING, "Client received job handle from " +
+                            "session " + s + " but has no job awaiting one");
+                    break;
+                }
                 if (!sjob.isBackgroundJob()) {
                     jobsMaps.put(new JobHandle(sjob.getHandle()), sjob);
                 }
+                sjob.accept();
+                Queue<GearmanJobImpl> backlog = submitBacklog.get(s);
+                while (backlog != null && !backlog.isEmpty() &&
+                        awaitingAck.size() < submitPipelineDepth) {
+                    sendSubmission(s, backlog.remove());
+                }
                 break;
             case WORK_DATA:
             case WORK_STATUS:
@@ -400,9 +610,14 @@ public class GearmanClientImpl
             case WORK_COMPLETE:
             case WORK_FAIL:
             case WORK_EXCEPTION:
-                JobHandle handle = new JobHandle(p.getDataComponentValue(
+                JobHandle handle = new JobHandle(p.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                GearmanJobImpl job = jobsMaps.get(handle);
+                // completed jobs are removed before their waiters are released
+                // so that they are no longer counted as active once get()
+                // returns
+                GearmanJobImpl job = t.equals(GearmanPacketType.WORK_COMPLETE) ||
+                        t.equals(GearmanPacketType.WORK_FAIL) ?
+                        jobsMaps.remove(handle) : jobsMaps.get(handle);
                 if (job == null) {
                     LOG.log(Level.WARNING,"Client received packet from server" +
                             " for unknown job ( job_handle = " + handle +
@@ -421,6 +636,14 @@ public class GearmanClientImpl
                 String errMsg = ByteUtils.fromUTF8Bytes(
                         p.getDataComponentValue(
                         GearmanPacket.DataComponentName.ERROR_TEXT));
+                if (!s.isInitialized()) {
+                    // the connection was dropped, the server stays registered
+                    // and is reconnected the next time it is used
+                    LOG.log(Level.WARNING, "Lost connection to session " + s +
+                            " ( " + errMsg + " )");
+                    failSessionJobs(s);
+                    break;
+                }
                 LOG.log(Level.WARNING, "Received error code " + errCode +
                         "( " + errMsg + " )" + " from session " + s +
                         ". Shutting session down");
@@ -445,38 +668,44 @@ public class GearmanClientImpl
         }
         runState = state.SHUTTINGDOWN;
         LOG.log(Level.FINE, "Commencing controlled shutdown of client: " + this);
-        try {
-            awaitTermination(-1, TimeUnit.SECONDS);
-        } catch (InterruptedException ie) {
-            LOG.log(Level.FINE, "Client shutdown interrupted while waiting" +
-                    " for jobs to terminate.");
+        // the reactor thread can not wait for jobs it would have to complete
+        if (!reactor.inReactorThread()) {
+            try {
+                awaitTermination(-1, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                LOG.log(Level.FINE, "Client shutdown interrupted while " +
+                        "waiting for jobs to terminate.");
+            }
         }
         shutdownNow();
         LOG.log(Level.FINE, "Completed ontrolled shutdown of client: " + this);
     }
 
     public List<Runnable> shutdownNow() {
+        if (runState.equals(state.TERMINATED)) {
+            return new ArrayList<Runnable>();
+        }
         runState = state.SHUTTINGDOWN;
         LOG.log(Level.FINE, "Commencing immediate shutdown of client: " + this);
-        timer.cancel();
-        Iterator<GearmanJobServerSession> sessions =
-                sessionsMap.values().iterator();
-        while (sessions.hasNext()) {
-            GearmanJobServerSession curSession = sessions.next();
-            if (!curSession.isInitialized()) {
-                continue;
-            }
+        if (reactor.isRunning()) {
             try {
-                curSession.closeSession();
+                runOnReactor(new Callable<Object>() {
+
+                    public Object call() {
+                        closeSessions();
+                        return null;
+                    }
+                });
             } catch (Exception e) {
-                LOG.log(Level.WARNING, "Failed to closes session " + curSession +
-                        " while performing immediate shutdown of client " +
-                        this + ". Encountered the following exception " + e);
+                LOG.log(Level.WARNING, "Failed to close sessions while " +
+                        "performing immediate shutdown of client " + this +
+                        ". Encountered the following exception " + e);
             }
-            sessions.remove();
+        }
+        if (ownsReactor) {
+            reactor.shutdown();
         }
         sessionsMap.clear();
-        sessionsMap = null;
         runState = state.TERMINATED;
         LOG.log(Level.FINE, "Completed shutdown of client: " + this);
         return new ArrayList<Runnable>();
@@ -492,7 +721,6 @@ public class GearmanClientImpl
 
     public boolean awaitTermination(long timeout, TimeUnit unit)
             throws InterruptedException {
-        TimeUnit sessionUnit = TimeUnit.MILLISECONDS;
         long timeLeft = -1;
         long timeOutInMills = timeout < 0 ? -1 :
             TimeUnit.MILLISECONDS.convert(timeout, unit) +
@@ -502,10 +730,9 @@ public class GearmanClientImpl
             return true;
         }
 
-        for (GearmanJobServerSession curSession : sessionsMap.values()) {
-            if (!(curSession.isInitialized())) {
-                continue;
-            }
+        // jobs are completed by the reactor thread, we only need to wait
+        for (GearmanJobImpl job : new ArrayList<GearmanJobImpl>(
+                jobsMaps.values())) {
             //negative timeout means block till completion
             if (timeout >= 0) {
                 timeLeft = timeOutInMills - System.currentTimeMillis();
@@ -514,9 +741,7 @@ public class GearmanClientImpl
                     break;
                 }
             }
-            try {
-                curSession.waitForTasksToComplete(timeLeft, sessionUnit);
-            } catch (TimeoutException te) {
+            if (!job.waitForCompletion(timeLeft, TimeUnit.MILLISECONDS)) {
                 LOG.log(Level.FINE, "timed out waiting for all tasks to complete");
                 break;
             }
@@ -529,28 +754,147 @@ public class GearmanClientImpl
         return DESCRIPTION;
     }
 
-    private void driveClientIO() throws IOException, GearmanException {
-        for (GearmanJobServerSession sess : sessionsMap.values()) {
-            int interestOps = SelectionKey.OP_READ;
-            if (sess.sessionHasDataToWrite()) {
-                interestOps |= SelectionKey.OP_WRITE;
+    private static GearmanIOReactor engineReactor(GearmanIOEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine can not be null");
+        }
+        return engine.nextReactor();
+    }
+
+    private static GearmanIOReactor startReactor() {
+        try {
+            GearmanIOReactor r = new GearmanIOReactor();
+            r.start();
+            return r;
+        } catch (IOException ioe) {
+            throw new GearmanException("Failed to create IO reactor for client",
+                    ioe);
+        }
+    }
+
+    /*
+     * Runs a command on the reactor thread and waits for its result. Sessions
+     * are only ever touched from the reactor thread, so any operation that
+     * reads or modifies the state of a session needs to go through here.
+     */
+    private <T> T runOnReactor(Callable<T> command) throws IOException {
+        try {
+            return reactor.submit(command).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GearmanException("Client " + this + " was interrupted " +
+                    "while waiting for its IO reactor", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
-            sess.getSelectionKey().interestOps(interestOps);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GearmanException("Client " + this + " failed to " +
+                    "execute command on its IO reactor", cause);
         }
-        ioAvailable.selectNow();
-        Set<SelectionKey> keys = ioAvailable.selectedKeys();
-        LOG.log(Level.FINEST, "Driving IO for client " + this + ". " +
-                keys.size() + " session(s) currently available for IO");
-        Iterator<SelectionKey> iter = keys.iterator();
-        while (iter.hasNext()) {
-            SelectionKey key = iter.next();
-            GearmanJobServerSession s = sessionsMap.get(key);
-            s.driveSessionIO();
+    }
+
+    private boolean waitForTask(GearmanTask t, GearmanTask.State state)
+            throws GearmanException {
+        if (reactor.inReactorThread()) {
+            throw new IllegalStateException("Requests can not be waited on " +
+                    "from the IO reactor thread");
+        }
+        try {
+            return t.waitForState(state, REQUEST_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS, reactor.getSpinPolicy());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GearmanException("Interrupted while waiting for " +
+                    "request " + t, ie);
+        }
+    }
+
+    /*
+     * The JOB_CREATED response does not identify the job it belongs to, but
+     * the server answers submissions in order, so submissions are matched to
+     * their acknowledgements through a FIFO queue per session. Up to
+     * submitPipelineDepth submissions are outstanding on a session at a time,
+     * additional submissions are held in a backlog and sent as earlier ones
+     * are acknowledged. Must be called from the reactor thread.
+     */
+    private void submitJob(GearmanJobImpl job) {
+        GearmanJobServerSession session = null;
+        try {
+            session = getSessionForTask(job);
+        } catch (IOException ioe) {
+            job.fail(ioe);
+            return;
         }
+        job.setJobServerSession(session);
+        job.attachResultStream(reactor);
+        Queue<GearmanJobImpl> awaitingAck = submitJobMap.get(session);
+        if (awaitingAck != null &&
+                awaitingAck.size() >= submitPipelineDepth) {
+            Queue<GearmanJobImpl> backlog = submitBacklog.get(session);
+            if (backlog == null) {
+                backlog = new LinkedList<GearmanJobImpl>();
+                submitBacklog.put(session, backlog);
+            }
+            backlog.add(job);
+            return;
+        }
+        sendSubmission(session, job);
+    }
+
+    private GearmanJobImpl checkJob(GearmanJob job) {
+        if (job == null) {
+            throw new IllegalStateException("Null job was submitted to " +
+                    "gearman client");
+        }
+
+        if (!(job instanceof GearmanJobImpl)) {
+            throw new RejectedExecutionException("Job must be of type " +
+                    GearmanJobImpl.class + " to be submitted to this client");
+        }
+        return (GearmanJobImpl) job;
+    }
+
+    private void enqueueJob(final GearmanJobImpl job) {
+        if (job.isDone() || !job.markSubmitted()) {
+            throw new RejectedExecutionException("Task can not be resubmitted ");
+        }
+
+        try {
+            reactor.execute(new Runnable() {
+
+                public void run() {
+                    submitJob(job);
+                }
+            });
+        } catch (IllegalStateException ise) {
+            throw new RejectedExecutionException(ise);
+        }
+    }
+
+    private void sendSubmission(GearmanJobServerSession session,
+            GearmanJobImpl job) {
+        GearmanTask submittedJob = new GearmanTask(job, getPacketFromJob(job));
+        Queue<GearmanJobImpl> awaitingAck = submitJobMap.get(session);
+        if (awaitingAck == null) {
+            awaitingAck = new LinkedList<GearmanJobImpl>();
+            submitJobMap.put(session, awaitingAck);
+        }
+        awaitingAck.add(job);
+        session.submitTask(submittedJob);
+        LOG.log(Level.FINE, "Client " + this + " has submitted job " + job +    //NOPMD
+                " to session " + session + ". Job has been added to the " +     //NOPMD
+                "active job queue");
     }
 
     private GearmanJobStatus updateJobStatus(byte[] jobhandle,
-            GearmanJobServerSession session) throws IOException,
+            final GearmanJobServerSession session) throws IOException,
             IllegalStateException, GearmanException {
         if (!runState.equals(state.RUNNING)) {
             throw new IllegalStateException(CLIENT_NOT_ACTIVE);
@@ -564,45 +908,41 @@ public class GearmanClientImpl
                 GearmanPacketMagic.REQ, GearmanPacketType.GET_STATUS, jobhandle);
         GearmanServerResponseHandler handler =
                 (GearmanServerResponseHandler) new GearmanJobStatusImpl();
-        GearmanTask t = new GearmanTask(
+        final GearmanTask t = new GearmanTask(
                 handler, statusRequest);
-        session.submitTask(t);
-        if (!driveRequestTillState(t,GearmanTask.State.FINISHED)) {
+        runOnReactor(new Callable<Object>() {
+
+            public Object call() {
+                session.submitTask(t);
+                return null;
+            }
+        });
+        if (!waitForTask(t,GearmanTask.State.FINISHED)) {
             throw new GearmanException("Failed to execute jobstatus request " +
                     t + " to session " + session);
         }
         return (GearmanJobStatus) handler;
     }
 
-    private GearmanJobServerSession getSessionForTask() throws IOException {
-        if (sessionsMap.values().isEmpty()) {
+    /*
+     * Picks the session a request is sent to, reconnecting it if needed. Must
+     * be called from the reactor thread.
+     */
+    private GearmanJobServerSession getSessionForTask(GearmanJob job)
+            throws IOException {
+        GearmanJobServerSession session = serverSelector.select(job);
+        if (session == null) {
             throw new IOException("No servers registered with client");
         }
-
-        ArrayList<GearmanJobServerSession> sessions = new
-                ArrayList<GearmanJobServerSession>();
-        sessions.addAll(sessionsMap.values());
-        Random rand = new Random(System.currentTimeMillis());
-        int s = rand.nextInt(sessions.size());
-        GearmanJobServerSession session = sessions.get(s);
         if (!session.isInitialized()) {
-            session.initSession(ioAvailable, this);
+            sessionsMap.values().remove(session);
+            reactor.register(session, this);
             SelectionKey key = session.getSelectionKey();
             sessionsMap.put(key, session);
         }
         return session;
     }
 
-    private boolean driveRequestTillState(GearmanTask r, GearmanTask.State state)
-            throws IOException, GearmanException {
-        Alarm alarm = new Alarm();
-        timer.schedule(alarm, 2000);
-        while (r.getState().compareTo(state) < 0 && !(alarm.hasFired())) {
-            driveClientIO();
-        }
-        return r.getState().compareTo(state) >= 0;
-    }
-
     private GearmanPacket getPacketFromJob(GearmanJob job) {
         int destPos = 0;
         GearmanPacketMagic magic = GearmanPacketMagic.REQ;
@@ -634,14 +974,56 @@ public class GearmanClientImpl
         return new GearmanPacketImpl(magic, type, packetdata);
     }
 
+    private void closeSessions() {
+        for (GearmanJobServerSession curSession :
+                new ArrayList<GearmanJobServerSession>(sessionsMap.values())) {
+            try {
+                shutDownSession(curSession);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Failed to closes session " + curSession +
+                        " while performing immediate shutdown of client " +
+                        this + ". Encountered the following exception " + e);
+            }
+        }
+    }
+
+    /*
+     * Closes a session and fails every job that was submitted to it, as the
+     * results of those jobs can no longer be delivered. Must be called from
+     * the reactor thread.
+     */
     private void shutDownSession(GearmanJobServerSession s) {
+        sessionsMap.values().remove(s);
+        serverSelector.sessionRemoved(s);
         if (s.isInitialized()) {
-            SelectionKey k = s.getSelectionKey();
-            if (k != null) {
-                sessionsMap.remove(k);
-                k.cancel();
-            }
+            reactor.deregister(s);
             s.closeSession();
         }
+        failSessionJobs(s);
+    }
+
+    private void failSessionJobs(GearmanJobServerSession s) {
+        GearmanException cause = new GearmanException("Session " + s +
+                " was shutdown");
+        Queue<GearmanJobImpl> awaitingAck = submitJobMap.remove(s);
+        if (awaitingAck != null) {
+            for (GearmanJobImpl job : awaitingAck) {
+                job.fail(cause);
+            }
+        }
+        Queue<GearmanJobImpl> backlog = submitBacklog.remove(s);
+        if (backlog != null) {
+            for (GearmanJobImpl job : backlog) {
+                job.fail(cause);
+            }
+        }
+        Iterator<GearmanJobImpl> jobs = jobsMaps.values().iterator();
+        while (jobs.hasNext()) {
+            GearmanJobImpl job = jobs.next();
+            if (job.getSession() == s) {
+                jobs.remove();
+                job.fail(cause);
+            }
+        }
     }
 }
@@ -6,6 +6,8 @@
 package org.gearman.client;
 
 import java.util.concurrent.Callable;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 /**
@@ -112,4 +114,51 @@ public interface GearmanJob
      * @return true if the listener has been removed, else false.
      */
     boolean removeEventListener(GearmanIOEventListener listener);
+
+    /**
+     * Retrieves a future that is completed with the job handle once the
+     * Gearman Job Server has accepted the job, that is once the JOB_CREATED
+     * response for the job has been received. Should the submission of the job
+     * fail, the future is completed exceptionally.
+     *
+     * @return a future for the handle of the job.
+     */
+    CompletableFuture<byte[]> getAcceptedFuture();
+
+    /**
+     * Retrieves a future that is completed with the result of the job once
+     * the job has finished. For background jobs the future is completed as
+     * soon as the job has been accepted by the Gearman Job Server. Should the
+     * job not be able to complete, for instance because the connection to the
+     * server has been lost, the future is completed exceptionally.
+     *
+     * @return a future for the result of the job.
+     */
+    CompletableFuture<GearmanJobResult> getResultFuture();
+
+    /**
+     * Asks for the results of the job to be delivered as a stream rather than
+     * accumulated in the {@link GearmanJobResult}. The data of every WORK_DATA
+     * packet, and that of the WORK_COMPLETE packet, can be read from the
+     * stream as soon as it has been received. The stream ends once the job
+     * completes; if the job fails, reading past the data received up to that
+     * point throws an <tt>IOException</tt>. The results of the
+     * <tt>GearmanJobResult</tt> of a streamed job are empty.
+     *
+     * <p>
+     * At most about <tt>maxBufferedBytes</tt> are buffered for a reader that
+     * falls behind. Beyond that, the client stops reading from the connection
+     * of the job until the reader catches up, which also holds back the
+     * responses for any other job sharing that connection. The stream must
+     * therefore be read to its end or closed.
+     *
+     * @param maxBufferedBytes how many bytes to buffer before the client
+     *        stops reading from the connection.
+     * @return the stream of results.
+     * @throws IllegalArgumentException if maxBufferedBytes is less than one.
+     * @throws IllegalStateException if the job has already been submitted or
+     *         a result stream has already been opened for it.
+     */
+    InputStream openResultStream(int maxBufferedBytes)
+            throws IllegalArgumentException, IllegalStateException;
 }
@@ -6,18 +6,23 @@
 package org.gearman.client;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gearman.common.Constants;
 import org.gearman.common.GearmanException;
+import org.gearman.common.GearmanIOReactor;
 import org.gearman.common.GearmanJobServerSession;
 import org.gearman.common.GearmanPacket;
 import org.gearman.common.GearmanPacketType;
@@ -34,13 +39,22 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
     private final JobPriority priority;
     private final Collection<GearmanIOEventListener> eventListners;
     private byte[] handle = null;
+    // wraps handle, the handles of received packets are compared against it
+    private ByteBuffer handleBuffer = null;
     private byte[] data = new byte[0];
     private String uuid = null;
     private GearmanJobResultImpl jobResult = null;
     private GearmanJobServerSession session = null;
     private static final Logger LOG = Logger.getLogger(
             Constants.GEARMAN_SESSION_LOGGER_NAME);
-    private boolean isComplete = false;
+    private volatile boolean isComplete = false;
+    private final CompletableFuture<byte[]> accepted =
+            new CompletableFuture<byte[]>();
+    private final CompletableFuture<GearmanJobResultImpl> completed =
+            new CompletableFuture<GearmanJobResultImpl>();
+    private volatile Throwable failure = null;
+    private final AtomicBoolean submitted = new AtomicBoolean(false);
+    private volatile JobResultStream resultStream = null;
 
     private GearmanJobImpl(String functionName, byte[] data,
             boolean isBackground, JobPriority priority, String uuid)
@@ -188,38 +202,43 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
 
     public GearmanJobResult get(long timeout, TimeUnit unit)
             throws InterruptedException, ExecutionException, TimeoutException {
-        if (isComplete) {
-            return jobResult.copy();
+        // The job is completed by whichever thread is driving the IO of the
+        // job's session, we simply wait to be told that it is done.
+        if (timeout < 0) {
+            return completed.get().copy();
         }
-        int retries = 10;
-        long timeOutInMills = timeout < 0 ? -1 : 
-            TimeUnit.MILLISECONDS.convert(timeout, unit) +
-            System.currentTimeMillis();
-        while (!isComplete && !hasTimedOut(timeOutInMills)) {
-            try {
-                session.driveSessionIO();
-            } catch (IOException ioe) {
-                retries--;
-                LOG.finer("Encountered exception while driving client " +
-                        "IO , " + retries + " retries left. [ job = " +
-                        this + " exception = " + ioe + "]");
-                if (retries == 0) {
-                    isComplete = true;
-                    LOG.warning("Failed to drive client IO while getting" +
-                            " results for job. [ job = " + this +
-                            " exception = " + ioe + "]");
-                    throw new ExecutionException(ioe);
-                }
-
-            }
-            Thread.sleep(100);
-        }
-        if (!isComplete) {
+        try {
+            return completed.get(timeout, unit).copy();
+        } catch (TimeoutException te) {
             throw new TimeoutException("Failed to retrieve job result in" +
                     " alloted time (" + timeout + " " + unit.toString() + ").");
         }
-        return jobResult.copy();
+    }
+
+    public CompletableFuture<byte[]> getAcceptedFuture() {
+        return accepted.thenApply(GearmanJobImpl::copyOf);
+    }
 
+    public CompletableFuture<GearmanJobResult> getResultFuture() {
+        return completed.thenApply(GearmanJobResultImpl::copy);
+    }
+
+    public synchronized InputStream openResultStream(int maxBufferedBytes)
+            throws IllegalArgumentException, IllegalStateException {
+        if (maxBufferedBytes < 1) {
+            throw new IllegalArgumentException("At least one byte must be " +
+                    "buffered");
+        }
+        if (submitted.get()) {
+            throw new IllegalStateException("Job " + this + " has already " +
+                    "been submitted");
+        }
+        if (resultStream != null) {
+            throw new IllegalStateException("A result stream has already " +
+                    "been opened for job " + this);
+        }
+        resultStream = new JobResultStream(maxBufferedBytes);
+        return resultStream;
     }
 
     public void handleEvent(GearmanPacket event) throws GearmanException {
@@ -240,10 +259,13 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
                 }
                 handle = event.getDataComponentValue(
                         GearmanPacket.DataComponentName.JOB_HANDLE);
+                handleBuffer = ByteBuffer.wrap(handle);
                 if (isBackgroundJob()) {
-                    isComplete = true;
                     jobResult = new GearmanJobResultImpl(handle, true, null,
                             null, null, -1, -1);
+                    // the job has to be accepted before it can be complete
+                    accept();
+                    complete();
                 } else {
                     jobResult = new GearmanJobResultImpl(handle);
                 }
@@ -252,7 +274,7 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
             case WORK_STATUS:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +   //NOPMD
                         "status event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
                 long num = Long.parseLong(ByteUtils.fromAsciiBytes(
                         event.getDataComponentValue(
@@ -260,59 +282,57 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
                 long den = Long.parseLong(ByteUtils.fromAsciiBytes(
                         event.getDataComponentValue(
                         GearmanPacket.DataComponentName.DENOMINATOR)));
-                jobResult = jobResult.addJobResult(
-                        new GearmanJobResultImpl(handle, false, null, null, null,
-                        num, den));
+                jobResult.setStatus(num, den);
                 break;
 
             case WORK_DATA:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +
                         "data event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                jobResult = jobResult.addResults(event.getDataComponentValue(
+                appendResults(event.getDataComponentValue(
                         GearmanPacket.DataComponentName.DATA));
                 break;
 
             case WORK_WARNING:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +
                         "warning event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                jobResult = jobResult.addWarnings(event.getDataComponentValue(
+                jobResult.appendWarnings(event.getDataComponentValue(
                         GearmanPacket.DataComponentName.DATA));
                 break;
 
             case WORK_COMPLETE:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +
                         "complete event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                jobResult = jobResult.addJobResult(
-                        new GearmanJobResultImpl(handle, true,
-                        event.getDataComponentValue(
-                        GearmanPacket.DataComponentName.DATA),
-                        null, null, -1, -1));
-                isComplete = true;
+                appendResults(event.getDataComponentValue(
+                        GearmanPacket.DataComponentName.DATA));
+                jobResult.setSucceeded(true);
+                complete();
                 break;
 
             case WORK_FAIL:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +
                         "fail event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                jobResult = jobResult.addJobResult(
-                        new GearmanJobResultImpl(handle, false, null, null, null,
-                        -1, -1));
-                isComplete = true;
+                jobResult.setSucceeded(false);
+                if (resultStream != null) {
+                    resultStream.fail(new IOException("Job " + this +
+                            " failed"));
+                }
+                complete();
                 break;
 
             case WORK_EXCEPTION:
                 LOG.log(Level.FINER, "job " + this + " has received a work " +
                         "exception event");
-                validateJobHandle(event.getDataComponentValue(
+                validateJobHandle(event.getDataComponentBuffer(
                         GearmanPacket.DataComponentName.JOB_HANDLE));
-                jobResult = jobResult.addExceptions(event.getDataComponentValue(
+                jobResult.appendExceptions(event.getDataComponentValue(
                         GearmanPacket.DataComponentName.DATA));
                 break;
 
@@ -336,13 +356,110 @@ public final class GearmanJobImpl implements GearmanJob, GearmanServerResponseHa
         return session;
     }
 
-    private void validateJobHandle(byte[] rcvdHandle) throws GearmanException {
-        if (!Arrays.equals(handle, rcvdHandle)) {
-            throw new GearmanException("Job handle mis-match");
+    /**
+     * Lets the result stream of the job, if any, stop reading from the
+     * session of the job when its reader falls behind. Must be called from
+     * the thread driving the IO of the session after the session has been
+     * set.
+     *
+     * @param reactor the reactor driving the IO of the session.
+     */
+    void attachResultStream(GearmanIOReactor reactor) {
+        if (resultStream != null) {
+            resultStream.attach(session, reactor);
+        }
+    }
+
+    /**
+     * Completes the job exceptionally, for example because the session the
+     * job was submitted to has been closed. Threads waiting in {@link #get()}
+     * will receive an {@link ExecutionException} wrapping the cause.
+     *
+     * @param cause the reason the job failed.
+     */
+    void fail(Throwable cause) {
+        if (isComplete) {
+            return;
+        }
+        failure = cause;
+        isComplete = true;
+        accepted.completeExceptionally(cause);
+        completed.completeExceptionally(cause);
+        if (resultStream != null) {
+            resultStream.fail(cause);
+        }
+    }
+
+    /**
+     * Marks the job as having been accepted by the job server, that is the
+     * client has received the handle for the job and is now tracking it.
+     */
+    void accept() {
+        accepted.complete(handle);
+    }
+
+    boolean waitForAcceptance(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return waitFor(accepted, timeout, unit);
+    }
+
+    /**
+     * @return true if this is the first attempt to submit the job, else false.
+     */
+    boolean markSubmitted() {
+        return submitted.compareAndSet(false, true);
+    }
+
+    Throwable getFailure() {
+        return failure;
+    }
+
+    boolean waitForCompletion(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return waitFor(completed, timeout, unit);
+    }
+
+    private void complete() {
+        isComplete = true;
+        if (resultStream != null) {
+            resultStream.finish();
+        }
+        completed.complete(jobResult);
+    }
+
+    private void appendResults(byte[] results) {
+        if (resultStream == null) {
+            jobResult.appendResults(results);
+        } else {
+            resultStream.offer(results);
         }
     }
 
-    private boolean hasTimedOut(long millis) {
-        return millis < 0 ? false : System.currentTimeMillis() > millis;
+    private static boolean waitFor(CompletableFuture<?> f, long timeout,
+            TimeUnit unit) throws InterruptedException {
+        try {
+            if (timeout < 0) {
+                f.get();
+            } else {
+                f.get(timeout, unit);
+            }
+        } catch (ExecutionException ee) {
+            // the caller only cares that the future is done
+        } catch (TimeoutException te) {
+            return false;
+        }
+        return true;
     }
+
+    private static byte[] copyOf(byte[] b) {
+        return b == null ? null : Arrays.copyOf(b, b.length);
+    }
+
+    private void validateJobHandle(ByteBuffer rcvdHandle)
+            throws GearmanException {
+        if (handleBuffer == null || !handleBuffer.equals(rcvdHandle)) {
+            throw new GearmanException("Job handle mis-match");
+        }
+    }
+
 }
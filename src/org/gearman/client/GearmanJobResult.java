@@ -5,6 +5,10 @@
  */
 package org.gearman.client;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 public interface GearmanJobResult {
 
     /**
@@ -16,6 +20,50 @@ public interface GearmanJobResult {
      */
     byte[] getResults();
 
+    /**
+     * Retrieves the number of bytes of results generated by the job.
+     *
+     * @return the length of the results.
+     */
+    default long getResultLength() {
+        return getResults().length;
+    }
+
+    /**
+     * Retrieves the results generated by the job as read-only buffers, in
+     * the order they were generated, without copying them into a single
+     * array as {@link #getResults()} does.
+     *
+     * @return the chunks of the results, an empty array if no results were
+     *         generated.
+     */
+    default ByteBuffer[] getResultChunks() {
+        byte[] results = getResults();
+        if (results.length == 0) {
+            return new ByteBuffer[0];
+        }
+        return new ByteBuffer[] {ByteBuffer.wrap(results).asReadOnlyBuffer()};
+    }
+
+    /**
+     * Writes the results generated by the job to a channel without copying
+     * them into a single array. The channel should be in blocking mode.
+     *
+     * @param channel the channel to write the results to.
+     * @return the number of bytes written.
+     * @throws IOException if the channel fails.
+     */
+    default long writeResultsTo(WritableByteChannel channel)
+            throws IOException {
+        long written = 0;
+        for (ByteBuffer chunk : getResultChunks()) {
+            while (chunk.hasRemaining()) {
+                written += channel.write(chunk);
+            }
+        }
+        return written;
+    }
+
     /**
      * Retrieve the warnings generated by the {@link GearmanJob} which generated
      * this <tt>GearmanJobResult</tt>
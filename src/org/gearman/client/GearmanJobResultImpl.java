@@ -5,21 +5,27 @@
  */
 package org.gearman.client;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
+/**
+ * The results, warnings and exceptions of a job are kept as the list of
+ * chunks they were received in and are only copied into a single array when
+ * they are asked for, so a job that streams its result in many WORK_DATA
+ * packets costs time linear in the size of the result.
+ */
 public class GearmanJobResultImpl implements GearmanJobResult {
 
     private long denominator;
     private long numerator;
-    private byte[] results;
-    private byte[] warnings;
-    private byte[] exceptions;
-    private byte[] handle;
+    private final ChunkedBytes results;
+    private final ChunkedBytes warnings;
+    private final ChunkedBytes exceptions;
+    private final byte[] handle;
     boolean succeeded = false;
 
-    private GearmanJobResultImpl() {
-    }
-
     public GearmanJobResultImpl(byte[] handle) {
         this(handle, false, null, null, null, -1, -1);
     }
@@ -31,9 +37,19 @@ public class GearmanJobResultImpl implements GearmanJobResult {
         this.succeeded = succeeded;
         this.numerator = numerator;
         this.denominator = denominator;
-        this.results = copyArray(results);
-        this.warnings = copyArray(warnings);
-        this.exceptions = copyArray(exceptions);
+        this.results = chunksOf(results);
+        this.warnings = chunksOf(warnings);
+        this.exceptions = chunksOf(exceptions);
+    }
+
+    private GearmanJobResultImpl(GearmanJobResultImpl that) {
+        handle = that.handle;
+        succeeded = that.succeeded;
+        numerator = that.numerator;
+        denominator = that.denominator;
+        results = that.results.snapshot();
+        warnings = that.warnings.snapshot();
+        exceptions = that.exceptions.snapshot();
     }
 
     public GearmanJobResultImpl addJobResult(GearmanJobResultImpl that) {
@@ -41,38 +57,43 @@ public class GearmanJobResultImpl implements GearmanJobResult {
             throw new IllegalArgumentException("Only results for the same job" +
                     " can be merged");
         }
-        byte[] mergedResults = new byte[results.length + that.results.length];
-        System.arraycopy(results, 0, mergedResults, 0, results.length);
-        System.arraycopy(that.results, 0, mergedResults, results.length,
-                that.results.length);
-
-        byte[] mergedWarnings = new byte[warnings.length + that.warnings.length];
-        System.arraycopy(warnings, 0, mergedWarnings, 0, warnings.length);
-        System.arraycopy(that.warnings, 0, mergedWarnings, warnings.length,
-                that.warnings.length);
-
-        byte[] mergedExceptions = new byte[exceptions.length + that.exceptions.length];
-        System.arraycopy(exceptions, 0, mergedExceptions, 0, exceptions.length);
-        System.arraycopy(that.exceptions, 0, mergedExceptions,
-                exceptions.length, that.exceptions.length);
-
-        long newNum = that.numerator == -1 ? numerator : that.numerator;
-        long newDen = that.denominator == -1 ? denominator : that.denominator;
-
-        return new GearmanJobResultImpl(handle, that.succeeded, mergedResults,
-                mergedWarnings, mergedExceptions, newNum, newDen);
+        GearmanJobResultImpl merged = new GearmanJobResultImpl(this);
+        merged.results.append(that.results);
+        merged.warnings.append(that.warnings);
+        merged.exceptions.append(that.exceptions);
+        merged.succeeded = that.succeeded;
+        merged.numerator = that.numerator == -1 ? numerator : that.numerator;
+        merged.denominator = that.denominator == -1 ? denominator :
+            that.denominator;
+        return merged;
     }
 
     public byte[] getResults() {
-        return copyArray(results);
+        return results.toArray();
     }
 
     public byte[] getWarnings() {
-        return copyArray(warnings);
+        return warnings.toArray();
     }
 
     public byte[] getExceptions() {
-        return copyArray(exceptions);
+        return exceptions.toArray();
+    }
+
+    @Override
+    public long getResultLength() {
+        return results.length();
+    }
+
+    @Override
+    public ByteBuffer[] getResultChunks() {
+        return results.toBuffers();
+    }
+
+    @Override
+    public long writeResultsTo(WritableByteChannel channel)
+            throws IOException {
+        return results.writeTo(channel);
     }
 
     public long getDenominator() {
@@ -91,41 +112,49 @@ public class GearmanJobResultImpl implements GearmanJobResult {
         return succeeded;
     }
 
+    /**
+     * Returns a copy of the result. The bytes of the result are shared with
+     * the copy, they are never modified.
+     *
+     * @return the copy.
+     */
     public GearmanJobResult copy() {
-        GearmanJobResultImpl res = new GearmanJobResultImpl(handle, succeeded,
-                copyArray(results), copyArray(warnings), copyArray(exceptions),
-                numerator, denominator);
-        return res;
+        return new GearmanJobResultImpl(this);
+    }
+
+    /*
+     * The following add to the result in place, without copying the chunk.
+     * They are only used by the job the result belongs to while the job is
+     * running, before the result is handed to anybody else.
+     */
+    void appendResults(byte[] chunk) {
+        results.append(chunk);
+    }
+
+    void appendWarnings(byte[] chunk) {
+        warnings.append(chunk);
+    }
+
+    void appendExceptions(byte[] chunk) {
+        exceptions.append(chunk);
     }
 
-    GearmanJobResultImpl addResults(byte[] newResults) {
-        byte[] mergedResults = new byte[results.length + newResults.length];
-        System.arraycopy(results, 0, mergedResults, 0, results.length);
-        System.arraycopy(newResults, 0, mergedResults, results.length,
-                newResults.length);
-        return new GearmanJobResultImpl(handle, succeeded, mergedResults,
-                warnings, exceptions, numerator, denominator);
+    void setStatus(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
     }
 
-    GearmanJobResultImpl addWarnings(byte[] newWarnings) {
-        byte[] mergedWarnings = new byte[warnings.length + newWarnings.length];
-        System.arraycopy(warnings, 0, mergedWarnings, 0, warnings.length);
-        System.arraycopy(newWarnings, 0, mergedWarnings, warnings.length,
-                newWarnings.length);
-        return new GearmanJobResultImpl(handle, succeeded, results,
-                mergedWarnings, exceptions, numerator, denominator);
+    void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
     }
 
-    GearmanJobResultImpl addExceptions(byte[] newExceptions) {
-        byte[] mergedExceptions = new byte[exceptions.length + newExceptions.length];
-        System.arraycopy(exceptions, 0, mergedExceptions, 0, exceptions.length);
-        System.arraycopy(newExceptions, 0, mergedExceptions, exceptions.length,
-                newExceptions.length);
-        return new GearmanJobResultImpl(handle, succeeded, results, warnings,
-                mergedExceptions, numerator, denominator);
+    private static ChunkedBytes chunksOf(byte[] bytes) {
+        ChunkedBytes chunks = new ChunkedBytes();
+        chunks.append(copyArray(bytes));
+        return chunks;
     }
 
-    private byte[] copyArray(byte[] src) {
+    private static byte[] copyArray(byte[] src) {
         if (src == null) {
             return new byte[0];
         }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.LinkedList;
+import java.util.Queue;
+import org.gearman.common.GearmanIOReactor;
+import org.gearman.common.GearmanJobServerSession;
+
+/**
+ * The result of a job as a stream of the data of its WORK_DATA and
+ * WORK_COMPLETE packets, see {@link GearmanJob#openResultStream(int)}.
+ *
+ * <p>
+ * Chunks are handed over by the reactor thread, which never blocks on the
+ * stream. Once more than <tt>maxBufferedBytes</tt> are buffered, the reactor
+ * stops reading from the session of the job until the reader has drained the
+ * stream down to half of that, so a slow reader holds back the job server
+ * rather than filling the heap.
+ */
+final class JobResultStream extends InputStream {
+
+    private final int maxBufferedBytes;
+    private final Queue<byte[]> chunks = new LinkedList<byte[]>();
+    private byte[] current = null;
+    private int position = 0;
+    private long buffered = 0;
+    private boolean finished = false;
+    private boolean closed = false;
+    private IOException failure = null;
+    // true while the reads of session are suspended on behalf of the stream
+    private boolean suspended = false;
+    private GearmanJobServerSession session = null;
+    private GearmanIOReactor reactor = null;
+
+    JobResultStream(int maxBufferedBytes) {
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /*
+     * Called by the reactor thread once the job has been assigned to a
+     * session, without a session the stream buffers without bound.
+     */
+    synchronized void attach(GearmanJobServerSession session,
+            GearmanIOReactor reactor) {
+        this.session = session;
+        this.reactor = reactor;
+    }
+
+    /*
+     * Called by the reactor thread for every chunk of the result.
+     */
+    void offer(byte[] chunk) {
+        if (chunk == null || chunk.length == 0) {
+            return;
+        }
+        GearmanJobServerSession toSuspend = null;
+        synchronized (this) {
+            if (closed || finished) {
+                return;
+            }
+            chunks.add(chunk);
+            buffered += chunk.length;
+            if (buffered > maxBufferedBytes && !suspended && session != null) {
+                suspended = true;
+                toSuspend = session;
+            }
+            notifyAll();
+        }
+        if (toSuspend != null) {
+            toSuspend.suspendReads();
+        }
+    }
+
+    /*
+     * Called by the reactor thread once the last chunk has been offered.
+     */
+    synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /*
+     * Called by the reactor thread if the job failed, the reader gets the
+     * chunks received so far and then the failure.
+     */
+    synchronized void fail(Throwable cause) {
+        if (finished) {
+            return;
+        }
+        if (cause instanceof IOException) {
+            failure = (IOException) cause;
+        } else {
+            failure = new IOException(cause.getMessage(), cause);
+        }
+        finished = true;
+        // a closed session forgets about its suspensions
+        if (session != null && !session.isInitialized()) {
+            suspended = false;
+        }
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        boolean resume = false;
+        synchronized (this) {
+            if (!awaitData()) {
+                return -1;
+            }
+            // take whatever is buffered, but only block for the first byte
+            while (n < len && hasData()) {
+                int count = Math.min(len - n, current.length - position);
+                System.arraycopy(current, position, b, off + n, count);
+                position += count;
+                n += count;
+            }
+            buffered -= n;
+            resume = drained();
+        }
+        if (resume) {
+            reactor.resumeReads(session);
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        return (int) Math.min(buffered, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Discards the buffered and any further chunks of the result, and lets
+     * the session of the job read again if the stream had stopped it.
+     */
+    @Override
+    public void close() {
+        boolean resume = false;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            chunks.clear();
+            current = null;
+            buffered = 0;
+            resume = suspended;
+            suspended = false;
+            notifyAll();
+        }
+        if (resume) {
+            reactor.resumeReads(session);
+        }
+    }
+
+    /*
+     * Blocks until there is data to read or the stream has ended, returns
+     * false at the end of the stream.
+     */
+    private boolean awaitData() throws IOException {
+        while (!hasData()) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (finished) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            try {
+                wait();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while " +
+                        "waiting for the result of the job");
+            }
+        }
+        return true;
+    }
+
+    private boolean hasData() {
+        if (current != null && position < current.length) {
+            return true;
+        }
+        current = chunks.poll();
+        position = 0;
+        return current != null;
+    }
+
+    private boolean drained() {
+        if (suspended && buffered <= maxBufferedBytes / 2) {
+            suspended = false;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+/**
+ * Sends each request to the job server with the fewest outstanding requests,
+ * so that a slow or overloaded server receives less work. Ties are broken in
+ * round-robin order. Every call looks at every session, which is cheap for
+ * the handful of job servers a client usually has.
+ */
+public class LeastOutstandingServerSelector extends AbstractServerSelector {
+
+    private int start = 0;
+
+    @Override
+    protected int selectIndex(GearmanJob job) {
+        int size = sessions.size();
+        if (start >= size) {
+            start = 0;
+        }
+        int best = start;
+        int bestLoad = outstandingTasks(sessions.get(start));
+        for (int i = 1; i < size && bestLoad > 0; i++) {
+            int idx = start + i < size ? start + i : start + i - size;
+            int load = outstandingTasks(sessions.get(idx));
+            if (load < bestLoad) {
+                best = idx;
+                bestLoad = load;
+            }
+        }
+        // the search for the next request starts after this one, which
+        // spreads requests evenly over equally loaded sessions
+        start = best + 1;
+        return best;
+    }
+}
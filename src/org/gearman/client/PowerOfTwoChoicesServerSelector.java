@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two job servers at random and sends the request to the one with
+ * fewer outstanding requests. This balances load almost as well as looking
+ * at every server while only ever looking at two, and unlike always picking
+ * the least loaded server it does not make every client pile onto the same
+ * server at once.
+ */
+public class PowerOfTwoChoicesServerSelector extends AbstractServerSelector {
+
+    @Override
+    protected int selectIndex(GearmanJob job) {
+        int size = sessions.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // a second, distinct, session
+        int second = first + 1 + random.nextInt(size - 1);
+        if (second >= size) {
+            second -= size;
+        }
+        return outstandingTasks(sessions.get(second)) <
+                outstandingTasks(sessions.get(first)) ? second : first;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends requests to the job servers in turn. Every client starts at a random
+ * server, so that the first requests of clients started at the same time are
+ * not all sent to the same server. This is the default selector of a
+ * {@link GearmanClientImpl}.
+ */
+public class RoundRobinServerSelector extends AbstractServerSelector {
+
+    private int next = ThreadLocalRandom.current().nextInt(1 << 16);
+
+    @Override
+    protected int selectIndex(GearmanJob job) {
+        int size = sessions.size();
+        if (next >= size) {
+            next %= size;
+        }
+        return next++;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import org.gearman.common.GearmanJobServerSession;
+
+/**
+ * Decides which job server a {@link GearmanClientImpl} sends a request to.
+ *
+ * <p>
+ * A selector is told about every job server session the client adds or
+ * removes and is then asked to pick one of them for each job submission and
+ * echo request. All of its methods are called from the IO reactor thread of
+ * the client, so implementations need not be thread-safe, but they should
+ * neither block nor allocate in {@link #select(GearmanJob)}, which is called
+ * for every submission. A selector instance must not be shared between
+ * clients.
+ */
+public interface ServerSelector {
+
+    /**
+     * Adds a session to the sessions the selector chooses from.
+     *
+     * @param session the session that has been added to the client.
+     */
+    void sessionAdded(GearmanJobServerSession session);
+
+    /**
+     * Removes a session from the sessions the selector chooses from.
+     *
+     * @param session the session that has been removed from the client.
+     */
+    void sessionRemoved(GearmanJobServerSession session);
+
+    /**
+     * Picks the session a request is to be sent to.
+     *
+     * @param job the job being submitted, or null if the request is not a
+     *        job submission.
+     * @return one of the sessions that have been added and not removed, or
+     *         null if there are none.
+     */
+    GearmanJobServerSession select(GearmanJob job);
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.gearman.common.GearmanJobServerConnection;
+import org.gearman.common.GearmanJobServerSession;
+
+/**
+ * Sends requests to the job servers in proportion to static weights, for
+ * instance to send twice as many jobs to a server with twice the cores.
+ * Requests are interleaved smoothly: with weights 2 and 1 the servers are
+ * picked as A, B, A rather than A, A, B.
+ */
+public class WeightedServerSelector extends AbstractServerSelector {
+
+    private final Map<GearmanJobServerConnection, Integer> weightMap;
+    private final int defaultWeight;
+    // indexed like sessions
+    private int[] weights = new int[0];
+    private int[] current = new int[0];
+    private int totalWeight = 0;
+
+    /**
+     * Creates a selector.
+     *
+     * @param weights the weight of each job server, keyed by the connection
+     *        that is added to the client.
+     * @param defaultWeight the weight of job servers that are not in the map.
+     * @throws IllegalArgumentException if a weight is less than one.
+     */
+    public WeightedServerSelector(
+            Map<? extends GearmanJobServerConnection, Integer> weights,
+            int defaultWeight) throws IllegalArgumentException {
+        weightMap = new HashMap<GearmanJobServerConnection, Integer>(weights);
+        for (Integer weight : weightMap.values()) {
+            checkWeight(weight);
+        }
+        this.defaultWeight = checkWeight(defaultWeight);
+    }
+
+    @Override
+    public void sessionAdded(GearmanJobServerSession session) {
+        super.sessionAdded(session);
+        updateWeights();
+    }
+
+    @Override
+    public void sessionRemoved(GearmanJobServerSession session) {
+        super.sessionRemoved(session);
+        updateWeights();
+    }
+
+    @Override
+    protected int selectIndex(GearmanJob job) {
+        int best = 0;
+        for (int i = 0; i < current.length; i++) {
+            current[i] += weights[i];
+            if (current[i] > current[best]) {
+                best = i;
+            }
+        }
+        current[best] -= totalWeight;
+        return best;
+    }
+
+    private void updateWeights() {
+        int size = sessions.size();
+        weights = new int[size];
+        current = new int[size];
+        totalWeight = 0;
+        for (int i = 0; i < size; i++) {
+            Integer weight = weightMap.get(sessions.get(i).getConnection());
+            weights[i] = weight == null ? defaultWeight : weight;
+            totalWeight += weights[i];
+        }
+    }
+
+    private static int checkWeight(Integer weight)
+            throws IllegalArgumentException {
+        if (weight == null || weight < 1) {
+            throw new IllegalArgumentException("Weight must be at least one");
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of direct buffers shared by the connections of a process. A
+ * connection borrows a buffer for a read or a write and gives it back as soon
+ * as it holds no unprocessed bytes, so an idle connection holds no buffer at
+ * all and the socket is only ever handed direct buffers, which the JDK would
+ * otherwise copy heap buffers into.
+ *
+ * <p>
+ * Buffers come in power of two size classes from {@link #MIN_BUFFER_SIZE} to
+ * {@link #MAX_BUFFER_SIZE} bytes. The pool keeps as many idle buffers of a
+ * class as were borrowed at the same time during the last trim interval, its
+ * high-water mark, and drops the rest once an interval has passed. Trimming
+ * happens on the next acquire or release after an interval has ended, or when
+ * {@link #trim()} is called.
+ *
+ * <p>
+ * A <tt>GearmanBufferPool</tt> is thread-safe.
+ */
+public final class GearmanBufferPool {
+
+    /**
+     * The size of the smallest buffer handed out.
+     */
+    public static final int MIN_BUFFER_SIZE = 512;
+    /**
+     * The size of the largest buffer handed out.
+     */
+    public static final int MAX_BUFFER_SIZE = 64 * 1024;
+    /**
+     * The trim interval of the shared pool, in milliseconds.
+     */
+    public static final long DEFAULT_TRIM_INTERVAL_MILLIS = 10000;
+    private static final int MIN_SHIFT =
+            Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final GearmanBufferPool SHARED = new GearmanBufferPool(
+            DEFAULT_TRIM_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    private final SizeClass[] classes;
+    private final long trimIntervalNanos;
+    private final AtomicLong lastTrim;
+    private final AtomicLong allocations = new AtomicLong();
+
+    /**
+     * Creates a pool that trims its idle buffers once per interval.
+     *
+     * @param trimInterval how long buffers beyond the high-water mark are
+     *        kept.
+     * @param unit the unit of the trimInterval argument.
+     * @throws IllegalArgumentException if trimInterval is negative.
+     */
+    public GearmanBufferPool(long trimInterval, TimeUnit unit)
+            throws IllegalArgumentException {
+        if (trimInterval < 0) {
+            throw new IllegalArgumentException("Trim interval can not be " +
+                    "negative");
+        }
+        trimIntervalNanos = unit.toNanos(trimInterval);
+        lastTrim = new AtomicLong(System.nanoTime());
+        classes = new SizeClass[Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE)
+                - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass(MIN_BUFFER_SIZE << i);
+        }
+    }
+
+    /**
+     * @return the pool used by every {@link GearmanNIOJobServerConnection}.
+     */
+    public static GearmanBufferPool getSharedPool() {
+        return SHARED;
+    }
+
+    /**
+     * Borrows a cleared direct buffer of at least the specified size. The
+     * buffer should be given back with {@link #release(ByteBuffer)} once it is
+     * no longer used, a buffer that is not given back is simply garbage
+     * collected.
+     *
+     * @param size the minimum capacity of the buffer.
+     * @return the buffer, its capacity is the size class of size.
+     * @throws IllegalArgumentException if size is negative or larger than
+     *         {@link #MAX_BUFFER_SIZE}.
+     */
+    public ByteBuffer acquire(int size) throws IllegalArgumentException {
+        if (size < 0 || size > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Can not pool buffers of " +
+                    size + " bytes");
+        }
+        SizeClass sizeClass = classes[classIndex(size)];
+        ByteBuffer buffer = sizeClass.take();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(sizeClass.size);
+            allocations.incrementAndGet();
+        }
+        maybeTrim();
+        return buffer;
+    }
+
+    /**
+     * Gives back a buffer borrowed from the pool. The caller must not use the
+     * buffer, or any view of it, afterwards.
+     *
+     * @param buffer the buffer to give back.
+     * @throws IllegalArgumentException if the buffer can not have been
+     *         borrowed from a pool.
+     */
+    public void release(ByteBuffer buffer) throws IllegalArgumentException {
+        if (buffer == null || !buffer.isDirect() ||
+                buffer.capacity() > MAX_BUFFER_SIZE ||
+                classes[classIndex(buffer.capacity())].size !=
+                buffer.capacity()) {
+            throw new IllegalArgumentException("Buffer " + buffer +
+                    " has not been borrowed from a pool");
+        }
+        classes[classIndex(buffer.capacity())].give(buffer);
+        maybeTrim();
+    }
+
+    /**
+     * Drops the idle buffers beyond the high-water mark of the interval that
+     * ends now and starts a new interval.
+     */
+    public void trim() {
+        lastTrim.set(System.nanoTime());
+        for (SizeClass sizeClass : classes) {
+            sizeClass.trim();
+        }
+    }
+
+    /**
+     * @return the number of idle buffers held by the pool.
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (SizeClass sizeClass : classes) {
+            count += sizeClass.idleCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return the total capacity of the idle buffers held by the pool.
+     */
+    public long getIdleBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : classes) {
+            bytes += (long) sizeClass.idleCount() * sizeClass.size;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the number of buffers borrowed and not given back yet.
+     */
+    public int getBorrowedCount() {
+        int count = 0;
+        for (SizeClass sizeClass : classes) {
+            count += sizeClass.borrowedCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of buffers the pool has allocated since it was
+     *         created.
+     */
+    public long getAllocationCount() {
+        return allocations.get();
+    }
+
+    private void maybeTrim() {
+        long last = lastTrim.get();
+        long now = System.nanoTime();
+        if (now - last >= trimIntervalNanos &&
+                lastTrim.compareAndSet(last, now)) {
+            for (SizeClass sizeClass : classes) {
+                sizeClass.trim();
+            }
+        }
+    }
+
+    private static int classIndex(int size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /*
+     * The buffers of one size. limit is the high-water mark of the last
+     * interval, peak the one of the current interval, a released buffer is
+     * kept while the class holds fewer buffers than the larger of the two.
+     */
+    private static final class SizeClass {
+
+        private final int size;
+        private final ArrayDeque<ByteBuffer> idle = new ArrayDeque<ByteBuffer>();
+        private int borrowed = 0;
+        private int peak = 0;
+        private int limit = 0;
+
+        SizeClass(int size) {
+            this.size = size;
+        }
+
+        synchronized ByteBuffer take() {
+            borrowed++;
+            if (borrowed > peak) {
+                peak = borrowed;
+            }
+            // the most recently used buffer is the most likely to be cached
+            ByteBuffer buffer = idle.pollFirst();
+            if (buffer != null) {
+                buffer.clear();
+            }
+            return buffer;
+        }
+
+        synchronized void give(ByteBuffer buffer) {
+            if (borrowed > 0) {
+                borrowed--;
+            }
+            if (borrowed + idle.size() < Math.max(limit, peak)) {
+                idle.addFirst(buffer);
+            }
+        }
+
+        synchronized void trim() {
+            limit = peak;
+            peak = borrowed;
+            while (!idle.isEmpty() && borrowed + idle.size() > limit) {
+                idle.pollLast();
+            }
+        }
+
+        synchronized int idleCount() {
+            return idle.size();
+        }
+
+        synchronized int borrowedCount() {
+            return borrowed;
+        }
+    }
+}
@@ -13,6 +13,10 @@ public class GearmanException extends RuntimeException {
         super(msg);
     }
 
+    public GearmanException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+
     public GearmanException() {
         super();
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A <tt>GearmanIOEngine</tt> is a fixed set of {@link GearmanIOReactor}
+ * threads that can be shared by any number of clients and workers in the same
+ * JVM, instead of each of them owning a reactor (and a selector) of its own.
+ *
+ * <p>
+ * Each client or worker attached to the engine is handed one of the
+ * reactors, in round-robin order, and all of its job server sessions are
+ * driven by that reactor. The sessions of many clients and workers are thus
+ * sharded across the reactors of the engine, while the sessions of a single
+ * client or worker are still only ever touched from a single thread.
+ */
+public class GearmanIOEngine {
+
+    private static final Logger LOG = Logger.getLogger(
+            Constants.GEARMAN_SESSION_LOGGER_NAME);
+    private final GearmanIOReactor[] reactors;
+    private final AtomicInteger next = new AtomicInteger(0);
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts an engine with one reactor per available processor.
+     *
+     * @throws GearmanException if a reactor could not be created.
+     */
+    public GearmanIOEngine() throws GearmanException {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates and starts an engine with the specified number of reactors.
+     *
+     * @param reactorCount the number of reactor threads.
+     * @throws IllegalArgumentException if reactorCount is less than one.
+     * @throws GearmanException if a reactor could not be created.
+     */
+    public GearmanIOEngine(int reactorCount)
+            throws IllegalArgumentException, GearmanException {
+        this(reactorCount, GearmanSpinPolicy.PARK);
+    }
+
+    /**
+     * Creates and starts an engine whose reactors busy-poll for IO as
+     * specified by the spin policy. A spinning reactor keeps a core busy, so
+     * the reactor count should not exceed the number of cores set aside for
+     * the engine.
+     *
+     * @param reactorCount the number of reactor threads.
+     * @param spinPolicy how long the reactors poll before blocking.
+     * @throws IllegalArgumentException if reactorCount is less than one or
+     *         the policy is null.
+     * @throws GearmanException if a reactor could not be created.
+     */
+    public GearmanIOEngine(int reactorCount, GearmanSpinPolicy spinPolicy)
+            throws IllegalArgumentException, GearmanException {
+        if (spinPolicy == null) {
+            throw new IllegalArgumentException("Spin policy can not be null");
+        }
+        if (reactorCount < 1) {
+            throw new IllegalArgumentException("An engine requires at least " +
+                    "one reactor");
+        }
+        reactors = new GearmanIOReactor[reactorCount];
+        try {
+            for (int i = 0; i < reactorCount; i++) {
+                reactors[i] = new GearmanIOReactor(spinPolicy);
+                reactors[i].start();
+            }
+        } catch (IOException ioe) {
+            shutdown();
+            throw new GearmanException("Failed to create IO reactor for " +
+                    "engine", ioe);
+        }
+        LOG.log(Level.FINE, "Started IO engine with " + reactorCount +
+                " reactors");
+    }
+
+    /**
+     * Returns the reactor that the next client or worker attached to the
+     * engine should use. Reactors are handed out in round-robin order.
+     *
+     * @return a running reactor.
+     * @throws IllegalStateException if the engine has been shutdown.
+     */
+    public GearmanIOReactor nextReactor() throws IllegalStateException {
+        if (!running) {
+            throw new IllegalStateException("IO engine has been shutdown");
+        }
+        int i = (next.getAndIncrement() & Integer.MAX_VALUE) % reactors.length;
+        return reactors[i];
+    }
+
+    public int getReactorCount() {
+        return reactors.length;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops every reactor of the engine. Clients and workers attached to the
+     * engine should be shutdown first, sessions that are still registered
+     * with a reactor are not closed.
+     */
+    public void shutdown() {
+        running = false;
+        for (GearmanIOReactor reactor : reactors) {
+            if (reactor != null) {
+                reactor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2009 by Eric Lambert <Eric.Lambert@sun.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A <tt>GearmanIOReactor</tt> is a single thread that owns a {@link Selector}
+ * and drives the IO of every {@link GearmanJobServerSession} registered with
+ * it.
+ *
+ * <p>
+ * Sessions are not thread-safe, so once a session has been registered with a
+ * reactor it must only be touched from the reactor thread. Other threads hand
+ * work to the reactor via {@link #execute(Runnable)} or
+ * {@link #submit(Callable)}; the work is placed on a lock-free queue and the
+ * selector is woken up so that the work is picked up immediately. Work that
+ * is submitted from the reactor thread itself is run inline.
+ *
+ * <p>
+ * By default the reactor thread blocks in <tt>select()</tt> whenever there is
+ * nothing to do. A reactor created with a spinning {@link GearmanSpinPolicy}
+ * instead polls its selector and command queue with <tt>selectNow()</tt> for
+ * as long as the policy allows, which takes the cost of waking up the
+ * selector off the round trip of every request.
+ */
+public class GearmanIOReactor implements Runnable {
+
+    private static final String DESCRIPTION_PREFIX = "GearmanIOReactor";
+    private static final AtomicInteger REACTOR_COUNT = new AtomicInteger(0);
+    private static final Logger LOG = Logger.getLogger(
+            Constants.GEARMAN_SESSION_LOGGER_NAME);
+    private final String DESCRIPTION;
+    private final Selector selector;
+    private final Queue<Runnable> pendingCommands;
+    private final Map<SelectionKey, GearmanJobServerSession> sessions;
+    private final Map<GearmanJobServerSession, GearmanSessionEventHandler>
+            handlers;
+    private final GearmanTimerWheel timers;
+    private final GearmanSpinPolicy spinPolicy;
+    private volatile boolean running = false;
+    // true while the reactor thread is, or is about to be, blocked in select
+    private volatile boolean parked = false;
+    private volatile Thread reactorThread = null;
+    // only written by the reactor thread
+    private volatile long wakeups = 0;
+
+    public GearmanIOReactor() throws IOException {
+        this(GearmanSpinPolicy.PARK);
+    }
+
+    /**
+     * Creates a reactor that busy-polls for IO and commands as specified by
+     * the spin policy.
+     *
+     * @param spinPolicy how long to poll before blocking in the selector.
+     * @throws IOException if the selector could not be opened.
+     * @throws IllegalArgumentException if the policy is null.
+     */
+    public GearmanIOReactor(GearmanSpinPolicy spinPolicy)
+            throws IOException, IllegalArgumentException {
+        if (spinPolicy == null) {
+            throw new IllegalArgumentException("Spin policy can not be null");
+        }
+        this.spinPolicy = spinPolicy;
+        DESCRIPTION = DESCRIPTION_PREFIX + "-" +
+                REACTOR_COUNT.incrementAndGet();
+        selector = Selector.open();
+        pendingCommands = new ConcurrentLinkedQueue<Runnable>();
+        sessions = new HashMap<SelectionKey, GearmanJobServerSession>();
+        handlers = new HashMap<GearmanJobServerSession,
+                GearmanSessionEventHandler>();
+        timers = new GearmanTimerWheel();
+    }
+
+    @Override
+    public String toString() {
+        return DESCRIPTION;
+    }
+
+    /**
+     * Starts the reactor thread. The thread is a daemon thread, so a reactor
+     * that has not been shut down will not keep the JVM alive.
+     *
+     * @throws IllegalStateException if the reactor has already been started.
+     */
+    public synchronized void start() throws IllegalStateException {
+        if (reactorThread != null) {
+            throw new IllegalStateException("Reactor " + this +
+                    " has already been started");
+        }
+        running = true;
+        Thread t = new Thread(this, DESCRIPTION);
+        t.setDaemon(true);
+        reactorThread = t;
+        t.start();
+        LOG.log(Level.FINE, "Reactor " + this + " has been started");
+    }
+
+    /**
+     * Stops the reactor thread and closes its selector. Sessions that are
+     * still registered with the reactor are not closed, that is the
+     * responsibility of whoever registered them. If called from a thread other
+     * than the reactor thread, this method waits for the reactor thread to
+     * exit.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+        Thread t = reactorThread;
+        if (t != null && t != Thread.currentThread()) {
+            try {
+                t.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        LOG.log(Level.FINE, "Reactor " + this + " has been shutdown");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the policy that decides how long the reactor busy-polls before
+     *         blocking in its selector.
+     */
+    public GearmanSpinPolicy getSpinPolicy() {
+        return spinPolicy;
+    }
+
+    /**
+     * Returns how many times the reactor thread has returned from waiting for
+     * IO, commands or timers, or has found IO or commands while spinning. A
+     * reactor whose sessions are idle does not wake up at all, so this can be
+     * used to measure the cost of idle clients and workers.
+     *
+     * @return the number of wakeups of the reactor thread.
+     */
+    public long getWakeupCount() {
+        return wakeups;
+    }
+
+    /**
+     * @return true if the calling thread is the reactor thread.
+     */
+    public boolean inReactorThread() {
+        return Thread.currentThread() == reactorThread;
+    }
+
+    /**
+     * Schedules a command to be run on the reactor thread. If the caller is
+     * the reactor thread, the command is run immediately.
+     *
+     * @param command the command to run.
+     */
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new IllegalArgumentException("Command can not be null");
+        }
+        if (inReactorThread()) {
+            command.run();
+            return;
+        }
+        if (!running) {
+            throw new IllegalStateException("Reactor " + this +
+                    " is not running");
+        }
+        pendingCommands.add(command);
+        // a spinning reactor picks the command up without being woken
+        if (parked) {
+            selector.wakeup();
+        }
+        // the reactor may have drained its queue for the last time between
+        // our check of running and the add
+        if (!running && pendingCommands.remove(command)) {
+            throw new IllegalStateException("Reactor " + this +
+                    " is not running");
+        }
+    }
+
+    /**
+     * Schedules a callable to be run on the reactor thread and returns a
+     * future representing its result. If the caller is the reactor thread,
+     * the callable is run before this method returns.
+     *
+     * @param command the callable to run.
+     * @return a future that will contain the result of the callable.
+     */
+    public <T> Future<T> submit(Callable<T> command) {
+        FutureTask<T> task = new FutureTask<T>(command);
+        execute(task);
+        return task;
+    }
+
+    /**
+     * Schedules a task to be run on the reactor thread once the delay has
+     * passed. Timeouts are kept in a {@link GearmanTimerWheel}, so they fire
+     * up to {@link GearmanTimerWheel#DEFAULT_TICK_MILLIS} milliseconds late.
+     *
+     * <p>
+     * Must be called from the reactor thread.
+     *
+     * @param task the task to run.
+     * @param delay the delay after which to run the task.
+     * @param unit the unit of the delay.
+     * @return the timeout, which can be cancelled from any thread.
+     */
+    public GearmanTimerWheel.Timeout schedule(Runnable task, long delay,
+            TimeUnit unit) {
+        checkReactorThread();
+        return timers.schedule(task, delay, unit, System.nanoTime());
+    }
+
+    /**
+     * Initializes a session against the reactor's selector and starts driving
+     * its IO. Packets received from the session are dispatched to the
+     * specified handler on the reactor thread. Should the session encounter an
+     * IO error, the handler receives an ERROR event for the session.
+     *
+     * <p>
+     * Must be called from the reactor thread.
+     *
+     * @param session the session to register.
+     * @param handler the handler for the session's events.
+     * @throws IOException if the session could not be initialized.
+     */
+    public void register(GearmanJobServerSession session,
+            GearmanSessionEventHandler handler) throws IOException {
+        checkReactorThread();
+        session.initSession(selector, handler);
+        sessions.put(session.getSelectionKey(), session);
+        handlers.put(session, handler);
+        LOG.log(Level.FINE, "Session " + session + " registered with " + this);
+    }
+
+    /**
+     * Stops driving the IO of a session. The session is not closed.
+     *
+     * <p>
+     * Must be called from the reactor thread.
+     *
+     * @param session the session to deregister.
+     */
+    public void deregister(GearmanJobServerSession session) {
+        checkReactorThread();
+        Iterator<GearmanJobServerSession> iter = sessions.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next() == session) {
+                iter.remove();
+            }
+        }
+        handlers.remove(session);
+    }
+
+    /**
+     * Balances a call to {@link GearmanJobServerSession#suspendReads()} made
+     * on the reactor thread. Once the session reads again, the packets it
+     * already holds are handled without waiting for more data to arrive on
+     * its socket.
+     *
+     * <p>
+     * May be called from any thread. When called from the reactor thread, the
+     * session is resumed once the reactor is done with whatever it is doing,
+     * which may be driving the IO of that very session.
+     *
+     * @param session the session whose reads are resumed.
+     */
+    public void resumeReads(final GearmanJobServerSession session) {
+        Runnable command = new Runnable() {
+
+            public void run() {
+                if (session.resumeReads() && session.isInitialized() &&
+                        sessions.get(session.getSelectionKey()) == session) {
+                    driveSession(session);
+                }
+            }
+        };
+        if (inReactorThread()) {
+            pendingCommands.add(command);
+        } else {
+            execute(command);
+        }
+    }
+
+    public void run() {
+        LOG.log(Level.FINE, "Reactor " + this + " is running");
+        try {
+            long idleSince = System.nanoTime();
+            while (running) {
+                boolean ranCommands = runPendingCommands() > 0;
+                long now = System.nanoTime();
+                if (ranCommands) {
+                    idleSince = now;
+                }
+                if (spinPolicy.keepSpinning(idleSince, now)) {
+                    if (selector.selectNow() > 0) {
+                        idleSince = now;
+                        wakeups++;
+                    } else {
+                        GearmanSpinPolicy.onSpinWait();
+                    }
+                } else {
+                    park(timers.millisToNextExpiry(now));
+                    idleSince = System.nanoTime();
+                }
+                Iterator<SelectionKey> keys =
+                        selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    GearmanJobServerSession session = sessions.get(key);
+                    if (session != null && key.isValid()) {
+                        session.ioReady(key.readyOps());
+                        driveSession(session);
+                    }
+                }
+                timers.expire(System.nanoTime());
+            }
+        } catch (IOException ioe) {
+            LOG.log(Level.SEVERE, "Reactor " + this + " failed to select" +
+                    " for IO. Reactor is exiting.", ioe);
+        } catch (ClosedSelectorException cse) {
+            LOG.log(Level.FINE, "Selector of reactor " + this + " closed");
+        } finally {
+            running = false;
+            runPendingCommands();
+            try {
+                selector.close();
+            } catch (IOException ioe) {
+                LOG.log(Level.WARNING, "Received IOException while " +
+                        "attempting to close selector of reactor " + this, ioe);
+            }
+            LOG.log(Level.FINE, "Reactor " + this + " has exited");
+        }
+    }
+
+    /*
+     * Blocks in the selector until there is IO, a command or a timeout to
+     * expire. Once parked is set, threads queueing a command wake the selector
+     * up, so a command queued before that is picked up by the check that
+     * follows it.
+     */
+    private void park(long timeout) throws IOException {
+        parked = true;
+        try {
+            if (!pendingCommands.isEmpty() || !running) {
+                selector.selectNow();
+            } else if (timeout > 0) {
+                selector.select(timeout);
+            } else {
+                selector.select();
+            }
+        } finally {
+            parked = false;
+        }
+        wakeups++;
+    }
+
+    private int runPendingCommands() {
+        int ran = 0;
+        Runnable command = null;
+        while ((command = pendingCommands.poll()) != null) {
+            ran++;
+            try {
+                command.run();
+            } catch (RuntimeException re) {
+                LOG.log(Level.WARNING, "Reactor " + this + " received " +
+                        "exception while running command " + command, re);
+            }
+        }
+        return ran;
+    }
+
+    private void driveSession(GearmanJobServerSession session) {
+        if (!session.isInitialized()) {
+            return;
+        }
+        try {
+            session.driveSessionIO();
+        } catch (IOException ioe) {
+            LOG.log(Level.WARNING, "Reactor " + this + " received " +
+                    "IOException while driving IO on session " + session, ioe);
+            sessionFailed(session, ioe);
+        } catch (RuntimeException re) {
+            LOG.log(Level.WARNING, "Reactor " + this + " received " +
+                    "exception while driving IO on session " + session, re);
+            sessionFailed(session, re);
+        }
+    }
+
+    /*
+     * A session that failed while its IO was being driven is closed and
+     * deregistered before its handler is told about it, the handler can tell
+     * such an ERROR event apart from one sent by the job server by the fact
+     * that the session is no longer initialized.
+     */
+    private void sessionFailed(GearmanJobServerSession session, Exception e) {
+        GearmanSessionEventHandler handler = handlers.get(session);
+        deregister(session);
+        if (session.isInitialized()) {
+            try {
+                session.closeSession();
+            } catch (RuntimeException re) {
+                LOG.log(Level.WARNING, "Reactor " + this + " failed to close " +
+                        "session " + session, re);
+            }
+        }
+        if (handler == null) {
+            return;
+        }
+        String code = "000";
+        String msg = "Session " + session + " failed: " + e;
+        handler.handleSessionEvent(new GearmanSessionEvent(
+                new GearmanPacketImpl(GearmanPacketMagic.RES,
+                GearmanPacketType.ERROR, GearmanPacketImpl.generatePacketData(
+                code.getBytes(), msg.getBytes())), session));
+    }
+
+    private void checkReactorThread() throws IllegalStateException {
+        if (!inReactorThread()) {
+            throw new IllegalStateException("Operation must be executed on " +
+                    "the thread of reactor " + this);
+        }
+    }
+}
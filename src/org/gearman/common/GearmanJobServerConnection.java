@@ -35,6 +35,25 @@ public interface GearmanJobServerConnection {
      */
     void write(GearmanPacket packet) throws IOException;
 
+    /**
+     * Queues a {@link GearmanPacket} to be written to the Gearman Job Server
+     * by the next call to {@link #flush()}. The payload of the packet is not
+     * copied, so the packet must not be modified once it has been queued.
+     *
+     * @param packet The request to be queued.
+     */
+    void buffer(GearmanPacket packet);
+
+    /**
+     * Writes as many of the queued packets to the Gearman Job Server as the
+     * connection will currently accept, using as few writes as possible.
+     * Whatever could not be written remains queued for the next flush.
+     *
+     * @return true if every queued packet has been written, else false.
+     * @throws IOException if an I/O exception was encountered.
+     */
+    boolean flush() throws IOException;
+
     /**
      * Reads a {@link GearmanPacket} from the connection with the Gearman
      * Job Server.
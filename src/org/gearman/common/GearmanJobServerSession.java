@@ -29,6 +29,14 @@ public class GearmanJobServerSession
     private GearmanSessionEventHandler responseHandler = null;
     private Queue<GearmanTask> newTaskList = null;
     private Queue<GearmanTask> tasksAwaitingAckList = null;
+    // A PRE_SLEEP is only answered by the NOOP that wakes the worker up, which
+    // can arrive after the responses to requests sent later, so it is kept
+    // out of the FIFO of tasks awaiting acknowledgement.
+    private GearmanTask preSleepTask = null;
+    // number of consumers that asked for reads to be suspended, the session
+    // only reads from its connection while this is zero
+    private int readSuspensions = 0;
+    private boolean writeInterest = false;
 
     public GearmanJobServerSession(GearmanJobServerConnection conn)
             throws IllegalArgumentException {
@@ -110,11 +118,17 @@ public class GearmanJobServerSession
                     System.currentTimeMillis() > timeOutInMills)) {
             try {
                 driveSessionIO();
+                if (newTaskList.size() > 0 || tasksAwaitingAckList.size() > 0) {
+                    waitForSessionIO(timeOutInMills < 0 ? 0 :
+                        Math.max(1, timeOutInMills - System.currentTimeMillis()));
+                }
             } catch (IOException ioe) {
                 LOG.log(Level.WARNING, "Receieved an IO Exception while" +
                         " driving io for session " + this, ioe);
             }
-            Thread.sleep(100);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
         }
         if (newTaskList.size() > 0 || tasksAwaitingAckList.size() > 0) {
             throw new TimeoutException("Session " + this + " timed out " +
@@ -134,6 +148,9 @@ public class GearmanJobServerSession
         packetsToWrite = null;
         tasksAwaitingAckList.clear();
         newTaskList.clear();
+        preSleepTask = null;
+        readSuspensions = 0;
+        writeInterest = false;
         LOG.log(Level.FINE, "Session " + this + " has successfully closed.");
     }
 
@@ -155,8 +172,7 @@ public class GearmanJobServerSession
 
         newTaskList.add(task);
         packetsToWrite.add(task.getRequestPacket());
-        sessionSelectionKey.interestOps(sessionSelectionKey.interestOps() |
-                SelectionKey.OP_WRITE);
+        updateWriteInterest(true);
         LOG.log(Level.FINER, "Session " + this + " is now handling " +
                 "the task " + task);
     }
@@ -182,20 +198,21 @@ public class GearmanJobServerSession
                     " un-initialized session");
         }
 
-        while (sessionHasDataToWrite() && canWrite()) {
-            if (packetsToWrite.isEmpty()) {
-                connection.write(null);
-            } else {
+        if (sessionHasDataToWrite() && canWrite()) {
+            // queue every pending packet before flushing so that a batch of
+            // requests leaves in as few socket writes as possible
+            while (!packetsToWrite.isEmpty()) {
                 p = packetsToWrite.remove();
-                connection.write(p);
+                connection.buffer(p);
                 handleSessionEvent(new GearmanSessionEvent(p, this));           //NOPMD
             }
+            connection.flush();
         }
         if (!sessionHasDataToWrite()) {
-            sessionSelectionKey.interestOps(SelectionKey.OP_READ);
+            updateWriteInterest(false);
         }
 
-        while (canRead()) {
+        while (readSuspensions == 0 && canRead()) {
             p = connection.read();
             if (p == null) {
                 continue;
@@ -204,6 +221,86 @@ public class GearmanJobServerSession
         }
     }
 
+    /**
+     * Passes the readiness of the session's socket, as reported by the
+     * selector the session was initialized with, on to its connection. Should
+     * be called before {@link #driveSessionIO()} whenever the selection key of
+     * the session has been selected.
+     *
+     * @param readyOps the ready operations of the session's selection key.
+     */
+    public void ioReady(int readyOps) {
+        connection.ioReady(readyOps);
+    }
+
+    /**
+     * Stops the session from reading from its connection, so that packets
+     * that can not be consumed yet pile up in the socket buffers and TCP flow
+     * control throttles the job server instead of the packets piling up on
+     * the heap. Reading stops right after the packet being handled, if any,
+     * and applies to every packet of the session, not only to those of the
+     * consumer that asked for it. Every call must be balanced by a call to
+     * {@link #resumeReads()}.
+     *
+     * <p>
+     * Must be called by the thread that drives the IO of the session.
+     */
+    public void suspendReads() {
+        readSuspensions++;
+        if (readSuspensions == 1) {
+            updateInterestOps();
+        }
+    }
+
+    /**
+     * Balances a call to {@link #suspendReads()}. Once every suspension has
+     * been balanced the session reads again, but only the next call to
+     * {@link #driveSessionIO()} handles the packets the session already holds.
+     *
+     * <p>
+     * Must be called by the thread that drives the IO of the session.
+     *
+     * @return true if the session reads again, else false.
+     */
+    public boolean resumeReads() {
+        if (readSuspensions == 0) {
+            return false;
+        }
+        readSuspensions--;
+        if (readSuspensions == 0) {
+            updateInterestOps();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the session has stopped reading from its connection.
+     */
+    public boolean isReadSuspended() {
+        return readSuspensions > 0;
+    }
+
+    /**
+     * Blocks the calling thread until the session has IO to drive or until the
+     * timeout expires. Callers that drive session IO themselves should use
+     * this between calls to {@link #driveSessionIO()} rather than sleeping, so
+     * that they wake up as soon as a response arrives from the server.
+     *
+     * @param timeout maximum time to block in milliseconds, zero means block
+     *        until IO is available.
+     * @return true if there is IO to drive, else false.
+     * @throws IOException if an I/O exception was encountered.
+     */
+    public boolean waitForSessionIO(long timeout)
+            throws IOException, IllegalStateException {
+        if (!isInitialized()) {
+            throw new IllegalStateException("Session " + this +
+                    " has not been initialized");
+        }
+        return connection.waitForIO(sessionHasDataToWrite(), timeout);
+    }
+
     @Override
     public boolean equals(Object that) {
         if (that == null) {
@@ -273,6 +370,10 @@ public class GearmanJobServerSession
                 GearmanPacketMagic.REQ + "/" + p.getPacketType() + " event");
         switch (state) {
             case SUBMITTED:
+                if (p.getPacketType().equals(GearmanPacketType.PRE_SLEEP)) {
+                    preSleepTask = t;
+                    break;
+                }
                 tasksAwaitingAckList.add(t);
                 LOG.log(Level.FINE,"Added task " + t.getRequestPacket().getPacketType() +
                         " to taskAwaiting list. List size = " +
@@ -323,15 +424,12 @@ public class GearmanJobServerSession
                 }
                 break;
             case NOOP:
-                if (task != null) {
-                    taskType = task.getRequestPacket().getPacketType();
-                    if (taskType.equals(GearmanPacketType.PRE_SLEEP)) {
-                        task.handleGearmanIOEvent(p);
-                    } else {
-                        return;
-                    }
+                if (preSleepTask != null) {
+                    GearmanTask sleeping = preSleepTask;
+                    preSleepTask = null;
+                    sleeping.handleGearmanIOEvent(p);
                 }
-                break;
+                return;
             case JOB_ASSIGN:
                 taskType = task.getRequestPacket().getPacketType();
                 if (taskType.equals(GearmanPacketType.GRAB_JOB)) {
@@ -412,6 +510,28 @@ public class GearmanJobServerSession
                 msg.getBytes())), this));
     }
 
+    /*
+     * The interest ops of the session's key only change when the session
+     * gets data to write or has written all of it, so that an idle session
+     * costs its selector nothing. A session whose reads are suspended does
+     * not select for reads either.
+     */
+    private void updateWriteInterest(boolean write) {
+        writeInterest = write;
+        updateInterestOps();
+    }
+
+    private void updateInterestOps() {
+        int ops = readSuspensions == 0 ? SelectionKey.OP_READ : 0;
+        if (writeInterest) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        if (sessionSelectionKey != null && sessionSelectionKey.isValid() &&
+                sessionSelectionKey.interestOps() != ops) {
+            sessionSelectionKey.interestOps(ops);
+        }
+    }
+
     private boolean canWrite() {
         if (connection == null) {
             return false;
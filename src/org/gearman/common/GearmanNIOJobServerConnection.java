@@ -5,14 +5,17 @@
  */
 package org.gearman.common;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.LinkedList;
+import java.util.Queue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,12 +26,59 @@ public class GearmanNIOJobServerConnection
     private final String DESCRIPTION;
     private InetSocketAddress remote;
     private SocketChannel serverConnection = null;
-    private Selector selector = null;
-    private SelectionKey selectorKey = null;
+    // Readiness of the socket as last reported by whoever selects on it, see
+    // ioReady. A read or write that leaves the socket drained or full clears
+    // the flag again, so the connection never has to select for itself.
+    private boolean readable = true;
+    private boolean writable = true;
+    // only opened if waitForIO is used, a connection driven by a
+    // GearmanIOReactor never needs a selector of its own
+    private Selector waitSelector = null;
+    private SelectionKey waitKey = null;
     private static final Logger LOG = Logger.getLogger(
             Constants.GEARMAN_CLIENT_LOGGER_NAME);
+    // Send buffers are borrowed from the shared GearmanBufferPool for a
+    // flush and given back once everything has been written, so an idle
+    // connection holds no send buffer and the socket is only handed direct
+    // buffers to write.
+    private final GearmanBufferPool pool = GearmanBufferPool.getSharedPool();
+    // Received bytes are appended at the position of bytesReceived and
+    // decoded starting at decodePosition. Decoded packets refer to their
+    // data in bytesReceived rather than copying it, so bytes in the buffer
+    // are never overwritten once they have been decoded, when the buffer is
+    // exhausted any partially received packet is moved to a new buffer. As
+    // packets keep it alive for as long as they are referenced, the receive
+    // buffer is not borrowed from the pool.
+    private static final int MIN_READ_SIZE = 512;
     private ByteBuffer bytesReceived;
-    private ByteBuffer bytesToSend;
+    private int decodePosition = 0;
+    private boolean receiveBufferShared = false;
+    private final Queue<GearmanPacket> packetsReceived =
+            new LinkedList<GearmanPacket>();
+    // header of the packet at decodePosition, pendingLength is negative
+    // until the header has been received
+    private GearmanPacketMagic pendingMagic = null;
+    private GearmanPacketType pendingType = null;
+    private int pendingLength = -1;
+    // The data of a packet larger than spillThreshold that has not been
+    // completely received when its header is decoded is read straight into
+    // spillData, a memory-mapped temporary file, rather than the heap.
+    private int spillThreshold = Integer.MAX_VALUE;
+    private ByteBuffer spillData = null;
+    // Packets waiting to be sent. flush copies their headers and payloads
+    // into writeBuffer, sized after the number of queued bytes, and writes
+    // it to the socket. A payload larger than COPY_THRESHOLD that already is
+    // direct is written as it is, behind the header in writeBuffer.
+    // writeBuffer is only kept between flushes while the socket has not
+    // taken all of it.
+    private static final int COPY_THRESHOLD = 1024;
+    private final Queue<GearmanPacket> sendQueue =
+            new LinkedList<GearmanPacket>();
+    private long queuedBytes = 0;
+    // the rest of the payload of the packet being copied into writeBuffer
+    private ByteBuffer sendPayload = null;
+    private ByteBuffer directPayload = null;
+    private ByteBuffer writeBuffer = null;
 
     public GearmanNIOJobServerConnection(String hostname)
             throws IllegalArgumentException {
@@ -48,8 +98,6 @@ public class GearmanNIOJobServerConnection
         this.remote = remote;
         bytesReceived = ByteBuffer.allocate(
                 Constants.GEARMAN_DEFAULT_SOCKET_RECV_SIZE);
-        bytesToSend = ByteBuffer.allocate(
-                Constants.GEARMAN_DEFAULT_SOCKET_SEND_SIZE);
         DESCRIPTION = DESCRIPTION_PREFIX + ":" + remote.toString();
     }
 
@@ -76,22 +124,13 @@ public class GearmanNIOJobServerConnection
                     Constants.GEARMAN_DEFAULT_SOCKET_RECV_SIZE);
             serverConnection.configureBlocking(false);
             serverConnection.finishConnect();
-            selector = Selector.open();
-            selectorKey = serverConnection.register(selector,
-                    SelectionKey.OP_WRITE | SelectionKey.OP_READ);
+            readable = true;
+            writable = true;
         } catch (IOException ioe) {
             LOG.log(Level.WARNING, "Received IOException while attempting to" +
                     " initialize session " + this +
                     ". Shuting down session", ioe);
             if (serverConnection != null && serverConnection.isOpen()) {
-                if (selector != null && selector.isOpen()) {
-                    try {
-                        selector.close();
-                    } catch (IOException selioe) {
-                        LOG.log(Level.WARNING, "Received IOException while" +
-                                " attempting to close selector.", selioe);
-                    }
-                }
                 try {
                     serverConnection.close();
                 } catch (IOException closeioe) {
@@ -111,13 +150,16 @@ public class GearmanNIOJobServerConnection
                     "has not been initialized");
         }
         LOG.log(Level.FINE, "Session " + this + " is being closed.");
-        selectorKey.cancel();
         try {
-            selector.close();
+            if (waitSelector != null) {
+                waitSelector.close();
+            }
         } catch (IOException ioe) {
             LOG.log(Level.WARNING, "Received IOException while attempting to " +
                     "close selector attached to session " + this, ioe);
         } finally {
+            waitSelector = null;
+            waitKey = null;
             try {
                 serverConnection.close();
             } catch (IOException cioe) {
@@ -125,86 +167,139 @@ public class GearmanNIOJobServerConnection
                         " to close connection for session " + this, cioe);
             }
             serverConnection = null;
+            resetBuffers();
         }
         LOG.log(Level.FINE, "Connection " + this + " has successfully closed.");
     }
 
     public void write(GearmanPacket request) throws IOException {
+        if (request != null) {
+            buffer(request);
+        }
+        flush();
+    }
 
-        if (request == null && bytesToSend.position() == 0) {
-            return;
+    /**
+     * Queues a packet to be sent by the next call to {@link #flush()}, so a
+     * batch of packets can be queued and then sent with as few writes to the
+     * socket as possible. The packet is only encoded when it is flushed, so
+     * it must not be modified once it has been queued.
+     *
+     * @param request the packet to buffer.
+     */
+    public void buffer(GearmanPacket request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Can not buffer a null packet");
         }
-        if (request != null) {
-            int ps = request.getData().length +
-                    Constants.GEARMAN_PACKET_HEADER_SIZE;
-            if (bytesToSend.remaining() < ps) {
-                int newCapacity = bytesToSend.capacity() * 2;
-                while (newCapacity < ps && newCapacity > 0) {
-                    newCapacity *=2;
-                }
-                bytesToSend = growBuffer(bytesToSend, newCapacity);
+        sendQueue.add(request);
+        queuedBytes += Constants.GEARMAN_PACKET_HEADER_SIZE +
+                request.getDataBuffer().remaining();
+    }
+
+    /**
+     * Writes queued packets to the job server until either the queue is
+     * empty or the socket will not take any more data. Packets are copied
+     * into a direct buffer borrowed from the {@link GearmanBufferPool}, which
+     * is given back once the queue is empty.
+     *
+     * @return true if every queued packet has been written, else false.
+     * @throws IOException if an I/O exception was encountered.
+     */
+    public boolean flush() throws IOException {
+        long bytesSent = 0;
+        boolean flushed = false;
+        while (true) {
+            if (!hasPendingWrite() && !fillWriteBuffer()) {
+                flushed = true;
+                break;
             }
-            byte[] bytes = request.toBytes();
-            ByteBuffer bb = ByteBuffer.allocate(bytes.length);
-            bb.put(bytes);
-            bb.rewind();
-            bytesToSend.put(bb);
-        }
-        selector.selectNow();
-        if (selectorKey.isWritable()) {
-            //Lets never write more than DEFAULT_SOCKET_SEND_SIZE, so if the
-            //buffersize is larger than this, set the limit to default
-            int newLimit = bytesToSend.position();
-            int oldLimit = newLimit;
-            if (newLimit > Constants.GEARMAN_DEFAULT_SOCKET_SEND_SIZE) {
-                newLimit = Constants.GEARMAN_DEFAULT_SOCKET_SEND_SIZE;
+            long sent = writePending();
+            if (sent == 0) {
+                // the socket is full, wait until it is reported writable
+                writable = false;
+                break;
             }
-            bytesToSend.limit(newLimit);
-            bytesToSend.rewind();
-            int bytesSent = serverConnection.write(bytesToSend);
-            bytesToSend.limit(oldLimit);
-            bytesToSend.compact();
-            LOG.log(Level.FINER,"Write command wrote " + bytesSent + " to " +
-                    this + ". " + bytesToSend.position() + " bytes left in " +
-                    "send buffer");
-        } else {
-            LOG.log(Level.FINER,"Write command can not write request: " +
-                    "Selector for " + this + " is not available for write. " +
-                    "Will buffer request and send it later.");
+            bytesSent += sent;
         }
+        LOG.log(Level.FINER,"Flush wrote " + bytesSent + " bytes to " +
+                this + ". " + queuedBytes + " queued bytes left to send");
+        return flushed;
     }
 
+    /**
+     * Returns the next packet received from the job server. If no packet has
+     * been decoded yet, a single read is performed on the socket and every
+     * complete packet it yields is decoded, subsequent calls return these
+     * packets without touching the socket.
+     *
+     * <p>
+     * The data of the returned packets is not copied out of the receive
+     * buffer, see {@link GearmanPacket#getDataBuffer()}.
+     *
+     * @return the next packet or null if no complete packet is available.
+     * @throws IOException if an I/O exception was encountered.
+     */
     public GearmanPacket read() throws IOException {
-        GearmanPacket returnPacket = null;
-        selector.selectNow();
-        if (selectorKey.isReadable()) {
-            if (!bytesReceived.hasRemaining()) {
-                bytesReceived = growBuffer(bytesReceived);
+        if (packetsReceived.isEmpty() && readable && spillData != null) {
+            // the rest of a spilled packet goes straight into its mapping
+            readInto(spillData);
+            if (!spillData.hasRemaining()) {
+                completeSpill();
             }
-            int bytesRead = serverConnection.read(bytesReceived);
-            if (bytesRead >= 0) {
-                LOG.log(Level.FINER, "Session " + this + " has read " +
-                        bytesRead + " bytes from its job server. Buffer has " +
-                        bytesReceived.remaining());
-            } else {
-                //TODO do something smarter here
-                throw new IOException("Connection to job server severed");
-            }
-        } else {
-            LOG.log(Level.FINER,"Read command can not read request from" +
-                    "session: Selector for " + this + " is not available " +
-                    "for read. ");
-        }
-        if (bufferContainsCompletePacket(bytesReceived)) {
-            byte[] pb = new byte[getSizeOfPacket(bytesReceived)];
-            bytesReceived.limit(bytesReceived.position());
-            bytesReceived.rewind();
-            bytesReceived.get(pb);
-            bytesReceived.compact();
-            returnPacket = new GearmanPacketImpl(new BufferedInputStream(
-                    new ByteArrayInputStream(pb)));
+        } else if (packetsReceived.isEmpty() && readable) {
+            ensureReceiveCapacity();
+            readInto(bytesReceived);
+            decodePackets();
+        }
+        return packetsReceived.poll();
+    }
+
+    /**
+     * Sets the size above which the data of a received packet is kept in a
+     * memory-mapped temporary file instead of on the heap. The file is
+     * deleted as soon as it has been mapped, its space is given back once
+     * the packet is no longer referenced and the mapping has been garbage
+     * collected. Packets whose data has been received completely by the time
+     * their header is decoded stay on the heap regardless.
+     *
+     * @param threshold the size in bytes, <tt>Integer.MAX_VALUE</tt>, the
+     *        default, keeps every packet on the heap.
+     * @throws IllegalArgumentException if threshold is negative.
+     */
+    public void setSpillThreshold(int threshold)
+            throws IllegalArgumentException {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Spill threshold can not be " +
+                    "negative");
+        }
+        spillThreshold = threshold;
+    }
+
+    /**
+     * @return the size above which received packets are kept in a
+     *         memory-mapped temporary file.
+     */
+    public int getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    /**
+     * Tells the connection which operations its socket is ready for, as
+     * reported by a selector the socket has been registered with (see
+     * {@link #registerSelector(Selector, int)}). Until this is called again,
+     * the connection assumes that the socket stays ready for these operations
+     * until a read or write finds otherwise.
+     *
+     * @param readyOps the ready operations of the selection key of the
+     *        socket.
+     */
+    public void ioReady(int readyOps) {
+        if ((readyOps & SelectionKey.OP_READ) != 0) {
+            readable = true;
+        }
+        if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+            writable = true;
         }
-        return returnPacket;
     }
 
     public SelectionKey registerSelector(Selector s, int mask)
@@ -214,44 +309,77 @@ public class GearmanNIOJobServerConnection
     }
 
     public boolean canRead() {
-        if (!selector.isOpen()) {
+        if (!isOpen()) {
             return false;
         }
-        try {
-            selector.selectNow();
-        } catch (IOException ioe) {
-            LOG.log(Level.WARNING, "Failed to select on connection " +
-                    this, ioe);
-        }
-        return (selectorKey.isReadable() ||
-                bufferContainsCompletePacket(bytesReceived));
+        return (readable || !packetsReceived.isEmpty());
     }
 
     public boolean canWrite() {
-        if (!selector.isOpen()) {
+        if (!isOpen()) {
             return false;
         }
-        try {
-            selector.selectNow();
-        } catch (IOException ioe) {
-            LOG.log(Level.WARNING, "Connection Failed to select on socket " +
-                    this, ioe);
+        return writable;
+    }
+
+    /**
+     * Blocks until the connection can be read from (or written to, if
+     * <tt>forWrite</tt> is set) or until the timeout expires, whichever comes
+     * first. Returns immediately if a complete packet is already buffered.
+     * Meant for connections whose IO is not driven by a
+     * {@link GearmanIOReactor}, the first call opens a selector for the
+     * connection.
+     *
+     * @param forWrite also wake up when the connection becomes writable.
+     * @param timeout maximum time to block in milliseconds, zero means block
+     *        until IO is available.
+     * @return true if the connection is ready for IO, else false.
+     * @throws IOException if an I/O exception was encountered.
+     */
+    public boolean waitForIO(boolean forWrite, long timeout)
+            throws IOException {
+        if (!isOpen()) {
+            return false;
+        }
+        if (!packetsReceived.isEmpty()) {
+            return true;
+        }
+        if (waitSelector == null) {
+            waitSelector = Selector.open();
+            waitKey = serverConnection.register(waitSelector, 0);
         }
-        return (selectorKey.isWritable());
+        int ops = forWrite ? SelectionKey.OP_READ | SelectionKey.OP_WRITE :
+            SelectionKey.OP_READ;
+        waitKey.interestOps(ops);
+        waitSelector.selectedKeys().clear();
+        if (waitSelector.select(timeout) == 0) {
+            return false;
+        }
+        ioReady(waitKey.readyOps());
+        return true;
     }
 
     public boolean hasBufferedWriteData() {
-        return bytesToSend.position() > 0;
+        return !sendQueue.isEmpty() || sendPayload != null ||
+                hasPendingWrite();
     }
 
-    public Selector getSelector() {
-        return selector;
+    // true while the connection holds a send buffer borrowed from the pool
+    boolean holdsPooledBuffers() {
+        return writeBuffer != null;
     }
 
     public boolean isOpen() {
         return (serverConnection != null && serverConnection.isConnected());
     }
 
+    /**
+     * @return the address of the job server.
+     */
+    public InetSocketAddress getRemoteAddress() {
+        return remote;
+    }
+
     @Override
     public boolean equals(Object that) {
         if (that == null) {
@@ -279,42 +407,245 @@ public class GearmanNIOJobServerConnection
         return this.remote == null ? 0 : this.remote.hashCode();
     }
 
-    private boolean bufferContainsCompletePacket(ByteBuffer b) {
-        if (b.position() < Constants.GEARMAN_PACKET_HEADER_SIZE) {
+    // a connection can be reopened, it must not see data from its last life
+    private void resetBuffers() {
+        packetsReceived.clear();
+        bytesReceived = ByteBuffer.allocate(
+                Constants.GEARMAN_DEFAULT_SOCKET_RECV_SIZE);
+        decodePosition = 0;
+        receiveBufferShared = false;
+        pendingLength = -1;
+        pendingMagic = null;
+        pendingType = null;
+        spillData = null;
+        sendQueue.clear();
+        queuedBytes = 0;
+        sendPayload = null;
+        directPayload = null;
+        releaseWriteBuffer();
+    }
+
+    private boolean hasPendingWrite() {
+        return directPayload != null ||
+                (writeBuffer != null && writeBuffer.hasRemaining());
+    }
+
+    private long writePending() throws IOException {
+        if (directPayload == null) {
+            return serverConnection.write(writeBuffer);
+        }
+        long sent;
+        if (writeBuffer.hasRemaining()) {
+            sent = serverConnection.write(new ByteBuffer[] {writeBuffer,
+                    directPayload});
+        } else {
+            sent = serverConnection.write(directPayload);
+        }
+        if (!directPayload.hasRemaining()) {
+            directPayload = null;
+        }
+        return sent;
+    }
+
+    /*
+     * Encodes queued packets into writeBuffer until it is full or a direct
+     * payload is to be written next. Returns false, having given back
+     * writeBuffer, if there is nothing left to send.
+     */
+    private boolean fillWriteBuffer() {
+        if (sendPayload == null && sendQueue.isEmpty()) {
+            releaseWriteBuffer();
             return false;
         }
-        return b.position() >= getSizeOfPacket(b) ? true : false;
+        int wanted = (int) Math.min(queuedBytes,
+                GearmanBufferPool.MAX_BUFFER_SIZE);
+        if (writeBuffer != null && writeBuffer.capacity() < wanted) {
+            releaseWriteBuffer();
+        }
+        if (writeBuffer == null) {
+            writeBuffer = pool.acquire(wanted);
+        }
+        writeBuffer.clear();
+        while (writeBuffer.hasRemaining()) {
+            if (sendPayload == null) {
+                GearmanPacket packet = sendQueue.peek();
+                if (packet == null || writeBuffer.remaining() <
+                        Constants.GEARMAN_PACKET_HEADER_SIZE) {
+                    break;
+                }
+                sendQueue.remove();
+                ByteBuffer payload = packet.getDataBuffer();
+                new GearmanPacketHeader(packet.getMagic(),
+                        packet.getPacketType(), payload.remaining()).write(
+                        writeBuffer);
+                queuedBytes -= Constants.GEARMAN_PACKET_HEADER_SIZE;
+                if (payload.isDirect() && payload.remaining() > COPY_THRESHOLD) {
+                    queuedBytes -= payload.remaining();
+                    directPayload = payload;
+                    break;
+                }
+                sendPayload = payload;
+            }
+            if (sendPayload.remaining() <= writeBuffer.remaining()) {
+                queuedBytes -= sendPayload.remaining();
+                writeBuffer.put(sendPayload);
+                sendPayload = null;
+            } else {
+                ByteBuffer part = sendPayload.duplicate();
+                part.limit(part.position() + writeBuffer.remaining());
+                queuedBytes -= part.remaining();
+                writeBuffer.put(part);
+                sendPayload.position(part.position());
+            }
+        }
+        writeBuffer.flip();
+        return true;
     }
 
-    // DO NOT CALL UNLESS YOU ARE SURE THAT BYTEBUFFER HAS AT LEAST
-    // GEARMAN_PACKET_HEADER_SIZE BYTES!
-    private int getSizeOfPacket(ByteBuffer buffer) {
-        int originalPosition = buffer.position();
-        byte[] header = new byte[Constants.GEARMAN_PACKET_HEADER_SIZE];
-        buffer.rewind();
-        buffer.get(header);
-        buffer.position(originalPosition);
-        GearmanPacketHeader ph = new GearmanPacketHeader(header);
-        return ph.getDataLength() + Constants.GEARMAN_PACKET_HEADER_SIZE;
+    private void releaseWriteBuffer() {
+        if (writeBuffer != null) {
+            pool.release(writeBuffer);
+            writeBuffer = null;
+        }
     }
 
-    private ByteBuffer growBuffer(ByteBuffer originalBuffer)
-            throws IllegalArgumentException {
-        return growBuffer(originalBuffer, originalBuffer.capacity() * 2);
+    private void readInto(ByteBuffer buffer) throws IOException {
+        int space = buffer.remaining();
+        int bytesRead = serverConnection.read(buffer);
+        if (bytesRead < 0) {
+            //TODO do something smarter here
+            throw new IOException("Connection to job server severed");
+        }
+        LOG.log(Level.FINER, "Session " + this + " has read " +
+                bytesRead + " bytes from its job server. Buffer " +
+                "has " + buffer.remaining());
+        // a read that did not fill the buffer has drained the socket
+        if (bytesRead < space) {
+            readable = false;
+        }
     }
 
-    private ByteBuffer growBuffer(ByteBuffer orginalBuffer, int newCapacity)
-            throws IllegalArgumentException{
-        if (newCapacity < orginalBuffer.capacity()) {
-            throw new IllegalArgumentException("The new capacity of the " +
-                    "buffer (" + newCapacity + ") may not be less than the" +
-                    " orginal capacity (" + orginalBuffer.capacity()+")");
+    /*
+     * Decodes every complete packet between decodePosition and the position
+     * of the receive buffer. The header fields are read in place, the data of
+     * each packet is a slice of the receive buffer.
+     */
+    private void decodePackets() throws IOException {
+        int headerSize = Constants.GEARMAN_PACKET_HEADER_SIZE;
+        while (true) {
+            int available = bytesReceived.position() - decodePosition;
+            if (pendingLength < 0) {
+                if (available < headerSize) {
+                    return;
+                }
+                pendingMagic = GearmanPacketMagic.fromInt(
+                        bytesReceived.getInt(decodePosition));
+                pendingType = GearmanPacketType.get(
+                        bytesReceived.getInt(decodePosition + 4));
+                pendingLength = bytesReceived.getInt(decodePosition + 8);
+                if (pendingLength < 0) {
+                    throw new IOException("Received packet with invalid " +
+                            "length " + pendingLength + " from " + this);
+                }
+            }
+            if (available < headerSize + pendingLength) {
+                if (pendingLength > spillThreshold) {
+                    startSpill();
+                }
+                return;
+            }
+            int dataStart = decodePosition + headerSize;
+            ByteBuffer packetData = bytesReceived.duplicate();
+            packetData.limit(dataStart + pendingLength);
+            packetData.position(dataStart);
+            packetsReceived.add(new GearmanPacketImpl(pendingMagic,
+                    pendingType, packetData));
+            receiveBufferShared = true;
+            decodePosition = dataStart + pendingLength;
+            pendingLength = -1;
+            pendingMagic = null;
+            pendingType = null;
         }
-        orginalBuffer.flip();
-        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
-        newBuffer.put(orginalBuffer);
-        return newBuffer;
+    }
+
+    /*
+     * Moves the part of the pending packet received so far into a new
+     * mapping, the rest of the packet is read into the mapping by read. The
+     * receive buffer continues at decodePosition once the packet has been
+     * received.
+     */
+    private void startSpill() throws IOException {
+        spillData = mapSpillFile(pendingLength);
+        ByteBuffer received = bytesReceived.duplicate();
+        received.limit(bytesReceived.position());
+        received.position(decodePosition + Constants.GEARMAN_PACKET_HEADER_SIZE);
+        spillData.put(received);
+        bytesReceived.position(decodePosition);
+        LOG.log(Level.FINE, "Session " + this + " is receiving a packet of " +
+                pendingLength + " bytes into a memory-mapped file");
+        if (!spillData.hasRemaining()) {
+            completeSpill();
+        }
+    }
+
+    private void completeSpill() {
+        spillData.flip();
+        packetsReceived.add(new GearmanPacketImpl(pendingMagic, pendingType,
+                spillData));
+        spillData = null;
+        pendingLength = -1;
+        pendingMagic = null;
+        pendingType = null;
+    }
 
+    private static ByteBuffer mapSpillFile(int size) throws IOException {
+        File file = File.createTempFile("gearman-", ".spill");
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    size);
+        } finally {
+            if (raf != null) {
+                raf.close();
+            }
+            // the mapping outlives the file on platforms that allow it
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
 
+    /*
+     * Makes sure there is room to read the remainder of the packet at
+     * decodePosition, and at least MIN_READ_SIZE bytes, into the receive
+     * buffer. The partially received packet is moved to the start of the
+     * buffer, a new buffer is used if packets still refer to the current one.
+     * A buffer that was grown for a large packet is replaced as soon as the
+     * pending bytes fit a smaller one, so it is not kept alive by the
+     * connection once its packets are gone.
+     */
+    private void ensureReceiveCapacity() {
+        int packetSize = Constants.GEARMAN_PACKET_HEADER_SIZE +
+                (pendingLength < 0 ? 0 : pendingLength);
+        int partial = bytesReceived.position() - decodePosition;
+        int capacity = Math.max(Constants.GEARMAN_DEFAULT_SOCKET_RECV_SIZE,
+                Math.max(packetSize, partial + MIN_READ_SIZE));
+        if (decodePosition + packetSize <= bytesReceived.capacity() &&
+                bytesReceived.remaining() >= MIN_READ_SIZE &&
+                capacity >= bytesReceived.capacity()) {
+            return;
+        }
+        bytesReceived.flip();
+        bytesReceived.position(decodePosition);
+        if (receiveBufferShared || capacity != bytesReceived.capacity()) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+            newBuffer.put(bytesReceived);
+            bytesReceived = newBuffer;
+        } else {
+            bytesReceived.compact();
+        }
+        decodePosition = 0;
+        receiveBufferShared = false;
     }
 }
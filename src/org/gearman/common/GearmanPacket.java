@@ -5,6 +5,8 @@
  */
 package org.gearman.common;
 
+import java.nio.ByteBuffer;
+
 /**
  * A <tt>GearmanPacket</tt> represents an indvidual message that can either be
  * sent to a Gearman Job Server or received from a Gearman Job Server.
@@ -70,6 +72,15 @@ public interface GearmanPacket {
      */
     public byte [] getData();
 
+    /**
+     * Retrieves a read-only view of the payload associated with this packet.
+     * Unlike {@link #getData()} the payload is not copied.
+     *
+     * @return payload, positioned at zero with its limit set to the size of
+     *         the payload.
+     */
+    public ByteBuffer getDataBuffer();
+
     /**
      * The data or payload of a packet can contain different set of components
      * depending on the type of packet. Clients of the packet class may want to
@@ -84,6 +95,19 @@ public interface GearmanPacket {
      */
     public byte [] getDataComponentValue( DataComponentName component);
 
+    /**
+     * Retrieves a component of the packet payload without copying it. The
+     * payload is split into its components once per packet, subsequent calls
+     * only slice the payload.
+     *
+     * @param component The name of the component to be extracted.
+     *
+     * @return a read-only view of the specified component, positioned at zero
+     * with its limit set to the size of the component. The view is empty if
+     * the component is not contained in the packet.
+     */
+    public ByteBuffer getDataComponentBuffer(DataComponentName component);
+
     /**
      * Retrieves the magic type for this packet.
      * @return The {@link GearmanPacketMagic} for this packet.
@@ -7,8 +7,8 @@
 package org.gearman.common;
 
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
-import org.gearman.util.ByteArrayBuffer;
 import org.gearman.util.ByteUtils;
 import org.gearman.util.IOUtil;
 
@@ -39,11 +39,32 @@ public class GearmanPacketHeader {
     }
 
     public GearmanPacketHeader(byte[] bytes) {
-        ByteArrayBuffer baBuff = new ByteArrayBuffer(bytes);
-        magic = GearmanPacketMagic.fromBytes(baBuff.subArray(0, 4));
-        int typeInt = ByteUtils.fromBigEndian(baBuff.subArray(4, 8));
-        type = GearmanPacketType.get(typeInt);
-        dataLength = ByteUtils.fromBigEndian(baBuff.subArray(8, 12));
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a header from the specified buffer, starting at the position of
+     * the buffer. The position of the buffer is not changed.
+     *
+     * @param buffer a buffer with at least {@link #HEADER_LENGTH} bytes
+     *        remaining.
+     * @throws IllegalArgumentException if fewer than {@link #HEADER_LENGTH}
+     *         bytes remain in the buffer, or if the header is invalid.
+     */
+    public GearmanPacketHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_LENGTH) {
+            throw new IllegalArgumentException("A packet header requires " +
+                    HEADER_LENGTH + " bytes, only " + buffer.remaining() +
+                    " are available");
+        }
+        int start = buffer.position();
+        magic = GearmanPacketMagic.fromInt(buffer.getInt(start));
+        type = GearmanPacketType.get(buffer.getInt(start + 4));
+        dataLength = buffer.getInt(start + 8);
+        if (dataLength < 0) {
+            throw new IllegalArgumentException("Invalid packet data length " +
+                    dataLength);
+        }
     }
 
     public GearmanPacketMagic getMagic() {
@@ -76,6 +97,19 @@ public class GearmanPacketHeader {
         IOUtil.write(os, getDataSizeBytes());
     }
 
+    /**
+     * Writes the header at the position of the specified buffer and advances
+     * the position of the buffer past the header.
+     *
+     * @param buffer a buffer with at least {@link #HEADER_LENGTH} bytes
+     *        remaining.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(magic.toInt());
+        buffer.putInt(type.toInt());
+        buffer.putInt(dataLength);
+    }
+
     /*
      * 4 byte size - A big-endian (network-order) integer
      */
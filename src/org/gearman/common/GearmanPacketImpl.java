@@ -15,8 +15,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.gearman.util.ByteUtils;
 import org.gearman.util.IORuntimeException;
@@ -36,19 +38,94 @@ public class GearmanPacketImpl implements GearmanPacket {
 
     private final GearmanPacketType type;
 
-    private final byte[] data;
+    private static final Map<GearmanPacketType, DataComponentName[]>
+            COMPONENT_LAYOUTS = createComponentLayouts();
+
+    // position is always zero and limit the size of the data
+    private final ByteBuffer data;
+
+    // see getComponentBounds, a racing thread at worst recomputes the bounds
+    private volatile int[] componentBounds = null;
 
     public GearmanPacketImpl(GearmanPacketMagic magic,
             GearmanPacketType type, byte[] data) {
         this.magic = magic;
         this.type = type;
-        this.data = ByteUtils.copy(data);
+        this.data = ByteBuffer.wrap(ByteUtils.copy(data));
     }
 
+    /**
+     * Creates a packet whose data is the remaining content of the specified
+     * buffer. The content is not copied, the packet refers to it directly, so
+     * the caller must not modify the content once the packet has been created.
+     *
+     * @param magic the magic code of the packet.
+     * @param type the type of the packet.
+     * @param data the data of the packet.
+     */
+    public GearmanPacketImpl(GearmanPacketMagic magic,
+            GearmanPacketType type, ByteBuffer data) {
+        this.magic = magic;
+        this.type = type;
+        this.data = data.slice();
+    }
+
+    /**
+     * Creates a packet from the complete packet, header included, that starts
+     * at the position of the specified buffer. The length of the packet is
+     * taken from its header. On return the position of the buffer has been
+     * advanced past the packet. The data of the packet is not copied, the
+     * packet refers to the content of the buffer.
+     *
+     * @param packet a buffer containing at least one complete packet.
+     * @throws IllegalArgumentException if the buffer does not contain a
+     *         complete packet.
+     */
+    public GearmanPacketImpl(ByteBuffer packet) {
+        GearmanPacketHeader header = new GearmanPacketHeader(packet);
+        int dataStart = packet.position() + GearmanPacketHeader.HEADER_LENGTH;
+        int dataEnd = dataStart + header.getDataLength();
+        if (dataEnd > packet.limit()) {
+            throw new IllegalArgumentException("Packet requires " +
+                    (dataEnd - packet.position()) + " bytes, only " +
+                    packet.remaining() + " are available");
+        }
+        ByteBuffer body = packet.duplicate();
+        body.limit(dataEnd);
+        body.position(dataStart);
+        this.magic = header.getMagic();
+        this.type = header.getType();
+        this.data = body.slice();
+        packet.position(dataEnd);
+    }
+
+    /**
+     * Creates a packet from the complete packet, header included, contained
+     * in the specified range of a byte array. The array is not copied.
+     *
+     * @param bytes the array containing the packet.
+     * @param offset the offset of the packet in the array.
+     * @param length the length of the packet, must equal the length of the
+     *        header plus the data length stated in the header.
+     * @throws IllegalArgumentException if the range does not contain exactly
+     *         one packet.
+     */
+    public GearmanPacketImpl(byte[] bytes, int offset, int length) {
+        this(wrapExactly(bytes, offset, length));
+    }
+
+    /**
+     * Reads a packet from a stream. The calling thread blocks until the whole
+     * packet has been read.
+     *
+     * @param in the stream to read the packet from.
+     * @throws IORuntimeException if the stream ends before
+     *         the packet has been read or can not be read.
+     */
     public GearmanPacketImpl(InputStream in) {
         byte[] bytes = new byte[GearmanPacketHeader.HEADER_LENGTH];
 
-        blockUntilReadFully(in, bytes);
+        IOUtil.readFully(in, bytes);
 
         GearmanPacketHeader header = new GearmanPacketHeader(bytes);
         byte[] inputData = new byte[header.getDataLength()];
@@ -57,21 +134,27 @@ public class GearmanPacketImpl implements GearmanPacket {
         }
         this.magic = header.getMagic();
         this.type = header.getType();
-        this.data = inputData;
+        this.data = ByteBuffer.wrap(inputData);
     }
 
     /**
      * @return a copy of the array
      */
     public byte[] getData() {
-        return ByteUtils.copy(data);
+        byte[] copy = new byte[data.limit()];
+        data.duplicate().get(copy);
+        return copy;
+    }
+
+    public ByteBuffer getDataBuffer() {
+        return data.asReadOnlyBuffer();
     }
 
     /**
      * @return the length in bytes of the data
      */
     public int getDataSize() {
-        return data.length;
+        return data.limit();
     }
 
     public GearmanPacketType getPacketType() {
@@ -93,7 +176,7 @@ public class GearmanPacketImpl implements GearmanPacket {
     ArrayList<byte[]> getDataComponents(int tokens) {                           //NOPMD
         int curTokenStart, i, curToken;
         curTokenStart = i = curToken = 0;
-        byte[] curTokenData = null;
+        int length = data.limit();
         ArrayList<byte[]> al = new ArrayList<byte[]>(tokens);
 
         if (tokens == 0) {
@@ -101,12 +184,9 @@ public class GearmanPacketImpl implements GearmanPacket {
         }
 
         // process all but the last token (data segment)
-        while (curToken < tokens - 1 && i < data.length) {
-            if (data[i] == ByteUtils.NULL) {
-                curTokenData = new byte[i - curTokenStart];                     //NOPMD
-                System.arraycopy(data, curTokenStart, curTokenData, 0,
-                        i - curTokenStart);
-                al.add(curTokenData);
+        while (curToken < tokens - 1 && i < length) {
+            if (data.get(i) == ByteUtils.NULL) {
+                al.add(copyRange(curTokenStart, i - curTokenStart));
                 curTokenStart = i + 1;
                 curToken++;
             }
@@ -114,9 +194,7 @@ public class GearmanPacketImpl implements GearmanPacket {
         }
 
         // copy the last token
-        curTokenData = new byte[data.length - i];
-        System.arraycopy(data, curTokenStart, curTokenData, 0, data.length - i);
-        al.add(curTokenData);
+        al.add(copyRange(curTokenStart, length - i));
         return al;
     }
 
@@ -140,7 +218,15 @@ public class GearmanPacketImpl implements GearmanPacket {
          * NULL byte separator. All job handle arguments must not be longer than
          * 64 bytes, including NULL terminator.
          */
-        IOUtil.write(os, data);
+        if (data.hasArray()) {
+            try {
+                os.write(data.array(), data.arrayOffset(), data.limit());
+            } catch (IOException ioe) {
+                throw new IORuntimeException(ioe);
+            }
+        } else {
+            IOUtil.write(os, getData());
+        }
     }
 
     public GearmanPacketType getType() {
@@ -150,9 +236,9 @@ public class GearmanPacketImpl implements GearmanPacket {
     @Override
     public String toString() {
         StringBuffer s = new StringBuffer(magic + ":" + type + ":" +
-                data.length);
-        if (data.length > 0) {
-            s.append(": [" + ByteUtils.toHex(data) + "]");
+                data.limit());
+        if (data.limit() > 0) {
+            s.append(": [" + ByteUtils.toHex(getData()) + "]");
         }
         return s.toString();
     }
@@ -179,123 +265,72 @@ public class GearmanPacketImpl implements GearmanPacket {
     }
 
     public byte[] getDataComponentValue(DataComponentName component) {
-        HashMap<GearmanPacket.DataComponentName,byte []> valuesMap =
-                new HashMap<GearmanPacket.DataComponentName,byte[]>();
-        ArrayList<byte []> components = null;
-        switch (type) {
-            case ECHO_REQ:
-            case ECHO_RES:
-                components = getDataComponents(1);
-                valuesMap.put(DataComponentName.DATA, components.get(0));
-                break;
-            case ERROR:
-                components = getDataComponents(2);
-                valuesMap.put(DataComponentName.ERROR_CODE, components.get(0));
-                valuesMap.put(DataComponentName.ERROR_TEXT, components.get(1));
-                break;
-            case SUBMIT_JOB:
-            case SUBMIT_JOB_BG:
-            case SUBMIT_JOB_LOW:
-            case SUBMIT_JOB_LOW_BG:
-            case SUBMIT_JOB_HIGH:
-            case SUBMIT_JOB_HIGH_BG:
-                components = getDataComponents(3);
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(0));
-                valuesMap.put(DataComponentName.UNIQUE_ID, components.get(1));
-                valuesMap.put(DataComponentName.DATA, components.get(2));
-                break;
-            case SUBMIT_JOB_SCHED:
-                components = getDataComponents(8);
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(0));
-                valuesMap.put(DataComponentName.UNIQUE_ID, components.get(1));
-                valuesMap.put(DataComponentName.MINUTE, components.get(2));
-                valuesMap.put(DataComponentName.HOUR, components.get(3));
-                valuesMap.put(DataComponentName.DAY_OF_MONTH, components.get(4));
-                valuesMap.put(DataComponentName.MONTH, components.get(5));
-                valuesMap.put(DataComponentName.DAY_OF_WEEK, components.get(6));
-                valuesMap.put(DataComponentName.DATA, components.get(7));
-                break;
-            case SUBMIT_JOB_EPOCH:
-                components = getDataComponents(4);
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(0));
-                valuesMap.put(DataComponentName.UNIQUE_ID, components.get(1));
-                valuesMap.put(DataComponentName.EPOCH, components.get(2));
-                valuesMap.put(DataComponentName.DATA, components.get(3));
-                break;
-            case GET_STATUS:
-            case JOB_CREATED:
-            case WORK_FAIL:
-                components = getDataComponents(1);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                break;
-            case OPTION_REQ:
-            case OPTION_RES:
-                components = getDataComponents(1);
-                valuesMap.put(DataComponentName.OPTION, components.get(0));
-                break;
-            case CAN_DO:
-            case CANT_DO:
-                components = getDataComponents(1);
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(0));
-                break;
-            case CAN_DO_TIMEOUT:
-                components = getDataComponents(2);
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(0));
-                valuesMap.put(DataComponentName.TIME_OUT, components.get(1));
-                break;
-            case WORK_DATA:
-            case WORK_WARNING:
-            case WORK_COMPLETE:
-            case WORK_EXCEPTION:
-                components = getDataComponents(2);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                valuesMap.put(DataComponentName.DATA, components.get(1));
-                break;
-            case WORK_STATUS:
-                components = getDataComponents(3);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                valuesMap.put(DataComponentName.NUMERATOR, components.get(1));
-                valuesMap.put(DataComponentName.DENOMINATOR, components.get(2));
-                break;
-            case STATUS_RES:
-                components = getDataComponents(5);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                valuesMap.put(DataComponentName.KNOWN_STATUS, components.get(1));
-                valuesMap.put(DataComponentName.RUNNING_STATUS, components.get(2));
-                valuesMap.put(DataComponentName.NUMERATOR, components.get(3));
-                valuesMap.put(DataComponentName.DENOMINATOR, components.get(4));
-                break;
-            case SET_CLIENT_ID:
-                components = getDataComponents(1);
-                valuesMap.put(DataComponentName.CLIENT_ID, components.get(0));
-                break;
-            case JOB_ASSIGN:
-                components = getDataComponents(3);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(1));
-                valuesMap.put(DataComponentName.DATA, components.get(2));
-                break;
-             case JOB_ASSIGN_UNIQ:
-                components = getDataComponents(4);
-                valuesMap.put(DataComponentName.JOB_HANDLE, components.get(0));
-                valuesMap.put(DataComponentName.FUNCTION_NAME, components.get(1));
-                valuesMap.put(DataComponentName.UNIQUE_ID, components.get(2));
-                valuesMap.put(DataComponentName.DATA, components.get(3));
-                break;
-            case RESET_ABILITIES:
-            case PRE_SLEEP:
-            case GRAB_JOB:
-            case GRAB_JOB_UNIQ:
-            case ALL_YOURS:
-            case NOOP:
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown packet type " +
-                        type);
+        int index = componentIndex(component);
+        if (index < 0) {
+            return new byte[0];
         }
-        byte [] rt = valuesMap.containsKey(component) ? valuesMap.get(component) :
-            new byte[0];
-        return rt;
+        int[] bounds = getComponentBounds();
+        return copyRange(bounds[2 * index],
+                bounds[2 * index + 1] - bounds[2 * index]);
+    }
+
+    public ByteBuffer getDataComponentBuffer(DataComponentName component) {
+        int index = componentIndex(component);
+        ByteBuffer view = data.asReadOnlyBuffer();
+        if (index < 0) {
+            view.limit(0);
+            return view.slice();
+        }
+        int[] bounds = getComponentBounds();
+        view.limit(bounds[2 * index + 1]);
+        view.position(bounds[2 * index]);
+        return view.slice();
+    }
+
+    private int componentIndex(DataComponentName component) {
+        DataComponentName[] layout = COMPONENT_LAYOUTS.get(type);
+        if (layout == null) {
+            throw new IllegalArgumentException("Unknown packet type " +
+                    type);
+        }
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] == component) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * The start and end offsets of every component of the packet data,
+     * computed the first time a component is requested. Components that are
+     * missing from a truncated packet are empty.
+     */
+    private int[] getComponentBounds() {
+        int[] bounds = componentBounds;
+        if (bounds != null) {
+            return bounds;
+        }
+        int tokens = COMPONENT_LAYOUTS.get(type).length;
+        int length = data.limit();
+        bounds = new int[2 * tokens];
+        int curTokenStart = 0;
+        int i = 0;
+        for (int curToken = 0; curToken < tokens; curToken++) {
+            bounds[2 * curToken] = curTokenStart;
+            if (curToken == tokens - 1) {
+                // the last token is the remainder of the data
+                i = length;
+            } else {
+                while (i < length && data.get(i) != ByteUtils.NULL) {
+                    i++;
+                }
+            }
+            bounds[2 * curToken + 1] = i;
+            curTokenStart = i < length ? ++i : length;
+        }
+        componentBounds = bounds;
+        return bounds;
     }
 
     public static byte [] generatePacketData(byte[]... data) {
@@ -316,18 +351,97 @@ public class GearmanPacketImpl implements GearmanPacket {
         return rdata;
     }
 
-    private void blockUntilReadFully(InputStream in, byte[] bytes) {
-        try {
-            while (in.available() < GearmanPacketHeader.HEADER_LENGTH) {
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        } catch (IOException e) {
-            throw new IORuntimeException(e);
+    private byte[] copyRange(int offset, int length) {
+        byte[] copy = new byte[length];
+        ByteBuffer src = data.duplicate();
+        src.position(offset);
+        src.get(copy);
+        return copy;
+    }
+
+    private static Map<GearmanPacketType, DataComponentName[]>
+            createComponentLayouts() {
+        Map<GearmanPacketType, DataComponentName[]> layouts =
+                new EnumMap<GearmanPacketType, DataComponentName[]>(
+                GearmanPacketType.class);
+        DataComponentName[] none = new DataComponentName[0];
+        DataComponentName[] submit = {DataComponentName.FUNCTION_NAME,
+                DataComponentName.UNIQUE_ID, DataComponentName.DATA};
+        DataComponentName[] handle = {DataComponentName.JOB_HANDLE};
+        DataComponentName[] work = {DataComponentName.JOB_HANDLE,
+                DataComponentName.DATA};
+
+        layouts.put(GearmanPacketType.ECHO_REQ,
+                new DataComponentName[] {DataComponentName.DATA});
+        layouts.put(GearmanPacketType.ECHO_RES,
+                new DataComponentName[] {DataComponentName.DATA});
+        layouts.put(GearmanPacketType.ERROR, new DataComponentName[] {
+                DataComponentName.ERROR_CODE, DataComponentName.ERROR_TEXT});
+        layouts.put(GearmanPacketType.SUBMIT_JOB, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_BG, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_LOW, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_LOW_BG, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_HIGH, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_HIGH_BG, submit);
+        layouts.put(GearmanPacketType.SUBMIT_JOB_SCHED, new DataComponentName[] {
+                DataComponentName.FUNCTION_NAME, DataComponentName.UNIQUE_ID,
+                DataComponentName.MINUTE, DataComponentName.HOUR,
+                DataComponentName.DAY_OF_MONTH, DataComponentName.MONTH,
+                DataComponentName.DAY_OF_WEEK, DataComponentName.DATA});
+        layouts.put(GearmanPacketType.SUBMIT_JOB_EPOCH, new DataComponentName[] {
+                DataComponentName.FUNCTION_NAME, DataComponentName.UNIQUE_ID,
+                DataComponentName.EPOCH, DataComponentName.DATA});
+        layouts.put(GearmanPacketType.GET_STATUS, handle);
+        layouts.put(GearmanPacketType.JOB_CREATED, handle);
+        layouts.put(GearmanPacketType.WORK_FAIL, handle);
+        layouts.put(GearmanPacketType.OPTION_REQ,
+                new DataComponentName[] {DataComponentName.OPTION});
+        layouts.put(GearmanPacketType.OPTION_RES,
+                new DataComponentName[] {DataComponentName.OPTION});
+        layouts.put(GearmanPacketType.CAN_DO,
+                new DataComponentName[] {DataComponentName.FUNCTION_NAME});
+        layouts.put(GearmanPacketType.CANT_DO,
+                new DataComponentName[] {DataComponentName.FUNCTION_NAME});
+        layouts.put(GearmanPacketType.CAN_DO_TIMEOUT, new DataComponentName[] {
+                DataComponentName.FUNCTION_NAME, DataComponentName.TIME_OUT});
+        layouts.put(GearmanPacketType.WORK_DATA, work);
+        layouts.put(GearmanPacketType.WORK_WARNING, work);
+        layouts.put(GearmanPacketType.WORK_COMPLETE, work);
+        layouts.put(GearmanPacketType.WORK_EXCEPTION, work);
+        layouts.put(GearmanPacketType.WORK_STATUS, new DataComponentName[] {
+                DataComponentName.JOB_HANDLE, DataComponentName.NUMERATOR,
+                DataComponentName.DENOMINATOR});
+        layouts.put(GearmanPacketType.STATUS_RES, new DataComponentName[] {
+                DataComponentName.JOB_HANDLE, DataComponentName.KNOWN_STATUS,
+                DataComponentName.RUNNING_STATUS, DataComponentName.NUMERATOR,
+                DataComponentName.DENOMINATOR});
+        layouts.put(GearmanPacketType.SET_CLIENT_ID,
+                new DataComponentName[] {DataComponentName.CLIENT_ID});
+        layouts.put(GearmanPacketType.JOB_ASSIGN, new DataComponentName[] {
+                DataComponentName.JOB_HANDLE, DataComponentName.FUNCTION_NAME,
+                DataComponentName.DATA});
+        layouts.put(GearmanPacketType.JOB_ASSIGN_UNIQ, new DataComponentName[] {
+                DataComponentName.JOB_HANDLE, DataComponentName.FUNCTION_NAME,
+                DataComponentName.UNIQUE_ID, DataComponentName.DATA});
+        layouts.put(GearmanPacketType.RESET_ABILITIES, none);
+        layouts.put(GearmanPacketType.PRE_SLEEP, none);
+        layouts.put(GearmanPacketType.GRAB_JOB, none);
+        layouts.put(GearmanPacketType.GRAB_JOB_UNIQ, none);
+        layouts.put(GearmanPacketType.ALL_YOURS, none);
+        layouts.put(GearmanPacketType.NOOP, none);
+        return layouts;
+    }
+
+    private static ByteBuffer wrapExactly(byte[] bytes, int offset,
+            int length) {
+        ByteBuffer packet = ByteBuffer.wrap(bytes, offset, length);
+        int dataLength = new GearmanPacketHeader(packet).getDataLength();
+        if (length != GearmanPacketHeader.HEADER_LENGTH + dataLength) {
+            throw new IllegalArgumentException("Range of " + length +
+                    " bytes does not contain exactly one packet of " +
+                    (GearmanPacketHeader.HEADER_LENGTH + dataLength) +
+                    " bytes");
         }
-        IOUtil.readFully(in, bytes);
+        return packet;
     }
 }
@@ -42,6 +42,34 @@ public enum GearmanPacketMagic {
         return retBytes;
     }
 
+    private static final int REQ_CODE = 0x00524551;
+    private static final int RES_CODE = 0x00524553;
+
+    /**
+     * @return the PacketMagic as the big-endian integer that starts a packet
+     *         header.
+     */
+    public int toInt() {
+        return this == REQ ? REQ_CODE : RES_CODE;
+    }
+
+    /**
+     * Returns the magic code for the big-endian integer read from the start
+     * of a packet header.
+     *
+     * @param magic the first four bytes of a packet header as an integer.
+     * @throws BadMagicException if the integer is not a valid magic code
+     */
+    public static GearmanPacketMagic fromInt(int magic) {
+        if (magic == REQ_CODE) {
+            return REQ;
+        }
+        if (magic == RES_CODE) {
+            return RES;
+        }
+        throw new BadMagicException(Integer.toHexString(magic));
+    }
+
     /**
      * "\0REQ" == [ 00 52 45 51 ] == 5391697
      *
@@ -66,6 +66,13 @@ public enum GearmanPacketType {
         return retBytes;
     }
 
+    /**
+     * @return the integer sent on the wire for this PacketType.
+     */
+    public int toInt() {
+        return code;
+    }
+
     public static boolean isJobSubmission(GearmanPacketType pt) {
         if (pt.equals(SUBMIT_JOB) || pt.equals(SUBMIT_JOB_BG) ||
             pt.equals(SUBMIT_JOB_HIGH) || pt.equals(SUBMIT_JOB_HIGH_BG) ||
@@ -85,12 +92,24 @@ public enum GearmanPacketType {
      *             if an invalid ordinal is provided
      */
     public static GearmanPacketType get(int ordinal) {
-        for (GearmanPacketType type : GearmanPacketType.values()) {
-            /* we could use <code>type.ordinal()</code> here, too. */
-            if (type.code == ordinal) {
-                return type;
-            }
+        if (ordinal < 0 || ordinal >= BY_CODE.length ||
+                BY_CODE[ordinal] == null) {
+            throw new IllegalArgumentException(Integer.toString(ordinal));
+        }
+        return BY_CODE[ordinal];
+    }
+
+    // looked up for every packet received, so avoid walking values()
+    private static final GearmanPacketType[] BY_CODE;
+
+    static {
+        int max = 0;
+        for (GearmanPacketType t : values()) {
+            max = Math.max(max, t.code);
+        }
+        BY_CODE = new GearmanPacketType[max + 1];
+        for (GearmanPacketType t : values()) {
+            BY_CODE[t.code] = t;
         }
-        throw new IllegalArgumentException(Integer.toString(ordinal));
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long a thread that runs out of work busy-polls for more before
+ * it parks. A {@link GearmanIOReactor} created with a spinning policy polls
+ * its selector with <tt>selectNow()</tt> instead of blocking in
+ * <tt>select()</tt>, and the threads of its clients and workers poll for
+ * responses and jobs instead of waiting to be notified. This saves the cost
+ * of waking up a parked thread on every round trip, at the price of keeping
+ * a core busy, so it only pays off for clients and workers that run on
+ * dedicated cores.
+ *
+ * <p>
+ * The default, {@link #PARK}, never spins.
+ */
+public final class GearmanSpinPolicy {
+
+    /**
+     * Parks as soon as there is nothing to do.
+     */
+    public static final GearmanSpinPolicy PARK = new GearmanSpinPolicy(0);
+    /**
+     * Never parks, the polling thread keeps its core busy at all times.
+     */
+    public static final GearmanSpinPolicy SPIN =
+            new GearmanSpinPolicy(Long.MAX_VALUE);
+    // Thread.onSpinWait, null if the runtime does not have it
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+    private final long spinNanos;
+
+    private GearmanSpinPolicy(long spinNanos) {
+        this.spinNanos = spinNanos;
+    }
+
+    /**
+     * Returns a policy that spins for up to the specified time after the
+     * last piece of work and then parks until there is more work.
+     *
+     * @param time how long to spin, zero means do not spin at all.
+     * @param unit the unit of the time argument.
+     * @return the policy.
+     * @throws IllegalArgumentException if time is negative.
+     */
+    public static GearmanSpinPolicy spinThenPark(long time, TimeUnit unit)
+            throws IllegalArgumentException {
+        if (time < 0) {
+            throw new IllegalArgumentException("Spin time can not be negative");
+        }
+        long nanos = unit.toNanos(time);
+        if (nanos == 0) {
+            return PARK;
+        }
+        return nanos == Long.MAX_VALUE ? SPIN : new GearmanSpinPolicy(nanos);
+    }
+
+    @Override
+    public String toString() {
+        if (spinNanos == 0) {
+            return "park";
+        }
+        if (spinNanos == Long.MAX_VALUE) {
+            return "spin";
+        }
+        return "spin " + TimeUnit.NANOSECONDS.toMicros(spinNanos) +
+                "us then park";
+    }
+
+    /**
+     * @return how long the policy spins before parking, in nanoseconds.
+     */
+    public long getSpinNanos() {
+        return spinNanos;
+    }
+
+    /**
+     * @return true if the policy spins at all.
+     */
+    public boolean isSpinning() {
+        return spinNanos > 0;
+    }
+
+    /**
+     * Tells a thread that has been out of work since <tt>idleSinceNanos</tt>
+     * whether it should keep spinning.
+     *
+     * @param idleSinceNanos the value of {@link System#nanoTime()} when the
+     *        thread ran out of work.
+     * @param nowNanos the current value of {@link System#nanoTime()}.
+     * @return true if the thread should poll again, false if it should park.
+     */
+    public boolean keepSpinning(long idleSinceNanos, long nowNanos) {
+        return spinNanos == Long.MAX_VALUE ||
+                nowNanos - idleSinceNanos < spinNanos;
+    }
+
+    /**
+     * Hints the processor that the calling thread is busy-polling, see
+     * <tt>Thread.onSpinWait()</tt>. Does nothing on runtimes older than Java
+     * 9.
+     */
+    public static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable t) {                                             //NOPMD
+                // the hint is optional
+            }
+        }
+    }
+
+    private static MethodHandle findOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class,
+                    "onSpinWait", MethodType.methodType(void.class));
+        } catch (NoSuchMethodException nsme) {
+            return null;
+        } catch (IllegalAccessException iae) {
+            return null;
+        }
+    }
+}
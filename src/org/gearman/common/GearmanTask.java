@@ -6,6 +6,7 @@
 package org.gearman.common;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,7 +20,7 @@ public class GearmanTask implements GearmanIOEventListener {
     }
     static final String DESCRIPTION_PREFIX = "GearmanTask";
     private final String DESCRIPTION;
-    private State state = null;
+    private volatile State state = null;
     private GearmanPacket requestPacket = null;
     private GearmanServerResponseHandler handler = null;
     private static final Logger LOG = Logger.getLogger(
@@ -54,6 +55,75 @@ public class GearmanTask implements GearmanIOEventListener {
             throw new IllegalArgumentException("You can not add a null" +
                     " response packet");
         }
+        // Threads blocked in waitForState are only woken up once the event
+        // has been completely handled, including by the response handler.
+        synchronized (this) {
+            try {
+                processEvent(p);
+            } finally {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocks the calling thread until the task has reached (or gone beyond)
+     * the specified state or the timeout expires. The task must be driven to
+     * that state by some other thread.
+     *
+     * @param target the state to wait for.
+     * @param timeout the maximum time to wait, a negative value means wait
+     *        until the state is reached.
+     * @param unit the unit of the timeout argument.
+     * @return true if the state was reached, false if the timeout expired.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    public synchronized boolean waitForState(State target, long timeout,
+            TimeUnit unit) throws InterruptedException {
+        long deadline = timeout < 0 ? -1 :
+            System.currentTimeMillis() + unit.toMillis(timeout);
+        while (state.compareTo(target) < 0) {
+            if (deadline < 0) {
+                wait();
+            } else {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    return false;
+                }
+                wait(left);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Like {@link #waitForState(State, long, TimeUnit)}, but first busy-polls
+     * the state of the task for as long as the spin policy allows, so that a
+     * caller whose task is driven by a spinning reactor is not parked.
+     *
+     * @param target the state to wait for.
+     * @param timeout the maximum time to wait, a negative value means wait
+     *        until the state is reached.
+     * @param unit the unit of the timeout argument.
+     * @param spinPolicy how long to poll before blocking.
+     * @return true if the state was reached, false if the timeout expired.
+     * @throws InterruptedException if the calling thread was interrupted.
+     */
+    public boolean waitForState(State target, long timeout, TimeUnit unit,
+            GearmanSpinPolicy spinPolicy) throws InterruptedException {
+        if (spinPolicy.isSpinning()) {
+            long start = System.nanoTime();
+            while (state.compareTo(target) < 0 &&
+                    spinPolicy.keepSpinning(start, System.nanoTime())) {
+                GearmanSpinPolicy.onSpinWait();
+            }
+        }
+        // the state changes before the event has been completely handled,
+        // taking the lock makes sure the handler is done with it
+        return waitForState(target, timeout, unit);
+    }
+
+    private void processEvent(GearmanPacket p) {
 
         boolean cont = true;
         while (cont) {
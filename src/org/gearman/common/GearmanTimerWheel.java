@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timer wheel for the timeouts of a {@link GearmanIOReactor}.
+ * Scheduling and expiring a timeout costs constant time no matter how many
+ * timeouts are pending, at the price of timeouts firing up to one tick late.
+ *
+ * <p>
+ * The wheel is not thread-safe: timeouts are scheduled and expired on the
+ * reactor thread. A {@link Timeout} can be cancelled from any thread.
+ */
+public class GearmanTimerWheel {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final Logger LOG = Logger.getLogger(
+            Constants.GEARMAN_SESSION_LOGGER_NAME);
+    private final long tickNanos;
+    private final long startNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    // the first tick whose bucket has not been expired yet
+    private long currentTick = 0;
+    private int pending = 0;
+
+    /**
+     * A task scheduled on a timer wheel.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Prevents the task from being run.
+         *
+         * @return true if the task had neither been cancelled nor run yet.
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    public GearmanTimerWheel() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, System.nanoTime());
+    }
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the resolution of the wheel in milliseconds.
+     * @param wheelSize the number of buckets, rounded up to a power of two.
+     * @param nowNanos the current value of {@link System#nanoTime()}.
+     * @throws IllegalArgumentException if tickMillis or wheelSize is less than
+     *         one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public GearmanTimerWheel(long tickMillis, int wheelSize, long nowNanos)
+            throws IllegalArgumentException {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick and wheel size must be " +
+                    "positive");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        startNanos = nowNanos;
+        buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<Timeout>();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Schedules a task to be run once the delay has passed.
+     *
+     * @param task the task to run.
+     * @param delay the delay after which to run the task.
+     * @param unit the unit of the delay.
+     * @param nowNanos the current value of {@link System#nanoTime()}.
+     * @return the timeout, which can be used to cancel the task.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit,
+            long nowNanos) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task can not be null");
+        }
+        long deadline = nowNanos - startNanos + unit.toNanos(Math.max(0, delay));
+        long deadlineTick = Math.max(currentTick,
+                (deadline + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(task, deadlineTick);
+        buckets[(int) (deadlineTick & mask)].add(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Runs every task whose deadline has passed.
+     *
+     * @param nowNanos the current value of {@link System#nanoTime()}.
+     * @return the number of tasks that were run.
+     */
+    public int expire(long nowNanos) {
+        long nowTick = (nowNanos - startNanos) / tickNanos;
+        if (nowTick < currentTick || pending == 0) {
+            currentTick = Math.max(currentTick, nowTick + 1);
+            return 0;
+        }
+        List<Timeout> due = null;
+        long lastTick = Math.min(nowTick, currentTick + mask);
+        for (long tick = currentTick; tick <= lastTick; tick++) {
+            Iterator<Timeout> iter = buckets[(int) (tick & mask)].iterator();
+            while (iter.hasNext()) {
+                Timeout t = iter.next();
+                if (t.isCancelled()) {
+                    iter.remove();
+                    pending--;
+                } else if (t.deadlineTick <= nowTick) {
+                    iter.remove();
+                    pending--;
+                    if (due == null) {
+                        due = new ArrayList<Timeout>();
+                    }
+                    due.add(t);
+                }
+            }
+        }
+        currentTick = nowTick + 1;
+        if (due == null) {
+            return 0;
+        }
+        int ran = 0;
+        // tasks are run once the buckets have been updated, so that they can
+        // schedule new timeouts
+        for (Timeout t : due) {
+            if (!t.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                continue;
+            }
+            ran++;
+            try {
+                t.task.run();
+            } catch (RuntimeException re) {
+                LOG.log(Level.WARNING, "Timeout task " + t.task + " failed",
+                        re);
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Returns how long the reactor may block before the next tick that has
+     * timeouts to expire.
+     *
+     * @param nowNanos the current value of {@link System#nanoTime()}.
+     * @return the time in milliseconds, at least one, or zero if no timeout
+     *         is pending.
+     */
+    public long millisToNextExpiry(long nowNanos) {
+        if (pending == 0) {
+            return 0;
+        }
+        long tick = currentTick;
+        for (int i = 0; i <= mask; i++, tick++) {
+            if (!buckets[(int) (tick & mask)].isEmpty()) {
+                break;
+            }
+        }
+        long wait = startNanos + tick * tickNanos - nowNanos;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait +
+                TimeUnit.MILLISECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * @return the number of timeouts that have neither been run nor removed
+     *         after being cancelled.
+     */
+    public int pendingTimeouts() {
+        return pending;
+    }
+}
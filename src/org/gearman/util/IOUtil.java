@@ -23,7 +23,21 @@ public final class IOUtil {
      * error message.
      */
     public static void readFully(InputStream in, byte[] buffer) {
-        int c = read(in, buffer);
+        // a single read may return fewer bytes than are still to come, keep
+        // blocking until the buffer has been filled or the stream has ended
+        int c = 0;
+        while (c < buffer.length) {
+            int n = 0;
+            try {
+                n = in.read(buffer, c, buffer.length - c);
+            } catch (IOException e) {
+                throw new IORuntimeException(e);
+            }
+            if (n < 0) {
+                break;
+            }
+            c += n;
+        }
         if (c != buffer.length) {
             String msg = c + " != " + buffer.length + ": " + ByteUtils.toHex(buffer);
             throw new IORuntimeException(new EOFException(msg));
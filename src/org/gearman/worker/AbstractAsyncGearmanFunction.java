@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import org.gearman.client.GearmanJobResult;
+
+/**
+ * Base class for functions whose result is delivered by a
+ * {@link CompletionStage}. Subclasses implement
+ * {@link #executeFunctionAsync()}, the <tt>WORK_COMPLETE</tt> or
+ * <tt>WORK_FAIL</tt> event is fired from the completion of the returned
+ * stage, on whichever thread completes it.
+ */
+public abstract class AbstractAsyncGearmanFunction
+        extends AbstractGearmanFunction implements AsyncGearmanFunction {
+
+    public AbstractAsyncGearmanFunction() {
+        super();
+    }
+
+    public AbstractAsyncGearmanFunction(String name) {
+        super(name);
+    }
+
+    /**
+     * Starts the work of the function.
+     *
+     * @return a stage that completes with the result of the job, a stage
+     *         that completes exceptionally or with null fails the job.
+     */
+    public abstract CompletionStage<GearmanJobResult> executeFunctionAsync();
+
+    /**
+     * Starts the function and returns the stage that fires its
+     * <tt>WORK_COMPLETE</tt> or <tt>WORK_FAIL</tt> event. Cancelling the
+     * returned stage, as the worker does when the job times out, also cancels
+     * the stage returned by {@link #executeFunctionAsync()}.
+     */
+    public CompletionStage<GearmanJobResult> callAsync() {
+        final CompletableFuture<GearmanJobResult> source =
+                executeFunctionAsync().toCompletableFuture();
+        final CompletableFuture<GearmanJobResult> derived = source.handle(
+                new BiFunction<GearmanJobResult, Throwable, GearmanJobResult>() {
+
+            public GearmanJobResult apply(GearmanJobResult result,
+                    Throwable thrown) {
+                if (thrown instanceof CompletionException &&
+                        thrown.getCause() != null) {
+                    thrown = thrown.getCause();
+                }
+                return completeJob(result, thrown);
+            }
+        });
+        // cancelling a dependent stage does not cancel the stage it depends on
+        derived.whenComplete(new BiConsumer<GearmanJobResult, Throwable>() {
+
+            public void accept(GearmanJobResult result, Throwable thrown) {
+                if (derived.isCancelled()) {
+                    source.cancel(true);
+                }
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Blocks until the stage returned by {@link #executeFunctionAsync()} has
+     * completed, so that the function can also be run by callers that only
+     * know about {@link #call()}.
+     */
+    public final GearmanJobResult executeFunction() {
+        return executeFunctionAsync().toCompletableFuture().join();
+    }
+}
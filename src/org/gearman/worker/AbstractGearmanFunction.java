@@ -5,16 +5,24 @@
  */
 package org.gearman.worker;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.gearman.client.GearmanIOEventListener;
 import org.gearman.client.GearmanJobResult;
 import org.gearman.client.GearmanJobResultImpl;
+import org.gearman.common.Constants;
 import org.gearman.common.GearmanPacket;
 import org.gearman.common.GearmanPacketImpl;
 import org.gearman.common.GearmanPacketMagic;
 import org.gearman.common.GearmanPacketType;
+import org.gearman.common.GearmanTask;
+import org.gearman.util.ByteBufferInputStream;
 import org.gearman.util.ByteUtils;
 
 public abstract class AbstractGearmanFunction implements GearmanFunction {
@@ -23,6 +31,9 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
     protected Object data;
     protected byte[] jobHandle;
     protected Set<GearmanIOEventListener> listeners;
+    private WorkDataOutputStream dataStream = null;
+    private static final Logger LOG = Logger.getLogger(
+            Constants.GEARMAN_WORKER_LOGGER_NAME);
 
     public AbstractGearmanFunction() {
         this(null);
@@ -46,6 +57,36 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
         this.data = data;
     }
 
+    /**
+     * Returns the data of the job as a read-only buffer. The data is not
+     * copied if the function is a {@link ByteBufferGearmanFunction}, or if it
+     * was set as a byte array.
+     *
+     * @return the data, an empty buffer if there is none.
+     */
+    protected ByteBuffer getDataBuffer() {
+        if (data instanceof ByteBuffer) {
+            return ((ByteBuffer) data).asReadOnlyBuffer();
+        }
+        if (data instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) data).asReadOnlyBuffer();
+        }
+        if (data == null) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        return ByteBuffer.wrap(ByteUtils.toUTF8Bytes(data.toString()))
+                .asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a stream over the data of the job, see {@link #getDataBuffer()}.
+     *
+     * @return the data.
+     */
+    protected InputStream getDataStream() {
+        return new ByteBufferInputStream(getDataBuffer());
+    }
+
     public void setJobHandle(byte[] handle) throws IllegalArgumentException {
         if (handle == null) {
             throw new IllegalArgumentException("handle can not be null");
@@ -55,6 +96,8 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
         }
         jobHandle = new byte[handle.length];
         System.arraycopy(handle, 0, jobHandle, 0, handle.length);
+        // a stream opened for a previous job writes that job's handle
+        dataStream = null;
     }
 
     public byte[] getJobHandle() {                                              
@@ -82,22 +125,58 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
     }
 
     public void sendData(byte[] data) {
-        fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                GearmanPacketType.WORK_DATA,
-                GearmanPacketImpl.generatePacketData(jobHandle, data)));
-
+        fireEvent(workPacket(GearmanPacketType.WORK_DATA, data));
     }
 
     public void sendWarning(byte[] warning) {
-        fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                GearmanPacketType.WORK_WARNING,
-                GearmanPacketImpl.generatePacketData(jobHandle, warning)));
+        fireEvent(workPacket(GearmanPacketType.WORK_WARNING, warning));
     }
 
     public void sendException(byte[] exception) {
-        fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                GearmanPacketType.WORK_EXCEPTION,
-                GearmanPacketImpl.generatePacketData(jobHandle, exception)));
+        fireEvent(workPacket(GearmanPacketType.WORK_EXCEPTION, exception));
+    }
+
+    /**
+     * Opens a stream that sends what the function writes to it to the client
+     * as WORK_DATA packets of up to
+     * {@link WorkDataOutputStream#DEFAULT_CHUNK_SIZE} bytes.
+     *
+     * @return the stream.
+     * @throws IllegalStateException if a stream has already been opened for
+     *         the current job.
+     * @see #openDataStream(int)
+     */
+    protected WorkDataOutputStream openDataStream()
+            throws IllegalStateException {
+        return openDataStream(WorkDataOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens a stream that sends what the function writes to it to the client
+     * as WORK_DATA packets of up to <tt>chunkSize</tt> bytes. Unlike
+     * {@link #sendData(byte[])} it does not need the data as an array, and
+     * it holds back the function while the connection to the job server can
+     * not keep up. Whatever has been written but not yet sent when the
+     * function returns is sent ahead of the WORK_COMPLETE packet.
+     *
+     * @param chunkSize the maximum number of bytes per WORK_DATA packet.
+     * @return the stream.
+     * @throws IllegalArgumentException if chunkSize is less than one.
+     * @throws IllegalStateException if a stream has already been opened for
+     *         the current job.
+     */
+    protected WorkDataOutputStream openDataStream(int chunkSize)
+            throws IllegalArgumentException, IllegalStateException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at " +
+                    "least one byte");
+        }
+        if (dataStream != null) {
+            throw new IllegalStateException("A data stream has already been " +
+                    "opened for the job");
+        }
+        dataStream = new WorkDataOutputStream(this, jobHandle, chunkSize);
+        return dataStream;
     }
 
     public void sendStatus(int denominator, int numerator) {
@@ -110,8 +189,21 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
 
     public abstract GearmanJobResult executeFunction();
 
+    /**
+     * Clears the job specific state of the function, its data, job handle
+     * and event listeners, so that a pooling {@link GearmanFunctionFactory}
+     * can reuse the instance for another job. Subclasses that keep state of
+     * their own for a job should override this and call
+     * <tt>super.reset()</tt>.
+     */
+    public void reset() {
+        data = null;
+        dataStream = null;
+        jobHandle = new byte[0];
+        listeners.clear();
+    }
+
     public GearmanJobResult call() {
-        GearmanPacket event = null;
         GearmanJobResult result = null;
         Exception thrown = null;
         try {
@@ -119,22 +211,39 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
         } catch (Exception e) {
             thrown = e;
         }
+        return completeJob(result, thrown);
+    }
+
+    /*
+     * Fires the WORK_COMPLETE or WORK_FAIL event for the result of the
+     * function, preceded by a WORK_EXCEPTION if the function did not produce
+     * a result.
+     */
+    GearmanJobResult completeJob(GearmanJobResult result, Throwable thrown) {
+        GearmanPacket event = null;
+        if (dataStream != null) {
+            try {
+                dataStream.close();
+            } catch (IOException ioe) {
+                LOG.log(Level.WARNING, "Function " + name + " failed to " +
+                        "send the remainder of its data stream", ioe);
+            }
+        }
         if (result == null) {
             String message = thrown == null ? "function returned null result" :
                 thrown.getMessage();
-            fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                    GearmanPacketType.WORK_EXCEPTION,
-                    GearmanPacketImpl.generatePacketData(jobHandle,
-                    message.getBytes())));
+            if (message == null) {
+                message = thrown.toString();
+            }
+            fireEvent(workPacket(GearmanPacketType.WORK_EXCEPTION,
+                    message.getBytes()));
             result = new GearmanJobResultImpl(jobHandle, false, new byte[0],
                     new byte[0], new byte[0], -1, -1);
         }
 
         if (result.jobSucceeded()) {
-            event = new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                    GearmanPacketType.WORK_COMPLETE,
-                    GearmanPacketImpl.generatePacketData(jobHandle,
-                    result.getResults()));
+            event = workPacket(GearmanPacketType.WORK_COMPLETE,
+                    result.getResults());
         } else {
             event = new GearmanPacketImpl(GearmanPacketMagic.REQ,
                     GearmanPacketType.WORK_FAIL, jobHandle);
@@ -143,4 +252,44 @@ public abstract class AbstractGearmanFunction implements GearmanFunction {
         fireEvent(event);
         return result;
     }
+
+    /*
+     * Hands a packet to the listeners of the function, returns the task
+     * carrying the packet to the job server if one of them tracks it.
+     */
+    GearmanTask forwardEvent(GearmanPacket event) {
+        GearmanTask task = null;
+        for (GearmanIOEventListener listener : listeners) {
+            if (listener instanceof TrackingEventListener) {
+                task = ((TrackingEventListener) listener).forward(event);
+            } else {
+                listener.handleGearmanIOEvent(event);
+            }
+        }
+        return task;
+    }
+
+    boolean isAbandoned() {
+        for (GearmanIOEventListener listener : listeners) {
+            if (listener instanceof TrackingEventListener &&
+                    ((TrackingEventListener) listener).isAbandoned()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Lays the handle and the data out in a single buffer which the packet
+     * refers to, rather than joining them in one array and having the packet
+     * copy that. The buffer is direct, so a large payload is written to the
+     * socket as it is rather than copied into a send buffer first.
+     */
+    private GearmanPacket workPacket(GearmanPacketType type, byte[] data) {
+        ByteBuffer packetData = ByteBuffer.allocateDirect(jobHandle.length + 1 +
+                data.length);
+        packetData.put(jobHandle).put(ByteUtils.NULL).put(data);
+        packetData.flip();
+        return new GearmanPacketImpl(GearmanPacketMagic.REQ, type, packetData);
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CompletionStage;
+import org.gearman.client.GearmanJobResult;
+
+/**
+ * A {@link GearmanFunction} that does not need to hold a thread while it
+ * waits for its result, for instance because it is waiting on a non-blocking
+ * downstream service.
+ *
+ * <p>
+ * A {@link GearmanWorkerImpl} starts such a function by calling
+ * {@link #callAsync()} instead of {@link #call()}. The execution slot of the
+ * job stays taken until the returned stage completes, so a worker created
+ * with a large maximum number of concurrent jobs can have many asynchronous
+ * jobs in flight on very few threads.
+ */
+public interface AsyncGearmanFunction extends GearmanFunction {
+
+    /**
+     * Starts the function without waiting for its result. The function must
+     * fire the <tt>WORK_COMPLETE</tt> or <tt>WORK_FAIL</tt> event for its job
+     * before the returned stage completes.
+     *
+     * @return a stage that completes with the result of the job.
+     */
+    CompletionStage<GearmanJobResult> callAsync();
+}
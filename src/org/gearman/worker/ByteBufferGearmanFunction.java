@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+/**
+ * A {@link GearmanFunction} that takes the data of its job as a read-only
+ * <tt>java.nio.ByteBuffer</tt> rather than as a byte array.
+ *
+ * <p>
+ * A {@link GearmanWorkerImpl} passes such a function a view of the data of
+ * the JOB_ASSIGN packet to {@link #setData(Object)}, without copying it. The
+ * view refers to the receive buffer of the connection the job arrived on or,
+ * if the packet was larger than the spill threshold of the connection (see
+ * {@link org.gearman.common.GearmanNIOJobServerConnection#setSpillThreshold}),
+ * to a memory-mapped temporary file. Functions extending
+ * {@link AbstractGearmanFunction} can read the data with
+ * <tt>getDataBuffer()</tt> or <tt>getDataStream()</tt>, which accept the data
+ * in either form.
+ */
+public interface ByteBufferGearmanFunction extends GearmanFunction {
+}
@@ -6,19 +6,60 @@
 
 package org.gearman.worker;
 
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gearman.common.Constants;
 
 
+/**
+ * Creates function instances of a class that has a public no argument
+ * constructor. The class and its constructor are looked up once, when the
+ * factory is created, rather than for every job.
+ *
+ * <p>
+ * Instances of classes extending {@link AbstractGearmanFunction} can
+ * optionally be pooled: once a job has finished, the worker hands its
+ * function back to the factory, which calls
+ * {@link AbstractGearmanFunction#reset()} and keeps the instance for a later
+ * job.
+ */
 public class DefaultGearmanFunctionFactory implements GearmanFunctionFactory {
     private final String className;
     private final String functionName;
+    private final Constructor<? extends GearmanFunction> constructor;
+    private final BlockingQueue<AbstractGearmanFunction> pool;
     private static final Logger LOG = Logger.getLogger(
             Constants.GEARMAN_WORKER_LOGGER_NAME);
 
     DefaultGearmanFunctionFactory(String className) {
-        GearmanFunction f = createFunctionInstance(className);
+        this(className, 0);
+    }
+
+    /**
+     * Creates a factory for the specified class that keeps up to
+     * <tt>poolSize</tt> released function instances for reuse. The class
+     * has to extend {@link AbstractGearmanFunction} for its instances to be
+     * pooled, and has to reset any state it keeps per job in
+     * {@link AbstractGearmanFunction#reset()}.
+     *
+     * @param className the name of the function class.
+     * @param poolSize the maximum number of idle instances kept, zero
+     *        disables pooling.
+     * @throws IllegalStateException if no function can be created from the
+     *         class.
+     * @throws IllegalArgumentException if poolSize is negative.
+     */
+    public DefaultGearmanFunctionFactory(String className, int poolSize)
+            throws IllegalStateException, IllegalArgumentException {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size can not be " +
+                    "negative");
+        }
+        constructor = findConstructor(className);
+        GearmanFunction f = newInstance(constructor, className);
         if (f == null) {
             throw new IllegalStateException("Unable to create instance of " +
                     "function " + className);
@@ -34,11 +75,16 @@ public class DefaultGearmanFunctionFactory implements GearmanFunctionFactory {
             }
         }
         this.functionName = fname;
+        this.pool = poolSize > 0 && f instanceof AbstractGearmanFunction ?
+                new ArrayBlockingQueue<AbstractGearmanFunction>(poolSize) :
+                null;
     }
 
     DefaultGearmanFunctionFactory(String functionName, String className) {
         this.className = className;
         this.functionName = functionName;
+        this.constructor = findConstructor(className);
+        this.pool = null;
     }
 
     public String getFunctionName() {
@@ -46,20 +92,65 @@ public class DefaultGearmanFunctionFactory implements GearmanFunctionFactory {
     }
 
     public GearmanFunction getFunction() {
-        return createFunctionInstance(className);
+        if (pool != null) {
+            GearmanFunction f = pool.poll();
+            if (f != null) {
+                return f;
+            }
+        }
+        return newInstance(constructor, className);
     }
 
-    private static GearmanFunction createFunctionInstance(String className) {
-        GearmanFunction f = null;
+    /**
+     * Keeps the function for a later job if the factory pools its
+     * instances, after resetting it.
+     *
+     * @param function a function created by this factory whose job has
+     *        finished.
+     */
+    @Override
+    public void releaseFunction(GearmanFunction function) {
+        if (pool == null || function == null ||
+                function.getClass() != constructor.getDeclaringClass()) {
+            return;
+        }
+        AbstractGearmanFunction f = (AbstractGearmanFunction) function;
+        try {
+            f.reset();
+        } catch (RuntimeException re) {
+            LOG.log(Level.WARNING, "Failed to reset instance of function " +
+                    functionName + ", it will not be reused", re);
+            return;
+        }
+        pool.offer(f);
+    }
+
+    private static Constructor<? extends GearmanFunction> findConstructor(
+            String className) {
         try {
-            Class c = Class.forName(className);
-            Object o = c.newInstance();
-            if (o instanceof GearmanFunction) {
-                f = (GearmanFunction) o;
-            } else {
+            Class<?> c = Class.forName(className);
+            if (!GearmanFunction.class.isAssignableFrom(c)) {
                 LOG.log(Level.WARNING, "Specified class " + className +
                         " is not a Gearman Function ");
+                return null;
             }
+            return c.asSubclass(GearmanFunction.class).getConstructor();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Unable to find constructor of " +
+                    "Function: " + className, e);
+        }
+        return null;
+    }
+
+    private static GearmanFunction newInstance(
+            Constructor<? extends GearmanFunction> constructor,
+            String className) {
+        if (constructor == null) {
+            return null;
+        }
+        GearmanFunction f = null;
+        try {
+            f = constructor.newInstance();
         } catch (Exception e) {
             LOG.log(Level.WARNING, "Unable to create instance of " +
                     "Function: " + className, e);
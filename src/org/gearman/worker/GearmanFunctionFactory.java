@@ -32,4 +32,15 @@ public interface GearmanFunctionFactory {
      * @return GearmanFunction instance
      */
     GearmanFunction getFunction();
+
+    /**
+     * Called by the worker once the job that a function returned by
+     * {@link #getFunction()} was executing has finished, the worker no
+     * longer uses the function afterwards. Factories that reuse function
+     * instances can take the function back here, by default nothing is done.
+     *
+     * @param function the function whose job has finished.
+     */
+    default void releaseFunction(GearmanFunction function) {
+    }
 }
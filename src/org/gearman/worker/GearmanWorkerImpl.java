@@ -7,23 +7,31 @@ package org.gearman.worker;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gearman.client.GearmanJobResult;
 import org.gearman.common.Constants;
 import org.gearman.common.GearmanException;
+import org.gearman.common.GearmanIOEngine;
+import org.gearman.common.GearmanIOReactor;
 import org.gearman.common.GearmanJobServerConnection;
 import org.gearman.common.GearmanJobServerSession;
 import org.gearman.common.GearmanPacket;
@@ -33,7 +41,9 @@ import org.gearman.common.GearmanPacketType;
 import org.gearman.common.GearmanServerResponseHandler;
 import org.gearman.common.GearmanSessionEvent;
 import org.gearman.common.GearmanSessionEventHandler;
+import org.gearman.common.GearmanSpinPolicy;
 import org.gearman.common.GearmanTask;
+import org.gearman.common.GearmanTimerWheel;
 
 import org.gearman.util.ByteUtils;
 
@@ -45,16 +55,29 @@ public class GearmanWorkerImpl
         IDLE, RUNNING, SHUTTINGDOWN
     }
     private static final String DESCRIPION_PREFIX = "GearmanWorker";
-    private Queue<GearmanFunction> functionList = null;
-    private Selector ioAvailable = null;
     private static final Logger LOG = Logger.getLogger(
             Constants.GEARMAN_WORKER_LOGGER_NAME);
+    private static final long ECHO_TIMEOUT_MILLIS = 2000;
+    // wakes up work() without running a job
+    private static final Runnable WAKEUP = new Runnable() {
+
+        public void run() {
+        }
+    };
+    private final BlockingQueue<Runnable> jobQueue;
+    private final boolean ownsReactor;
+    private GearmanIOReactor reactor = null;
     private String id;
     private Map<String, FunctionDefinition> functionMap;
-    private State state;
-    private ExecutorService executorService;
-    private Map<GearmanJobServerSession, GearmanTask> taskMap = null;
+    private volatile State state;
+    private final ExecutorService executorService;
+    private final int maxConcurrentJobs;
+    // jobs that have been assigned to the worker and have not finished yet
+    private final AtomicInteger activeJobs = new AtomicInteger(0);
     private Map<SelectionKey,GearmanJobServerSession> sessionMap = null;
+    // the following are only accessed from the reactor thread
+    private Map<GearmanJobServerSession, GrabState> grabStates = null;
+    private int outstandingGrabs = 0;
 
     class GrabJobEventHandler implements GearmanServerResponseHandler {
 
@@ -76,6 +99,34 @@ public class GearmanWorkerImpl
         }
     }
 
+    static class EchoResponseHandler implements GearmanServerResponseHandler {
+
+        private byte[] data = null;
+
+        public void handleEvent(GearmanPacket event) throws GearmanException {
+            data = event.getData();
+        }
+
+        public boolean isDone() {
+            return data != null;
+        }
+    }
+
+    /*
+     * The GRAB_JOB requests a session has outstanding and whether the job
+     * server has told the session that it has no job for it.
+     */
+    static class GrabState {
+
+        private int outstandingGrabs = 0;
+        private boolean drained = false;
+        private boolean sleeping = false;
+
+        boolean canGrab() {
+            return !drained && !sleeping;
+        }
+    }
+
     static class FunctionDefinition {
 
         private final long timeout;
@@ -95,21 +146,267 @@ public class GearmanWorkerImpl
         }
     }
 
+    /*
+     * Runs an assigned job, either on the thread calling work() or on the
+     * executor of the worker. Once the job has finished, the reactor is told
+     * that a slot has become available. An asynchronous function has
+     * finished once the stage it returned has completed.
+     *
+     * A job whose function was registered with a timeout is failed by a
+     * timer of the reactor should it not finish in time: WORK_FAIL is sent,
+     * the thread running the function is interrupted, the stage of an
+     * asynchronous function is cancelled and the slot is released. Packets
+     * the function fires afterwards are dropped.
+     */
+    private class JobExecution implements Runnable {
+
+        private final GearmanFunction function;
+        private final GearmanFunctionFactory factory;
+        private final GearmanJobServerSession session;
+        private final long timeout;
+        // set once the job has either finished or timed out
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private volatile boolean timedOut = false;
+        private volatile GearmanTimerWheel.Timeout timer = null;
+        private volatile CompletionStage<GearmanJobResult> stage = null;
+        // the thread running the function, guarded by this
+        private Thread runner = null;
+
+        JobExecution(GearmanFunction function,
+                GearmanFunctionFactory factory,
+                GearmanJobServerSession session, long timeout) {
+            this.function = function;
+            this.factory = factory;
+            this.session = session;
+            this.timeout = timeout;
+        }
+
+        public void run() {
+            if (!enter()) {
+                return;
+            }
+            boolean async = function instanceof AsyncGearmanFunction;
+            try {
+                if (async) {
+                    submitAsyncFunction(this);
+                } else {
+                    submitFunction(function);
+                }
+            } finally {
+                leave();
+                if (!async) {
+                    finish();
+                }
+            }
+        }
+
+        // the job will not be run, the job server hands it to another worker
+        // once the session has been closed
+        void abandon() {
+            finish();
+        }
+
+        void finish() {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            GearmanTimerWheel.Timeout t = timer;
+            if (t != null) {
+                t.cancel();
+            }
+            try {
+                factory.releaseFunction(function);
+            } catch (RuntimeException re) {
+                LOG.log(Level.WARNING, "Factory of function " +
+                        factory.getFunctionName() + " failed to release " +
+                        "function", re);
+            }
+            jobFinished();
+        }
+
+        // runs on the reactor thread when the timer of the job expires
+        void timeOut() {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            timedOut = true;
+            LOG.log(Level.WARNING, "Job " + ByteUtils.fromUTF8Bytes(
+                    function.getJobHandle()) + " of function " +
+                    function.getName() + " timed out after " + timeout +
+                    " milliseconds");
+            if (session.isInitialized()) {
+                session.submitTask(new GearmanTask(new GearmanPacketImpl(
+                        GearmanPacketMagic.REQ, GearmanPacketType.WORK_FAIL,
+                        function.getJobHandle())));
+            }
+            synchronized (this) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+            CompletionStage<GearmanJobResult> st = stage;
+            if (st != null) {
+                st.toCompletableFuture().cancel(true);
+            }
+            // the function may still be running, so it is not handed back to
+            // its factory
+            jobFinished();
+        }
+
+        private synchronized boolean enter() {
+            if (completed.get()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                runner = null;
+            }
+            // do not let an interrupt meant for this job leak into the next
+            // task of the thread
+            Thread.interrupted();
+        }
+    }
+
+    /*
+     * Hands the packets fired by a function, which runs outside of the
+     * reactor thread, to the reactor that drives the function's session.
+     */
+    private class SessionEventForwarder implements TrackingEventListener {
+
+        private final JobExecution job;
+
+        SessionEventForwarder(JobExecution job) {
+            this.job = job;
+        }
+
+        public void handleGearmanIOEvent(GearmanPacket event) {
+            forward(event);
+        }
+
+        public GearmanTask forward(GearmanPacket event) {
+            final GearmanTask task = new GearmanTask(event);
+            executeOnReactor(new Runnable() {
+
+                public void run() {
+                    if (job.session.isInitialized() && !job.timedOut) {
+                        job.session.submitTask(task);
+                    }
+                }
+            });
+            return task;
+        }
+
+        public boolean isAbandoned() {
+            return job.timedOut || !job.session.isInitialized();
+        }
+    }
+
+    /**
+     * Create a new worker. The IO of the worker is driven by a
+     * {@link GearmanIOReactor} thread which is owned by the worker, it is
+     * started when the first job server is added and stopped when the worker
+     * is shutdown. Jobs are run, one at a time, on the thread that calls
+     * {@link #work()}.
+     */
     public GearmanWorkerImpl() {
-        this (null);
+        this ((GearmanIOReactor) null, null, 1);
+    }
+
+    /**
+     * Create a new worker whose IO is driven by one of the reactors of a
+     * shared {@link GearmanIOEngine}. The engine is not stopped when the
+     * worker is shutdown. Jobs are run, one at a time, on the thread that
+     * calls {@link #work()}. If the engine has a spinning
+     * {@link org.gearman.common.GearmanSpinPolicy}, that thread polls for
+     * jobs as well instead of waiting to be handed one.
+     *
+     * @param engine a running engine.
+     * @throws IllegalArgumentException if the engine is null.
+     * @throws IllegalStateException if the engine has been shutdown.
+     */
+    public GearmanWorkerImpl(GearmanIOEngine engine)
+            throws IllegalArgumentException, IllegalStateException {
+        this(engineReactor(engine), null, 1);
+    }
+
+    /**
+     * Create a new worker that runs jobs concurrently on the specified
+     * executor, for instance a fixed thread pool or a ForkJoinPool. The worker
+     * grabs new jobs from its job servers as long as fewer than
+     * <tt>maxConcurrentJobs</tt> of its jobs are running, so the executor
+     * should be able to run that many jobs at once. The IO of the worker is
+     * driven by a {@link GearmanIOReactor} thread owned by the worker and
+     * jobs never run on that thread. The executor is not shutdown when the
+     * worker is shutdown.
+     *
+     * @param executorService the executor that runs the jobs.
+     * @param maxConcurrentJobs the maximum number of jobs to run at once.
+     * @throws IllegalArgumentException if the executor is null or
+     *         maxConcurrentJobs is less than one.
+     */
+    public GearmanWorkerImpl(ExecutorService executorService,
+            int maxConcurrentJobs) throws IllegalArgumentException {
+        this((GearmanIOReactor) null, checkExecutor(executorService),
+                maxConcurrentJobs);
     }
 
-    //For the time being this is private constructor because at this point in
-    //time we are not supporting executors. When we support differnt
-    //variants of the Execute services, we will open this up
-    private GearmanWorkerImpl(ExecutorService executorService) {
-        functionList = new LinkedList<GearmanFunction>();
+    /**
+     * Create a new worker that runs every job on a thread of its own, a
+     * virtual thread if the runtime supports them, and runs at most
+     * <tt>maxConcurrentJobs</tt> jobs at once. This suits functions that
+     * mostly block, see {@link JobExecutors#newThreadPerJobExecutor(int)}.
+     *
+     * @param maxConcurrentJobs the maximum number of jobs to run at once.
+     * @throws IllegalArgumentException if maxConcurrentJobs is less than one.
+     */
+    public GearmanWorkerImpl(int maxConcurrentJobs)
+            throws IllegalArgumentException {
+        this(JobExecutors.newThreadPerJobExecutor(maxConcurrentJobs),
+                maxConcurrentJobs);
+    }
+
+    /**
+     * Create a new worker that runs jobs concurrently on the specified
+     * executor and whose IO is driven by one of the reactors of a shared
+     * {@link GearmanIOEngine}. See
+     * {@link #GearmanWorkerImpl(ExecutorService, int)}.
+     *
+     * @param engine a running engine.
+     * @param executorService the executor that runs the jobs.
+     * @param maxConcurrentJobs the maximum number of jobs to run at once.
+     * @throws IllegalArgumentException if the engine or executor is null or
+     *         maxConcurrentJobs is less than one.
+     * @throws IllegalStateException if the engine has been shutdown.
+     */
+    public GearmanWorkerImpl(GearmanIOEngine engine,
+            ExecutorService executorService, int maxConcurrentJobs)
+            throws IllegalArgumentException, IllegalStateException {
+        this(engineReactor(engine), checkExecutor(executorService),
+                maxConcurrentJobs);
+    }
+
+    private GearmanWorkerImpl(GearmanIOReactor reactor,
+            ExecutorService executorService, int maxConcurrentJobs) {
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("A worker must be able to " +
+                    "run at least one job");
+        }
+        jobQueue = new LinkedBlockingQueue<Runnable>();
         id = DESCRIPION_PREFIX + ":" + Thread.currentThread().getId();
-        functionMap = new HashMap<String, FunctionDefinition>();
+        functionMap = new ConcurrentHashMap<String, FunctionDefinition>();
         state = State.IDLE;
         this.executorService = executorService;
-        taskMap = new HashMap<GearmanJobServerSession, GearmanTask>();
-        sessionMap = new HashMap<SelectionKey, GearmanJobServerSession>();
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.reactor = reactor;
+        ownsReactor = reactor == null;
+        // kept in the order in which the sessions were last handed a grab
+        grabStates = new LinkedHashMap<GearmanJobServerSession, GrabState>();
+        sessionMap = new ConcurrentHashMap<SelectionKey,
+                GearmanJobServerSession>();
     }
 
     @Override
@@ -117,6 +414,15 @@ public class GearmanWorkerImpl
         return id;
     }
 
+    /**
+     * Returns the maximum number of jobs the worker runs at once.
+     *
+     * @return the maximum number of concurrent jobs.
+     */
+    public int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
     public void work() {
         if (!state.equals(State.IDLE)) {
             throw new IllegalStateException("Can not call work while worker " +
@@ -124,64 +430,47 @@ public class GearmanWorkerImpl
         }
 
         state = State.RUNNING;
-        while (isRunning()) {
+        // sessions only start grabbing jobs once somebody is there to run them
+        if (!sessionMap.isEmpty()) {
+            executeOnReactor(new Runnable() {
 
-            for (GearmanJobServerSession sess : sessionMap.values()) {
-                int interestOps = SelectionKey.OP_READ;
-                if (sess.sessionHasDataToWrite()) {
-                    interestOps |= SelectionKey.OP_WRITE;
+                public void run() {
+                    grabJobs();
                 }
-                sess.getSelectionKey().interestOps(interestOps);
-            }
+            });
+        }
+        // with an executor this thread has nothing to spin for
+        GearmanSpinPolicy spinPolicy = executorService == null ?
+                getReactor().getSpinPolicy() : GearmanSpinPolicy.PARK;
+        while (isRunning()) {
+            Runnable job = null;
             try {
-                ioAvailable.select(1);
-            } catch (IOException io) {
-                LOG.log(Level.WARNING, "Receieved IOException while" +
-                        " selecting for IO",io);
-            }
-
-             for (SelectionKey key : ioAvailable.selectedKeys()) {
-                 GearmanJobServerSession sess = sessionMap.get(key);
-                 if (sess == null) {
-                     LOG.log(Level.WARNING,"Worker does not have " +
-                             "session for key " + key);
-                     continue;
-                 }
-                if (!sess.isInitialized()) {
-                    continue;
-                }
-                try {
-                    GearmanTask sessTask = taskMap.get(sess);
-                    if (sessTask == null) {
-                        sessTask = new GearmanTask(                             //NOPMD
-                                new GrabJobEventHandler(sess),
-                                new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                                GearmanPacketType.GRAB_JOB, new byte[0]));
-                        taskMap.put(sess, sessTask);
-                        sess.submitTask(sessTask);
-                        LOG.log(Level.FINER,"Worker: " + this + " submitted a " +
-                                sessTask.getRequestPacket().getPacketType() +
-                                " to session: " + sess);
-                    }
-                    sess.driveSessionIO();
-                    //For the time being we will execute the jobs synchronously
-                    //in the future, I expect to change this.
-                    if (!functionList.isEmpty()) {
-                        GearmanFunction fun = functionList.remove();
-                        submitFunction(fun);
-                    }
-                } catch (IOException ioe) {
-                    LOG.log(Level.WARNING, "Received IOException while driving" +
-                            " IO on session " + sess, ioe);
-                    sess.closeSession();
-                    continue;
-                }
+                job = nextJob(spinPolicy);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
             }
+            // when the worker has an executor, jobs are handed to it and
+            // this thread only waits for the worker to be stopped
+            job.run();
         }
 
         shutDownWorker(true);
     }
 
+    private Runnable nextJob(GearmanSpinPolicy spinPolicy)
+            throws InterruptedException {
+        Runnable job = jobQueue.poll();
+        if (job == null && spinPolicy.isSpinning()) {
+            long start = System.nanoTime();
+            while ((job = jobQueue.poll()) == null &&
+                    spinPolicy.keepSpinning(start, System.nanoTime())) {
+                GearmanSpinPolicy.onSpinWait();
+            }
+        }
+        return job == null ? jobQueue.take() : job;
+    }
+
     public void handleSessionEvent(GearmanSessionEvent event)
             throws IllegalArgumentException, IllegalStateException {
         GearmanPacket p = event.getPacket();
@@ -191,34 +480,60 @@ public class GearmanWorkerImpl
                 " ( Session = " + s + " Event = " + t + " )");
         switch (t) {
             case JOB_ASSIGN:
-                taskMap.remove(s);
-                addNewJob(event);
-                break;
             case JOB_ASSIGN_UNIQ:
-                taskMap.remove(s);
-                addNewJob(event);
+                grabReturned(s, true);
+                JobExecution job = addNewJob(event);
+                if (job != null && !isRunning()) {
+                    // answers a grab sent before the worker was stopped, the
+                    // job server reassigns the job once the session is closed
+                    job.abandon();
+                    break;
+                }
+                // the freed up slots are refilled before the job is started
+                grabJobs();
+                if (job != null) {
+                    startJob(job, s);
+                }
                 break;
             case NOOP:
-                taskMap.remove(s);
+                GrabState woken = grabStates.get(s);
+                if (woken != null) {
+                    woken.sleeping = false;
+                    woken.drained = false;
+                }
+                grabJobs();
                 break;
             case NO_JOB:
-                GearmanTask preSleepTask = new GearmanTask(new GrabJobEventHandler(s),
-                        new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                        GearmanPacketType.PRE_SLEEP, new byte[0]));
-                taskMap.put(s, preSleepTask);
-                s.submitTask(preSleepTask);
+                GrabState drained = grabReturned(s, false);
+                if (drained != null && drained.outstandingGrabs == 0) {
+                    // every grab came back empty, wait for the server to wake
+                    // the session up
+                    GearmanTask preSleepTask = new GearmanTask(
+                            new GrabJobEventHandler(s),
+                            new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                            GearmanPacketType.PRE_SLEEP, new byte[0]));
+                    drained.sleeping = true;
+                    s.submitTask(preSleepTask);
+                }
+                grabJobs();
                 break;
             case ECHO_RES:
                 break;
             case OPTION_RES:
                 break;
             case ERROR:
-                s.closeSession();
+                forgetSession(s);
+                if (!s.isInitialized()) {
+                    // the reactor has already closed the failed session
+                    LOG.log(Level.WARNING, "Lost connection to session " + s);
+                    break;
+                }
+                closeSession(s);
                 break;
             default:
                 LOG.log(Level.WARNING,"Received unknown packet type " + t +
                         " from session " + s + ". Closing connection.");
-                s.closeSession();
+                closeSession(s);
         }
     }
 
@@ -236,49 +551,47 @@ public class GearmanWorkerImpl
             }
         }
 
-        GearmanJobServerSession session =
+        final GearmanJobServerSession session =
                 new GearmanJobServerSession(conn);
-        if (ioAvailable == null) {
-            try {
-                ioAvailable = Selector.open();
-            } catch (IOException ioe) {
-                LOG.log(Level.WARNING,"Failed to connect to job server "
-                    + conn + ".",ioe);
-                return false;
-            }
-        }
+        final GearmanIOReactor r = getReactor();
         try {
-            session.initSession(ioAvailable, this);
+            runOnReactor(new Callable<Object>() {
+
+                public Object call() throws IOException {
+                    r.register(session, GearmanWorkerImpl.this);
+                    SelectionKey key = session.getSelectionKey();
+                    if (key == null) {
+                        String msg = "Session " + session + " has a null " +
+                                "selection key. Server will not be added to " +
+                                "worker.";
+                        LOG.log(Level.WARNING, msg);
+                        r.deregister(session);
+                        session.closeSession();
+                        throw new IllegalStateException(msg);
+                    }
+                    sessionMap.put(key, session);
+                    grabStates.put(session, new GrabState());
+
+                    GearmanPacket p = new GearmanPacketImpl(
+                            GearmanPacketMagic.REQ,
+                            GearmanPacketType.SET_CLIENT_ID,
+                            ByteUtils.toUTF8Bytes(id));
+                    session.submitTask(new GearmanTask(p));
+
+                    for (FunctionDefinition def : functionMap.values()) {
+                        p = generateCanDoPacket(def);
+                        session.submitTask(new GearmanTask(p));                  //NOPMD
+                    }
+                    grabJobs();
+                    return null;
+                }
+            });
         } catch (IOException ioe) {
             LOG.log(Level.WARNING,"Failed to initialize session with job server "
                     + conn + ".",ioe);
             return false;
         }
-        SelectionKey key = session.getSelectionKey();
-        if (key == null) {
-            String msg = "Session " + session + " has a null " +
-                    "selection key. Server will not be added to worker.";
-            LOG.log(Level.WARNING, msg);
-            throw new IllegalStateException(msg);
-        }
-        sessionMap.put(key, session);
-
-        GearmanPacket p = new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                GearmanPacketType.SET_CLIENT_ID, ByteUtils.toUTF8Bytes(id));
-        session.submitTask(new GearmanTask(p));
-
-        for (FunctionDefinition def : functionMap.values()) {
-            p = generateCanDoPacket(def);
-            session.submitTask(new GearmanTask(p));                              //NOPMD
-        }
 
-        p = new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                GearmanPacketType.GRAB_JOB, new byte[0]);
-        GearmanTask gsr = new GearmanTask(
-                new GrabJobEventHandler(session), p);
-        taskMap.put(session, gsr);
-        session.submitTask(gsr);
-        
         LOG.log(Level.FINE, "Added server " + conn + " to worker " + this);
         return true;
     }
@@ -294,7 +607,44 @@ public class GearmanWorkerImpl
     }
 
     public String echo(String text, GearmanJobServerConnection conn) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        GearmanJobServerSession session = null;
+        for (GearmanJobServerSession sess : sessionMap.values()) {
+            if (sess.getConnection().equals(conn)) {
+                session = sess;
+            }
+        }
+        if (session == null) {
+            throw new IllegalArgumentException("Worker " + this + " has no " +
+                    "session with job server " + conn);
+        }
+        final EchoResponseHandler handler = new EchoResponseHandler();
+        final GearmanTask t = new GearmanTask(handler,
+                new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                GearmanPacketType.ECHO_REQ, ByteUtils.toUTF8Bytes(text)));
+        final GearmanJobServerSession s = session;
+        try {
+            runOnReactor(new Callable<Object>() {
+
+                public Object call() {
+                    s.submitTask(t);
+                    return null;
+                }
+            });
+            if (!t.waitForState(GearmanTask.State.FINISHED,
+                    ECHO_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+                    getReactor().getSpinPolicy())) {
+                throw new GearmanException("Failed to execute echo request " +
+                        t + " to session " + s);
+            }
+        } catch (IOException ioe) {
+            throw new GearmanException("Failed to send echo request to " +
+                    "session " + s, ioe);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GearmanException("Interrupted while waiting for echo " +
+                    "request " + t, ie);
+        }
+        return ByteUtils.fromUTF8Bytes(handler.data);
     }
 
     public void registerFunction(String function, long timeout) {
@@ -377,6 +727,7 @@ public class GearmanWorkerImpl
 
     public void stop() {
         state = State.SHUTTINGDOWN;
+        jobQueue.add(WAKEUP);
     }
 
     public List<Exception> shutdown() {
@@ -410,17 +761,204 @@ public class GearmanWorkerImpl
         sendToAll(null, p);
     }
 
-    private void sendToAll(GearmanServerResponseHandler handler, GearmanPacket p) {
-        GearmanTask gsr = null;
-        if (handler == null) {
-            gsr = new GearmanTask(p);
-        } else {
-            gsr = new GearmanTask(handler, p);
+    private void sendToAll(GearmanServerResponseHandler handler,
+            final GearmanPacket p) {
+        if (sessionMap.isEmpty()) {
+            return;
         }
-        for (GearmanJobServerSession sess : sessionMap.values()) {
-            sess.submitTask(gsr);
+        final GearmanServerResponseHandler h = handler;
+        executeOnReactor(new Runnable() {
+
+            public void run() {
+                for (GearmanJobServerSession sess : sessionMap.values()) {
+                    if (!sess.isInitialized()) {
+                        continue;
+                    }
+                    if (h == null) {
+                        sess.submitTask(new GearmanTask(p));                    //NOPMD
+                    } else {
+                        sess.submitTask(new GearmanTask(h, p));                 //NOPMD
+                    }
+                }
+            }
+        });
+    }
+
+    /*
+     * Keeps one GRAB_JOB request outstanding for every execution slot that is
+     * neither taken by an assigned job nor reserved by an earlier grab. The
+     * grabs are spread over the sessions that may still have jobs for the
+     * worker, starting with the session that was handed a grab the longest
+     * time ago. Must be called from the reactor thread.
+     */
+    private void grabJobs() {
+        while (isRunning() &&
+                activeJobs.get() + outstandingGrabs < maxConcurrentJobs) {
+            GearmanJobServerSession next = null;
+            for (Map.Entry<GearmanJobServerSession, GrabState> e :
+                    grabStates.entrySet()) {
+                if (e.getValue().canGrab() && e.getKey().isInitialized()) {
+                    next = e.getKey();
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            GrabState st = grabStates.remove(next);
+            grabStates.put(next, st);
+            GearmanTask grabTask = new GearmanTask(
+                    new GrabJobEventHandler(next),
+                    new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                    GearmanPacketType.GRAB_JOB, new byte[0]));
+            st.outstandingGrabs++;
+            outstandingGrabs++;
+            next.submitTask(grabTask);
+            LOG.log(Level.FINER,"Worker: " + this + " submitted a " +
+                    grabTask.getRequestPacket().getPacketType() +
+                    " to session: " + next + " (" + st.outstandingGrabs +
+                    " outstanding)");
         }
+    }
 
+    /*
+     * Accounts for the response to one of the outstanding grabs of a session.
+     * Must be called from the reactor thread.
+     */
+    private GrabState grabReturned(GearmanJobServerSession session,
+            boolean gotJob) {
+        GrabState st = grabStates.get(session);
+        if (st == null || st.outstandingGrabs == 0) {
+            return st;
+        }
+        st.outstandingGrabs--;
+        outstandingGrabs--;
+        st.drained = !gotJob;
+        return st;
+    }
+
+    // must be called from the reactor thread
+    private void forgetSession(GearmanJobServerSession session) {
+        GrabState st = grabStates.remove(session);
+        if (st != null) {
+            outstandingGrabs -= st.outstandingGrabs;
+        }
+    }
+
+    // sends whatever the jobs of a session that is about to be closed have
+    // fired, must be called from the reactor thread
+    private void flushSession(GearmanJobServerSession session) {
+        try {
+            if (session.sessionHasDataToWrite()) {
+                session.driveSessionIO();
+            }
+        } catch (IOException ioe) {
+            LOG.log(Level.WARNING, "Received IOException while flushing " +
+                    "session " + session, ioe);
+        }
+    }
+
+    // must be called from the reactor thread
+    private void closeSession(GearmanJobServerSession session) {
+        forgetSession(session);
+        reactor.deregister(session);
+        if (session.isInitialized()) {
+            session.closeSession();
+        }
+    }
+
+    private synchronized GearmanIOReactor getReactor() {
+        if (reactor == null) {
+            try {
+                reactor = new GearmanIOReactor();
+                reactor.start();
+            } catch (IOException ioe) {
+                throw new GearmanException("Failed to create IO reactor for " +
+                        "worker", ioe);
+            }
+        }
+        return reactor;
+    }
+
+    /*
+     * Releases the slot of a job that has finished and lets the sessions grab
+     * new jobs.
+     */
+    private void jobFinished() {
+        activeJobs.decrementAndGet();
+        synchronized (activeJobs) {
+            activeJobs.notifyAll();
+        }
+        executeOnReactor(new Runnable() {
+
+            public void run() {
+                grabJobs();
+            }
+        });
+    }
+
+    private static ExecutorService checkExecutor(ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor can not be null");
+        }
+        return executor;
+    }
+
+    private static GearmanIOReactor engineReactor(GearmanIOEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine can not be null");
+        }
+        return engine.nextReactor();
+    }
+
+    /*
+     * Schedules a command on the reactor thread. Commands are dropped, with a
+     * warning, once the reactor has been stopped.
+     */
+    private void executeOnReactor(Runnable command) {
+        GearmanIOReactor r = null;
+        synchronized (this) {
+            r = reactor;
+        }
+        if (r == null) {
+            LOG.log(Level.FINE, "Worker " + this + " has no IO reactor, " +
+                    "dropping command " + command);
+            return;
+        }
+        try {
+            r.execute(command);
+        } catch (IllegalStateException ise) {
+            LOG.log(Level.WARNING, "Worker " + this + " could not hand " +
+                    "command to its IO reactor", ise);
+        }
+    }
+
+    /*
+     * Runs a command on the reactor thread and waits for its result. Sessions
+     * are only ever touched from the reactor thread, so any operation that
+     * reads or modifies the state of a session needs to go through here.
+     */
+    private <T> T runOnReactor(Callable<T> command) throws IOException {
+        try {
+            return getReactor().submit(command).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new GearmanException("Worker " + this + " was interrupted " +
+                    "while waiting for its IO reactor", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GearmanException("Worker " + this + " failed to " +
+                    "execute command on its IO reactor", cause);
+        }
     }
 
     /*
@@ -432,26 +970,96 @@ public class GearmanWorkerImpl
 
         ArrayList<Exception> exceptions = new ArrayList<Exception>();
 
-        // This gives any jobs in flight a chance to complete
-        if (executorService != null) {
-            if (completeTasks) {
-                executorService.shutdown();
-            } else {
-                executorService.shutdownNow();
+        // from here on assigned jobs are abandoned rather than started
+        if (isRunning()) {
+            state = State.SHUTTINGDOWN;
+        }
+        // Jobs that have not been started are left to the job server, which
+        // reassigns them once the session is closed. Draining the queue on
+        // the reactor orders it after any JOB_ASSIGN that was being handled
+        // when the worker was stopped.
+        if (reactor != null && reactor.isRunning()) {
+            try {
+                runOnReactor(new Callable<Object>() {
+
+                    public Object call() {
+                        grabStates.clear();
+                        outstandingGrabs = 0;
+                        abandonQueuedJobs();
+                        return null;
+                    }
+                });
+            } catch (IOException ioe) {
+                exceptions.add(ioe);
+            }
+        }
+        abandonQueuedJobs();
+        // This gives any jobs in flight a chance to complete. The executor
+        // belongs to the caller, so it is not shutdown here.
+        if (completeTasks) {
+            synchronized (activeJobs) {
+                while (activeJobs.get() > 0) {
+                    try {
+                        activeJobs.wait();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
             }
         }
 
-        for (GearmanJobServerSession sess : sessionMap.values()) {
-            sess.closeSession();
+        if (reactor != null && reactor.isRunning()) {
+            try {
+                runOnReactor(new Callable<Object>() {
+
+                    public Object call() {
+                        for (GearmanJobServerSession sess :
+                                sessionMap.values()) {
+                            if (sess.isInitialized()) {
+                                flushSession(sess);
+                                closeSession(sess);
+                            }
+                        }
+                        grabStates.clear();
+                        outstandingGrabs = 0;
+                        return null;
+                    }
+                });
+            } catch (IOException ioe) {
+                exceptions.add(ioe);
+            }
         }
+        synchronized (this) {
+            if (ownsReactor && reactor != null) {
+                reactor.shutdown();
+                reactor = null;
+            }
+        }
+        abandonQueuedJobs();
         state = State.IDLE;
+        // in case work() is still waiting for a job on another thread
+        jobQueue.add(WAKEUP);
         LOG.log(Level.INFO, "Completed shutdowm of worker " + this);
 
         return exceptions;
     }
 
-    private void addNewJob(GearmanSessionEvent event) {
-        byte[] handle, data, functionNameBytes;
+    private void abandonQueuedJobs() {
+        Runnable queued = null;
+        while ((queued = jobQueue.poll()) != null) {
+            if (queued instanceof JobExecution) {
+                ((JobExecution) queued).abandon();
+            }
+        }
+    }
+
+    /*
+     * Creates the execution of an assigned job and takes a slot for it, or
+     * fails the job if the worker does not know its function.
+     */
+    private JobExecution addNewJob(GearmanSessionEvent event) {
+        byte[] handle, functionNameBytes;
         GearmanPacket p = event.getPacket();
         GearmanJobServerSession sess = event.getSession();
         String functionName;
@@ -459,8 +1067,6 @@ public class GearmanWorkerImpl
                 GearmanPacket.DataComponentName.JOB_HANDLE);
         functionNameBytes = p.getDataComponentValue(
                 GearmanPacket.DataComponentName.FUNCTION_NAME);
-        data = p.getDataComponentValue(
-                GearmanPacket.DataComponentName.DATA);
         functionName = ByteUtils.fromUTF8Bytes(functionNameBytes);
         FunctionDefinition def = functionMap.get(functionName);
         if (def == null) {
@@ -468,47 +1074,100 @@ public class GearmanWorkerImpl
                     new GearmanPacketImpl(GearmanPacketMagic.REQ,
                     GearmanPacketType.WORK_FAIL, handle));
             sess.submitTask(gsr);
+            return null;
+        }
+        GearmanFunction function = def.getFactory().getFunction();
+        // the data is only copied out of the packet for functions that want
+        // it as an array
+        if (function instanceof ByteBufferGearmanFunction) {
+            function.setData(p.getDataComponentBuffer(
+                    GearmanPacket.DataComponentName.DATA));
         } else {
-            GearmanFunction function = def.getFactory().getFunction();
-            function.setData(data);
-            function.setJobHandle(handle);
-            function.registerEventListener(sess);
-            functionList.add(function);
+            function.setData(p.getDataComponentValue(
+                    GearmanPacket.DataComponentName.DATA));
+        }
+        function.setJobHandle(handle);
+        JobExecution execution = new JobExecution(function, def.getFactory(),
+                sess, def.getTimeout());
+        function.registerEventListener(new SessionEventForwarder(execution));
+        activeJobs.incrementAndGet();
+        return execution;
+    }
+
+    private void startJob(final JobExecution execution,
+            GearmanJobServerSession sess) {
+        if (execution.timeout > 0) {
+            execution.timer = reactor.schedule(new Runnable() {
+
+                public void run() {
+                    execution.timeOut();
+                }
+            }, execution.timeout, TimeUnit.MILLISECONDS);
+        }
+        if (executorService == null) {
+            jobQueue.add(execution);
+            return;
+        }
+        try {
+            executorService.execute(execution);
+        } catch (RejectedExecutionException ree) {
+            byte[] handle = execution.function.getJobHandle();
+            LOG.log(Level.WARNING, "Executor of worker " + this +
+                    " rejected job " + ByteUtils.fromUTF8Bytes(handle), ree);
+            sess.submitTask(new GearmanTask(new GearmanPacketImpl(
+                    GearmanPacketMagic.REQ, GearmanPacketType.WORK_FAIL,
+                    handle)));
+            execution.finish();
         }
     }
 
     private void submitFunction(GearmanFunction fun) {
         try {
-            if (executorService == null) {
-                fun.call();
-            } else {
-                Future<GearmanJobResult> gp = executorService.submit(fun);
-                FunctionDefinition def = functionMap.get(fun.getName());
-                if (def == null) {
-                    LOG.log(Level.WARNING, "Unable to find function " +
-                            "execution attributes for function " +
-                            fun.getName());
-                }
-                if (def != null && def.getTimeout() > 0) {
-                    LOG.log(Level.FINER, "Worker:  " + this + " awaiting" +
-                            " results of job " + gp + " with timout of " +
-                            def.getTimeout() + " milliseconds");
-                    gp.get(def.getTimeout(), TimeUnit.MILLISECONDS);
-                } else {
-                    LOG.log(Level.FINER, "Worker:  " + this + " awaiting" +
-                            " results of job " + gp);
-                    gp.get();
-                }
-            }
+            fun.call();
+        } catch (Exception e) {
+            failFunction(fun, e);
+        }
+    }
+
+    private void submitAsyncFunction(final JobExecution job) {
+        final AsyncGearmanFunction fun = (AsyncGearmanFunction) job.function;
+        CompletionStage<GearmanJobResult> stage = null;
+        try {
+            stage = fun.callAsync();
         } catch (Exception e) {
-            LOG.log(Level.WARNING, "Exception while getting function " +
-                    "results", e);
-            fun.fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                    GearmanPacketType.WORK_EXCEPTION,
-                    GearmanPacketImpl.generatePacketData(
-                    fun.getJobHandle(), e.getMessage().getBytes())));
-            fun.fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
-                    GearmanPacketType.WORK_FAIL, fun.getJobHandle()));
+            failFunction(fun, e);
+        }
+        job.stage = stage;
+        if (job.completed.get() && stage != null) {
+            // timed out while the function was being started
+            stage.toCompletableFuture().cancel(true);
+        }
+        if (stage == null) {
+            job.finish();
+            return;
         }
+        stage.whenComplete(new BiConsumer<GearmanJobResult, Throwable>() {
+
+            public void accept(GearmanJobResult result, Throwable thrown) {
+                try {
+                    if (thrown != null) {
+                        failFunction(fun, thrown);
+                    }
+                } finally {
+                    job.finish();
+                }
+            }
+        });
+    }
+
+    private void failFunction(GearmanFunction fun, Throwable t) {
+        LOG.log(Level.WARNING, "Exception while getting function " +
+                "results", t);
+        fun.fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                GearmanPacketType.WORK_EXCEPTION,
+                GearmanPacketImpl.generatePacketData(
+                fun.getJobHandle(), String.valueOf(t).getBytes())));
+        fun.fireEvent(new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                GearmanPacketType.WORK_FAIL, fun.getJobHandle()));
     }
 }
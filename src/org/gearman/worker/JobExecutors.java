@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gearman.common.Constants;
+
+/**
+ * Factory methods for executors that can be handed to a
+ * {@link GearmanWorkerImpl} to run its jobs.
+ *
+ * <p>
+ * Worker functions that spend most of their time blocked, for instance on
+ * JDBC or HTTP calls, are best run on a thread of their own. On runtimes that
+ * support virtual threads each job gets a new virtual thread, so thousands of
+ * such jobs can be in flight without the cost of as many platform threads.
+ * On older runtimes a cached pool of daemon threads, bounded by the maximum
+ * number of concurrent jobs, is used instead.
+ */
+public final class JobExecutors {
+
+    private static final Logger LOG = Logger.getLogger(
+            Constants.GEARMAN_WORKER_LOGGER_NAME);
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+    // Executors.newVirtualThreadPerTaskExecutor, null if the runtime does not
+    // have virtual threads
+    private static final Method VIRTUAL_THREAD_EXECUTOR =
+            findVirtualThreadExecutor();
+
+    private JobExecutors() {
+    }
+
+    /**
+     * Returns true if the runtime supports virtual threads, in which case
+     * {@link #newThreadPerJobExecutor(int)} runs every job on a virtual
+     * thread.
+     *
+     * @return true if virtual threads are available.
+     */
+    public static boolean virtualThreadsSupported() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that runs every job on a thread of its own. The
+     * threads are virtual threads if the runtime supports them, else they are
+     * taken from a pool of at most <tt>maxConcurrentJobs</tt> daemon threads
+     * which are discarded after being idle for a minute. The number of jobs
+     * running at once is bounded by the worker the executor is handed to,
+     * which should be created with the same <tt>maxConcurrentJobs</tt>.
+     *
+     * @param maxConcurrentJobs the maximum number of jobs to run at once.
+     * @return a new executor.
+     * @throws IllegalArgumentException if maxConcurrentJobs is less than one.
+     */
+    public static ExecutorService newThreadPerJobExecutor(
+            int maxConcurrentJobs) throws IllegalArgumentException {
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("An executor must be able to " +
+                    "run at least one job");
+        }
+        if (VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Failed to create virtual thread " +
+                        "executor, falling back to a thread pool", e);
+            }
+        }
+        return newBoundedCachedPool(maxConcurrentJobs);
+    }
+
+    static ExecutorService newBoundedCachedPool(int maxThreads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads,
+                maxThreads, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new JobThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException nsme) {
+            return null;
+        }
+    }
+
+    private static class JobThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final String prefix = "GearmanJob-" +
+                POOL_NUMBER.getAndIncrement() + "-";
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import org.gearman.client.GearmanIOEventListener;
+import org.gearman.common.GearmanPacket;
+import org.gearman.common.GearmanTask;
+
+/*
+ * A listener that hands the packets fired by a function on to a job server
+ * session and tells the function when a packet has been handed to the
+ * connection of the session, so that a function streaming its results can
+ * keep the number of packets waiting to be sent bounded.
+ */
+interface TrackingEventListener extends GearmanIOEventListener {
+
+    /*
+     * Like handleGearmanIOEvent, but returns the task carrying the packet.
+     * The task is FINISHED once the packet has been handed to the connection.
+     */
+    GearmanTask forward(GearmanPacket event);
+
+    /*
+     * True once packets are dropped rather than sent, because the job timed
+     * out or its session has been closed.
+     */
+    boolean isAbandoned();
+}
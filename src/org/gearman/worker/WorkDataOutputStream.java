@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.gearman.common.GearmanPacketImpl;
+import org.gearman.common.GearmanPacketMagic;
+import org.gearman.common.GearmanPacketType;
+import org.gearman.common.GearmanTask;
+import org.gearman.util.ByteUtils;
+
+/**
+ * Streams the results of a function to the client as WORK_DATA packets, see
+ * {@link AbstractGearmanFunction#openDataStream(int)}.
+ *
+ * <p>
+ * Bytes are written straight into the data of the next WORK_DATA packet,
+ * behind the job handle, and the packet is sent as it is once it holds
+ * <tt>chunkSize</tt> bytes or the stream is flushed. The writing thread
+ * blocks while {@link #MAX_CHUNKS_IN_FLIGHT} packets have not yet been handed
+ * to the connection of the job, so a function writes at the pace of the
+ * connection and streams a result of any size in constant memory.
+ *
+ * <p>
+ * A <tt>WorkDataOutputStream</tt> is not thread-safe.
+ */
+public final class WorkDataOutputStream extends OutputStream
+        implements WritableByteChannel {
+
+    /**
+     * The chunk size of {@link AbstractGearmanFunction#openDataStream()}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    /**
+     * How many packets may wait to be handed to the connection before a
+     * write blocks.
+     */
+    public static final int MAX_CHUNKS_IN_FLIGHT = 4;
+    private static final long WAIT_SLICE_MILLIS = 100;
+    private final AbstractGearmanFunction function;
+    private final byte[] handle;
+    private final int chunkSize;
+    private final Queue<GearmanTask> inFlight = new LinkedList<GearmanTask>();
+    // the data of the next packet, null until something is written
+    private ByteBuffer chunk = null;
+    private boolean closed = false;
+
+    WorkDataOutputStream(AbstractGearmanFunction function, byte[] handle,
+            int chunkSize) {
+        this.function = function;
+        this.handle = handle;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the maximum number of bytes sent in one WORK_DATA packet.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureChunk();
+        chunk.put((byte) b);
+        if (!chunk.hasRemaining()) {
+            emit();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            ensureChunk();
+            int n = Math.min(len, chunk.remaining());
+            chunk.put(b, off, n);
+            off += n;
+            len -= n;
+            if (!chunk.hasRemaining()) {
+                emit();
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer.
+     *
+     * @param src the bytes to write.
+     * @return the number of bytes written, which is all of them.
+     * @throws IOException if the stream has been closed or the job has been
+     *         abandoned.
+     */
+    public int write(ByteBuffer src) throws IOException {
+        int written = src.remaining();
+        while (src.hasRemaining()) {
+            ensureChunk();
+            if (src.remaining() <= chunk.remaining()) {
+                chunk.put(src);
+            } else {
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + chunk.remaining());
+                chunk.put(part);
+                src.position(part.position());
+            }
+            if (!chunk.hasRemaining()) {
+                emit();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Sends the bytes written so far as a WORK_DATA packet, even if it holds
+     * less than <tt>chunkSize</tt> bytes.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (chunk != null && chunk.position() > handle.length + 1) {
+            emit();
+        }
+    }
+
+    /**
+     * Sends the bytes written so far. The WORK_COMPLETE packet of the job is
+     * sent once the function returns, a function does not have to close the
+     * stream for that.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            chunk = null;
+        }
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    private void ensureChunk() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (chunk == null) {
+            // direct, so the connection writes the chunk without copying it
+            chunk = ByteBuffer.allocateDirect(handle.length + 1 + chunkSize);
+            chunk.put(handle);
+            chunk.put(ByteUtils.NULL);
+        }
+    }
+
+    /*
+     * The packet refers to the chunk rather than copying it, the next write
+     * goes to a new chunk.
+     */
+    private void emit() throws IOException {
+        chunk.flip();
+        GearmanPacketImpl packet = new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                GearmanPacketType.WORK_DATA, chunk);
+        chunk = null;
+        awaitWindow();
+        GearmanTask task = function.forwardEvent(packet);
+        if (task != null) {
+            inFlight.add(task);
+        }
+    }
+
+    private void awaitWindow() throws IOException {
+        while (!inFlight.isEmpty()) {
+            GearmanTask oldest = inFlight.peek();
+            if (oldest.getState() != GearmanTask.State.FINISHED &&
+                    inFlight.size() < MAX_CHUNKS_IN_FLIGHT) {
+                return;
+            }
+            try {
+                if (!oldest.waitForState(GearmanTask.State.FINISHED,
+                        WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (function.isAbandoned()) {
+                        throw new IOException("Job " +
+                                ByteUtils.fromUTF8Bytes(handle) +
+                                " has been abandoned");
+                    }
+                    continue;
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting " +
+                        "to send the results of job " +
+                        ByteUtils.fromUTF8Bytes(handle));
+            }
+            inFlight.remove();
+        }
+    }
+}
@@ -6,10 +6,16 @@
 package org.gearman.client;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -104,13 +110,47 @@ public class GearmanClientJobExecTest {
             Assert.assertTrue(resultString.equals(text.reverse().toString()));
     }
 
+    @Test
+    /*
+     * A slow reader of a streamed result holds back the client's connection,
+     * the result arrives complete and a job submitted meanwhile completes
+     * once the reader has caught up.
+     */
+    public void streamedAttachedJob() throws Exception {
+        StringBuffer text = generateData(8193, "Hello World");
+        GearmanJob job = GearmanJobImpl.createJob(
+                IncrementalReverseFunction.class.getCanonicalName(),
+                ByteUtils.toAsciiBytes(text.toString()), null);
+        InputStream in = job.openResultStream(64);
+        gc.submit(job);
+        StringBuilder streamed = new StringBuilder();
+        byte[] buf = new byte[16];
+        int n = in.read(buf);
+        Thread.sleep(100);
+        GearmanJob other = GearmanJobImpl.createJob(
+                ReverseFunction.class.getCanonicalName(),
+                ByteUtils.toAsciiBytes("other"), null);
+        gc.submitAsync(other);
+        while (n >= 0) {
+            streamed.append(ByteUtils.fromAsciiBytes(
+                    Arrays.copyOf(buf, n)));
+            n = in.read(buf);
+        }
+        Assert.assertEquals(text.reverse().toString(), streamed.toString());
+        Assert.assertTrue(job.get(10, TimeUnit.SECONDS).jobSucceeded());
+        Assert.assertEquals("rehto", ByteUtils.fromAsciiBytes(
+                other.getResultFuture().get(10, TimeUnit.SECONDS)
+                .getResults()));
+    }
+
     @Test
     public void simpleAttachedJobBulk() throws IOException,
             InterruptedException, TimeoutException, ExecutionException {
         int num = 1000;
         int numCompleted = 0;
         StringBuffer text = generateData(8193, "Hello World");
-        ArrayList <Future> futures = new ArrayList<Future>();
+        ArrayList<Future<GearmanJobResult>> futures =
+                new ArrayList<Future<GearmanJobResult>>();
         for (int i = 0; i < num; i++) {
             GearmanJob job = GearmanJobImpl.createJob(
                     ReverseFunction.class.getCanonicalName(),
@@ -132,6 +172,105 @@ public class GearmanClientJobExecTest {
         }
     }
 
+    @Test
+    public void asyncSubmit() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        int num = 200;
+        StringBuffer text = generateData(1024, "Hello World");
+        String rtext = new StringBuffer(text).reverse().toString();
+        ArrayList<GearmanJob> jobs = new ArrayList<GearmanJob>();
+        ArrayList<CompletableFuture<GearmanJobResult>> futures =
+                new ArrayList<CompletableFuture<GearmanJobResult>>();
+        for (int i = 0; i < num; i++) {
+            GearmanJob job = GearmanJobImpl.createJob(
+                    ReverseFunction.class.getCanonicalName(),
+                    ByteUtils.toAsciiBytes(text.toString()), null);
+            jobs.add(job);
+            futures.add(gc.submitAsync(job));
+        }
+        for (int i = 0; i < num; i++) {
+            byte[] handle = jobs.get(i).getAcceptedFuture().get(20,
+                    TimeUnit.SECONDS);
+            Assert.assertTrue("Accepted job has no handle",
+                    handle != null && handle.length > 0);
+            GearmanJobResult res = futures.get(i).get(20, TimeUnit.SECONDS);
+            Assert.assertTrue(res.jobSucceeded());
+            Assert.assertTrue(rtext.equals(
+                    ByteUtils.fromAsciiBytes(res.getResults())));
+        }
+        Assert.assertTrue("Client reports active jobs even though all " +
+                "jobs have completed", gc.getNumberofActiveJobs() == 0);
+    }
+
+    @Test
+    public void batchSubmit() throws InterruptedException, ExecutionException,
+            TimeoutException {
+        int num = 500;
+        StringBuffer text = generateData(256, "Hello World");
+        String rtext = new StringBuffer(text).reverse().toString();
+        ArrayList<GearmanJob> jobs = new ArrayList<GearmanJob>();
+        for (int i = 0; i < num; i++) {
+            jobs.add(GearmanJobImpl.createJob(
+                    ReverseFunction.class.getCanonicalName(),
+                    ByteUtils.toAsciiBytes(text.toString()), null));
+        }
+        List<CompletableFuture<GearmanJobResult>> futures = gc.submitAll(jobs);
+        Assert.assertEquals(num, futures.size());
+        for (CompletableFuture<GearmanJobResult> f : futures) {
+            GearmanJobResult res = f.get(20, TimeUnit.SECONDS);
+            Assert.assertTrue(res.jobSucceeded());
+            Assert.assertTrue(rtext.equals(
+                    ByteUtils.fromAsciiBytes(res.getResults())));
+        }
+        try {
+            gc.submitAll(jobs);
+            Assert.fail("Resubmitting a batch of jobs did not fail");
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+
+    @Test
+    public void concurrentSubmitters() throws InterruptedException {
+        int numThreads = 8;
+        final int jobsPerThread = 50;
+        final String text = generateData(512, "Hello World").toString();
+        final String rtext = new StringBuffer(text).reverse().toString();
+        final List<Throwable> errors =
+                Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] submitters = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            submitters[i] = new Thread(new Runnable() {
+
+                public void run() {
+                    try {
+                        for (int j = 0; j < jobsPerThread; j++) {
+                            GearmanJob job = GearmanJobImpl.createJob(
+                                    ReverseFunction.class.getCanonicalName(),
+                                    ByteUtils.toAsciiBytes(text), null);
+                            GearmanJobResult res = gc.submit(job).get(20,
+                                    TimeUnit.SECONDS);
+                            if (!res.jobSucceeded() || !rtext.equals(
+                                    ByteUtils.fromAsciiBytes(res.getResults()))) {
+                                throw new IllegalStateException("Job " + job +
+                                        " returned unexpected results");
+                            }
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    }
+                }
+            }, "submitter-" + i);
+            submitters[i].start();
+        }
+        for (Thread t : submitters) {
+            t.join();
+        }
+        Assert.assertTrue("Concurrent submitters failed: " + errors,
+                errors.isEmpty());
+        Assert.assertTrue("Client reports active jobs even though all " +
+                "jobs have completed", gc.getNumberofActiveJobs() == 0);
+    }
+
     @Test
     public void simpleDetachedTest()
             throws IOException, InterruptedException, ExecutionException,
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.gearman.common.GearmanPacketImpl;
+import org.gearman.common.GearmanPacketMagic;
+import org.gearman.common.GearmanPacketType;
+import org.gearman.util.ByteUtils;
+import org.junit.Test;
+
+public class GearmanJobResultImplTest {
+
+    private static final byte[] HANDLE = ByteUtils.toUTF8Bytes("H:test:1");
+
+    private static void send(GearmanJobImpl job, GearmanPacketType type,
+            byte[]... components) {
+        byte[][] withHandle = new byte[components.length + 1][];
+        withHandle[0] = HANDLE;
+        System.arraycopy(components, 0, withHandle, 1, components.length);
+        job.handleEvent(new GearmanPacketImpl(GearmanPacketMagic.RES, type,
+                GearmanPacketImpl.generatePacketData(withHandle)));
+    }
+
+    private static byte[] chunk(int i, int size) {
+        byte[] chunk = new byte[size];
+        Arrays.fill(chunk, (byte) i);
+        return chunk;
+    }
+
+    @Test
+    /*
+     * A job that streams its result in many WORK_DATA packets gets all of
+     * them, in order, followed by the data of the WORK_COMPLETE.
+     */
+    public void streamedResultTest() throws Exception {
+        GearmanJobImpl job = (GearmanJobImpl) GearmanJobImpl.createJob(
+                "streamed", new byte[0], null);
+        job.handleEvent(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                GearmanPacketType.JOB_CREATED, HANDLE));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        int chunks = 100;
+        for (int i = 0; i < chunks; i++) {
+            byte[] chunk = chunk(i, 4096);
+            send(job, GearmanPacketType.WORK_DATA, chunk);
+            expected.write(chunk);
+        }
+        send(job, GearmanPacketType.WORK_WARNING,
+                ByteUtils.toUTF8Bytes("careful"));
+        send(job, GearmanPacketType.WORK_STATUS, ByteUtils.toAsciiBytes("3"),
+                ByteUtils.toAsciiBytes("4"));
+        send(job, GearmanPacketType.WORK_COMPLETE,
+                ByteUtils.toUTF8Bytes("done"));
+        expected.write(ByteUtils.toUTF8Bytes("done"));
+
+        GearmanJobResult result = job.get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(result.jobSucceeded());
+        Assert.assertEquals(3, result.getNumerator());
+        Assert.assertEquals(4, result.getDenominator());
+        Assert.assertEquals("careful",
+                ByteUtils.fromUTF8Bytes(result.getWarnings()));
+        Assert.assertEquals(0, result.getExceptions().length);
+        Assert.assertTrue(Arrays.equals(expected.toByteArray(),
+                result.getResults()));
+        Assert.assertEquals(expected.size(), result.getResultLength());
+
+        ByteBuffer[] buffers = result.getResultChunks();
+        Assert.assertEquals(chunks + 1, buffers.length);
+        Assert.assertTrue(buffers[0].isReadOnly());
+        Assert.assertEquals(4096, buffers[0].remaining());
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        Assert.assertEquals(expected.size(),
+                result.writeResultsTo(Channels.newChannel(written)));
+        Assert.assertTrue(Arrays.equals(expected.toByteArray(),
+                written.toByteArray()));
+    }
+
+    @Test
+    public void failedJobTest() throws Exception {
+        GearmanJobImpl job = (GearmanJobImpl) GearmanJobImpl.createJob(
+                "failing", new byte[0], null);
+        job.handleEvent(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                GearmanPacketType.JOB_CREATED, HANDLE));
+        send(job, GearmanPacketType.WORK_DATA, ByteUtils.toUTF8Bytes("part"));
+        send(job, GearmanPacketType.WORK_EXCEPTION,
+                ByteUtils.toUTF8Bytes("boom"));
+        send(job, GearmanPacketType.WORK_FAIL);
+        GearmanJobResult result = job.get(10, TimeUnit.SECONDS);
+        Assert.assertFalse(result.jobSucceeded());
+        Assert.assertEquals("part", ByteUtils.fromUTF8Bytes(
+                result.getResults()));
+        Assert.assertEquals("boom", ByteUtils.fromUTF8Bytes(
+                result.getExceptions()));
+    }
+
+    @Test
+    public void mergeTest() {
+        GearmanJobResultImpl first = new GearmanJobResultImpl(HANDLE, false,
+                ByteUtils.toUTF8Bytes("ab"), null, null, 1, 2);
+        GearmanJobResultImpl merged = first.addJobResult(
+                new GearmanJobResultImpl(HANDLE, true,
+                ByteUtils.toUTF8Bytes("cd"), ByteUtils.toUTF8Bytes("w"), null,
+                -1, -1));
+        Assert.assertEquals("abcd", ByteUtils.fromUTF8Bytes(
+                merged.getResults()));
+        Assert.assertEquals("w", ByteUtils.fromUTF8Bytes(
+                merged.getWarnings()));
+        Assert.assertTrue(merged.jobSucceeded());
+        Assert.assertEquals(1, merged.getNumerator());
+        Assert.assertEquals(2, merged.getDenominator());
+        // merging leaves the merged results untouched
+        Assert.assertEquals("ab", ByteUtils.fromUTF8Bytes(first.getResults()));
+        try {
+            first.addJobResult(new GearmanJobResultImpl(
+                    ByteUtils.toUTF8Bytes("H:other:2")));
+            Assert.fail("Merged results of different jobs");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void copyTest() {
+        byte[] results = ByteUtils.toUTF8Bytes("original");
+        GearmanJobResultImpl result = new GearmanJobResultImpl(HANDLE, true,
+                results, null, null, -1, -1);
+        results[0] = 'X';
+        Assert.assertEquals("original", ByteUtils.fromUTF8Bytes(
+                result.getResults()));
+        GearmanJobResult copy = result.copy();
+        result.appendResults(ByteUtils.toUTF8Bytes(" and more"));
+        Assert.assertEquals("original", ByteUtils.fromUTF8Bytes(
+                copy.getResults()));
+        copy.getResults()[0] = 'X';
+        Assert.assertEquals("original", ByteUtils.fromUTF8Bytes(
+                copy.getResults()));
+        Assert.assertEquals(0, new GearmanJobResultImpl(HANDLE)
+                .getResultChunks().length);
+    }
+}
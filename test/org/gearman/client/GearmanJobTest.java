@@ -19,6 +19,7 @@ import org.junit.Test;
 import junit.framework.Assert;
 import org.gearman.common.Constants;
 import org.gearman.common.GearmanPacket;
+import org.gearman.common.GearmanPacketImpl;
 import org.gearman.common.GearmanPacketMagic;
 import org.gearman.common.GearmanPacketType;
 import org.gearman.client.GearmanJob.JobPriority;
@@ -456,6 +457,30 @@ public class GearmanJobTest {
 //
 //    }
 
+    @Test
+    /*
+     * A background job is complete as soon as it has been created, but
+     * whoever waits for its result must find it accepted already.
+     */
+    public void backgroundJobAcceptedFirstTest() throws Exception {
+        final GearmanJob job = GearmanJobImpl.createBackgroundJob("bg",
+                new byte[0], null);
+        final boolean[] acceptedFirst = {false};
+        job.getResultFuture().thenRun(new Runnable() {
+
+            public void run() {
+                acceptedFirst[0] = job.getAcceptedFuture().isDone();
+            }
+        });
+        ((GearmanJobImpl) job).handleEvent(new GearmanPacketImpl(
+                GearmanPacketMagic.RES, GearmanPacketType.JOB_CREATED,
+                ByteUtils.toUTF8Bytes("H:test:1")));
+        Assert.assertTrue(job.getResultFuture().isDone());
+        Assert.assertTrue(acceptedFirst[0]);
+        Assert.assertEquals("H:test:1", ByteUtils.fromUTF8Bytes(
+                job.getAcceptedFuture().get(1, TimeUnit.SECONDS)));
+    }
+
     private byte[] objectToBytes(Serializable obj) throws IOException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         ObjectOutputStream ostream = new ObjectOutputStream(out);
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.gearman.common.GearmanIOReactor;
+import org.gearman.common.GearmanJobServerSession;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.common.GearmanPacketImpl;
+import org.gearman.common.GearmanPacketMagic;
+import org.gearman.common.GearmanPacketType;
+import org.gearman.util.ByteUtils;
+import org.junit.Test;
+
+public class JobResultStreamTest {
+
+    private static final byte[] HANDLE = ByteUtils.toUTF8Bytes("H:test:1");
+
+    private static void send(GearmanJobImpl job, GearmanPacketType type,
+            byte[]... components) {
+        byte[][] withHandle = new byte[components.length + 1][];
+        withHandle[0] = HANDLE;
+        System.arraycopy(components, 0, withHandle, 1, components.length);
+        job.handleEvent(new GearmanPacketImpl(GearmanPacketMagic.RES, type,
+                GearmanPacketImpl.generatePacketData(withHandle)));
+    }
+
+    private static GearmanJobImpl newJob() {
+        GearmanJobImpl job = (GearmanJobImpl) GearmanJobImpl.createJob(
+                "streamed", new byte[0], null);
+        return job;
+    }
+
+    private static void created(GearmanJobImpl job) {
+        job.handleEvent(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                GearmanPacketType.JOB_CREATED, HANDLE));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[7];
+        int n;
+        while ((n = in.read(buf)) >= 0) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    /*
+     * The data of the WORK_DATA and WORK_COMPLETE packets is read from the
+     * stream, and is not accumulated in the result of the job.
+     */
+    public void streamTest() throws Exception {
+        GearmanJobImpl job = newJob();
+        InputStream in = job.openResultStream(1024);
+        created(job);
+        send(job, GearmanPacketType.WORK_DATA, ByteUtils.toUTF8Bytes("Hello"));
+        Assert.assertEquals(5, in.available());
+        Assert.assertEquals('H', in.read());
+        send(job, GearmanPacketType.WORK_DATA, ByteUtils.toUTF8Bytes(", "));
+        send(job, GearmanPacketType.WORK_COMPLETE,
+                ByteUtils.toUTF8Bytes("World"));
+        Assert.assertEquals("ello, World", ByteUtils.fromUTF8Bytes(
+                readAll(in)));
+        Assert.assertEquals(-1, in.read());
+
+        GearmanJobResult result = job.get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(result.jobSucceeded());
+        Assert.assertEquals(0, result.getResults().length);
+        in.close();
+        try {
+            in.read();
+            Assert.fail("Read from a closed stream");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void failedStreamTest() throws Exception {
+        GearmanJobImpl job = newJob();
+        InputStream in = job.openResultStream(1024);
+        created(job);
+        send(job, GearmanPacketType.WORK_DATA, ByteUtils.toUTF8Bytes("part"));
+        send(job, GearmanPacketType.WORK_FAIL);
+        byte[] buf = new byte[16];
+        Assert.assertEquals(4, in.read(buf));
+        try {
+            in.read(buf);
+            Assert.fail("Read past the end of a failed job");
+        } catch (IOException expected) {
+        }
+
+        job = newJob();
+        in = job.openResultStream(1024);
+        created(job);
+        job.fail(new IOException("lost"));
+        try {
+            in.read();
+            Assert.fail("Read past the end of a failed job");
+        } catch (IOException expected) {
+            Assert.assertEquals("lost", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void openTest() {
+        GearmanJobImpl job = newJob();
+        try {
+            job.openResultStream(0);
+            Assert.fail("Opened a stream without a buffer");
+        } catch (IllegalArgumentException expected) {
+        }
+        job.openResultStream(1);
+        try {
+            job.openResultStream(1);
+            Assert.fail("Opened a second stream");
+        } catch (IllegalStateException expected) {
+        }
+        job = newJob();
+        job.markSubmitted();
+        try {
+            job.openResultStream(1);
+            Assert.fail("Opened a stream for a submitted job");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    /*
+     * A stream that has buffered more than allowed stops the session from
+     * reading until the reader has drained half of the buffer, or closed the
+     * stream.
+     */
+    public void backpressureTest() throws Exception {
+        GearmanIOReactor reactor = new GearmanIOReactor();
+        reactor.start();
+        GearmanJobServerSession session = new GearmanJobServerSession(
+                new GearmanNIOJobServerConnection("localhost"));
+        try {
+            GearmanJobImpl job = newJob();
+            InputStream in = job.openResultStream(100);
+            job.setJobServerSession(session);
+            job.attachResultStream(reactor);
+            created(job);
+            byte[] chunk = new byte[40];
+            for (int i = 0; i < 3; i++) {
+                Arrays.fill(chunk, (byte) i);
+                send(job, GearmanPacketType.WORK_DATA, chunk);
+            }
+            Assert.assertTrue(session.isReadSuspended());
+            // further chunks do not suspend the session again
+            send(job, GearmanPacketType.WORK_DATA, chunk);
+
+            Assert.assertEquals(90, in.read(new byte[90]));
+            Assert.assertTrue(isReadSuspended(reactor, session));
+            Assert.assertEquals(20, in.read(new byte[20]));
+            Assert.assertFalse(isReadSuspended(reactor, session));
+
+            send(job, GearmanPacketType.WORK_DATA, new byte[100]);
+            Assert.assertTrue(session.isReadSuspended());
+            in.close();
+            Assert.assertFalse(isReadSuspended(reactor, session));
+            send(job, GearmanPacketType.WORK_DATA, new byte[200]);
+            Assert.assertFalse(session.isReadSuspended());
+        } finally {
+            reactor.shutdown();
+        }
+    }
+
+    /*
+     * Resumptions are run by the reactor in the order they were requested, so
+     * a check that runs on the reactor after them sees their effect.
+     */
+    private static boolean isReadSuspended(GearmanIOReactor reactor,
+            final GearmanJobServerSession session) throws Exception {
+        return reactor.submit(new Callable<Boolean>() {
+
+            public Boolean call() {
+                return session.isReadSuspended();
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.client;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanJobServerConnection;
+import org.gearman.common.GearmanJobServerSession;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.util.ByteUtils;
+import org.junit.Test;
+
+public class ServerSelectorTest {
+
+    private static List<GearmanJobServerSession> sessions(int count) {
+        List<GearmanJobServerSession> sessions =
+                new ArrayList<GearmanJobServerSession>();
+        for (int i = 0; i < count; i++) {
+            sessions.add(new GearmanJobServerSession(
+                    new GearmanNIOJobServerConnection("localhost",
+                    Constants.GEARMAN_DEFAULT_TCP_PORT + 100 + i)));
+        }
+        return sessions;
+    }
+
+    private static int[] distribution(ServerSelector selector,
+            List<GearmanJobServerSession> sessions, int selections) {
+        int[] counts = new int[sessions.size()];
+        for (int i = 0; i < selections; i++) {
+            counts[sessions.indexOf(selector.select(null))]++;
+        }
+        return counts;
+    }
+
+    /*
+     * A selector whose sessions have fixed numbers of outstanding tasks.
+     */
+    private static Map<GearmanJobServerSession, Integer> loads(
+            List<GearmanJobServerSession> sessions, int... loads) {
+        Map<GearmanJobServerSession, Integer> map =
+                new HashMap<GearmanJobServerSession, Integer>();
+        for (int i = 0; i < loads.length; i++) {
+            map.put(sessions.get(i), loads[i]);
+        }
+        return map;
+    }
+
+    @Test
+    public void emptySelectorTest() {
+        Assert.assertNull(new RoundRobinServerSelector().select(null));
+        Assert.assertNull(new LeastOutstandingServerSelector().select(null));
+        Assert.assertNull(new PowerOfTwoChoicesServerSelector().select(null));
+        Assert.assertNull(new ConsistentHashServerSelector().select(
+                GearmanJobImpl.createJob("hashed", new byte[0], "id")));
+        Assert.assertNull(new WeightedServerSelector(
+                new HashMap<GearmanJobServerConnection, Integer>(), 1).select(
+                null));
+    }
+
+    @Test
+    public void roundRobinTest() {
+        List<GearmanJobServerSession> sessions = sessions(3);
+        ServerSelector selector = new RoundRobinServerSelector();
+        for (GearmanJobServerSession s : sessions) {
+            selector.sessionAdded(s);
+            selector.sessionAdded(s);
+        }
+        int[] counts = distribution(selector, sessions, 300);
+        for (int count : counts) {
+            Assert.assertEquals(100, count);
+        }
+        GearmanJobServerSession first = selector.select(null);
+        Assert.assertNotSame(first, selector.select(null));
+
+        selector.sessionRemoved(sessions.get(1));
+        counts = distribution(selector, sessions, 100);
+        Assert.assertEquals(50, counts[0]);
+        Assert.assertEquals(0, counts[1]);
+        Assert.assertEquals(50, counts[2]);
+    }
+
+    @Test
+    public void leastOutstandingTest() {
+        List<GearmanJobServerSession> sessions = sessions(3);
+        final Map<GearmanJobServerSession, Integer> loads =
+                loads(sessions, 5, 2, 7);
+        ServerSelector selector = new LeastOutstandingServerSelector() {
+
+            @Override
+            protected int outstandingTasks(GearmanJobServerSession session) {
+                return loads.get(session);
+            }
+        };
+        for (GearmanJobServerSession s : sessions) {
+            selector.sessionAdded(s);
+        }
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(sessions.get(1), selector.select(null));
+        }
+        // ties are spread evenly
+        loads.put(sessions.get(1), 5);
+        int[] counts = distribution(selector, sessions, 100);
+        Assert.assertEquals(0, counts[2]);
+        Assert.assertTrue(Math.abs(counts[0] - counts[1]) <= 2);
+    }
+
+    @Test
+    public void powerOfTwoChoicesTest() {
+        List<GearmanJobServerSession> sessions = sessions(2);
+        final Map<GearmanJobServerSession, Integer> loads =
+                loads(sessions, 9, 3);
+        ServerSelector selector = new PowerOfTwoChoicesServerSelector() {
+
+            @Override
+            protected int outstandingTasks(GearmanJobServerSession session) {
+                return loads.get(session);
+            }
+        };
+        selector.sessionAdded(sessions.get(0));
+        selector.sessionAdded(sessions.get(1));
+        // with two sessions both are always compared
+        for (int i = 0; i < 100; i++) {
+            Assert.assertSame(sessions.get(1), selector.select(null));
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesSpreadTest() {
+        List<GearmanJobServerSession> sessions = sessions(4);
+        ServerSelector selector = new PowerOfTwoChoicesServerSelector() {
+
+            @Override
+            protected int outstandingTasks(GearmanJobServerSession session) {
+                return 0;
+            }
+        };
+        for (GearmanJobServerSession s : sessions) {
+            selector.sessionAdded(s);
+        }
+        int[] counts = distribution(selector, sessions, 4000);
+        for (int count : counts) {
+            Assert.assertTrue("Session picked " + count + " times",
+                    count > 700 && count < 1300);
+        }
+    }
+
+    @Test
+    public void weightedTest() {
+        List<GearmanJobServerSession> sessions = sessions(3);
+        Map<GearmanJobServerConnection, Integer> weights =
+                new HashMap<GearmanJobServerConnection, Integer>();
+        weights.put(sessions.get(0).getConnection(), 2);
+        weights.put(sessions.get(2).getConnection(), 5);
+        ServerSelector selector = new WeightedServerSelector(weights, 1);
+        selector.sessionAdded(sessions.get(0));
+        selector.sessionAdded(sessions.get(1));
+        int[] counts = distribution(selector, sessions, 300);
+        Assert.assertEquals(200, counts[0]);
+        Assert.assertEquals(100, counts[1]);
+
+        // selections are interleaved rather than bunched
+        Assert.assertSame(sessions.get(0), selector.select(null));
+        Assert.assertSame(sessions.get(1), selector.select(null));
+        Assert.assertSame(sessions.get(0), selector.select(null));
+
+        selector.sessionAdded(sessions.get(2));
+        counts = distribution(selector, sessions, 800);
+        Assert.assertEquals(200, counts[0]);
+        Assert.assertEquals(100, counts[1]);
+        Assert.assertEquals(500, counts[2]);
+    }
+
+    private static List<GearmanJob> jobs(int count) {
+        List<GearmanJob> jobs = new ArrayList<GearmanJob>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(GearmanJobImpl.createJob("hashed", new byte[0],
+                    "unique-" + i));
+        }
+        return jobs;
+    }
+
+    private static List<GearmanJobServerConnection> route(
+            ServerSelector selector, List<GearmanJob> jobs) {
+        List<GearmanJobServerConnection> servers =
+                new ArrayList<GearmanJobServerConnection>();
+        for (GearmanJob job : jobs) {
+            servers.add(selector.select(job).getConnection());
+        }
+        return servers;
+    }
+
+    @Test
+    /*
+     * Clients that add the same servers, in whatever order and under
+     * whatever name, send jobs with the same unique ID to the same server.
+     */
+    public void consistentHashStableTest() {
+        List<GearmanJobServerSession> sessions = sessions(4);
+        List<GearmanJob> jobs = jobs(1000);
+        ServerSelector first = new ConsistentHashServerSelector();
+        ServerSelector second = new ConsistentHashServerSelector();
+        for (int i = 0; i < sessions.size(); i++) {
+            first.sessionAdded(sessions.get(i));
+            second.sessionAdded(new GearmanJobServerSession(
+                    new GearmanNIOJobServerConnection("127.0.0.1",
+                    Constants.GEARMAN_DEFAULT_TCP_PORT + 103 - i)));
+        }
+        Assert.assertEquals(route(first, jobs), route(second, jobs));
+        GearmanJob duplicate = GearmanJobImpl.createJob("other",
+                new byte[] {1}, "unique-7");
+        Assert.assertSame(first.select(jobs.get(7)), first.select(duplicate));
+    }
+
+    @Test
+    public void consistentHashBalanceTest() {
+        List<GearmanJobServerSession> sessions = sessions(4);
+        ServerSelector selector = new ConsistentHashServerSelector();
+        for (GearmanJobServerSession s : sessions) {
+            selector.sessionAdded(s);
+        }
+        int[] counts = new int[sessions.size()];
+        for (GearmanJob job : jobs(10000)) {
+            counts[sessions.indexOf(selector.select(job))]++;
+        }
+        for (int count : counts) {
+            Assert.assertTrue("Server got " + count + " of 10000 jobs",
+                    count > 1500 && count < 3500);
+        }
+        // other requests go to the servers in turn
+        Assert.assertNotSame(selector.select(null), selector.select(null));
+    }
+
+    @Test
+    /*
+     * Adding a fourth server only moves about a quarter of the unique IDs,
+     * all of them to the new server. Removing it again moves them back.
+     */
+    public void consistentHashRemapTest() {
+        List<GearmanJobServerSession> sessions = sessions(4);
+        List<GearmanJob> jobs = jobs(10000);
+        ServerSelector selector = new ConsistentHashServerSelector();
+        for (int i = 0; i < 3; i++) {
+            selector.sessionAdded(sessions.get(i));
+        }
+        List<GearmanJobServerConnection> before = route(selector, jobs);
+        selector.sessionAdded(sessions.get(3));
+        List<GearmanJobServerConnection> after = route(selector, jobs);
+        int moved = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                moved++;
+                Assert.assertEquals(sessions.get(3).getConnection(),
+                        after.get(i));
+            }
+        }
+        Assert.assertTrue("Moved " + moved + " of 10000 jobs",
+                moved > 1500 && moved < 3500);
+
+        selector.sessionRemoved(sessions.get(3));
+        Assert.assertEquals(before, route(selector, jobs));
+    }
+
+    @Test
+    public void badVirtualNodesTest() {
+        try {
+            new ConsistentHashServerSelector(0);
+            Assert.fail("Created a ring without nodes");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void badWeightTest() {
+        try {
+            new WeightedServerSelector(
+                    new HashMap<GearmanJobServerConnection, Integer>(), 0);
+            Assert.fail("Created a selector with a default weight of zero");
+        } catch (IllegalArgumentException expected) {
+        }
+        Map<GearmanJobServerConnection, Integer> weights =
+                new HashMap<GearmanJobServerConnection, Integer>();
+        weights.put(new GearmanNIOJobServerConnection("localhost"), -1);
+        try {
+            new WeightedServerSelector(weights, 1);
+            Assert.fail("Created a selector with a negative weight");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    /*
+     * A selector set on a client is handed the servers that were already
+     * added as well as those added and removed later, and is asked for the
+     * server of every submission.
+     */
+    public void clientSelectorTest() throws Exception {
+        final List<GearmanJobServerSession> added =
+                new ArrayList<GearmanJobServerSession>();
+        final List<GearmanJob> selected = new ArrayList<GearmanJob>();
+        ServerSelector recorder = new RoundRobinServerSelector() {
+
+            @Override
+            public void sessionAdded(GearmanJobServerSession session) {
+                super.sessionAdded(session);
+                added.add(session);
+            }
+
+            @Override
+            public void sessionRemoved(GearmanJobServerSession session) {
+                super.sessionRemoved(session);
+                added.remove(session);
+            }
+
+            @Override
+            public GearmanJobServerSession select(GearmanJob job) {
+                selected.add(job);
+                return super.select(job);
+            }
+        };
+        ServerSocket dummy = null;
+        GearmanClientImpl client = new GearmanClientImpl();
+        try {
+            client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+            client.setServerSelector(recorder);
+            Assert.assertEquals(1, added.size());
+
+            dummy = new ServerSocket(Constants.GEARMAN_DEFAULT_TCP_PORT + 1);
+            GearmanNIOJobServerConnection other =
+                    new GearmanNIOJobServerConnection("localhost",
+                    Constants.GEARMAN_DEFAULT_TCP_PORT + 1);
+            client.addJobServer(other);
+            Assert.assertEquals(2, added.size());
+            client.removeJobServer(other);
+            Assert.assertEquals(1, added.size());
+
+            Assert.assertEquals("ping", ByteUtils.fromUTF8Bytes(client.echo(
+                    ByteUtils.toUTF8Bytes("ping"))));
+            GearmanJob job = GearmanJobImpl.createJob("noSuchFunction",
+                    new byte[0], null);
+            client.submitAsync(job);
+            job.getAcceptedFuture().get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(2, selected.size());
+            Assert.assertNull(selected.get(0));
+            Assert.assertSame(job, selected.get(1));
+        } finally {
+            client.shutdownNow();
+            if (dummy != null) {
+                try {
+                    dummy.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
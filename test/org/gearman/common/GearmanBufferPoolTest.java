@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class GearmanBufferPoolTest {
+
+    @Test
+    public void sizeClassTest() {
+        GearmanBufferPool pool = new GearmanBufferPool(1, TimeUnit.HOURS);
+        int[][] sizes = {{0, 512}, {1, 512}, {512, 512}, {513, 1024},
+            {32768, 32768}, {40000, 65536}, {65536, 65536}};
+        for (int[] size : sizes) {
+            ByteBuffer buffer = pool.acquire(size[0]);
+            Assert.assertTrue(buffer.isDirect());
+            Assert.assertEquals(size[1], buffer.capacity());
+            Assert.assertEquals(size[1], buffer.remaining());
+            pool.release(buffer);
+        }
+        try {
+            pool.acquire(GearmanBufferPool.MAX_BUFFER_SIZE + 1);
+            Assert.fail("Acquired a buffer larger than the largest class");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            pool.acquire(-1);
+            Assert.fail("Acquired a buffer of negative size");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void releaseTest() {
+        GearmanBufferPool pool = new GearmanBufferPool(1, TimeUnit.HOURS);
+        ByteBuffer[] foreign = {null, ByteBuffer.allocate(1024),
+            ByteBuffer.allocateDirect(1000),
+            ByteBuffer.allocateDirect(2 * GearmanBufferPool.MAX_BUFFER_SIZE)};
+        for (ByteBuffer buffer : foreign) {
+            try {
+                pool.release(buffer);
+                Assert.fail("Released " + buffer);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    /*
+     * Released buffers are handed out again, cleared, instead of allocating
+     * new ones.
+     */
+    public void reuseTest() {
+        GearmanBufferPool pool = new GearmanBufferPool(1, TimeUnit.HOURS);
+        ByteBuffer buffer = pool.acquire(4096);
+        buffer.putInt(42).flip();
+        pool.release(buffer);
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertEquals(4096, pool.getIdleBytes());
+        ByteBuffer again = pool.acquire(3000);
+        Assert.assertSame(buffer, again);
+        Assert.assertEquals(0, again.position());
+        Assert.assertEquals(4096, again.limit());
+        Assert.assertEquals(1, pool.getBorrowedCount());
+        pool.release(again);
+        Assert.assertEquals(1, pool.getAllocationCount());
+        Assert.assertEquals(0, pool.getBorrowedCount());
+    }
+
+    @Test
+    /*
+     * After a burst, the pool keeps as many buffers as were borrowed at once
+     * during the last interval and drops the rest.
+     */
+    public void highWaterMarkTest() {
+        GearmanBufferPool pool = new GearmanBufferPool(1, TimeUnit.HOURS);
+        ByteBuffer[] burst = new ByteBuffer[8];
+        for (int i = 0; i < burst.length; i++) {
+            burst[i] = pool.acquire(1024);
+        }
+        for (ByteBuffer buffer : burst) {
+            pool.release(buffer);
+        }
+        Assert.assertEquals(8, pool.getIdleCount());
+
+        // the next interval only ever needs two buffers at once
+        pool.trim();
+        Assert.assertEquals(8, pool.getIdleCount());
+        for (int i = 0; i < 5; i++) {
+            ByteBuffer a = pool.acquire(1024);
+            ByteBuffer b = pool.acquire(1024);
+            pool.release(a);
+            pool.release(b);
+        }
+        pool.trim();
+        Assert.assertEquals(2, pool.getIdleCount());
+        Assert.assertEquals(8, pool.getAllocationCount());
+
+        // an idle interval drops them all
+        pool.trim();
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertEquals(0, pool.getIdleBytes());
+    }
+
+    @Test
+    /*
+     * The pool trims itself once the interval has passed.
+     */
+    public void intervalTest() throws InterruptedException {
+        GearmanBufferPool pool = new GearmanBufferPool(0,
+                TimeUnit.MILLISECONDS);
+        ByteBuffer a = pool.acquire(512);
+        ByteBuffer b = pool.acquire(512);
+        pool.release(a);
+        pool.release(b);
+        Thread.sleep(1);
+        pool.release(pool.acquire(100));
+        Assert.assertTrue(pool.getIdleCount() <= 1);
+    }
+}
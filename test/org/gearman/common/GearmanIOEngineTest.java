@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.GearmanJobImpl;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.tests.functions.ReverseFunction;
+import org.gearman.tests.util.WorkerRunnable;
+import org.gearman.util.ByteUtils;
+import org.gearman.worker.GearmanWorkerImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GearmanIOEngineTest {
+
+    GearmanIOEngine engine = null;
+
+    @Before
+    public void initTest() {
+        engine = new GearmanIOEngine(2);
+    }
+
+    @After
+    public void shutdownTest() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void roundRobinTest() {
+        Assert.assertEquals(2, engine.getReactorCount());
+        GearmanIOReactor first = engine.nextReactor();
+        GearmanIOReactor second = engine.nextReactor();
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(first.isRunning());
+        Assert.assertTrue(second.isRunning());
+        Assert.assertSame(first, engine.nextReactor());
+        Assert.assertSame(second, engine.nextReactor());
+
+        engine.shutdown();
+        Assert.assertFalse(engine.isRunning());
+        Assert.assertFalse(first.isRunning());
+        Assert.assertFalse(second.isRunning());
+        try {
+            engine.nextReactor();
+            Assert.fail("Shutdown engine handed out a reactor");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void badReactorCountTest() {
+        try {
+            new GearmanIOEngine(0);
+            Assert.fail("Created an engine without reactors");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    /*
+     * Several clients and workers share the two reactors of the engine, every
+     * job submitted by any of the clients must be run by one of the workers.
+     */
+    public void sharedEngineTest() throws Exception {
+        int instances = 3;
+        List<GearmanClientImpl> clients = new ArrayList<GearmanClientImpl>();
+        List<GearmanWorkerImpl> workers = new ArrayList<GearmanWorkerImpl>();
+        List<WorkerRunnable> runners = new ArrayList<WorkerRunnable>();
+        try {
+            for (int i = 0; i < instances; i++) {
+                GearmanWorkerImpl worker = new GearmanWorkerImpl(engine);
+                worker.registerFunction(ReverseFunction.class);
+                worker.addServer(new GearmanNIOJobServerConnection(
+                        "localhost"));
+                WorkerRunnable runner = new WorkerRunnable(worker);
+                Thread t = new Thread(runner, "engineWorker-" + i);
+                t.setDaemon(true);
+                t.start();
+                workers.add(worker);
+                runners.add(runner);
+
+                GearmanClientImpl client = new GearmanClientImpl(engine);
+                client.addJobServer(new GearmanNIOJobServerConnection(
+                        "localhost"));
+                clients.add(client);
+            }
+
+            List<GearmanJob> jobs = new ArrayList<GearmanJob>();
+            List<String> expected = new ArrayList<String>();
+            for (int i = 0; i < 30; i++) {
+                String text = "engine job " + i;
+                GearmanJob job = GearmanJobImpl.createJob(
+                        ReverseFunction.class.getCanonicalName(),
+                        ByteUtils.toUTF8Bytes(text), null);
+                clients.get(i % instances).submitAsync(job);
+                jobs.add(job);
+                expected.add(new StringBuffer(text).reverse().toString());
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                GearmanJobResult result = jobs.get(i).getResultFuture().get(
+                        10, TimeUnit.SECONDS);
+                Assert.assertTrue(result.jobSucceeded());
+                Assert.assertEquals(expected.get(i),
+                        ByteUtils.fromUTF8Bytes(result.getResults()));
+            }
+        } finally {
+            for (GearmanClientImpl client : clients) {
+                client.shutdownNow();
+            }
+            for (int i = 0; i < workers.size(); i++) {
+                runners.get(i).stop();
+                workers.get(i).stop();
+            }
+        }
+        // clients and workers attached to an engine do not stop its reactors
+        for (int i = 0; i < engine.getReactorCount(); i++) {
+            Assert.assertTrue(engine.nextReactor().isRunning());
+        }
+    }
+
+    @Test
+    /*
+     * Clients and workers driven by spinning reactors behave exactly like
+     * those driven by parked ones.
+     */
+    public void spinningEngineTest() throws Exception {
+        GearmanIOEngine spinning = new GearmanIOEngine(2,
+                GearmanSpinPolicy.spinThenPark(10, TimeUnit.MILLISECONDS));
+        GearmanWorkerImpl worker = new GearmanWorkerImpl(spinning);
+        GearmanClientImpl client = new GearmanClientImpl(spinning);
+        WorkerRunnable runner = new WorkerRunnable(worker);
+        try {
+            GearmanJobServerConnection conn =
+                    new GearmanNIOJobServerConnection("localhost");
+            worker.registerFunction(ReverseFunction.class);
+            worker.addServer(conn);
+            Thread t = new Thread(runner, "spinningWorker");
+            t.setDaemon(true);
+            t.start();
+            client.addJobServer(new GearmanNIOJobServerConnection(
+                    "localhost"));
+
+            Assert.assertEquals("ping", ByteUtils.fromUTF8Bytes(client.echo(
+                    ByteUtils.toUTF8Bytes("ping"))));
+            Assert.assertEquals("pong", worker.echo("pong", conn));
+            // long enough for both reactors to give up spinning and park
+            Thread.sleep(100);
+            for (int i = 0; i < 10; i++) {
+                GearmanJob job = GearmanJobImpl.createJob(
+                        ReverseFunction.class.getCanonicalName(),
+                        ByteUtils.toUTF8Bytes("spin " + i), null);
+                client.submitAsync(job);
+                GearmanJobResult result = job.getResultFuture().get(10,
+                        TimeUnit.SECONDS);
+                Assert.assertTrue(result.jobSucceeded());
+                Assert.assertEquals(i + " nips",
+                        ByteUtils.fromUTF8Bytes(result.getResults()));
+            }
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            worker.stop();
+            spinning.shutdown();
+        }
+    }
+
+    @Test
+    /*
+     * Once an idle worker has told the job server that it is going to sleep,
+     * neither its reactor nor that of an idle client wake up until there is
+     * something to do.
+     */
+    public void idleWakeupTest() throws Exception {
+        GearmanWorkerImpl worker = new GearmanWorkerImpl(engine);
+        worker.registerFunction(ReverseFunction.class);
+        worker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(worker);
+        Thread t = new Thread(runner, "idleWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl(engine);
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        GearmanIOReactor[] reactors = {engine.nextReactor(),
+                engine.nextReactor()};
+        try {
+            // a job makes sure the worker has started and then gone to sleep
+            GearmanJob job = GearmanJobImpl.createJob(
+                    ReverseFunction.class.getCanonicalName(),
+                    ByteUtils.toUTF8Bytes("idle"), null);
+            client.submitAsync(job);
+            Assert.assertTrue(job.getResultFuture().get(10,
+                    TimeUnit.SECONDS).jobSucceeded());
+            Thread.sleep(500);
+
+            long before = reactors[0].getWakeupCount() +
+                    reactors[1].getWakeupCount();
+            long start = System.nanoTime();
+            Thread.sleep(2000);
+            long wakeups = reactors[0].getWakeupCount() +
+                    reactors[1].getWakeupCount() - before;
+            double perSecond = wakeups / ((System.nanoTime() - start) / 1e9);
+            Assert.assertTrue("Idle reactors woke up " + perSecond +
+                    " times per second", perSecond < 2);
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            worker.stop();
+        }
+    }
+}
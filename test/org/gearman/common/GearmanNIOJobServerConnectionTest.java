@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.gearman.util.ByteUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GearmanNIOJobServerConnectionTest {
+
+    ServerSocket server = null;
+    Socket peer = null;
+    GearmanNIOJobServerConnection conn = null;
+
+    @Before
+    public void initTest() throws IOException {
+        server = new ServerSocket(0);
+        conn = new GearmanNIOJobServerConnection("localhost",
+                server.getLocalPort());
+        conn.open();
+        peer = server.accept();
+    }
+
+    @After
+    public void shutdownTest() throws IOException {
+        if (conn.isOpen()) {
+            conn.close();
+        }
+        peer.close();
+        server.close();
+    }
+
+    @Test
+    /*
+     * The peer writes a series of packets, some of which are larger than the
+     * receive buffer, in fragments that split headers and data at arbitrary
+     * points. Every packet must be decoded intact and in order.
+     */
+    public void fragmentedPacketsTest() throws IOException {
+        List<GearmanPacket> sent = new ArrayList<GearmanPacket>();
+        sent.add(packet(GearmanPacketType.NOOP, new byte[0]));
+        sent.add(packet(GearmanPacketType.JOB_CREATED,
+                ByteUtils.toAsciiBytes("H:localhost:1")));
+        sent.add(packet(GearmanPacketType.WORK_COMPLETE, payload(100000)));
+        sent.add(packet(GearmanPacketType.ECHO_RES, payload(7)));
+        sent.add(packet(GearmanPacketType.WORK_DATA,
+                payload(Constants.GEARMAN_DEFAULT_SOCKET_RECV_SIZE - 5)));
+        sent.add(packet(GearmanPacketType.NO_JOB, new byte[0]));
+        sendInFragments(sent);
+    }
+
+    @Test
+    /*
+     * Packets above the spill threshold that arrive in fragments are received
+     * into memory-mapped files, the others stay on the heap.
+     */
+    public void spilledPacketsTest() throws IOException {
+        Assert.assertEquals(Integer.MAX_VALUE, conn.getSpillThreshold());
+        conn.setSpillThreshold(10000);
+        List<GearmanPacket> sent = new ArrayList<GearmanPacket>();
+        sent.add(packet(GearmanPacketType.JOB_CREATED,
+                ByteUtils.toAsciiBytes("H:localhost:1")));
+        sent.add(packet(GearmanPacketType.WORK_COMPLETE, payload(100000)));
+        sent.add(packet(GearmanPacketType.WORK_DATA, payload(9000)));
+        sent.add(packet(GearmanPacketType.WORK_DATA, payload(200000)));
+        sent.add(packet(GearmanPacketType.NO_JOB, new byte[0]));
+        List<GearmanPacket> received = sendInFragments(sent);
+        boolean[] spilled = {false, true, false, true, false};
+        for (int x = 0; x < spilled.length; x++) {
+            Assert.assertEquals("Packet " + x, spilled[x],
+                    received.get(x).getDataBuffer().isDirect());
+        }
+        try {
+            conn.setSpillThreshold(-1);
+            Assert.fail("Set a negative spill threshold");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    /*
+     * Several packets received in a single read are all decoded by it.
+     */
+    public void multiplePacketsPerReadTest() throws IOException {
+        int num = 50;
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (int i = 0; i < num; i++) {
+            all.write(packet(GearmanPacketType.WORK_STATUS,
+                    ByteUtils.toAsciiBytes("H:localhost:" + i)).toBytes());
+        }
+        peer.getOutputStream().write(all.toByteArray());
+        peer.getOutputStream().flush();
+        List<GearmanPacket> received = new ArrayList<GearmanPacket>();
+        drain(received, num);
+        for (int i = 0; i < num; i++) {
+            Assert.assertEquals("H:localhost:" + i,
+                    ByteUtils.fromAsciiBytes(received.get(i).getData()));
+        }
+    }
+
+    @Test
+    /*
+     * Small packets, packets with direct payloads that are written without
+     * being copied and packets larger than the socket buffers are queued and
+     * then flushed. The peer must receive them intact and in order, and the
+     * connection gives back its buffer once everything has been written.
+     */
+    public void queuedPacketsFlushTest() throws Exception {
+        final List<GearmanPacket> sent = new ArrayList<GearmanPacket>();
+        for (int i = 0; i < 200; i++) {
+            sent.add(packet(GearmanPacketType.WORK_STATUS,
+                    ByteUtils.toAsciiBytes("H:localhost:" + i)));
+            if (i % 50 == 0) {
+                sent.add(packet(GearmanPacketType.WORK_DATA, payload(4096)));
+            }
+        }
+        sent.add(packet(GearmanPacketType.NOOP, new byte[0]));
+        ByteBuffer direct = ByteBuffer.allocateDirect(100000);
+        direct.put(payload(direct.capacity()));
+        direct.flip();
+        sent.add(new GearmanPacketImpl(GearmanPacketMagic.REQ,
+                GearmanPacketType.WORK_DATA, direct));
+        sent.add(packet(GearmanPacketType.WORK_COMPLETE,
+                payload(4 * 1024 * 1024)));
+        sent.add(packet(GearmanPacketType.NOOP, new byte[0]));
+
+        final List<GearmanPacket> received = new ArrayList<GearmanPacket>();
+        final InputStream in = peer.getInputStream();
+        Thread reader = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < sent.size(); i++) {
+                    received.add(new GearmanPacketImpl(in));
+                }
+            }
+        });
+        reader.start();
+
+        for (GearmanPacket p : sent) {
+            conn.buffer(p);
+        }
+        Assert.assertTrue(conn.hasBufferedWriteData());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!conn.flush() && System.currentTimeMillis() < deadline) {
+            conn.waitForIO(true, 100);
+        }
+        Assert.assertFalse(conn.hasBufferedWriteData());
+        Assert.assertFalse(conn.holdsPooledBuffers());
+        reader.join(10000);
+
+        Assert.assertEquals(sent.size(), received.size());
+        for (int x = 0; x < sent.size(); x++) {
+            Assert.assertEquals(sent.get(x).getPacketType(),
+                    received.get(x).getPacketType());
+            Assert.assertTrue("Packet " + x + " has unexpected data",
+                    Arrays.equals(sent.get(x).getData(),
+                    received.get(x).getData()));
+        }
+    }
+
+    /*
+     * Writes the packets in fragments that split headers and data at
+     * arbitrary points and checks that they are all received intact and in
+     * order.
+     */
+    private List<GearmanPacket> sendInFragments(List<GearmanPacket> sent)
+            throws IOException {
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (GearmanPacket p : sent) {
+            all.write(p.toBytes());
+        }
+        byte[] bytes = all.toByteArray();
+
+        OutputStream out = peer.getOutputStream();
+        List<GearmanPacket> received = new ArrayList<GearmanPacket>();
+        int[] fragments = {5, 12, 1, 3000, 65536, 11};
+        int pos = 0;
+        int i = 0;
+        while (pos < bytes.length) {
+            int len = Math.min(fragments[i++ % fragments.length],
+                    bytes.length - pos);
+            out.write(bytes, pos, len);
+            out.flush();
+            pos += len;
+            drain(received, pos == bytes.length ? sent.size() : -1);
+        }
+
+        Assert.assertEquals(sent.size(), received.size());
+        for (int x = 0; x < sent.size(); x++) {
+            GearmanPacket exp = sent.get(x);
+            GearmanPacket act = received.get(x);
+            Assert.assertEquals(exp.getMagic(), act.getMagic());
+            Assert.assertEquals(exp.getPacketType(), act.getPacketType());
+            Assert.assertTrue("Packet " + x + " has unexpected data",
+                    Arrays.equals(exp.getData(), act.getData()));
+            Assert.assertTrue("Packet data buffer is writable",
+                    act.getDataBuffer().isReadOnly());
+        }
+        return received;
+    }
+
+    private void drain(List<GearmanPacket> received, int expected)
+            throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        do {
+            conn.waitForIO(false, 100);
+            GearmanPacket p = null;
+            while ((p = conn.read()) != null) {
+                received.add(p);
+            }
+        } while (received.size() < expected &&
+                System.currentTimeMillis() < deadline);
+    }
+
+    private static GearmanPacket packet(GearmanPacketType type, byte[] data) {
+        return new GearmanPacketImpl(GearmanPacketMagic.RES, type, data);
+    }
+
+    private static byte[] payload(int size) {
+        byte[] b = new byte[size];
+        for (int i = 0; i < size; i++) {
+            b[i] = (byte) (i % 251);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class GearmanSpinPolicyTest {
+
+    @Test
+    public void parkTest() {
+        Assert.assertFalse(GearmanSpinPolicy.PARK.isSpinning());
+        Assert.assertFalse(GearmanSpinPolicy.PARK.keepSpinning(0, 0));
+        Assert.assertSame(GearmanSpinPolicy.PARK,
+                GearmanSpinPolicy.spinThenPark(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void spinTest() {
+        Assert.assertTrue(GearmanSpinPolicy.SPIN.isSpinning());
+        Assert.assertTrue(GearmanSpinPolicy.SPIN.keepSpinning(0,
+                Long.MAX_VALUE));
+        Assert.assertSame(GearmanSpinPolicy.SPIN,
+                GearmanSpinPolicy.spinThenPark(Long.MAX_VALUE,
+                TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void spinThenParkTest() {
+        GearmanSpinPolicy policy = GearmanSpinPolicy.spinThenPark(50,
+                TimeUnit.MICROSECONDS);
+        Assert.assertTrue(policy.isSpinning());
+        Assert.assertEquals(50000, policy.getSpinNanos());
+        long idleSince = System.nanoTime();
+        Assert.assertTrue(policy.keepSpinning(idleSince, idleSince + 49999));
+        Assert.assertFalse(policy.keepSpinning(idleSince, idleSince + 50000));
+        // nanoTime may be negative and wrap around
+        Assert.assertTrue(policy.keepSpinning(Long.MAX_VALUE,
+                Long.MIN_VALUE));
+    }
+
+    @Test
+    public void badSpinTimeTest() {
+        try {
+            GearmanSpinPolicy.spinThenPark(-1, TimeUnit.MILLISECONDS);
+            Assert.fail("Created a policy with a negative spin time");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    /*
+     * A reactor that is busy-polling still picks up commands and shuts down.
+     */
+    public void spinningReactorTest() throws Exception {
+        GearmanIOReactor reactor = new GearmanIOReactor(GearmanSpinPolicy.SPIN);
+        reactor.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                final int value = i;
+                Assert.assertEquals(Integer.valueOf(i), reactor.submit(
+                        new Callable<Integer>() {
+
+                    public Integer call() {
+                        return value;
+                    }
+                }).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            reactor.shutdown();
+        }
+        Assert.assertFalse(reactor.isRunning());
+    }
+}
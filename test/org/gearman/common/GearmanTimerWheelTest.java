@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GearmanTimerWheelTest {
+
+    static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    GearmanTimerWheel wheel = null;
+    List<String> fired = null;
+
+    @Before
+    public void initTest() {
+        // 10ms ticks, 8 buckets, so a rotation takes 80ms
+        wheel = new GearmanTimerWheel(10, 8, 0);
+        fired = new ArrayList<String>();
+    }
+
+    @Test
+    public void expireInOrderTest() {
+        schedule("b", 25, 0);
+        schedule("a", 5, 0);
+        schedule("c", 40, 0);
+        Assert.assertEquals(3, wheel.pendingTimeouts());
+        Assert.assertEquals(0, wheel.expire(4 * MS));
+        Assert.assertEquals(1, wheel.expire(10 * MS));
+        Assert.assertEquals(1, wheel.expire(31 * MS));
+        Assert.assertEquals(1, wheel.expire(45 * MS));
+        Assert.assertEquals("[a, b, c]", fired.toString());
+        Assert.assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    /*
+     * Timeouts further out than a rotation of the wheel share buckets with
+     * earlier ones, but must only fire once their deadline has passed.
+     */
+    public void longDelayTest() {
+        schedule("far", 250, 0);
+        schedule("near", 10, 0);
+        wheel.expire(100 * MS);
+        Assert.assertEquals("[near]", fired.toString());
+        wheel.expire(249 * MS);
+        Assert.assertEquals("[near]", fired.toString());
+        wheel.expire(250 * MS);
+        Assert.assertEquals("[near, far]", fired.toString());
+    }
+
+    @Test
+    public void cancelTest() {
+        GearmanTimerWheel.Timeout t = schedule("cancelled", 20, 0);
+        schedule("kept", 20, 0);
+        Assert.assertTrue(t.cancel());
+        Assert.assertFalse(t.cancel());
+        Assert.assertTrue(t.isCancelled());
+        Assert.assertEquals(1, wheel.expire(30 * MS));
+        Assert.assertEquals("[kept]", fired.toString());
+        Assert.assertFalse(t.isExpired());
+        Assert.assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    public void millisToNextExpiryTest() {
+        Assert.assertEquals(0, wheel.millisToNextExpiry(0));
+        schedule("a", 35, 0);
+        Assert.assertEquals(40, wheel.millisToNextExpiry(0));
+        Assert.assertEquals(15, wheel.millisToNextExpiry(25 * MS));
+        wheel.expire(40 * MS);
+        Assert.assertEquals(0, wheel.millisToNextExpiry(40 * MS));
+    }
+
+    @Test
+    public void rescheduleFromTaskTest() {
+        wheel.schedule(new Runnable() {
+
+            public void run() {
+                fired.add("first");
+                schedule("second", 10, 20 * MS);
+            }
+        }, 10, TimeUnit.MILLISECONDS, 0);
+        wheel.expire(20 * MS);
+        Assert.assertEquals("[first]", fired.toString());
+        wheel.expire(30 * MS);
+        Assert.assertEquals("[first, second]", fired.toString());
+    }
+
+    private GearmanTimerWheel.Timeout schedule(final String name, long delay,
+            long nowNanos) {
+        return wheel.schedule(new Runnable() {
+
+            public void run() {
+                fired.add(name);
+            }
+        }, delay, TimeUnit.MILLISECONDS, nowNanos);
+    }
+}
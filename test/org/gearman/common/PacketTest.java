@@ -7,6 +7,12 @@ package org.gearman.common;
 
 
 import org.gearman.util.ByteUtils;
+import org.gearman.util.IORuntimeException;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -36,6 +42,109 @@ public class PacketTest {
     }
   }
   
+  @Test
+  public void testByteBufferRoundTrip() {
+    GearmanPacketImpl a = new GearmanPacketImpl(GearmanPacketMagic.REQ,GearmanPacketType.SUBMIT_JOB,BYTE_ARRAY_PATTER);
+    GearmanPacketImpl b = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.NOOP,new byte[0]);
+    byte [] ab = a.toBytes();
+    byte [] bb = b.toBytes();
+    ByteBuffer buf = ByteBuffer.allocate(ab.length + bb.length + 3);
+    buf.put(ab).put(bb).put(new byte[] {1,2,3}).flip();
+    assertSamePacket(a, new GearmanPacketImpl(buf));
+    Assert.assertEquals(ab.length, buf.position());
+    assertSamePacket(b, new GearmanPacketImpl(buf));
+    Assert.assertEquals(3, buf.remaining());
+    try {
+      new GearmanPacketImpl(buf);
+      Assert.fail("Decoded a packet from a truncated header");
+    } catch (IllegalArgumentException expected) {
+      Assert.assertEquals(3, buf.remaining());
+    }
+  }
+
+  @Test
+  public void testByteArrayRange() {
+    GearmanPacketImpl a = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.WORK_DATA,BYTE_ARRAY_PATTER);
+    byte [] ab = a.toBytes();
+    byte [] padded = new byte [ab.length + 10];
+    System.arraycopy(ab, 0, padded, 5, ab.length);
+    assertSamePacket(a, new GearmanPacketImpl(padded, 5, ab.length));
+    try {
+      new GearmanPacketImpl(padded, 5, ab.length - 1);
+      Assert.fail("Decoded a packet from a truncated range");
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      new GearmanPacketImpl(padded, 5, ab.length + 1);
+      Assert.fail("Decoded a packet from an oversized range");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void testStreamDeliveringPartialReads() {
+    GearmanPacketImpl a = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.WORK_COMPLETE,new byte [DEFAULT_DATA_COMPONENT]);
+    GearmanPacketImpl b = new GearmanPacketImpl(GearmanPacketMagic.REQ,GearmanPacketType.ECHO_REQ,BYTE_ARRAY_PATTER);
+    byte [] ab = a.toBytes();
+    byte [] bb = b.toBytes();
+    byte [] all = new byte [ab.length + bb.length];
+    System.arraycopy(ab, 0, all, 0, ab.length);
+    System.arraycopy(bb, 0, all, ab.length, bb.length);
+    // hands out at most three bytes per read and never reports any as available
+    InputStream in = new FilterInputStream(new ByteArrayInputStream(all)) {
+      @Override
+      public int read(byte [] b, int off, int len) throws IOException {
+        return super.read(b, off, Math.min(len, 3));
+      }
+      @Override
+      public int available() {
+        return 0;
+      }
+    };
+    assertSamePacket(a, new GearmanPacketImpl(in));
+    assertSamePacket(b, new GearmanPacketImpl(in));
+    try {
+      new GearmanPacketImpl(in);
+      Assert.fail("Decoded a packet from an exhausted stream");
+    } catch (IORuntimeException expected) {
+    }
+  }
+
+  @Test
+  public void testDataComponentBuffers() {
+    byte [] data = GearmanPacketImpl.generatePacketData(ByteUtils.toAsciiBytes("H:host:42"), ByteUtils.toAsciiBytes("3"), ByteUtils.toAsciiBytes("10"));
+    GearmanPacketImpl p = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.WORK_STATUS,data);
+    GearmanPacket.DataComponentName [] names = {GearmanPacket.DataComponentName.JOB_HANDLE, GearmanPacket.DataComponentName.NUMERATOR, GearmanPacket.DataComponentName.DENOMINATOR};
+    String [] expected = {"H:host:42", "3", "10"};
+    for (int i = 0; i < names.length; i++) {
+      ByteBuffer b = p.getDataComponentBuffer(names[i]);
+      Assert.assertTrue("Component buffer is writable", b.isReadOnly());
+      Assert.assertEquals(0, b.position());
+      Assert.assertEquals(ByteBuffer.wrap(ByteUtils.toAsciiBytes(expected[i])), b);
+      Assert.assertEquals(expected[i], ByteUtils.fromAsciiBytes(p.getDataComponentValue(names[i])));
+    }
+    Assert.assertEquals(0, p.getDataComponentBuffer(GearmanPacket.DataComponentName.DATA).remaining());
+    Assert.assertEquals(0, p.getDataComponentValue(GearmanPacket.DataComponentName.DATA).length);
+  }
+
+  @Test
+  public void testDataComponentsOfTruncatedPacket() {
+    // a WORK_COMPLETE without a separator has a handle and no data
+    GearmanPacketImpl p = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.WORK_COMPLETE,ByteUtils.toAsciiBytes("H:host:1"));
+    Assert.assertEquals("H:host:1", ByteUtils.fromAsciiBytes(p.getDataComponentValue(GearmanPacket.DataComponentName.JOB_HANDLE)));
+    Assert.assertEquals(0, p.getDataComponentBuffer(GearmanPacket.DataComponentName.DATA).remaining());
+    // the last component keeps any embedded separators
+    byte [] data = GearmanPacketImpl.generatePacketData(ByteUtils.toAsciiBytes("H:host:1"), new byte [] {1, 0, 2});
+    p = new GearmanPacketImpl(GearmanPacketMagic.RES,GearmanPacketType.WORK_DATA,data);
+    Assert.assertTrue(Arrays.equals(new byte [] {1, 0, 2}, p.getDataComponentValue(GearmanPacket.DataComponentName.DATA)));
+  }
+
+  private void assertSamePacket(GearmanPacket exp, GearmanPacket act) {
+    Assert.assertEquals(exp.getMagic(), act.getMagic());
+    Assert.assertEquals(exp.getPacketType(), act.getPacketType());
+    Assert.assertTrue("Packet data mis-match", Arrays.equals(exp.getData(), act.getData()));
+  }
+
   private int [] generateComponentSizes(int numberOfComponents) {
     int [] sizes = new int [numberOfComponents];
     int i = 0;
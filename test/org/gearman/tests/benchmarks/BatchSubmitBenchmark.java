@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gearman.client.GearmanClient;
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.GearmanJobImpl;
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.tests.functions.NoOpFunction;
+import org.gearman.tests.util.WorkerRunnable;
+import org.gearman.worker.GearmanWorker;
+import org.gearman.worker.GearmanWorkerImpl;
+
+/**
+ * Compares the rate at which small background jobs are accepted by a job
+ * server when they are submitted one at a time with
+ * {@link GearmanClient#submitAsync} and when they are submitted in batches
+ * with {@link GearmanClient#submitAll}. Requires a job server to be running on
+ * the specified host and port.
+ */
+public class BatchSubmitBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = Constants.GEARMAN_DEFAULT_TCP_HOST;
+        int port = Constants.GEARMAN_DEFAULT_TCP_PORT;
+        int jobs = 20000;
+        int batchSize = 1000;
+        int payloadSize = 64;
+        for (String arg : args) {
+            if (arg.startsWith("-h")) {
+                host = arg.substring(2);
+            } else if (arg.startsWith("-p")) {
+                port = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-n")) {
+                jobs = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-b")) {
+                batchSize = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-s")) {
+                payloadSize = Integer.parseInt(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        // drains the submitted jobs so that they do not pile up on the server
+        GearmanWorker worker = new GearmanWorkerImpl();
+        worker.registerFunction(NoOpFunction.class);
+        worker.addServer(new GearmanNIOJobServerConnection(host, port));
+        WorkerRunnable runner = new WorkerRunnable(worker);
+        Thread wt = new Thread(runner, "benchmarkWorker");
+        wt.setDaemon(true);
+        wt.start();
+
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection(host, port));
+        byte[] payload = new byte[payloadSize];
+
+        // warmup
+        run(client, Math.min(jobs, 2000), batchSize, payload, false);
+        run(client, Math.min(jobs, 2000), batchSize, payload, true);
+
+        long single = run(client, jobs, batchSize, payload, false);
+        report("submitAsync", jobs, single);
+        long batched = run(client, jobs, batchSize, payload, true);
+        report("submitAll(" + batchSize + ")", jobs, batched);
+
+        client.shutdownNow();
+        runner.stop();
+        worker.stop();
+    }
+
+    private static long run(GearmanClient client, int jobs, int batchSize,
+            byte[] payload, boolean batched) throws Exception {
+        List<GearmanJob> submitted = new ArrayList<GearmanJob>(jobs);
+        long start = System.nanoTime();
+        List<GearmanJob> batch = new ArrayList<GearmanJob>(batchSize);
+        for (int i = 0; i < jobs; i++) {
+            GearmanJob job = GearmanJobImpl.createBackgroundJob(
+                    NoOpFunction.class.getCanonicalName(), payload, null);
+            submitted.add(job);
+            if (!batched) {
+                client.submitAsync(job);
+                continue;
+            }
+            batch.add(job);
+            if (batch.size() == batchSize || i == jobs - 1) {
+                client.submitAll(batch);
+                batch = new ArrayList<GearmanJob>(batchSize);
+            }
+        }
+        for (GearmanJob job : submitted) {
+            job.getAcceptedFuture().get(60, TimeUnit.SECONDS);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int jobs, long elapsed) {
+        System.out.println(String.format(                                      //NOPMD
+                "%-16s jobs=%d elapsed=%.1fms jobs/sec=%.0f", name, jobs,
+                elapsed / 1e6, jobs / (elapsed / 1e9)));
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.BatchSubmitBenchmark " +
+                    "[-h<host>] [-p<port>] [-n<jobs>] [-b<batchSize>] " +
+                    "[-s<payloadSize>]",
+            "\t-h<host> - job server host",
+            "\t-p<port> - job server port",
+            "\t-n<jobs> - number of jobs submitted per run (default 20000)",
+            "\t-b<batchSize> - number of jobs per submitAll (default 1000)",
+            "\t-s<payloadSize> - size of the payload of each job (default 64)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
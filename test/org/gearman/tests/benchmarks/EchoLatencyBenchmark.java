@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanIOEngine;
+import org.gearman.common.GearmanJobServerConnection;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.common.GearmanSpinPolicy;
+import org.gearman.tests.util.LatencyHistogram;
+import org.gearman.worker.GearmanWorkerImpl;
+
+/**
+ * Measures the round trip latency of ECHO_REQ/ECHO_RES ping-pongs between a
+ * job server and a client and a worker, once with reactors that park in the
+ * selector and once with reactors that busy-poll it, see
+ * {@link GearmanSpinPolicy}. The spinning run only shows its real benefit when
+ * the client, the worker and their reactors have cores of their own.
+ * Requires a job server to be running on the specified host and port.
+ */
+public class EchoLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = Constants.GEARMAN_DEFAULT_TCP_HOST;
+        int port = Constants.GEARMAN_DEFAULT_TCP_PORT;
+        int iterations = 10000;
+        int warmup = 1000;
+        int payloadSize = 16;
+        long spinMicros = -1;
+        for (String arg : args) {
+            if (arg.startsWith("-h")) {
+                host = arg.substring(2);
+            } else if (arg.startsWith("-p")) {
+                port = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-n")) {
+                iterations = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-w")) {
+                warmup = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-b")) {
+                payloadSize = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-s")) {
+                spinMicros = Long.parseLong(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        GearmanSpinPolicy spinning = spinMicros < 0 ? GearmanSpinPolicy.SPIN :
+            GearmanSpinPolicy.spinThenPark(spinMicros, TimeUnit.MICROSECONDS);
+        for (GearmanSpinPolicy policy : Arrays.asList(GearmanSpinPolicy.PARK,
+                spinning)) {
+            run(host, port, iterations, warmup, payloadSize, policy);
+        }
+    }
+
+    private static void run(String host, int port, int iterations,
+            int warmup, int payloadSize, GearmanSpinPolicy policy)
+            throws Exception {
+        // one reactor for the client and one for the worker
+        GearmanIOEngine engine = new GearmanIOEngine(2, policy);
+        GearmanClientImpl client = new GearmanClientImpl(engine);
+        GearmanWorkerImpl worker = new GearmanWorkerImpl(engine);
+        try {
+            client.addJobServer(new GearmanNIOJobServerConnection(host, port));
+            GearmanJobServerConnection conn =
+                    new GearmanNIOJobServerConnection(host, port);
+            worker.addServer(conn);
+
+            byte[] data = new byte[payloadSize];
+            Arrays.fill(data, (byte) 'x');
+            String text = new String(data, "UTF-8");
+            LatencyHistogram clientHistogram = new LatencyHistogram(iterations);
+            LatencyHistogram workerHistogram = new LatencyHistogram(iterations);
+            for (int i = 0; i < warmup + iterations; i++) {
+                long start = System.nanoTime();
+                byte[] echoed = client.echo(data);
+                long elapsed = System.nanoTime() - start;
+                if (echoed.length != data.length) {
+                    throw new IllegalStateException("Client echo returned " +
+                            echoed.length + " bytes");
+                }
+                if (i >= warmup) {
+                    clientHistogram.record(elapsed);
+                }
+
+                start = System.nanoTime();
+                String reply = worker.echo(text, conn);
+                elapsed = System.nanoTime() - start;
+                if (!text.equals(reply)) {
+                    throw new IllegalStateException("Worker echo returned " +
+                            reply);
+                }
+                if (i >= warmup) {
+                    workerHistogram.record(elapsed);
+                }
+            }
+            clientHistogram.print("client echo (" + policy + ")", System.out);
+            workerHistogram.print("worker echo (" + policy + ")", System.out);
+        } finally {
+            client.shutdownNow();
+            worker.shutdown();
+            engine.shutdown();
+        }
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.EchoLatencyBenchmark " +
+                    "[-h<host>] [-p<port>] [-n<iterations>] [-w<warmup>] " +
+                    "[-b<bytes>] [-s<micros>]",
+            "\t-h<host> - job server host",
+            "\t-p<port> - job server port",
+            "\t-n<iterations> - number of measured echoes (default 10000)",
+            "\t-w<warmup> - number of unmeasured warmup echoes (default 1000)",
+            "\t-b<bytes> - size of the echoed payload (default 16)",
+            "\t-s<micros> - how long the spinning run spins before parking " +
+                    "(default spin forever)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import org.gearman.tests.functions.NoOpFunction;
+import org.gearman.worker.DefaultGearmanFunctionFactory;
+import org.gearman.worker.GearmanFunction;
+import org.gearman.worker.GearmanFunctionFactory;
+
+/**
+ * Measures how many function instances per second a worker can obtain for
+ * its jobs: by looking up the class and creating an instance reflectively for
+ * every job, from a {@link DefaultGearmanFunctionFactory} that looked up the
+ * constructor once, and from a factory that pools released instances. Each
+ * variant is run for a number of warmup iterations, whose results are
+ * discarded, followed by a number of measured iterations. Does not require a
+ * job server.
+ */
+public class FunctionFactoryBenchmark {
+
+    private static volatile int sink = 0;
+
+    public static void main(String[] args) throws Exception {
+        int count = 1000000;
+        int warmup = 5;
+        int iterations = 10;
+        for (String arg : args) {
+            if (arg.startsWith("-n")) {
+                count = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-w")) {
+                warmup = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-i")) {
+                iterations = Integer.parseInt(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        String className = NoOpFunction.class.getName();
+        GearmanFunctionFactory[] factories = {
+            null,
+            new DefaultGearmanFunctionFactory(className, 0),
+            new DefaultGearmanFunctionFactory(className, 64),
+        };
+        String[] names = {"forName", "constructor", "pooled"};
+        for (int f = 0; f < factories.length; f++) {
+            for (int i = 0; i < warmup; i++) {
+                run(factories[f], className, count);
+            }
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < iterations; i++) {
+                long elapsed = run(factories[f], className, count);
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+            double avg = total / (double) iterations;
+            System.out.println(String.format(                                  //NOPMD
+                    "%-12s functions=%d avg functions/sec=%.0f " +
+                    "best functions/sec=%.0f", names[f], count,
+                    count / (avg / 1e9), count / (best / 1e9)));
+        }
+    }
+
+    /*
+     * A null factory stands for the lookup every job used to do.
+     */
+    private static long run(GearmanFunctionFactory factory, String className,
+            int count) throws Exception {
+        int check = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            GearmanFunction fun = null;
+            if (factory == null) {
+                fun = (GearmanFunction) Class.forName(className).newInstance();
+            } else {
+                fun = factory.getFunction();
+            }
+            check += fun.hashCode();
+            if (factory != null) {
+                factory.releaseFunction(fun);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += check;
+        return elapsed;
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.FunctionFactoryBenchmark " +
+                    "[-n<functions>] [-w<warmup>] [-i<iterations>]",
+            "\t-n<functions> - number of functions obtained per iteration " +
+                    "(default 1000000)",
+            "\t-w<warmup> - number of unmeasured iterations (default 5)",
+            "\t-i<iterations> - number of measured iterations (default 10)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.GearmanJobImpl;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.tests.functions.NoOpFunction;
+import org.gearman.tests.util.LatencyHistogram;
+import org.gearman.tests.util.WorkerRunnable;
+import org.gearman.worker.GearmanWorker;
+import org.gearman.worker.GearmanWorkerImpl;
+
+/**
+ * Measures the round trip latency of a synchronous job whose function does
+ * no work at all, that is the time between handing the job to
+ * {@link GearmanClientImpl#submit} and {@link GearmanJob#get()} returning.
+ * Requires a job server to be running on the specified host and port.
+ */
+public class NoOpLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = Constants.GEARMAN_DEFAULT_TCP_HOST;
+        int port = Constants.GEARMAN_DEFAULT_TCP_PORT;
+        int iterations = 1000;
+        int warmup = 100;
+        for (String arg : args) {
+            if (arg.startsWith("-h")) {
+                host = arg.substring(2);
+            } else if (arg.startsWith("-p")) {
+                port = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-n")) {
+                iterations = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-w")) {
+                warmup = Integer.parseInt(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        GearmanWorker worker = new GearmanWorkerImpl();
+        worker.registerFunction(NoOpFunction.class);
+        worker.addServer(new GearmanNIOJobServerConnection(host, port));
+        WorkerRunnable runner = new WorkerRunnable(worker);
+        Thread wt = new Thread(runner, "benchmarkWorker");
+        wt.setDaemon(true);
+        wt.start();
+
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection(host, port));
+
+        LatencyHistogram histogram = new LatencyHistogram(iterations);
+        for (int i = 0; i < warmup + iterations; i++) {
+            GearmanJob job = GearmanJobImpl.createJob(
+                    NoOpFunction.class.getCanonicalName(), new byte[0], null);
+            long start = System.nanoTime();
+            GearmanJobResult result = client.submit(job).get();
+            long elapsed = System.nanoTime() - start;
+            if (!result.jobSucceeded()) {
+                throw new IllegalStateException("No-op job failed: " + job);
+            }
+            if (i >= warmup) {
+                histogram.record(elapsed);
+            }
+        }
+        histogram.print("no-op submit+get", System.out);
+
+        client.shutdownNow();
+        runner.stop();
+        worker.stop();
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.NoOpLatencyBenchmark " +
+                    "[-h<host>] [-p<port>] [-n<iterations>] [-w<warmup>]",
+            "\t-h<host> - job server host",
+            "\t-p<port> - job server port",
+            "\t-n<iterations> - number of measured jobs (default 1000)",
+            "\t-w<warmup> - number of unmeasured warmup jobs (default 100)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import org.gearman.common.GearmanPacketImpl;
+import org.gearman.common.GearmanPacketMagic;
+import org.gearman.common.GearmanPacketType;
+
+/**
+ * Measures how many packets per second can be decoded from a stream with
+ * {@link GearmanPacketImpl#GearmanPacketImpl(java.io.InputStream)} and from a
+ * buffer with {@link GearmanPacketImpl#GearmanPacketImpl(ByteBuffer)}. Each
+ * variant is run for a number of warmup iterations, whose results are
+ * discarded, followed by a number of measured iterations. Does not require a
+ * job server.
+ */
+public class PacketDecodeBenchmark {
+
+    private static volatile int sink = 0;
+
+    public static void main(String[] args) throws Exception {
+        int packets = 100000;
+        int payloadSize = 64;
+        int warmup = 5;
+        int iterations = 10;
+        for (String arg : args) {
+            if (arg.startsWith("-n")) {
+                packets = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-s")) {
+                payloadSize = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-w")) {
+                warmup = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-i")) {
+                iterations = Integer.parseInt(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        byte[] packet = new GearmanPacketImpl(GearmanPacketMagic.RES,
+                GearmanPacketType.WORK_DATA, new byte[payloadSize]).toBytes();
+        byte[] stream = new byte[packet.length * packets];
+        for (int i = 0; i < packets; i++) {
+            System.arraycopy(packet, 0, stream, i * packet.length,
+                    packet.length);
+        }
+
+        for (boolean buffered : new boolean[] {false, true}) {
+            String name = buffered ? "ByteBuffer" : "InputStream";
+            for (int i = 0; i < warmup; i++) {
+                run(stream, packets, buffered);
+            }
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < iterations; i++) {
+                long elapsed = run(stream, packets, buffered);
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+            double avg = total / (double) iterations;
+            System.out.println(String.format(                                  //NOPMD
+                    "%-12s packets=%d size=%d avg packets/sec=%.0f " +
+                    "best packets/sec=%.0f", name, packets, packet.length,
+                    packets / (avg / 1e9), packets / (best / 1e9)));
+        }
+    }
+
+    private static long run(byte[] stream, int packets, boolean buffered) {
+        int check = 0;
+        long start = System.nanoTime();
+        if (buffered) {
+            ByteBuffer in = ByteBuffer.wrap(stream);
+            for (int i = 0; i < packets; i++) {
+                GearmanPacketImpl p = new GearmanPacketImpl(in);
+                check += p.getDataSize();
+            }
+        } else {
+            ByteArrayInputStream in = new ByteArrayInputStream(stream);
+            for (int i = 0; i < packets; i++) {
+                GearmanPacketImpl p = new GearmanPacketImpl(in);
+                check += p.getDataSize();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += check;
+        return elapsed;
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.PacketDecodeBenchmark " +
+                    "[-n<packets>] [-s<payloadSize>] [-w<warmup>] " +
+                    "[-i<iterations>]",
+            "\t-n<packets> - number of packets decoded per iteration " +
+                    "(default 100000)",
+            "\t-s<payloadSize> - size of the data of each packet (default 64)",
+            "\t-w<warmup> - number of unmeasured iterations (default 5)",
+            "\t-i<iterations> - number of measured iterations (default 10)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
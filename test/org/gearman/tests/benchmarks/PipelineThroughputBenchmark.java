@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.GearmanJobImpl;
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanNIOJobServerConnection;
+import org.gearman.tests.functions.NoOpFunction;
+import org.gearman.tests.util.WorkerRunnable;
+import org.gearman.worker.GearmanWorker;
+import org.gearman.worker.GearmanWorkerImpl;
+
+/**
+ * Measures how many background jobs per second a client can get accepted by
+ * a job server over a single connection, for increasing submission pipeline
+ * depths (see {@link GearmanClientImpl#setSubmitPipelineDepth(int)}). A depth
+ * of one corresponds to waiting a full round trip for each JOB_CREATED.
+ * Requires a job server to be running on the specified host and port.
+ */
+public class PipelineThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = Constants.GEARMAN_DEFAULT_TCP_HOST;
+        int port = Constants.GEARMAN_DEFAULT_TCP_PORT;
+        int jobs = 10000;
+        int maxDepth = 256;
+        for (String arg : args) {
+            if (arg.startsWith("-h")) {
+                host = arg.substring(2);
+            } else if (arg.startsWith("-p")) {
+                port = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-n")) {
+                jobs = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-d")) {
+                maxDepth = Integer.parseInt(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+
+        // drains the submitted jobs so that they do not pile up on the server
+        GearmanWorker worker = new GearmanWorkerImpl();
+        worker.registerFunction(NoOpFunction.class);
+        worker.addServer(new GearmanNIOJobServerConnection(host, port));
+        WorkerRunnable runner = new WorkerRunnable(worker);
+        Thread wt = new Thread(runner, "benchmarkWorker");
+        wt.setDaemon(true);
+        wt.start();
+
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection(host, port));
+
+        // warmup
+        run(client, 1, Math.min(jobs, 1000));
+        for (int depth = 1; depth <= maxDepth; depth *= 2) {
+            long elapsed = run(client, depth, jobs);
+            double jobsPerSec = jobs / (elapsed / 1e9);
+            System.out.println(String.format(                                  //NOPMD
+                    "depth=%-4d jobs=%d elapsed=%.1fms jobs/sec=%.0f",
+                    depth, jobs, elapsed / 1e6, jobsPerSec));
+        }
+
+        client.shutdownNow();
+        runner.stop();
+        worker.stop();
+    }
+
+    private static long run(GearmanClientImpl client, int depth, int jobs)
+            throws Exception {
+        client.setSubmitPipelineDepth(depth);
+        List<GearmanJob> submitted = new ArrayList<GearmanJob>(jobs);
+        long start = System.nanoTime();
+        for (int i = 0; i < jobs; i++) {
+            GearmanJob job = GearmanJobImpl.createBackgroundJob(
+                    NoOpFunction.class.getCanonicalName(), new byte[0], null);
+            client.submitAsync(job);
+            submitted.add(job);
+        }
+        for (GearmanJob job : submitted) {
+            job.getAcceptedFuture().get(60, TimeUnit.SECONDS);
+        }
+        return System.nanoTime() - start;
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.PipelineThroughputBenchmark " +
+                    "[-h<host>] [-p<port>] [-n<jobs>] [-d<maxDepth>]",
+            "\t-h<host> - job server host",
+            "\t-p<port> - job server port",
+            "\t-n<jobs> - number of jobs submitted per depth (default 10000)",
+            "\t-d<maxDepth> - largest pipeline depth, depths are doubled " +
+                    "starting at 1 (default 256)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.benchmarks;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.gearman.client.AbstractServerSelector;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.LeastOutstandingServerSelector;
+import org.gearman.client.PowerOfTwoChoicesServerSelector;
+import org.gearman.client.RoundRobinServerSelector;
+import org.gearman.client.ServerSelector;
+import org.gearman.client.WeightedServerSelector;
+import org.gearman.common.Constants;
+import org.gearman.common.GearmanJobServerConnection;
+import org.gearman.common.GearmanJobServerSession;
+import org.gearman.common.GearmanNIOJobServerConnection;
+
+/**
+ * Compares the server selection strategies of the client without a job
+ * server. The first part measures the cost of a selection and how a burst of
+ * selections is spread over idle servers, including the random choice the
+ * client used to make with a <tt>Random</tt> seeded from the current time.
+ * The second part simulates servers that complete queued jobs at different
+ * rates, the last one being the slowest, and reports how the jobs are spread
+ * and how long the queues get.
+ */
+public class ServerSelectorBenchmark {
+
+    private static int[] outstanding;
+    private static Map<GearmanJobServerSession, Integer> indexes =
+            new HashMap<GearmanJobServerSession, Integer>();
+
+    /*
+     * The selection GearmanClientImpl made before selectors were introduced.
+     */
+    private static class TimeSeededRandomSelector
+            extends AbstractServerSelector {
+
+        @Override
+        protected int selectIndex(GearmanJob job) {
+            List<GearmanJobServerSession> copy =
+                    new ArrayList<GearmanJobServerSession>();
+            copy.addAll(sessions);
+            return new Random(System.currentTimeMillis()).nextInt(copy.size());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int servers = 4;
+        int selections = 1000000;
+        int steps = 200000;
+        double slowdown = 4;
+        for (String arg : args) {
+            if (arg.startsWith("-n")) {
+                servers = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-i")) {
+                selections = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-t")) {
+                steps = Integer.parseInt(arg.substring(2));
+            } else if (arg.startsWith("-s")) {
+                slowdown = Double.parseDouble(arg.substring(2));
+            } else {
+                usage(System.err);
+                return;
+            }
+        }
+        if (servers < 2) {
+            usage(System.err);
+            return;
+        }
+
+        List<GearmanJobServerSession> sessions =
+                new ArrayList<GearmanJobServerSession>();
+        for (int i = 0; i < servers; i++) {
+            GearmanJobServerSession s = new GearmanJobServerSession(
+                    new GearmanNIOJobServerConnection("localhost",
+                    Constants.GEARMAN_DEFAULT_TCP_PORT + 1 + i));
+            sessions.add(s);
+            indexes.put(s, i);
+        }
+        outstanding = new int[servers];
+        // the servers together can complete 1.5 jobs per step, the last one
+        // being slowdown times slower than the others
+        double[] rates = new double[servers];
+        double unit = 1.5 / (servers - 1 + 1 / slowdown);
+        Map<GearmanJobServerConnection, Integer> weights =
+                new HashMap<GearmanJobServerConnection, Integer>();
+        for (int i = 0; i < servers; i++) {
+            rates[i] = i == servers - 1 ? unit / slowdown : unit;
+        }
+        for (int i = 0; i < servers; i++) {
+            weights.put(sessions.get(i).getConnection(),
+                    (int) Math.round(rates[i] / rates[servers - 1]));
+        }
+
+        System.out.println("idle servers, " + selections + " selections");  //NOPMD
+        for (Map.Entry<String, ServerSelector> e :
+                selectors(sessions, weights).entrySet()) {
+            int[] counts = new int[servers];
+            long start = System.nanoTime();
+            for (int i = 0; i < selections; i++) {
+                counts[indexes.get(e.getValue().select(null))]++;
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println(String.format("%-20s %6.1f ns/select " +    //NOPMD
+                    "shares %s", e.getKey(), (double) elapsed / selections,
+                    shares(counts, selections)));
+        }
+
+        System.out.println("servers with completion rates " +               //NOPMD
+                format(rates) + " per step, " + steps + " steps");
+        for (Map.Entry<String, ServerSelector> e :
+                selectors(sessions, weights).entrySet()) {
+            simulate(e.getKey(), e.getValue(), rates, steps);
+        }
+    }
+
+    private static Map<String, ServerSelector> selectors(
+            List<GearmanJobServerSession> sessions,
+            Map<GearmanJobServerConnection, Integer> weights) {
+        Map<String, ServerSelector> selectors =
+                new LinkedHashMap<String, ServerSelector>();
+        selectors.put("time-seeded random", new TimeSeededRandomSelector());
+        selectors.put("round-robin", new RoundRobinServerSelector());
+        selectors.put("least-outstanding",
+                new LeastOutstandingServerSelector() {
+
+            @Override
+            protected int outstandingTasks(GearmanJobServerSession session) {
+                return outstanding[indexes.get(session)];
+            }
+        });
+        selectors.put("power-of-two", new PowerOfTwoChoicesServerSelector() {
+
+            @Override
+            protected int outstandingTasks(GearmanJobServerSession session) {
+                return outstanding[indexes.get(session)];
+            }
+        });
+        selectors.put("weighted", new WeightedServerSelector(weights, 1));
+        for (ServerSelector selector : selectors.values()) {
+            for (GearmanJobServerSession s : sessions) {
+                selector.sessionAdded(s);
+            }
+        }
+        return selectors;
+    }
+
+    /*
+     * Every step one job arrives and is queued on the selected server, then
+     * each server with queued jobs completes one with the probability given
+     * by its rate.
+     */
+    private static void simulate(String name, ServerSelector selector,
+            double[] rates, int steps) {
+        int servers = rates.length;
+        Random random = new Random(42);
+        int[] counts = new int[servers];
+        int[] maxQueue = new int[servers];
+        long queued = 0;
+        Arrays.fill(outstanding, 0);
+        for (int step = 0; step < steps; step++) {
+            int i = indexes.get(selector.select(null));
+            counts[i]++;
+            outstanding[i]++;
+            maxQueue[i] = Math.max(maxQueue[i], outstanding[i]);
+            for (int j = 0; j < servers; j++) {
+                if (outstanding[j] > 0 && random.nextDouble() < rates[j]) {
+                    outstanding[j]--;
+                }
+                queued += outstanding[j];
+            }
+        }
+        int worst = 0;
+        for (int q : maxQueue) {
+            worst = Math.max(worst, q);
+        }
+        System.out.println(String.format("%-20s mean queued %8.1f " +      //NOPMD
+                "max queue %6d shares %s", name, (double) queued / steps, worst,
+                shares(counts, steps)));
+    }
+
+    private static String shares(int[] counts, int total) {
+        StringBuilder sb = new StringBuilder();
+        for (int count : counts) {
+            sb.append(String.format("%5.1f%% ", 100.0 * count / total));
+        }
+        return sb.toString();
+    }
+
+    private static String format(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (double v : values) {
+            sb.append(String.format("%.2f ", v));
+        }
+        return sb.toString().trim();
+    }
+
+    public static void usage(PrintStream out) {
+        String[] usage = {
+            "usage: org.gearman.tests.benchmarks.ServerSelectorBenchmark " +
+                    "[-n<servers>] [-i<selections>] [-t<steps>] [-s<slowdown>]",
+            "\t-n<servers> - number of simulated job servers, at least 2 " +
+                    "(default 4)",
+            "\t-i<selections> - number of selections among idle servers " +
+                    "(default 1000000)",
+            "\t-t<steps> - number of steps of the queueing simulation " +
+                    "(default 200000)",
+            "\t-s<slowdown> - how many times slower the last server is " +
+                    "(default 4)",
+        };
+
+        for (String line : usage) {
+            out.println(line);                                                  //NOPMD
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.tests.util;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Collects latency samples (in nanoseconds) for the benchmarks and reports
+ * the usual percentiles.
+ */
+public class LatencyHistogram {
+
+    private long[] samples;
+    private int count = 0;
+
+    public LatencyHistogram(int expectedSamples) {
+        samples = new long[Math.max(expectedSamples, 1)];
+    }
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param percentile value between 0 and 100
+     * @return the sample at the given percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil((percentile / 100.0) * count) - 1;
+        return sorted[Math.min(Math.max(idx, 0), count - 1)];
+    }
+
+    public void print(String name, PrintStream out) {
+        out.println(String.format("%s: n=%d p50=%.3fms p90=%.3fms " +          //NOPMD
+                "p99=%.3fms max=%.3fms", name, count,
+                getPercentile(50) / 1e6, getPercentile(90) / 1e6,
+                getPercentile(99) / 1e6, getPercentile(100) / 1e6));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.gearman.client.GearmanIOEventListener;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+import org.gearman.common.GearmanPacket;
+import org.gearman.common.GearmanPacketType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbstractAsyncGearmanFunctionTest {
+
+    static class RecordingListener implements GearmanIOEventListener {
+
+        final List<GearmanPacketType> events =
+                new ArrayList<GearmanPacketType>();
+
+        public void handleGearmanIOEvent(GearmanPacket event) {
+            events.add(event.getPacketType());
+        }
+    }
+
+    static class PendingFunction extends AbstractAsyncGearmanFunction {
+
+        final CompletableFuture<GearmanJobResult> pending =
+                new CompletableFuture<GearmanJobResult>();
+
+        @Override
+        public CompletionStage<GearmanJobResult> executeFunctionAsync() {
+            return pending;
+        }
+
+        GearmanJobResult success() {
+            return new GearmanJobResultImpl(jobHandle, true, new byte[0],
+                    new byte[0], new byte[0], 0, 0);
+        }
+    }
+
+    PendingFunction fun = null;
+    RecordingListener listener = null;
+
+    @Before
+    public void init() {
+        fun = new PendingFunction();
+        fun.setJobHandle("H:localhost:1".getBytes());
+        listener = new RecordingListener();
+        fun.registerEventListener(listener);
+    }
+
+    @Test
+    public void completeTest() throws Exception {
+        CompletionStage<GearmanJobResult> stage = fun.callAsync();
+        Assert.assertTrue(listener.events.isEmpty());
+        fun.pending.complete(fun.success());
+        Assert.assertTrue(stage.toCompletableFuture().get().jobSucceeded());
+        Assert.assertEquals(1, listener.events.size());
+        Assert.assertEquals(GearmanPacketType.WORK_COMPLETE,
+                listener.events.get(0));
+    }
+
+    @Test
+    public void exceptionalCompletionTest() throws Exception {
+        CompletionStage<GearmanJobResult> stage = fun.callAsync();
+        fun.pending.completeExceptionally(new IllegalStateException("BAH"));
+        Assert.assertFalse(stage.toCompletableFuture().get().jobSucceeded());
+        Assert.assertEquals(2, listener.events.size());
+        Assert.assertEquals(GearmanPacketType.WORK_EXCEPTION,
+                listener.events.get(0));
+        Assert.assertEquals(GearmanPacketType.WORK_FAIL,
+                listener.events.get(1));
+    }
+
+    @Test
+    public void nullResultTest() throws Exception {
+        CompletionStage<GearmanJobResult> stage = fun.callAsync();
+        fun.pending.complete(null);
+        Assert.assertFalse(stage.toCompletableFuture().get().jobSucceeded());
+        Assert.assertEquals(GearmanPacketType.WORK_FAIL,
+                listener.events.get(listener.events.size() - 1));
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        CompletionStage<GearmanJobResult> stage = fun.callAsync();
+        Assert.assertTrue(stage.toCompletableFuture().cancel(true));
+        Assert.assertTrue(fun.pending.isCancelled());
+    }
+
+    @Test
+    public void blockingCallTest() throws Exception {
+        fun.pending.complete(fun.success());
+        Assert.assertTrue(fun.call().jobSucceeded());
+        Assert.assertEquals(GearmanPacketType.WORK_COMPLETE,
+                listener.events.get(0));
+    }
+}
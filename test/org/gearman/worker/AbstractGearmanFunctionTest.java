@@ -6,6 +6,11 @@
 
 package org.gearman.worker;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import org.gearman.client.GearmanIOEventListener;
 import org.gearman.client.GearmanJobResult;
 import org.gearman.client.GearmanJobResultImpl;
@@ -99,6 +104,36 @@ public class AbstractGearmanFunctionTest {
         }
     }
 
+    static class TestStreamingFunction extends AbstractGearmanFunction {
+
+        @Override
+        public GearmanJobResult executeFunction() {
+            try {
+                WorkDataOutputStream out = openDataStream(4);
+                try {
+                    openDataStream();
+                    Assert.fail("Opened a second data stream");
+                } catch (IllegalStateException expected) {}
+                out.write("01234".getBytes());
+                out.write('5');
+                out.write(ByteBuffer.wrap("6789a".getBytes()));
+            } catch (IOException ioe) {
+                return null;
+            }
+            return new GearmanJobResultImpl(jobHandle, true, new byte[0],
+                    new byte[0], new byte[0], 1, 2);
+        }
+    }
+
+    static class RecordingListener implements GearmanIOEventListener {
+
+        List<GearmanPacket> packets = new ArrayList<GearmanPacket>();
+
+        public void handleGearmanIOEvent(GearmanPacket event) {
+            packets.add(event);
+        }
+    }
+
     TestFunction tf;
     
     @Before
@@ -194,6 +229,34 @@ public class AbstractGearmanFunctionTest {
         Assert.assertTrue(tl.eventReceived);
     }
 
+    @Test
+    /*
+     * Work packets are laid out in direct buffers, which the connection
+     * writes to the socket without copying them.
+     */
+    public void directWorkPacketsTest() {
+        RecordingListener rl = new RecordingListener();
+        tf.registerEventListener(rl);
+        tf.setJobHandle("H:direct".getBytes());
+        tf.sendData("data".getBytes());
+        tf.sendWarning("warning".getBytes());
+        tf.sendException("exception".getBytes());
+        Assert.assertTrue(tf.call().jobSucceeded());
+
+        String[] data = {"data", "warning", "exception", ""};
+        Assert.assertEquals(data.length, rl.packets.size());
+        for (int i = 0; i < data.length; i++) {
+            GearmanPacket p = rl.packets.get(i);
+            Assert.assertTrue(p.getDataBuffer().isDirect());
+            Assert.assertEquals("H:direct", new String(p.getDataComponentValue(
+                    GearmanPacket.DataComponentName.JOB_HANDLE)));
+            Assert.assertEquals(data[i], new String(p.getDataComponentValue(
+                    GearmanPacket.DataComponentName.DATA)));
+        }
+        Assert.assertEquals(GearmanPacketType.WORK_COMPLETE,
+                rl.packets.get(data.length - 1).getPacketType());
+    }
+
     @Test
     public void callTest () {
         TestListener tl = new TestListener(GearmanPacketType.WORK_COMPLETE);
@@ -237,4 +300,78 @@ public class AbstractGearmanFunctionTest {
         Assert.assertTrue(fl.receivedEvent());
         Assert.assertFalse(jr.jobSucceeded());
     }
+
+    @Test
+    /*
+     * What is written to the data stream is sent in WORK_DATA packets of the
+     * chunk size, the rest once the function returns, ahead of WORK_COMPLETE.
+     */
+    public void dataStreamTest() throws IOException {
+        TestStreamingFunction tsf = new TestStreamingFunction();
+        RecordingListener rl = new RecordingListener();
+        tsf.registerEventListener(rl);
+        tsf.setJobHandle("H:stream".getBytes());
+        Assert.assertTrue(tsf.call().jobSucceeded());
+
+        String[] chunks = {"0123", "4567", "89a"};
+        Assert.assertEquals(chunks.length + 1, rl.packets.size());
+        for (int i = 0; i < chunks.length; i++) {
+            GearmanPacket p = rl.packets.get(i);
+            Assert.assertEquals(GearmanPacketType.WORK_DATA,
+                    p.getPacketType());
+            Assert.assertTrue(p.getDataBuffer().isDirect());
+            Assert.assertEquals("H:stream", new String(p.getDataComponentValue(
+                    GearmanPacket.DataComponentName.JOB_HANDLE)));
+            Assert.assertEquals(chunks[i], new String(p.getDataComponentValue(
+                    GearmanPacket.DataComponentName.DATA)));
+        }
+        Assert.assertEquals(GearmanPacketType.WORK_COMPLETE,
+                rl.packets.get(chunks.length).getPacketType());
+
+        tsf.setJobHandle("H:closed".getBytes());
+        WorkDataOutputStream out = tsf.openDataStream();
+        Assert.assertEquals(WorkDataOutputStream.DEFAULT_CHUNK_SIZE,
+                out.getChunkSize());
+        out.close();
+        Assert.assertFalse(out.isOpen());
+        try {
+            out.write(1);
+            Assert.fail("Wrote to a closed data stream");
+        } catch (IOException expected) {}
+        tsf.reset();
+        try {
+            tsf.openDataStream(0);
+            Assert.fail("Opened a data stream without chunks");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test
+    public void dataBufferTest() throws IOException {
+        tf.setData("abc".getBytes());
+        ByteBuffer buffer = tf.getDataBuffer();
+        Assert.assertTrue(buffer.isReadOnly());
+        Assert.assertEquals(3, buffer.remaining());
+
+        ByteBuffer packet = ByteBuffer.wrap("xxhello".getBytes());
+        packet.position(2);
+        tf.setData(packet.slice());
+        Assert.assertEquals(5, tf.getDataBuffer().remaining());
+        InputStream in = tf.getDataStream();
+        Assert.assertEquals(5, in.available());
+        Assert.assertEquals('h', in.read());
+        in.mark(10);
+        byte[] b = new byte[10];
+        Assert.assertEquals(4, in.read(b));
+        Assert.assertEquals("ello", new String(b, 0, 4));
+        Assert.assertEquals(-1, in.read(b));
+        in.reset();
+        Assert.assertEquals(2, in.skip(2));
+        Assert.assertEquals('l', in.read());
+        // reading the stream leaves the data alone
+        Assert.assertEquals(5, tf.getDataBuffer().remaining());
+
+        tf.setData(null);
+        Assert.assertEquals(0, tf.getDataBuffer().remaining());
+        Assert.assertEquals(-1, tf.getDataStream().read());
+    }
 }
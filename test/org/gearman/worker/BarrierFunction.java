@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+
+/*
+ * A function that only succeeds if PARTIES jobs are running at the same time,
+ * which is used to verify that a worker runs jobs concurrently.
+ */
+public class BarrierFunction extends AbstractGearmanFunction {
+
+    static final int PARTIES = 4;
+    static volatile CountDownLatch barrier = new CountDownLatch(PARTIES);
+
+    public GearmanJobResult executeFunction() {
+        CountDownLatch b = barrier;
+        b.countDown();
+        boolean allArrived = false;
+        try {
+            allArrived = b.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        return new GearmanJobResultImpl(jobHandle, allArrived, new byte[0],
+                new byte[0], new byte[0], 0, 0);
+    }
+}
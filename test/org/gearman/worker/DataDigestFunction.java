@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+import org.gearman.util.ByteUtils;
+
+/*
+ * Takes its data as a buffer and returns its length, its CRC32 and whether
+ * the buffer was on the heap or had been spilled, as "length:crc:kind".
+ */
+public class DataDigestFunction extends AbstractGearmanFunction
+        implements ByteBufferGearmanFunction {
+
+    @Override
+    public GearmanJobResult executeFunction() {
+        if (!(data instanceof ByteBuffer)) {
+            return null;
+        }
+        ByteBuffer buffer = getDataBuffer();
+        String kind = buffer.isDirect() ? "mapped" : "heap";
+        int length = buffer.remaining();
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[8192];
+        while (buffer.hasRemaining()) {
+            int n = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        return new GearmanJobResultImpl(jobHandle, true, ByteUtils.toUTF8Bytes(
+                length + ":" + crc.getValue() + ":" + kind), new byte[0],
+                new byte[0], 0, 0);
+    }
+}
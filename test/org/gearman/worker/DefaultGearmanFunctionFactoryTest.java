@@ -109,4 +109,56 @@ public class DefaultGearmanFunctionFactoryTest {
                 EmptyNameFunction.class.getCanonicalName()));
 
     }
+
+    @Test
+    public void unpooledFunctionTest() {
+        DefaultGearmanFunctionFactory factory =
+                new DefaultGearmanFunctionFactory(
+                AbstractGearmanFunctionTest.TestFunction.class.getName());
+        GearmanFunction gf = factory.getFunction();
+        factory.releaseFunction(gf);
+        Assert.assertNotSame(gf, factory.getFunction());
+    }
+
+    @Test
+    public void pooledFunctionTest() {
+        DefaultGearmanFunctionFactory factory =
+                new DefaultGearmanFunctionFactory(
+                AbstractGearmanFunctionTest.TestFunction.class.getName(), 1);
+        GearmanFunction first = factory.getFunction();
+        GearmanFunction second = factory.getFunction();
+        Assert.assertNotSame(first, second);
+        first.setData("data");
+        first.setJobHandle("H:localhost:1".getBytes());
+        factory.releaseFunction(first);
+        // the pool only keeps one idle instance
+        factory.releaseFunction(second);
+
+        AbstractGearmanFunction reused =
+                (AbstractGearmanFunction) factory.getFunction();
+        Assert.assertSame(first, reused);
+        Assert.assertNull(reused.data);
+        Assert.assertEquals(0, reused.getJobHandle().length);
+        Assert.assertTrue(reused.listeners.isEmpty());
+        Assert.assertNotSame(second, factory.getFunction());
+    }
+
+    @Test
+    public void unpoolableFunctionTest() {
+        DefaultGearmanFunctionFactory factory =
+                new DefaultGearmanFunctionFactory(
+                ExampleFunction.class.getName(), 4);
+        GearmanFunction gf = factory.getFunction();
+        factory.releaseFunction(gf);
+        Assert.assertNotSame(gf, factory.getFunction());
+    }
+
+    @Test
+    public void negativePoolSizeTest() {
+        try {
+            new DefaultGearmanFunctionFactory(
+                    ExampleFunction.class.getName(), -1);
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {}
+    }
 }
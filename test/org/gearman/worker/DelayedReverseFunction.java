@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+
+/*
+ * Reverses its data after a delay without holding a thread while it waits,
+ * the result is delivered by a shared timer thread.
+ */
+public class DelayedReverseFunction extends AbstractAsyncGearmanFunction {
+
+    static final long DELAY_MILLIS = 500;
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "delayedReverseTimer");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    @Override
+    public CompletionStage<GearmanJobResult> executeFunctionAsync() {
+        final CompletableFuture<GearmanJobResult> result =
+                new CompletableFuture<GearmanJobResult>();
+        final byte[] reversed = new StringBuffer(
+                new String((byte[]) data)).reverse().toString().getBytes();
+        TIMER.schedule(new Runnable() {
+
+            public void run() {
+                result.complete(new GearmanJobResultImpl(jobHandle, true,
+                        reversed, new byte[0], new byte[0], 0, 0));
+            }
+        }, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return result;
+    }
+}
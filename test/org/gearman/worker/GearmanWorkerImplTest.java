@@ -8,14 +8,36 @@ package org.gearman.worker;
 
 import org.gearman.common.Constants;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 import javax.imageio.IIOException;
+import org.gearman.common.GearmanJobServerSession;
 import org.gearman.common.GearmanPacket;
+import org.gearman.common.GearmanPacketImpl;
+import org.gearman.common.GearmanPacketMagic;
+import org.gearman.common.GearmanPacketType;
+import org.gearman.common.GearmanSessionEvent;
 import org.gearman.client.GearmanIOEventListener;
 import org.junit.Test;
 import junit.framework.Assert;
 import org.gearman.client.GearmanClient;
+import org.gearman.client.GearmanClientImpl;
+import org.gearman.client.GearmanJob;
+import org.gearman.client.GearmanJobImpl;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.tests.functions.ReverseFunction;
+import org.gearman.tests.util.WorkerRunnable;
 import org.gearman.common.GearmanJobServerConnection;
 import org.gearman.common.GearmanNIOJobServerConnection;
 import org.junit.After;
@@ -146,4 +168,486 @@ public class GearmanWorkerImplTest {
         } catch (IllegalArgumentException expected) {}
     }
 
+    @Test
+    public void echoTest() {
+        GearmanNIOJobServerConnection conn =
+                new GearmanNIOJobServerConnection("localhost");
+        Assert.assertTrue(worker.addServer(conn));
+        try {
+            Assert.assertEquals("worker echo", worker.echo("worker echo",
+                    conn));
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    public void echoUnknownServerTest() {
+        try {
+            worker.echo("nobody", new GearmanNIOJobServerConnection(
+                    "localhost"));
+            Assert.fail("Echoed to a server the worker is not connected to");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test
+    public void badConcurrencyTest() {
+        try {
+            new GearmanWorkerImpl(null, 4);
+            Assert.fail("Created a concurrent worker without an executor");
+        } catch (IllegalArgumentException expected) {}
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new GearmanWorkerImpl(executor, 0);
+            Assert.fail("Created a worker that can not run any job");
+        } catch (IllegalArgumentException expected) {
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, worker.getMaxConcurrentJobs());
+    }
+
+    @Test
+    /*
+     * Every job blocks until BarrierFunction.PARTIES jobs are running, so the
+     * jobs only succeed if the worker runs them at the same time.
+     */
+    public void concurrentJobsTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                BarrierFunction.PARTIES);
+        try {
+            runBarrierJobs(new GearmanWorkerImpl(executor,
+                    BarrierFunction.PARTIES));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void threadPerJobTest() throws Exception {
+        runBarrierJobs(new GearmanWorkerImpl(BarrierFunction.PARTIES));
+    }
+
+    @Test
+    /*
+     * Asynchronous jobs keep their slots until their result is delivered, so
+     * a worker with a single thread still has all of them in flight at once.
+     */
+    public void asyncJobsTest() throws Exception {
+        int count = 16;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        GearmanWorkerImpl aworker = new GearmanWorkerImpl(executor, count);
+        aworker.registerFunction(DelayedReverseFunction.class);
+        aworker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(aworker);
+        Thread t = new Thread(runner, "asyncWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        try {
+            List<GearmanJob> jobs = new ArrayList<GearmanJob>();
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                GearmanJob job = GearmanJobImpl.createJob(
+                        DelayedReverseFunction.class.getCanonicalName(),
+                        ("async" + i).getBytes(), null);
+                client.submitAsync(job);
+                jobs.add(job);
+            }
+            for (int i = 0; i < count; i++) {
+                GearmanJobResult res = jobs.get(i).getResultFuture().get(20,
+                        TimeUnit.SECONDS);
+                Assert.assertTrue(res.jobSucceeded());
+                Assert.assertEquals(new StringBuffer("async" + i).reverse()
+                        .toString(), new String(res.getResults()));
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            Assert.assertTrue("Async jobs ran one after the other (" +
+                    elapsed + "ms)",
+                    elapsed < count * DelayedReverseFunction.DELAY_MILLIS / 2);
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            aworker.stop();
+            t.join(10000);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    /*
+     * A function streaming a result much larger than the buffers on either
+     * side delivers all of it, in order, in chunks of the size it asked for.
+     */
+    public void streamingFunctionTest() throws Exception {
+        GearmanWorkerImpl sworker = new GearmanWorkerImpl();
+        sworker.registerFunction(StreamingFunction.class);
+        sworker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(sworker);
+        Thread t = new Thread(runner, "streamingWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        final int[] packets = {0};
+        try {
+            int length = 4 * 1024 * 1024 + 17;
+            GearmanJob job = GearmanJobImpl.createJob(
+                    StreamingFunction.class.getCanonicalName(),
+                    String.valueOf(length).getBytes(), null);
+            job.registerEventListener(new GearmanIOEventListener() {
+
+                public void handleGearmanIOEvent(GearmanPacket event) {
+                    if (event.getPacketType() == GearmanPacketType.WORK_DATA) {
+                        Assert.assertTrue(event.getDataComponentValue(
+                                GearmanPacket.DataComponentName.DATA).length <=
+                                StreamingFunction.CHUNK_SIZE);
+                        packets[0]++;
+                    }
+                }
+            });
+            InputStream in = job.openResultStream(64 * 1024);
+            client.submitAsync(job);
+            byte[] buf = new byte[4096];
+            int read = 0;
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                for (int i = 0; i < n; i++) {
+                    Assert.assertEquals((byte) ((read + i) % 251), buf[i]);
+                }
+                read += n;
+            }
+            Assert.assertEquals(length, read);
+            Assert.assertTrue(job.getResultFuture().get(10,
+                    TimeUnit.SECONDS).jobSucceeded());
+            Assert.assertEquals((length + StreamingFunction.CHUNK_SIZE - 1) /
+                    StreamingFunction.CHUNK_SIZE, packets[0]);
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            sworker.stop();
+            t.join(10000);
+        }
+    }
+
+    @Test
+    /*
+     * A function that takes its data as a buffer gets a view of the packet,
+     * kept in a memory-mapped file if it is above the spill threshold of the
+     * worker's connection.
+     */
+    public void bufferDataFunctionTest() throws Exception {
+        GearmanWorkerImpl bworker = new GearmanWorkerImpl();
+        bworker.registerFunction(DataDigestFunction.class);
+        GearmanNIOJobServerConnection conn =
+                new GearmanNIOJobServerConnection("localhost");
+        conn.setSpillThreshold(1024 * 1024);
+        bworker.addServer(conn);
+        WorkerRunnable runner = new WorkerRunnable(bworker);
+        Thread t = new Thread(runner, "bufferWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        try {
+            for (int size : new int[] {100, 3 * 1024 * 1024}) {
+                byte[] data = new byte[size];
+                new Random(size).nextBytes(data);
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                GearmanJob job = GearmanJobImpl.createJob(
+                        DataDigestFunction.class.getCanonicalName(), data,
+                        null);
+                client.submitAsync(job);
+                GearmanJobResult res = job.getResultFuture().get(20,
+                        TimeUnit.SECONDS);
+                Assert.assertTrue(res.jobSucceeded());
+                Assert.assertEquals(size + ":" + crc.getValue() + ":" +
+                        (size > conn.getSpillThreshold() ? "mapped" : "heap"),
+                        new String(res.getResults()));
+            }
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            bworker.stop();
+            t.join(10000);
+        }
+    }
+
+    @Test
+    /*
+     * A job that runs past the timeout of its function is failed and its
+     * thread interrupted, after which the single slot of the worker is free
+     * for the next job.
+     */
+    public void jobTimeoutTest() throws Exception {
+        SleepingFunction.interrupted = false;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        GearmanWorkerImpl tworker = new GearmanWorkerImpl(executor, 1);
+        tworker.registerFunction(SleepingFunction.class, 300);
+        tworker.registerFunction(ReverseFunction.class);
+        tworker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(tworker);
+        Thread t = new Thread(runner, "timeoutWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        try {
+            long start = System.currentTimeMillis();
+            GearmanJob sleeper = GearmanJobImpl.createJob(
+                    SleepingFunction.class.getCanonicalName(), new byte[0],
+                    null);
+            client.submitAsync(sleeper);
+            Assert.assertFalse(sleeper.getResultFuture().get(10,
+                    TimeUnit.SECONDS).jobSucceeded());
+            Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+
+            GearmanJob reverse = GearmanJobImpl.createJob(
+                    ReverseFunction.class.getCanonicalName(),
+                    "timeout".getBytes(), null);
+            client.submitAsync(reverse);
+            GearmanJobResult res = reverse.getResultFuture().get(10,
+                    TimeUnit.SECONDS);
+            Assert.assertTrue(res.jobSucceeded());
+            Assert.assertEquals("tuoemit", new String(res.getResults()));
+            Assert.assertTrue(SleepingFunction.interrupted);
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            tworker.stop();
+            t.join(10000);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    /*
+     * An asynchronous job that runs past the timeout of its function is
+     * failed and the stage returned by the function is cancelled.
+     */
+    public void asyncJobTimeoutTest() throws Exception {
+        StalledAsyncFunction.stalled = null;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        GearmanWorkerImpl tworker = new GearmanWorkerImpl(executor, 1);
+        tworker.registerFunction(StalledAsyncFunction.class, 300);
+        tworker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(tworker);
+        Thread t = new Thread(runner, "asyncTimeoutWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        try {
+            GearmanJob stalled = GearmanJobImpl.createJob(
+                    StalledAsyncFunction.class.getCanonicalName(),
+                    new byte[0], null);
+            client.submitAsync(stalled);
+            Assert.assertFalse(stalled.getResultFuture().get(10,
+                    TimeUnit.SECONDS).jobSucceeded());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!(StalledAsyncFunction.stalled != null &&
+                    StalledAsyncFunction.stalled.isCancelled()) &&
+                    System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(StalledAsyncFunction.stalled.isCancelled());
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            tworker.stop();
+            t.join(10000);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    /*
+     * A worker with three free slots keeps three grabs outstanding, only
+     * sends PRE_SLEEP once all of them came back NO_JOB and grabs again once
+     * it has been woken up.
+     */
+    public void multiGrabTest() throws Exception {
+        ServerSocket fake = new ServerSocket(0);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        GearmanWorkerImpl gworker = new GearmanWorkerImpl(executor, 3);
+        gworker.registerFunction(ExampleFunction.class);
+        gworker.addServer(new GearmanNIOJobServerConnection("localhost",
+                fake.getLocalPort()));
+        WorkerRunnable runner = new WorkerRunnable(gworker);
+        Thread t = new Thread(runner, "multiGrabWorker");
+        t.setDaemon(true);
+        Socket peer = fake.accept();
+        try {
+            peer.setSoTimeout(10000);
+            InputStream in = peer.getInputStream();
+            OutputStream out = peer.getOutputStream();
+            Assert.assertEquals(GearmanPacketType.SET_CLIENT_ID,
+                    new GearmanPacketImpl(in).getPacketType());
+            Assert.assertEquals(GearmanPacketType.CAN_DO,
+                    new GearmanPacketImpl(in).getPacketType());
+            t.start();
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(GearmanPacketType.GRAB_JOB,
+                        new GearmanPacketImpl(in).getPacketType());
+            }
+            for (int i = 0; i < 3; i++) {
+                out.write(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                        GearmanPacketType.NO_JOB, new byte[0]).toBytes());
+                out.flush();
+            }
+            Assert.assertEquals(GearmanPacketType.PRE_SLEEP,
+                    new GearmanPacketImpl(in).getPacketType());
+            out.write(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                    GearmanPacketType.NOOP, new byte[0]).toBytes());
+            out.flush();
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(GearmanPacketType.GRAB_JOB,
+                        new GearmanPacketImpl(in).getPacketType());
+            }
+        } finally {
+            runner.stop();
+            gworker.stop();
+            t.join(10000);
+            executor.shutdown();
+            peer.close();
+            fake.close();
+        }
+    }
+
+    @Test
+    /*
+     * A job rejected by the executor is failed and gives back its slot, so a
+     * worker that runs one job at a time grabs and handles the next job.
+     */
+    public void rejectedJobTest() throws Exception {
+        ServerSocket fake = new ServerSocket(0);
+        // a shut down executor rejects every job
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        GearmanWorkerImpl rworker = new GearmanWorkerImpl(executor, 1);
+        rworker.registerFunction(ReverseFunction.class);
+        rworker.addServer(new GearmanNIOJobServerConnection("localhost",
+                fake.getLocalPort()));
+        WorkerRunnable runner = new WorkerRunnable(rworker);
+        Thread t = new Thread(runner, "rejectingWorker");
+        t.setDaemon(true);
+        Socket peer = fake.accept();
+        try {
+            peer.setSoTimeout(10000);
+            InputStream in = peer.getInputStream();
+            OutputStream out = peer.getOutputStream();
+            Assert.assertEquals(GearmanPacketType.SET_CLIENT_ID,
+                    new GearmanPacketImpl(in).getPacketType());
+            Assert.assertEquals(GearmanPacketType.CAN_DO,
+                    new GearmanPacketImpl(in).getPacketType());
+            t.start();
+            Assert.assertEquals(GearmanPacketType.GRAB_JOB,
+                    new GearmanPacketImpl(in).getPacketType());
+            for (int i = 0; i < 2; i++) {
+                String handle = "H:fake:" + i;
+                out.write(new GearmanPacketImpl(GearmanPacketMagic.RES,
+                        GearmanPacketType.JOB_ASSIGN,
+                        GearmanPacketImpl.generatePacketData(
+                        handle.getBytes(), ReverseFunction.class
+                        .getCanonicalName().getBytes(), new byte[0]))
+                        .toBytes());
+                out.flush();
+                GearmanPacket fail = new GearmanPacketImpl(in);
+                Assert.assertEquals(GearmanPacketType.WORK_FAIL,
+                        fail.getPacketType());
+                Assert.assertEquals(handle, new String(fail.getData()));
+                Assert.assertEquals(GearmanPacketType.GRAB_JOB,
+                        new GearmanPacketImpl(in).getPacketType());
+            }
+        } finally {
+            runner.stop();
+            rworker.stop();
+            t.join(10000);
+            peer.close();
+            fake.close();
+        }
+    }
+
+    @Test
+    /*
+     * A job assigned while the worker is not running, in answer to a grab
+     * sent before it was stopped, is abandoned rather than queued, so it
+     * neither runs once the worker works again nor keeps the single slot of
+     * the worker taken.
+     */
+    public void assignedWhileStoppedTest() throws Exception {
+        StalledAsyncFunction.stalled = null;
+        ServerSocket fake = new ServerSocket(0);
+        GearmanWorkerImpl sworker = new GearmanWorkerImpl();
+        sworker.registerFunction(StalledAsyncFunction.class);
+        sworker.addServer(new GearmanNIOJobServerConnection("localhost",
+                fake.getLocalPort()));
+        WorkerRunnable runner = new WorkerRunnable(sworker);
+        Thread t = new Thread(runner, "stoppedWorker");
+        t.setDaemon(true);
+        Socket peer = fake.accept();
+        try {
+            peer.setSoTimeout(10000);
+            InputStream in = peer.getInputStream();
+            Assert.assertEquals(GearmanPacketType.SET_CLIENT_ID,
+                    new GearmanPacketImpl(in).getPacketType());
+            Assert.assertEquals(GearmanPacketType.CAN_DO,
+                    new GearmanPacketImpl(in).getPacketType());
+            GearmanJobServerSession late = new GearmanJobServerSession(
+                    new GearmanNIOJobServerConnection("localhost",
+                    fake.getLocalPort()));
+            sworker.handleSessionEvent(new GearmanSessionEvent(
+                    new GearmanPacketImpl(GearmanPacketMagic.RES,
+                    GearmanPacketType.JOB_ASSIGN,
+                    GearmanPacketImpl.generatePacketData(
+                    "H:fake:1".getBytes(), StalledAsyncFunction.class
+                    .getCanonicalName().getBytes(), new byte[0])), late));
+            t.start();
+            Assert.assertEquals(GearmanPacketType.GRAB_JOB,
+                    new GearmanPacketImpl(in).getPacketType());
+            Assert.assertNull(StalledAsyncFunction.stalled);
+        } finally {
+            runner.stop();
+            sworker.stop();
+            t.join(10000);
+            peer.close();
+            fake.close();
+        }
+    }
+
+    private static void runBarrierJobs(GearmanWorkerImpl cworker)
+            throws Exception {
+        int parties = BarrierFunction.PARTIES;
+        BarrierFunction.barrier = new CountDownLatch(parties);
+        Assert.assertEquals(parties, cworker.getMaxConcurrentJobs());
+        cworker.registerFunction(BarrierFunction.class);
+        cworker.addServer(new GearmanNIOJobServerConnection("localhost"));
+        WorkerRunnable runner = new WorkerRunnable(cworker);
+        Thread t = new Thread(runner, "concurrentWorker");
+        t.setDaemon(true);
+        t.start();
+        GearmanClientImpl client = new GearmanClientImpl();
+        client.addJobServer(new GearmanNIOJobServerConnection("localhost"));
+        try {
+            List<GearmanJob> jobs = new ArrayList<GearmanJob>();
+            for (int i = 0; i < parties; i++) {
+                GearmanJob job = GearmanJobImpl.createJob(
+                        BarrierFunction.class.getCanonicalName(),
+                        new byte[0], null);
+                client.submitAsync(job);
+                jobs.add(job);
+            }
+            for (GearmanJob job : jobs) {
+                Assert.assertTrue(job.getResultFuture().get(20,
+                        TimeUnit.SECONDS).jobSucceeded());
+            }
+        } finally {
+            client.shutdownNow();
+            runner.stop();
+            cworker.stop();
+            t.join(10000);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class JobExecutorsTest {
+
+    @Test
+    public void badMaxConcurrentJobsTest() {
+        try {
+            JobExecutors.newThreadPerJobExecutor(0);
+            Assert.fail("Created an executor that can not run any job");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void virtualThreadSupportTest() {
+        boolean hasThreadBuilder = true;
+        try {
+            Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException nsme) {
+            hasThreadBuilder = false;
+        }
+        Assert.assertEquals(hasThreadBuilder,
+                JobExecutors.virtualThreadsSupported());
+    }
+
+    @Test
+    /*
+     * Every task blocks until all of them are running, which only happens if
+     * each of them has a thread of its own.
+     */
+    public void threadPerJobTest() throws Exception {
+        int jobs = 16;
+        runBlockingTasks(JobExecutors.newThreadPerJobExecutor(jobs), jobs);
+    }
+
+    @Test
+    public void boundedCachedPoolTest() throws Exception {
+        int jobs = 8;
+        ExecutorService pool = JobExecutors.newBoundedCachedPool(jobs);
+        runBlockingTasks(pool, jobs);
+        Assert.assertTrue(((ThreadPoolExecutor) pool).getLargestPoolSize()
+                <= jobs);
+    }
+
+    private static void runBlockingTasks(ExecutorService executor, int tasks)
+            throws InterruptedException {
+        final CountDownLatch running = new CountDownLatch(tasks);
+        final CountDownLatch done = new CountDownLatch(tasks);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(new Runnable() {
+
+                    public void run() {
+                        running.countDown();
+                        try {
+                            if (running.await(10, TimeUnit.SECONDS)) {
+                                done.countDown();
+                            }
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }
+            Assert.assertTrue(done.await(20, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
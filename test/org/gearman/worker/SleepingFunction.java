@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+
+/*
+ * Sleeps for a long time, unless it is interrupted.
+ */
+public class SleepingFunction extends AbstractGearmanFunction {
+
+    static volatile boolean interrupted = false;
+
+    public GearmanJobResult executeFunction() {
+        try {
+            Thread.sleep(30000);
+        } catch (InterruptedException ie) {
+            interrupted = true;
+        }
+        return new GearmanJobResultImpl(jobHandle, true, new byte[0],
+                new byte[0], new byte[0], 0, 0);
+    }
+}
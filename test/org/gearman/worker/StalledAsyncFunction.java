@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.gearman.client.GearmanJobResult;
+
+/*
+ * Never completes the stage it returns, unless the stage is cancelled.
+ */
+public class StalledAsyncFunction extends AbstractAsyncGearmanFunction {
+
+    static volatile CompletableFuture<GearmanJobResult> stalled = null;
+
+    @Override
+    public CompletionStage<GearmanJobResult> executeFunctionAsync() {
+        stalled = new CompletableFuture<GearmanJobResult>();
+        return stalled;
+    }
+}
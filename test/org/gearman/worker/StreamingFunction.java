@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2010 by Eric Lambert <eric.d.lambert@gmail.com>
+ * Use and distribution licensed under the BSD license.  See
+ * the COPYING file in the parent directory for full text.
+ */
+package org.gearman.worker;
+
+import java.io.IOException;
+import org.gearman.client.GearmanJobResult;
+import org.gearman.client.GearmanJobResultImpl;
+import org.gearman.util.ByteUtils;
+
+/*
+ * Streams as many bytes as its data asks for, byte i being i % 251, through a
+ * data stream with chunks of CHUNK_SIZE bytes.
+ */
+public class StreamingFunction extends AbstractGearmanFunction {
+
+    static final int CHUNK_SIZE = 8192;
+
+    @Override
+    public GearmanJobResult executeFunction() {
+        int length = Integer.parseInt(ByteUtils.fromAsciiBytes((byte[]) data));
+        byte[] buf = new byte[1000];
+        try {
+            WorkDataOutputStream out = openDataStream(CHUNK_SIZE);
+            int written = 0;
+            while (written < length) {
+                int n = Math.min(buf.length, length - written);
+                for (int i = 0; i < n; i++) {
+                    buf[i] = (byte) ((written + i) % 251);
+                }
+                out.write(buf, 0, n);
+                written += n;
+            }
+        } catch (IOException ioe) {
+            return null;
+        }
+        return new GearmanJobResultImpl(jobHandle, true, new byte[0],
+                new byte[0], new byte[0], 0, 0);
+    }
+}